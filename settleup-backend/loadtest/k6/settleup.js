@@ -0,0 +1,249 @@
+// k6 scenario covering every SettleUp endpoint against data loaded by the "datagen" profile.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERS=10000 -e GROUPS=2000 loadtest/k6/settleup.js
+//
+// The admin scenario needs -e ADMIN_TOKEN=<settleup.admin.token of the server under test>.
+// Generated users are user<n>@load.test / password1 with ids 1..USERS, groups have ids 1..GROUPS.
+// Requests are tagged by endpoint name, so the summary reports throughput and p50/p90/p95/p99 per endpoint;
+// the full summary is also written to loadtest/results/summary.json.
+import http from 'k6/http';
+import { check, group, sleep } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERS = parseInt(__ENV.USERS || '10000', 10);
+const GROUPS = parseInt(__ENV.GROUPS || '2000', 10);
+const PASSWORD = __ENV.PASSWORD || 'password1';
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+const ADMIN_HEADERS = { ...JSON_HEADERS, 'X-Admin-Token': __ENV.ADMIN_TOKEN || '' };
+
+const READ_ENDPOINTS = [
+    'users.search', 'users.net-debts', 'groups.get', 'groups.by-user', 'groups.deletion',
+    'expenses.balances', 'expenses.balances.async', 'expenses.history', 'expenses.history.async',
+    'expenses.history.compact', 'settlements.suggestions', 'recurring.list', 'fx.get',
+];
+const WRITE_ENDPOINTS = [
+    'users.register', 'users.login', 'users.update', 'users.forgot-password', 'groups.create',
+    'groups.add-member', 'groups.remove-member', 'groups.delete', 'expenses.add.equal', 'expenses.add.exact',
+    'settlements.add', 'recurring.create', 'recurring.stop',
+];
+
+const thresholds = {
+    http_req_failed: ['rate<0.01'],
+    checks: ['rate>0.99'],
+};
+for (const name of READ_ENDPOINTS) thresholds[`http_req_duration{name:${name}}`] = ['p(95)<500'];
+for (const name of WRITE_ENDPOINTS) thresholds[`http_req_duration{name:${name}}`] = ['p(95)<1000'];
+
+export const options = {
+    summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max', 'count'],
+    thresholds,
+    scenarios: {
+        // most traffic: people opening a group and looking at balances and history
+        readers: {
+            executor: 'ramping-arrival-rate',
+            exec: 'reader',
+            startRate: 10,
+            timeUnit: '1s',
+            preAllocatedVUs: 50,
+            maxVUs: 200,
+            stages: [
+                { target: parseInt(__ENV.READ_RATE || '100', 10), duration: '1m' },
+                { target: parseInt(__ENV.READ_RATE || '100', 10), duration: __ENV.DURATION || '5m' },
+                { target: 0, duration: '30s' },
+            ],
+        },
+        // adding expenses and settling up in existing groups
+        writers: {
+            executor: 'constant-arrival-rate',
+            exec: 'writer',
+            rate: parseInt(__ENV.WRITE_RATE || '20', 10),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '5m',
+            startTime: '1m',
+            preAllocatedVUs: 20,
+            maxVUs: 100,
+        },
+        // whole lifecycle: register, create a group, spend, settle, delete
+        lifecycle: {
+            executor: 'constant-vus',
+            exec: 'lifecycle',
+            vus: parseInt(__ENV.LIFECYCLE_VUS || '5', 10),
+            duration: __ENV.DURATION || '5m',
+            startTime: '1m',
+        },
+        // rare, heavy operations
+        admin: {
+            executor: 'constant-arrival-rate',
+            exec: 'admin',
+            rate: 1,
+            timeUnit: '1m',
+            duration: __ENV.DURATION || '5m',
+            startTime: '1m',
+            preAllocatedVUs: 1,
+            maxVUs: 2,
+        },
+    },
+};
+
+function randomInt(min, max) {
+    return min + Math.floor(Math.random() * (max - min + 1));
+}
+
+function get(name, path) {
+    const res = http.get(`${BASE_URL}${path}`, { tags: { name }, headers: { 'Accept-Encoding': 'gzip' } });
+    check(res, { [`${name} 200`]: (r) => r.status === 200 });
+    return res;
+}
+
+function send(method, name, path, body, expected = 200, headers = JSON_HEADERS) {
+    const res = http.request(method, `${BASE_URL}${path}`, body === undefined ? null : JSON.stringify(body),
+        { tags: { name }, headers });
+    check(res, { [`${name} ${expected}`]: (r) => r.status === expected });
+    return res;
+}
+
+function members(groupId) {
+    const res = get('groups.get', `/api/groups/${groupId}`);
+    return res.status === 200 ? res.json('data.members').map((m) => m.id) : [];
+}
+
+function pick(values, count) {
+    const pool = values.slice();
+    for (let i = 0; i < count; i++) {
+        const j = i + Math.floor(Math.random() * (pool.length - i));
+        [pool[i], pool[j]] = [pool[j], pool[i]];
+    }
+    return pool.slice(0, count);
+}
+
+function uniqueSuffix() {
+    // 9 digits, unique per VU and iteration within a run
+    return String((exec.vu.idInTest * 1000000 + exec.vu.iterationInScenario) % 1000000000).padStart(9, '0');
+}
+
+export function reader() {
+    const userId = randomInt(1, USERS);
+    const groupId = randomInt(1, GROUPS);
+    group('reader', () => {
+        get('groups.by-user', `/api/groups/user/${userId}`);
+        get('groups.get', `/api/groups/${groupId}`);
+        get('expenses.balances', `/api/expenses/group/${groupId}/balances`);
+        get('expenses.history', `/api/expenses/group/${groupId}/history`);
+        get('expenses.history.compact', `/api/expenses/group/${groupId}/history/compact`);
+        get('expenses.balances.async', `/api/expenses/group/${groupId}/balances/async`);
+        get('expenses.history.async', `/api/expenses/group/${groupId}/history/async`);
+        get('recurring.list', `/api/recurring-expenses/group/${groupId}`);
+        get('groups.deletion', `/api/groups/${groupId}/deletion`);
+        get('users.net-debts', `/api/users/${userId}/net-debts`);
+        get('settlements.suggestions', `/api/settlements/suggestions?userId=${userId}`);
+        get('users.search', `/api/users?query=User%20${randomInt(1, 99)}`);
+        get('fx.get', '/api/fx-rates');
+    });
+}
+
+export function writer() {
+    const groupId = randomInt(1, GROUPS);
+    const ids = members(groupId);
+    if (ids.length < 2) return;
+    const involved = pick(ids, Math.min(ids.length, randomInt(2, 8)));
+    const amount = randomInt(100, 50000) / 100;
+    group('writer', () => {
+        if (Math.random() < 0.7) {
+            send('POST', 'expenses.add.equal', '/api/expenses', {
+                groupId, paidByUserId: involved[0], description: 'Load test dinner', amount,
+                splitType: 'EQUAL', involvedUserIds: involved,
+            });
+        } else {
+            const exactSplits = {};
+            let left = Math.round(amount * 100);
+            involved.forEach((id, i) => {
+                const cents = i === involved.length - 1 ? left : Math.floor(left / (involved.length - i));
+                exactSplits[id] = cents / 100;
+                left -= cents;
+            });
+            send('POST', 'expenses.add.exact', '/api/expenses', {
+                groupId, paidByUserId: involved[0], description: 'Load test bill', amount,
+                splitType: 'EXACT', exactSplits,
+            });
+        }
+        if (Math.random() < 0.2) {
+            send('POST', 'settlements.add', '/api/settlements', {
+                groupId, payerId: involved[1], payeeId: involved[0], amount: randomInt(100, 5000) / 100,
+            });
+        }
+    });
+}
+
+export function lifecycle() {
+    const suffix = uniqueSuffix();
+    const email = `k6-${suffix}@load.test`;
+    const mobile = `8${suffix}`;
+    group('lifecycle', () => {
+        const registered = send('POST', 'users.register', '/api/users/register',
+            { name: `K6 ${suffix}`, email, mobileNumber: mobile, password: PASSWORD });
+        if (registered.status !== 200) return;
+        const userId = registered.json('data.id');
+        send('POST', 'users.login', '/api/users/login', { identifier: email, password: PASSWORD });
+        send('PUT', 'users.update', `/api/users/${userId}`, { name: `K6 user ${suffix}`, email, mobileNumber: mobile });
+        send('POST', 'users.forgot-password', '/api/users/forgot-password',
+            { email, mobileNumber: mobile, newPassword: PASSWORD, confirmPassword: PASSWORD });
+
+        const friends = pick(Array.from({ length: 20 }, () => randomInt(1, USERS)), 3);
+        const created = send('POST', 'groups.create', '/api/groups',
+            { name: `K6 trip ${suffix}`, memberIds: [userId, friends[0], friends[1]], createdByUserId: userId });
+        if (created.status !== 200) return;
+        const groupId = created.json('data.id');
+        send('POST', 'groups.add-member', `/api/groups/${groupId}/members/${friends[2]}`);
+
+        send('POST', 'expenses.add.equal', '/api/expenses', {
+            groupId, paidByUserId: userId, description: 'Hotel', amount: 300,
+            splitType: 'EQUAL', involvedUserIds: [userId, friends[0], friends[1]],
+        });
+        const recurring = send('POST', 'recurring.create', '/api/recurring-expenses', {
+            groupId, paidByUserId: userId, description: 'Rent', amount: 900, splitType: 'EQUAL',
+            splitValues: { [userId]: 1, [friends[0]]: 1, [friends[1]]: 1 },
+            frequency: 'MONTHLY', startDate: new Date(Date.now() + 86400000).toISOString().slice(0, 10),
+        });
+        if (recurring.status === 200) {
+            send('DELETE', 'recurring.stop', `/api/recurring-expenses/${recurring.json('data.id')}?groupId=${groupId}`);
+        }
+        send('DELETE', 'groups.remove-member', `/api/groups/${groupId}/members/${friends[2]}?requesterId=${userId}`);
+        send('POST', 'settlements.add', '/api/settlements', { groupId, payerId: friends[0], payeeId: userId, amount: 100 });
+        send('POST', 'settlements.add', '/api/settlements', { groupId, payerId: friends[1], payeeId: userId, amount: 100 });
+        send('DELETE', 'groups.delete', `/api/groups/${groupId}?requesterId=${userId}`);
+    });
+    sleep(1);
+}
+
+export function admin() {
+    group('admin', () => {
+        send('POST', 'fx.reload', '/api/fx-rates/reload', undefined, 200, ADMIN_HEADERS);
+        const csv = http.get(`${BASE_URL}/api/fx-rates`).json('data.rates');
+        const body = ['currency,rate', ...Object.entries(csv || { USD: 1 }).map(([c, r]) => `${c},${r}`)].join('\n');
+        const imported = http.post(`${BASE_URL}/api/fx-rates/import`, body,
+            { tags: { name: 'fx.import' }, headers: { ...ADMIN_HEADERS, 'Content-Type': 'text/csv' } });
+        check(imported, { 'fx.import 200': (r) => r.status === 200 });
+        // the run goes on in the background; 409 means the previous minute's run hasn't finished yet
+        const run = http.post(`${BASE_URL}/api/settlements/suggestions/run`, null,
+            { tags: { name: 'settlements.run' }, headers: ADMIN_HEADERS });
+        check(run, { 'settlements.run 202': (r) => r.status === 202 || r.status === 409 });
+    });
+}
+
+export function handleSummary(data) {
+    const lines = ['endpoint                       reqs      rps     p50     p90     p95     p99   (ms)'];
+    const seconds = data.state.testRunDurationMs / 1000;
+    for (const [key, metric] of Object.entries(data.metrics)) {
+        const match = key.match(/^http_req_duration\{name:(.+)\}$/);
+        if (!match || !metric.values.count) continue;
+        const v = metric.values;
+        lines.push(`${match[1].padEnd(28)} ${String(v.count).padStart(7)} ${(v.count / seconds).toFixed(1).padStart(8)}`
+            + ` ${v.med.toFixed(0).padStart(7)} ${v['p(90)'].toFixed(0).padStart(7)}`
+            + ` ${v['p(95)'].toFixed(0).padStart(7)} ${v['p(99)'].toFixed(0).padStart(7)}`);
+    }
+    return {
+        stdout: lines.join('\n') + '\n',
+        'loadtest/results/summary.json': JSON.stringify(data, null, 2),
+    };
+}
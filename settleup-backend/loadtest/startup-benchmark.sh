@@ -0,0 +1,99 @@
+#!/usr/bin/env bash
+# Startup benchmark: boots the application RUNS times in each mode and reports the median time from process start to
+# a ready context ("process running for" in the Started log line) and the median resident memory at that point,
+# appending both to loadtest/results/startup.csv so regressions show up across commits.
+#
+#   mvn clean -Pfaststart package -DskipTests && loadtest/startup-benchmark.sh
+#
+# Modes: "default" is the plain jar as configured in application.properties (schema recreated, eager beans);
+# "faststart" is the extracted jar with the CDS archive, AOT bean definitions and the faststart profile (schema
+# validated, lazy beans); "native" is target/settleup from mvn -Pnative native:compile, measured only when present
+# (build it in a separate checkout or copy it aside, since both builds share target/). All use the same file-based
+# H2 database unless DB_URL/DB_DRIVER/DB_USER/DB_PASSWORD/DB_DIALECT point elsewhere; the default mode creates the
+# schema the faststart mode then validates. Set MAX_SECONDS to fail when the faststart median exceeds it.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+JAR=target/settleup-0.0.1-SNAPSHOT.jar
+FASTSTART_DIR=target/faststart
+NATIVE=${NATIVE:-target/settleup}
+WORK_DIR=$PWD/target/startup-benchmark
+DB_URL=${DB_URL:-jdbc:h2:file:$WORK_DIR/db}
+DB_DRIVER=${DB_DRIVER:-org.h2.Driver}
+DB_USER=${DB_USER:-sa}
+DB_PASSWORD=${DB_PASSWORD:-}
+DB_DIALECT=${DB_DIALECT:-org.hibernate.dialect.H2Dialect}
+RESULTS=loadtest/results/startup.csv
+
+[ -f "$JAR" ] && [ -f "$FASTSTART_DIR/application.jsa" ] || {
+    echo "Build first: mvn clean -Pfaststart package -DskipTests" >&2
+    exit 1
+}
+mkdir -p "$WORK_DIR" "$(dirname "$RESULTS")"
+
+db_args=(--server.port=0 "--spring.datasource.url=$DB_URL" "--spring.datasource.driver-class-name=$DB_DRIVER"
+    "--spring.datasource.username=$DB_USER"
+    "--spring.datasource.password=$DB_PASSWORD" "--spring.jpa.database-platform=$DB_DIALECT")
+
+# Boots once and prints "<seconds to ready> <resident MB at ready>"
+boot() {
+    local log=$WORK_DIR/boot.log
+    "$@" > "$log" 2>&1 &
+    local pid=$!
+    local seconds="" rss=""
+    for _ in $(seq 1 600); do
+        seconds=$(grep -o 'process running for [0-9.]*' "$log" | grep -o '[0-9.]*$' || true)
+        [ -n "$seconds" ] && break
+        kill -0 "$pid" 2>/dev/null || break
+        sleep 0.1
+    done
+    [ -n "$seconds" ] && rss=$(awk '/^VmRSS:/ { printf "%.0f", $2 / 1024 }' "/proc/$pid/status" 2>/dev/null || true)
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    [ -n "$seconds" ] || { echo "Startup failed, see $log" >&2; tail -20 "$log" >&2; exit 1; }
+    echo "$seconds ${rss:-0}"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# Prints "<median seconds> <median MB>" over RUNS boots
+run_mode() {
+    local mode=$1; shift
+    local samples=()
+    for i in $(seq 1 "$RUNS"); do
+        samples+=("$(boot "$@")")
+        read -r seconds rss <<< "${samples[-1]}"
+        echo "  $mode run $i: ${seconds} s, ${rss} MB" >&2
+    done
+    echo "$(printf '%s\n' "${samples[@]}" | cut -d' ' -f1 | median) $(printf '%s\n' "${samples[@]}" | cut -d' ' -f2 | median)"
+}
+
+commit=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+now=$(date -u +%Y-%m-%dT%H:%M:%SZ)
+[ -f "$RESULTS" ] || echo "timestamp,commit,mode,runs,median_seconds,median_rss_mb" > "$RESULTS"
+
+record() {
+    local mode=$1 seconds=$2 rss=$3
+    echo "$now,$commit,$mode,$RUNS,$seconds,$rss" >> "$RESULTS"
+    printf '%-10s %8s s %8s MB\n' "$mode" "$seconds" "$rss"
+}
+
+read -r default_s default_mb <<< "$(run_mode default java -jar "$JAR" "${db_args[@]}" --spring.jpa.hibernate.ddl-auto=create)"
+read -r faststart_s faststart_mb <<< "$(cd "$FASTSTART_DIR" && run_mode faststart java -XX:SharedArchiveFile=application.jsa \
+    -Dspring.aot.enabled=true -jar "$(basename "$JAR")" --spring.profiles.active=faststart "${db_args[@]}")"
+if [ -x "$NATIVE" ]; then
+    read -r native_s native_mb <<< "$(run_mode native "$NATIVE" "${db_args[@]}" --spring.jpa.hibernate.ddl-auto=create)"
+fi
+
+echo "Median over $RUNS runs:"
+record default "$default_s" "$default_mb"
+record faststart "$faststart_s" "$faststart_mb"
+[ -z "${native_s:-}" ] || record native "$native_s" "$native_mb"
+
+if [ -n "${MAX_SECONDS:-}" ] && awk -v t="$faststart_s" -v max="$MAX_SECONDS" 'BEGIN { exit !(t > max) }'; then
+    echo "Fast start regressed: ${faststart_s} s > ${MAX_SECONDS} s" >&2
+    exit 1
+fi
@@ -0,0 +1,53 @@
+package com.settleup.settleup.analytics.controller;
+
+import com.settleup.settleup.analytics.dto.GroupAnalyticsDto;
+import com.settleup.settleup.analytics.dto.SpendRollupBackfillDto;
+import com.settleup.settleup.analytics.service.GroupAnalyticsService;
+import com.settleup.settleup.analytics.service.SpendRollupBackfill;
+import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.metrics.QueryBudget;
+import com.settleup.settleup.common.security.AdminOnly;
+import com.settleup.settleup.exception.ConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnalyticsController {
+
+    private final GroupAnalyticsService analyticsService;
+    private final SpendRollupBackfill rollupBackfill;
+
+    @GetMapping("/groups/{groupId}")
+    @QueryBudget(3)
+    public ResponseEntity<ApiResponse<GroupAnalyticsDto>> getGroupAnalytics(@PathVariable Long groupId,
+                                                                            @RequestParam(required = false) Integer months,
+                                                                            @RequestParam(required = false) Integer topPayers) {
+        log.debug("Group analytics: groupId={}, months={}, topPayers={}", groupId, months, topPayers);
+        GroupAnalyticsDto response = analyticsService.getGroupAnalytics(groupId, months, topPayers);
+        return ResponseEntity.ok(ApiResponse.success(response, "Group analytics fetched"));
+    }
+
+    // Rolls up the existing expense history in the background; follow it with GET /backfill/{runId} on the same node
+    @PostMapping("/backfill")
+    @AdminOnly
+    @QueryBudget(3)
+    public ResponseEntity<ApiResponse<SpendRollupBackfillDto>> backfill() {
+        log.info("Request to BACKFILL the spend rollups");
+        SpendRollupBackfillDto response = rollupBackfill.start()
+                .orElseThrow(() -> new ConflictException("A spend rollup backfill is already in progress"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(response, "Spend rollup backfill started"));
+    }
+
+    @GetMapping("/backfill/{runId}")
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<SpendRollupBackfillDto>> getBackfill(@PathVariable String runId) {
+        return ResponseEntity.ok(ApiResponse.success(rollupBackfill.getRun(runId), "Spend rollup backfill fetched"));
+    }
+}
@@ -0,0 +1,18 @@
+package com.settleup.settleup.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// An expense as read by the spend rollup backfill; its splits are read separately for the whole chunk
+@Data
+@AllArgsConstructor
+public class ExpenseSpendRow {
+    private Long id;
+    private Long groupId;
+    private Long paidByUserId;
+    private String currency;
+    private Double amount;
+    private LocalDateTime createdAt;
+}
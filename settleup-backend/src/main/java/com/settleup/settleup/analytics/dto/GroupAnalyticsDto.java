@@ -0,0 +1,23 @@
+package com.settleup.settleup.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Spend of a group from the start of a month up to now, converted into its base currency at current rates
+@Data
+@AllArgsConstructor
+public class GroupAnalyticsDto {
+    private Long groupId;
+    private String currency;
+    private LocalDate from;
+    private double totalSpent;
+    private long expenseCount;
+    // highest payer first
+    private List<MemberSpendDto> members;
+    // oldest first; months without expenses are left out
+    private List<MonthlySpendDto> months;
+    private List<MemberSpendDto> topPayers;
+}
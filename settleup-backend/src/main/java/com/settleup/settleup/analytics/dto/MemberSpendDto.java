@@ -0,0 +1,17 @@
+package com.settleup.settleup.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Amounts in the group's base currency
+@Data
+@AllArgsConstructor
+public class MemberSpendDto {
+    private Long userId;
+    private String name;
+    // total of the expenses the member paid for
+    private double paid;
+    // the member's split of all expenses
+    private double share;
+    private long expensesPaid;
+}
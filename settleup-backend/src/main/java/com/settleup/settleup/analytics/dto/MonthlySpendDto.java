@@ -0,0 +1,17 @@
+package com.settleup.settleup.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class MonthlySpendDto {
+    // yyyy-MM
+    private String month;
+    private double totalSpent;
+    private long expenseCount;
+    // highest payer first; only members with spend that month
+    private List<MemberSpendDto> members;
+}
@@ -0,0 +1,18 @@
+package com.settleup.settleup.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// One member's spend in one currency and month of a group; amounts in cents of that currency
+@Data
+@AllArgsConstructor
+public class SpendBucketRow {
+    private LocalDate monthStart;
+    private Long userId;
+    private String currency;
+    private long paidCents;
+    private long shareCents;
+    private long expensesPaid;
+}
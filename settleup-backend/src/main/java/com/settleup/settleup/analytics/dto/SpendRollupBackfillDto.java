@@ -0,0 +1,18 @@
+package com.settleup.settleup.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SpendRollupBackfillDto {
+    private String runId;
+    private String status; // RUNNING, COMPLETED, ABORTED (the lock was lost), FAILED
+    private long expensesScanned;
+    // expenses that weren't in the rollups yet
+    private long expensesRolledUp;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
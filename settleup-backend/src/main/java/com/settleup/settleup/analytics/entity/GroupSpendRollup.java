@@ -0,0 +1,47 @@
+package com.settleup.settleup.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// What one member paid and owed in one currency of one group during one month; kept up to date by SpendRollupService
+@Entity
+@Table(name = "group_spend_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_spend_rollup", columnNames = {"group_id", "month_start", "user_id", "currency"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupSpendRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spend_rollup_seq_gen")
+    @SequenceGenerator(name = "spend_rollup_seq_gen", sequenceName = "spend_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    // first day of the month the expenses were dated in
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(length = 3, nullable = false)
+    private String currency;
+
+    // totals of the expenses the member paid for, in cents
+    @Column(nullable = false)
+    private long paidCents;
+
+    // the member's split of all expenses, in cents
+    @Column(nullable = false)
+    private long shareCents;
+
+    // number of expenses the member paid for
+    @Column(nullable = false)
+    private long expensesPaid;
+}
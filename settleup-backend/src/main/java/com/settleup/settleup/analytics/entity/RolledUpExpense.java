@@ -0,0 +1,33 @@
+package com.settleup.settleup.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+// Marks an expense as counted in the spend rollups, so redelivered events and backfill reruns don't count it twice
+@Entity
+@Table(name = "rolled_up_expenses", indexes = @Index(name = "idx_rolled_up_group", columnList = "group_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RolledUpExpense implements Persistable<Long> {
+
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Override
+    public Long getId() {
+        return expenseId;
+    }
+
+    // markers are only ever inserted; saving them as new skips the select a merge would issue per row
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.settleup.settleup.analytics.repository;
+
+import com.settleup.settleup.analytics.dto.SpendBucketRow;
+import com.settleup.settleup.analytics.entity.GroupSpendRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface GroupSpendRollupRepository extends JpaRepository<GroupSpendRollup, Long> {
+
+    @Query("select new com.settleup.settleup.analytics.dto.SpendBucketRow(r.monthStart, r.userId, r.currency, r.paidCents, r.shareCents, r.expensesPaid) " +
+            "from GroupSpendRollup r where r.groupId = :groupId and r.monthStart >= :from order by r.monthStart")
+    List<SpendBucketRow> findBuckets(@Param("groupId") Long groupId, @Param("from") LocalDate from);
+
+    // Adds to the bucket in place, so concurrent writers can't lose each other's updates
+    @Modifying
+    @Query("update GroupSpendRollup r set r.paidCents = r.paidCents + :paidCents, r.shareCents = r.shareCents + :shareCents, " +
+            "r.expensesPaid = r.expensesPaid + :expensesPaid where r.groupId = :groupId and r.monthStart = :monthStart " +
+            "and r.userId = :userId and r.currency = :currency")
+    int increment(@Param("groupId") Long groupId,
+                  @Param("monthStart") LocalDate monthStart,
+                  @Param("userId") Long userId,
+                  @Param("currency") String currency,
+                  @Param("paidCents") long paidCents,
+                  @Param("shareCents") long shareCents,
+                  @Param("expensesPaid") long expensesPaid);
+
+    @Modifying
+    @Query("delete from GroupSpendRollup r where r.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,22 @@
+package com.settleup.settleup.analytics.repository;
+
+import com.settleup.settleup.analytics.entity.RolledUpExpense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RolledUpExpenseRepository extends JpaRepository<RolledUpExpense, Long> {
+
+    @Query("select r.expenseId from RolledUpExpense r where r.expenseId in :expenseIds")
+    List<Long> findExpenseIdsIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    @Modifying
+    @Query("delete from RolledUpExpense r where r.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
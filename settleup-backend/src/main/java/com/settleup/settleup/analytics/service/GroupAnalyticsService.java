@@ -0,0 +1,136 @@
+package com.settleup.settleup.analytics.service;
+
+import com.settleup.settleup.analytics.dto.GroupAnalyticsDto;
+import com.settleup.settleup.analytics.dto.MemberSpendDto;
+import com.settleup.settleup.analytics.dto.MonthlySpendDto;
+import com.settleup.settleup.analytics.dto.SpendBucketRow;
+import com.settleup.settleup.analytics.repository.GroupSpendRollupRepository;
+import com.settleup.settleup.common.sharding.ShardedByGroup;
+import com.settleup.settleup.config.AnalyticsProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Spend totals, per-member spend by month and top payers of a group, read from the spend rollups: the cost grows with
+ * months × members × currencies in the window, not with the number of expenses. Expenses show up once the outbox
+ * relay has delivered them, normally within a poll interval.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+@RequiredArgsConstructor
+public class GroupAnalyticsService {
+
+    private static final Comparator<MemberSpendDto> HIGHEST_PAYER_FIRST = Comparator
+            .comparingDouble(MemberSpendDto::getPaid).reversed()
+            .thenComparing(MemberSpendDto::getUserId);
+
+    private final GroupSpendRollupRepository rollupRepo;
+    private final GroupRepository groupRepo;
+    private final UserRepository userRepo;
+    private final FxRateService fxRateService;
+    private final AnalyticsProperties properties;
+
+    // months and topPayers default to settleup.analytics.*
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
+    public GroupAnalyticsDto getGroupAnalytics(Long groupId, Integer months, Integer topPayers) {
+        int window = months != null ? months : properties.getMonths();
+        int top = topPayers != null ? topPayers : properties.getTopPayers();
+        if (window < 1 || window > properties.getMaxMonths()) {
+            throw new InvalidInputException("Months must be between 1 and " + properties.getMaxMonths());
+        }
+        if (top < 0) {
+            throw new InvalidInputException("Top payers cannot be negative");
+        }
+        Group group = groupRepo.findById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
+
+        LocalDate from = YearMonth.now().minusMonths(window - 1).atDay(1);
+        String currency = group.getBaseCurrency();
+        // one snapshot for the whole read so a concurrent reload can't mix two rate tables
+        FxRateTable rates = fxRateService.current();
+        Map<String, Double> rateByCurrency = new HashMap<>();
+        Map<Long, Spend> members = new HashMap<>();
+        Map<YearMonth, Map<Long, Spend>> monthly = new TreeMap<>();
+        for (SpendBucketRow row : rollupRepo.findBuckets(groupId, from)) {
+            double rate = rateByCurrency.computeIfAbsent(row.getCurrency(), c -> rates.rate(c, currency));
+            double paid = row.getPaidCents() / 100.0 * rate;
+            double share = row.getShareCents() / 100.0 * rate;
+            members.computeIfAbsent(row.getUserId(), Spend::new).add(paid, share, row.getExpensesPaid());
+            monthly.computeIfAbsent(YearMonth.from(row.getMonthStart()), m -> new HashMap<>())
+                    .computeIfAbsent(row.getUserId(), Spend::new).add(paid, share, row.getExpensesPaid());
+        }
+
+        Map<Long, String> names = members.isEmpty() ? Map.of() : userRepo.findNamesByIdIn(members.keySet()).stream()
+                .collect(Collectors.toMap(UserNameRow::getId, UserNameRow::getName));
+        List<MemberSpendDto> memberSpend = toDtos(members.values(), names);
+        List<MonthlySpendDto> monthSpend = monthly.entrySet().stream()
+                .map(month -> new MonthlySpendDto(month.getKey().toString(), totalPaid(month.getValue().values()),
+                        expensesPaid(month.getValue().values()), toDtos(month.getValue().values(), names)))
+                .toList();
+        List<MemberSpendDto> topPayerSpend = memberSpend.stream()
+                .filter(member -> member.getExpensesPaid() > 0)
+                .limit(top)
+                .toList();
+        return new GroupAnalyticsDto(groupId, currency, from, totalPaid(members.values()), expensesPaid(members.values()),
+                memberSpend, monthSpend, topPayerSpend);
+    }
+
+    private static List<MemberSpendDto> toDtos(Collection<Spend> spend, Map<Long, String> names) {
+        return spend.stream()
+                .map(s -> new MemberSpendDto(s.userId, names.get(s.userId), round(s.paid), round(s.share), s.expensesPaid))
+                .sorted(HIGHEST_PAYER_FIRST)
+                .toList();
+    }
+
+    private static double totalPaid(Collection<Spend> spend) {
+        return round(spend.stream().mapToDouble(s -> s.paid).sum());
+    }
+
+    private static long expensesPaid(Collection<Spend> spend) {
+        return spend.stream().mapToLong(s -> s.expensesPaid).sum();
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    private static final class Spend {
+        private final Long userId;
+        private double paid;
+        private double share;
+        private long expensesPaid;
+
+        private Spend(Long userId) {
+            this.userId = userId;
+        }
+
+        private void add(double paid, double share, long expensesPaid) {
+            this.paid += paid;
+            this.share += share;
+            this.expensesPaid += expensesPaid;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.settleup.settleup.analytics.service;
+
+import com.settleup.settleup.analytics.dto.ExpenseSpendRow;
+import com.settleup.settleup.analytics.dto.SpendRollupBackfillDto;
+import com.settleup.settleup.common.datasource.DataSourceRoute;
+import com.settleup.settleup.common.logging.RequestLoggingFilter;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.AnalyticsProperties;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.dto.CompactSplitRow;
+import com.settleup.settleup.expense.repository.ExpenseRepository;
+import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.expense.split.SplitAllocation;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the spend rollups from the expense history, for data that predates them. Each shard's expenses are walked by
+ * primary key, a chunk read per read-only transaction on the report pool and rolled up in a write transaction of its
+ * own. Expenses the outbox consumer or an earlier run already counted are skipped, so a run can be repeated or
+ * resumed at any time. A run stops as soon as it can no longer renew its lock, since another node may then be running
+ * the backfill too. Runs requested over the API go to the batch job executor; the node that started one reports its
+ * progress.
+ */
+@Slf4j
+@Service
+public class SpendRollupBackfill {
+
+    static final String LOCK_NAME = "spend-rollup-backfill";
+
+    // a chunk that lost a race with the outbox consumer for a new bucket is read again
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final SpendRollupService rollupService;
+    private final SchedulerLockService lockService;
+    private final ShardRouter shardRouter;
+    private final AnalyticsProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // the latest run started over the API on this node
+    private final AtomicReference<SpendRollupBackfillDto> latest = new AtomicReference<>();
+
+    public SpendRollupBackfill(ExpenseRepository expenseRepo,
+                               ExpenseSplitRepository splitRepo,
+                               SpendRollupService rollupService,
+                               SchedulerLockService lockService,
+                               ShardRouter shardRouter,
+                               AnalyticsProperties properties,
+                               @Qualifier("batchJobExecutor") ThreadPoolTaskExecutor executor,
+                               PlatformTransactionManager transactionManager) {
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.rollupService = rollupService;
+        this.lockService = lockService;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (properties.isBackfillOnStartup() && run().isEmpty()) {
+            log.debug("Spend rollup backfill skipped; another node holds the lock");
+        }
+    }
+
+    // Empty when another node is already running the backfill
+    public Optional<SpendRollupBackfillDto> run() {
+        return lockService.tryAcquire(LOCK_NAME, properties.getLockTtl()).map(lease -> {
+            SpendRollupBackfillDto run = newRun();
+            backfillAndRelease(lease, run);
+            return run;
+        });
+    }
+
+    // Starts a run in the background and returns it as started; empty when a run is already in progress
+    public Optional<SpendRollupBackfillDto> start() {
+        Optional<SchedulerLease> lock = lockService.tryAcquire(LOCK_NAME, properties.getLockTtl());
+        if (lock.isEmpty()) {
+            return Optional.empty();
+        }
+        SchedulerLease lease = lock.get();
+        SpendRollupBackfillDto run = newRun();
+        try {
+            executor.execute(() -> {
+                try {
+                    backfillAndRelease(lease, run);
+                } catch (RuntimeException e) {
+                    log.error("Spend rollup backfill {} failed", run.getRunId(), e);
+                }
+            });
+        } catch (RuntimeException e) {
+            lockService.release(lease);
+            throw e;
+        }
+        latest.set(run);
+        return Optional.of(run);
+    }
+
+    public SpendRollupBackfillDto getRun(String runId) {
+        SpendRollupBackfillDto run = latest.get();
+        if (run == null || !run.getRunId().equals(runId)) {
+            throw new ResourceNotFoundException("Spend rollup backfill run not found");
+        }
+        return run;
+    }
+
+    private static SpendRollupBackfillDto newRun() {
+        return new SpendRollupBackfillDto(UUID.randomUUID().toString(), "RUNNING", 0, 0, LocalDateTime.now(), null);
+    }
+
+    private void backfillAndRelease(SchedulerLease lease, SpendRollupBackfillDto run) {
+        MDC.put(RequestLoggingFilter.REQUEST_ID_MDC_KEY, "spend-rollup-backfill-" + run.getRunId());
+        String status = "FAILED";
+        try {
+            status = backfill(lease, run) ? "COMPLETED" : "ABORTED";
+        } finally {
+            run.setCompletedAt(LocalDateTime.now());
+            run.setStatus(status);
+            lockService.release(lease);
+            MDC.remove(RequestLoggingFilter.REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    // False when the lock was lost part way; the expenses rolled up so far stay counted
+    private boolean backfill(SchedulerLease lease, SpendRollupBackfillDto run) {
+        PageRequest chunk = PageRequest.of(0, properties.getChunkSize());
+        for (int shard : shardRouter.shards()) {
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                List<ExpenseAddedPayload> expenses = shardRouter.onShard(shard,
+                        () -> DataSourceRoute.onReportPool(() -> readOnlyTransaction.execute(tx -> read(from, chunk))));
+                if (expenses.isEmpty()) break;
+                int rolledUp = shardRouter.onShard(shard, () -> write(expenses));
+                run.setExpensesRolledUp(run.getExpensesRolledUp() + rolledUp);
+                run.setExpensesScanned(run.getExpensesScanned() + expenses.size());
+                if (expenses.size() < properties.getChunkSize()) break;
+                afterId = expenses.get(expenses.size() - 1).expenseId();
+                if (!lockService.renew(lease, properties.getLockTtl())) {
+                    log.warn("Spend rollup backfill lost its lock after {} expenses; stopping", run.getExpensesScanned());
+                    return false;
+                }
+            }
+        }
+        log.info("Spend rollup backfill: {} expenses scanned, {} rolled up", run.getExpensesScanned(), run.getExpensesRolledUp());
+        return true;
+    }
+
+    // Expenses in the shape the outbox delivers them, amounts back in cents
+    private List<ExpenseAddedPayload> read(long afterId, PageRequest chunk) {
+        List<ExpenseSpendRow> rows = expenseRepo.findSpendChunk(afterId, chunk);
+        if (rows.isEmpty()) return List.of();
+        Map<Long, List<CompactSplitRow>> splits = new HashMap<>();
+        for (CompactSplitRow split : splitRepo.findCompactByExpenseIdIn(rows.stream().map(ExpenseSpendRow::getId).toList())) {
+            splits.computeIfAbsent(split.getExpenseId(), id -> new ArrayList<>()).add(split);
+        }
+        List<ExpenseAddedPayload> expenses = new ArrayList<>(rows.size());
+        for (ExpenseSpendRow row : rows) {
+            List<CompactSplitRow> expenseSplits = splits.getOrDefault(row.getId(), List.of());
+            long[] userIds = new long[expenseSplits.size()];
+            long[] amountCents = new long[expenseSplits.size()];
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = expenseSplits.get(i).getUserId();
+                amountCents[i] = SplitAllocation.toCents(expenseSplits.get(i).getAmountOwed());
+            }
+            expenses.add(new ExpenseAddedPayload(row.getId(), row.getGroupId(), row.getPaidByUserId(), row.getCurrency(),
+                    SplitAllocation.toCents(row.getAmount()), userIds, amountCents, row.getCreatedAt()));
+        }
+        return expenses;
+    }
+
+    private int write(List<ExpenseAddedPayload> expenses) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer rolledUp = transactionTemplate.execute(tx -> rollupService.apply(expenses));
+                return rolledUp == null ? 0 : rolledUp;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) throw e;
+                log.debug("Spend rollup backfill chunk conflicted with a concurrent write; retrying", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.settleup.settleup.analytics.service;
+
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxBatchSubscriber;
+import com.settleup.settleup.outbox.service.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds added expenses from the outbox into the spend rollups, a relay batch at a time: a batch costs one write per
+ * bucket it touches rather than per event. Rollups are written in a transaction of their own, so a failure can't
+ * undo the relay's bookkeeping; the relay retries a failed batch one expense at a time and reschedules only the
+ * expenses that fail on their own.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpendRollupConsumer implements OutboxBatchSubscriber<ExpenseAddedPayload> {
+
+    private final SpendRollupService rollupService;
+
+    @Override
+    public OutboxEventType type() {
+        return OutboxEventType.EXPENSE_ADDED;
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage<ExpenseAddedPayload>> messages) {
+        rollupService.apply(messages.stream().map(OutboxMessage::payload).toList());
+    }
+}
@@ -0,0 +1,111 @@
+package com.settleup.settleup.analytics.service;
+
+import com.settleup.settleup.analytics.entity.GroupSpendRollup;
+import com.settleup.settleup.analytics.entity.RolledUpExpense;
+import com.settleup.settleup.analytics.repository.GroupSpendRollupRepository;
+import com.settleup.settleup.analytics.repository.RolledUpExpenseRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maintains one spend row per (group, month, member, currency) so analytics read a handful of buckets instead of a
+ * group's history. Expenses are added in batches, from the outbox and from the backfill; each expense is counted once,
+ * tracked by a {@link RolledUpExpense} marker written in the same transaction as its rollups.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+@RequiredArgsConstructor
+public class SpendRollupService {
+
+    // stays under Oracle's limit on IN list entries
+    private static final int IN_LIMIT = 1000;
+
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator.comparing(Bucket::groupId)
+            .thenComparing(Bucket::monthStart)
+            .thenComparing(Bucket::userId)
+            .thenComparing(Bucket::currency);
+
+    private final GroupSpendRollupRepository rollupRepo;
+    private final RolledUpExpenseRepository rolledUpRepo;
+    private final GroupRepository groupRepo;
+
+    // Runs on the expenses' shard. Returns how many expenses were added; those already counted, or whose group is
+    // deleted, are skipped. When two writers create the same bucket, one transaction fails on uk_spend_rollup; its
+    // caller retries, and the retry finds the bucket and adds to it.
+    @Transactional
+    public int apply(List<ExpenseAddedPayload> expenses) {
+        Map<Long, ExpenseAddedPayload> pending = new LinkedHashMap<>();
+        expenses.forEach(expense -> pending.putIfAbsent(expense.expenseId(), expense));
+        List<Long> expenseIds = new ArrayList<>(pending.keySet());
+        for (int i = 0; i < expenseIds.size(); i += IN_LIMIT) {
+            rolledUpRepo.findExpenseIdsIn(expenseIds.subList(i, Math.min(i + IN_LIMIT, expenseIds.size())))
+                    .forEach(pending::remove);
+        }
+        if (pending.isEmpty()) return 0;
+
+        Set<Long> groupIds = new HashSet<>();
+        pending.values().forEach(expense -> groupIds.add(expense.groupId()));
+        Set<Long> liveGroups = new HashSet<>(groupRepo.findIdsByIdIn(groupIds));
+        pending.values().removeIf(expense -> !liveGroups.contains(expense.groupId()));
+        if (pending.isEmpty()) return 0;
+
+        // updated in key order so concurrent batches touching the same buckets can't deadlock
+        Map<Bucket, long[]> buckets = new TreeMap<>(BUCKET_ORDER);
+        for (ExpenseAddedPayload expense : pending.values()) {
+            LocalDate monthStart = expense.createdAt().toLocalDate().withDayOfMonth(1);
+            add(buckets, new Bucket(expense.groupId(), monthStart, expense.paidByUserId(), expense.currency()),
+                    expense.totalCents(), 0, 1);
+            for (int i = 0; i < expense.userIds().length; i++) {
+                add(buckets, new Bucket(expense.groupId(), monthStart, expense.userIds()[i], expense.currency()),
+                        0, expense.amountCents()[i], 0);
+            }
+        }
+
+        List<GroupSpendRollup> created = new ArrayList<>();
+        buckets.forEach((bucket, totals) -> {
+            if (rollupRepo.increment(bucket.groupId(), bucket.monthStart(), bucket.userId(), bucket.currency(),
+                    totals[0], totals[1], totals[2]) == 0) {
+                created.add(GroupSpendRollup.builder()
+                        .groupId(bucket.groupId())
+                        .monthStart(bucket.monthStart())
+                        .userId(bucket.userId())
+                        .currency(bucket.currency())
+                        .paidCents(totals[0])
+                        .shareCents(totals[1])
+                        .expensesPaid(totals[2])
+                        .build());
+            }
+        });
+        rollupRepo.saveAll(created);
+        rolledUpRepo.saveAll(pending.values().stream()
+                .map(expense -> new RolledUpExpense(expense.expenseId(), expense.groupId()))
+                .toList());
+        return pending.size();
+    }
+
+    private static void add(Map<Bucket, long[]> buckets, Bucket bucket, long paidCents, long shareCents, long expensesPaid) {
+        long[] totals = buckets.computeIfAbsent(bucket, b -> new long[3]);
+        totals[0] += paidCents;
+        totals[1] += shareCents;
+        totals[2] += expensesPaid;
+    }
+
+    private record Bucket(Long groupId, LocalDate monthStart, Long userId, String currency) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.settleup.settleup.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps an already serialized payload in the same JSON envelope as {@link ApiResponse#success}, without mapping the
+ * payload again. Only the timestamp is serialized per response; the rest of the envelope is built once per message.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApiResponseBytes {
+
+    private static final byte[] TIMESTAMP_FIELD = ",\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> prefixes = new ConcurrentHashMap<>();
+
+    public ResponseEntity<byte[]> success(byte[] data, String message) {
+        byte[] prefix = prefixes.computeIfAbsent(message, this::prefix);
+        byte[] timestamp = write(LocalDateTime.now());
+
+        byte[] body = new byte[prefix.length + data.length + TIMESTAMP_FIELD.length + timestamp.length + 1];
+        int at = 0;
+        System.arraycopy(prefix, 0, body, at, prefix.length);
+        at += prefix.length;
+        System.arraycopy(data, 0, body, at, data.length);
+        at += data.length;
+        System.arraycopy(TIMESTAMP_FIELD, 0, body, at, TIMESTAMP_FIELD.length);
+        at += TIMESTAMP_FIELD.length;
+        System.arraycopy(timestamp, 0, body, at, timestamp.length);
+        body[body.length - 1] = '}';
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // field order matches ApiResponse: success, message, data, (errors is null and omitted), timestamp
+    private byte[] prefix(String message) {
+        return ("{\"success\":true,\"message\":" + new String(write(message), StandardCharsets.UTF_8) + ",\"data\":")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value, e);
+        }
+    }
+}
@@ -1,20 +1,47 @@
 package com.settleup.settleup.common;
 
+import com.settleup.settleup.exception.ConflictException;
+import com.settleup.settleup.exception.ForbiddenException;
 import com.settleup.settleup.exception.InvalidInputException;
 import com.settleup.settleup.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    static final String RETRY_AFTER_SECONDS = "1";
+    static final String DATABASE_UNAVAILABLE_COUNTER = "settleup.db.unavailable";
+
+    // an outage fails every request, so it is logged at most this often; the counter sees every one
+    private static final long DATABASE_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Counter databaseUnavailable;
+    private final AtomicLong lastDatabaseWarning = new AtomicLong(System.nanoTime() - DATABASE_WARN_INTERVAL_NANOS);
+    private final AtomicLong unloggedDatabaseFailures = new AtomicLong();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.databaseUnavailable = meterRegistry.counter(DATABASE_UNAVAILABLE_COUNTER);
+    }
+
     // 1. Validation Failed
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -37,13 +64,52 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), null, HttpStatus.NOT_FOUND);
     }
 
-    // 4. Server Crash
+    // 4. Forbidden: an admin endpoint called without the admin token
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<ApiResponse<Object>> handleForbidden(ForbiddenException ex) {
+        return buildResponse(ex.getMessage(), null, HttpStatus.FORBIDDEN);
+    }
+
+    // 5. Conflict: a batch job that is already running on some node
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConflict(ConflictException ex) {
+        return buildResponse(ex.getMessage(), null, HttpStatus.CONFLICT);
+    }
+
+    // 6. Overloaded: the async read executor is full or the request outlived the async timeout
+    @ExceptionHandler({TaskRejectedException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<ApiResponse<Object>> handleOverload(Exception ex) {
+        return busy();
+    }
+
+    // 7. Database busy: no pooled connection within the pool's (short) connection timeout, or the database is unreachable
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponse<Object>> handleDatabaseUnavailable(Exception ex) {
+        databaseUnavailable.increment();
+        long now = System.nanoTime();
+        long last = lastDatabaseWarning.get();
+        if (now - last >= DATABASE_WARN_INTERVAL_NANOS && lastDatabaseWarning.compareAndSet(last, now)) {
+            log.warn("Database unavailable, answering 503 ({} more since the last warning): {}",
+                    unloggedDatabaseFailures.getAndSet(0), ex.getMessage());
+        } else {
+            unloggedDatabaseFailures.incrementAndGet();
+        }
+        return busy();
+    }
+
+    // 8. Server Crash
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGlobalException(Exception ex) {
         ex.printStackTrace(); // Log error
         return buildResponse("An internal error occurred", ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private ResponseEntity<ApiResponse<Object>> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(ApiResponse.error("Server is busy, please retry", null));
+    }
+
     private ResponseEntity<ApiResponse<Object>> buildResponse(String message, Object errors, HttpStatus status) {
         return new ResponseEntity<>(ApiResponse.error(message, errors), status);
     }
@@ -0,0 +1,67 @@
+package com.settleup.settleup.common.datasource;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing overrides: reads pinned to the primary for requests whose client wrote something the replica may
+ * not have yet, and long report reads sent to their own pool so they can't starve request traffic of connections.
+ */
+public final class DataSourceRoute {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPORT = new ThreadLocal<>();
+    private static final ThreadLocal<BiConsumer<Long, Long>> REVISION_LISTENER = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    // Write requests under replica routing are told each group revision they move to, so reads can wait for the replica
+    static void trackRevisions(BiConsumer<Long, Long> listener) {
+        REVISION_LISTENER.set(listener);
+    }
+
+    static void stopTrackingRevisions() {
+        REVISION_LISTENER.remove();
+    }
+
+    public static boolean tracksRevisions() {
+        return REVISION_LISTENER.get() != null;
+    }
+
+    public static void revisionWritten(Long groupId, long revision) {
+        BiConsumer<Long, Long> listener = REVISION_LISTENER.get();
+        if (listener != null) {
+            listener.accept(groupId, revision);
+        }
+    }
+
+    // Connections taken inside the call come from the report pool, when one is configured
+    public static <T> T onReportPool(Supplier<T> work) {
+        boolean previous = isReport();
+        REPORT.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (!previous) {
+                REPORT.remove();
+            }
+        }
+    }
+
+    public static boolean isReport() {
+        return REPORT.get() != null;
+    }
+}
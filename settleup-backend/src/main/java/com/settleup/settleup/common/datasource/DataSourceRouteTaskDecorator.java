@@ -0,0 +1,32 @@
+package com.settleup.settleup.common.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's primary pin over to executor threads, so work fanned out from a request inside its
+ * read-your-writes window still reads from the primary.
+ */
+public class DataSourceRouteTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        boolean primaryRequired = DataSourceRoute.isPrimaryRequired();
+        return () -> {
+            boolean previous = DataSourceRoute.isPrimaryRequired();
+            if (primaryRequired) {
+                DataSourceRoute.requirePrimary();
+            } else {
+                DataSourceRoute.clear();
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previous) {
+                    DataSourceRoute.requirePrimary();
+                } else {
+                    DataSourceRoute.clear();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.settleup.settleup.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps a client's reads on the primary until the replica has caught up with its last write, so it always sees its own
+ * posts. Expense and settlement writes record the group revision they moved to, and reads stay on the primary while the
+ * replica's {@code group_revisions} row is behind it. Directory writes (users, groups, members) move no revision, so
+ * reads after them stay on the primary for a fixed window instead. Both travel in cookies, so any node can honour them.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    static final String COOKIE_NAME = "settleup-last-write";
+    // <groupId>.<revision>.<write time>; the write time tells whether this was the client's last write
+    static final String REVISION_COOKIE_NAME = "settleup-written-revision";
+
+    private static final String PRIMARY_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".primary";
+
+    private final Duration window;
+    private final Duration maxReplicaLag;
+    private final JdbcTemplate replica;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (isWrite(request.getMethod())) {
+            addCookie(response, COOKIE_NAME, Long.toString(now), window);
+            // the revision is recorded inside the handler, before the response is committed
+            DataSourceRoute.trackRevisions((groupId, revision) ->
+                    addCookie(response, REVISION_COOKIE_NAME, groupId + "." + revision + "." + now, maxReplicaLag));
+            DataSourceRoute.requirePrimary();
+            return true;
+        }
+        // the async dispatch runs preHandle again; the replica is asked once per request
+        Boolean primary = (Boolean) request.getAttribute(PRIMARY_ATTRIBUTE);
+        if (primary == null) {
+            primary = readsFromPrimary(request, response, now);
+            request.setAttribute(PRIMARY_ATTRIBUTE, primary);
+        }
+        if (primary) {
+            DataSourceRoute.requirePrimary();
+        }
+        return true;
+    }
+
+    // the async dispatch runs preHandle again, so the request thread can drop the pin now
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DataSourceRoute.clear();
+        DataSourceRoute.stopTrackingRevisions();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DataSourceRoute.clear();
+        DataSourceRoute.stopTrackingRevisions();
+    }
+
+    private boolean readsFromPrimary(HttpServletRequest request, HttpServletResponse response, long now) {
+        long lastWrite = parseLong(cookie(request, COOKIE_NAME));
+        String revisionCookie = cookie(request, REVISION_COOKIE_NAME);
+        String[] written = revisionCookie == null ? new String[0] : revisionCookie.split("\\.");
+        if (written.length != 3) {
+            return now - lastWrite < window.toMillis();
+        }
+        if (replicaRevision(parseLong(written[0])) < parseLong(written[1])) {
+            return true;
+        }
+        // the replica has the revision; later reads needn't ask again
+        addCookie(response, REVISION_COOKIE_NAME, "", Duration.ZERO);
+        if (parseLong(written[2]) == lastWrite) {
+            addCookie(response, COOKIE_NAME, "", Duration.ZERO);
+            return false;
+        }
+        return now - lastWrite < window.toMillis();
+    }
+
+    // a replica that can't answer is treated as behind
+    private long replicaRevision(long groupId) {
+        try {
+            List<Long> revision = replica.queryForList("select revision from group_revisions where group_id = ?",
+                    Long.class, groupId);
+            return revision.isEmpty() ? 0 : revision.get(0);
+        } catch (DataAccessException e) {
+            log.warn("Replica revision check failed, reading from primary: {}", e.getMessage());
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static void addCookie(HttpServletResponse response, String name, String value, Duration maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(maxAge.isZero() ? 0 : (int) Math.max(1, maxAge.toSeconds()));
+        response.addCookie(cookie);
+    }
+
+    private static String cookie(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) return 0;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.settleup.settleup.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends work run through {@link DataSourceRoute#onReportPool} to the report pool and everything else to the OLTP
+ * pool. Must sit behind a {@code LazyConnectionDataSourceProxy}, like the replica routing, so the route is read when a
+ * statement first needs the connection. A busy report pool makes report reads wait; it never borrows from OLTP.
+ */
+public class ReportRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String OLTP = "oltp";
+    static final String REPORT = "report";
+
+    public ReportRoutingDataSource(DataSource oltp, DataSource report) {
+        setTargetDataSources(Map.of(OLTP, oltp, REPORT, report));
+        setDefaultTargetDataSource(oltp);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRoute.isReport() ? REPORT : OLTP;
+    }
+}
@@ -0,0 +1,111 @@
+package com.settleup.settleup.common.logging;
+
+import com.settleup.settleup.config.RequestLoggingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every request with a request ID (taken from X-Request-Id when it is 1-64 letters, digits, dots, underscores or
+ * dashes, generated otherwise) that is put in the MDC for all downstream logging, and writes one access line per
+ * request to {@code settleup.access.<family>}, e.g. {@code settleup.access.expenses}. Errors and slow requests are
+ * always logged, the rest are sampled. Async requests are logged once, by the dispatch that completes them, under the
+ * request ID and start time of the original dispatch.
+ */
+@RequiredArgsConstructor
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private static final String LOGGER_PREFIX = "settleup.access.";
+    // ids are echoed into logs and the response header, so anything that could forge a log line or header is replaced
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final String REQUEST_ID_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".requestId";
+    private static final String START_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".start";
+
+    private final RequestLoggingProperties properties;
+    private final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId;
+        long start;
+        if (isAsyncDispatch(request) && request.getAttribute(START_ATTRIBUTE) instanceof Long asyncStart) {
+            requestId = (String) request.getAttribute(REQUEST_ID_ATTRIBUTE);
+            start = asyncStart;
+        } else {
+            requestId = requestId(request);
+            start = System.nanoTime();
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+                request.setAttribute(START_ATTRIBUTE, start);
+            } else {
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                logAccess(request, response.getStatus(), elapsedMs);
+            }
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void logAccess(HttpServletRequest request, int status, long elapsedMs) {
+        Logger logger = loggers.computeIfAbsent(family(request.getRequestURI()),
+                f -> LoggerFactory.getLogger(LOGGER_PREFIX + f));
+        if (status >= 500 || elapsedMs >= properties.getSlowThreshold().toMillis()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("{} {} {} {}ms", request.getMethod(), request.getRequestURI(), status, elapsedMs);
+            }
+        } else if (logger.isInfoEnabled() && sampled()) {
+            logger.info("{} {} {} {}ms", request.getMethod(), request.getRequestURI(), status, elapsedMs);
+        }
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private String requestId(HttpServletRequest request) {
+        String incoming = request.getHeader(REQUEST_ID_HEADER);
+        if (incoming != null && VALID_REQUEST_ID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    // "/api/expenses/group/1/balances" -> "expenses"
+    static String family(String uri) {
+        int start = uri.startsWith("/api/") ? 5 : 1;
+        if (start >= uri.length()) {
+            return "root";
+        }
+        int end = uri.indexOf('/', start);
+        String family = end < 0 ? uri.substring(start) : uri.substring(start, end);
+        return family.isEmpty() ? "root" : family;
+    }
+}
@@ -0,0 +1,12 @@
+package com.settleup.settleup.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.statementExecuted();
+        return sql;
+    }
+}
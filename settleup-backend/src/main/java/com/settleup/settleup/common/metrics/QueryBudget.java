@@ -0,0 +1,19 @@
+package com.settleup.settleup.common.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements a handler may issue per request, whatever the size of the data it returns. A count that grows
+ * with the number of rows (a query per expense, per member) means an N+1 has crept in. Budgets are the worst case seen
+ * on a cold start, when pooled sequences also fetch their first id blocks. Enforced by {@link QueryBudgetAdvice}; the
+ * controller integration tests run with the budget failing requests.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
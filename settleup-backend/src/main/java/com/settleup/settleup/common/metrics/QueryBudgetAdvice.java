@@ -0,0 +1,72 @@
+package com.settleup.settleup.common.metrics;
+
+import com.settleup.settleup.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Checks the request's SQL statement count against the handler's {@link QueryBudget} before the body is written, so in
+ * FAIL mode the response can still become an error. Statements issued while the body is serialized are not seen, which
+ * is fine while controllers return DTOs rather than entities.
+ */
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    // controller handlers only; responses built by exception handlers are left alone
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.getMode() != QueryBudgetProperties.Mode.OFF
+                && returnType.getContainingClass().isAnnotationPresent(RestController.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryBudget annotation = returnType.getMethodAnnotation(QueryBudget.class);
+        int budget = annotation != null ? annotation.value() : properties.getDefaultStatements();
+        long statements = QueryCounter.statements();
+        if ((annotation == null && budget == 0) || statements <= budget) {
+            return body;
+        }
+
+        String uri = pattern(request);
+        String method = request.getMethod().name();
+        Counter.builder("settleup.http.query.budget.exceeded")
+                .description("Requests that issued more SQL statements than their endpoint's budget")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .increment();
+        String message = method + " " + uri + " issued " + statements + " SQL statements, budget is " + budget;
+        if (properties.getMode() == QueryBudgetProperties.Mode.FAIL) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+        return body;
+    }
+
+    private static String pattern(ServerHttpRequest request) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            Object pattern = servletRequest.getServletRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) return pattern.toString();
+        }
+        return "UNKNOWN";
+    }
+}
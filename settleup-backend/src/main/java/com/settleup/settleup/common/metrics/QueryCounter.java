@@ -0,0 +1,52 @@
+package com.settleup.settleup.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-thread tally of SQL statements and entity loads for the request currently being served. Executor threads working
+ * for a request share its tally (see {@link QueryCountingTaskDecorator}), so the counts are atomic.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<AtomicLongArray> COUNTS = ThreadLocal.withInitial(() -> new AtomicLongArray(2));
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        AtomicLongArray counts = COUNTS.get();
+        counts.set(STATEMENTS, 0);
+        counts.set(ENTITY_LOADS, 0);
+    }
+
+    public static void clear() {
+        COUNTS.remove();
+    }
+
+    static AtomicLongArray current() {
+        return COUNTS.get();
+    }
+
+    static void bind(AtomicLongArray counts) {
+        COUNTS.set(counts);
+    }
+
+    static void statementExecuted() {
+        COUNTS.get().incrementAndGet(STATEMENTS);
+    }
+
+    static void entityLoaded() {
+        COUNTS.get().incrementAndGet(ENTITY_LOADS);
+    }
+
+    public static long statements() {
+        return COUNTS.get().get(STATEMENTS);
+    }
+
+    public static long entityLoads() {
+        return COUNTS.get().get(ENTITY_LOADS);
+    }
+}
@@ -0,0 +1,25 @@
+package com.settleup.settleup.common.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts statements run on executor threads against the submitting request, so fanned-out queries still show up in
+ * its per-request metrics.
+ */
+public class QueryCountingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AtomicLongArray counts = QueryCounter.current();
+        return () -> {
+            QueryCounter.bind(counts);
+            try {
+                runnable.run();
+            } finally {
+                QueryCounter.clear();
+            }
+        };
+    }
+}
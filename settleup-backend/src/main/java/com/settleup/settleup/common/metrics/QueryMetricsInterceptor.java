@@ -0,0 +1,58 @@
+package com.settleup.settleup.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records SQL statements and entity loads per request, tagged by the matched endpoint pattern. For async handlers the
+ * tally is parked on the request while the handler runs elsewhere and picked up again by the async dispatch.
+ */
+@RequiredArgsConstructor
+public class QueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String COUNTS_ATTRIBUTE = QueryMetricsInterceptor.class.getName() + ".counts";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(COUNTS_ATTRIBUTE) instanceof AtomicLongArray counts) {
+            QueryCounter.bind(counts);
+        } else {
+            QueryCounter.reset();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(COUNTS_ATTRIBUTE, QueryCounter.current());
+        QueryCounter.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("settleup.http.statements")
+                .description("SQL statements issued per request")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(QueryCounter.statements());
+        DistributionSummary.builder("settleup.http.entity.loads")
+                .description("Entities hydrated per request")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(QueryCounter.entityLoads());
+        QueryCounter.clear();
+    }
+}
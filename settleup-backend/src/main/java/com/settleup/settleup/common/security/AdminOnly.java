@@ -0,0 +1,16 @@
+package com.settleup.settleup.common.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Operator endpoints that change global state or start batch jobs. Requests must carry the token configured as
+ * {@code settleup.admin.token} in the {@value AdminTokenInterceptor#ADMIN_TOKEN_HEADER} header; without a configured
+ * token they are refused. Enforced by {@link AdminTokenInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdminOnly {
+}
@@ -0,0 +1,37 @@
+package com.settleup.settleup.common.security;
+
+import com.settleup.settleup.config.AdminProperties;
+import com.settleup.settleup.exception.ForbiddenException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Rejects requests to @AdminOnly handlers that don't present the admin token
+@RequiredArgsConstructor
+public class AdminTokenInterceptor implements HandlerInterceptor {
+
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final AdminProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(AdminOnly.class)
+                && !matches(request.getHeader(ADMIN_TOKEN_HEADER))) {
+            throw new ForbiddenException("Admin token required");
+        }
+        return true;
+    }
+
+    private boolean matches(String presented) {
+        String token = properties.getToken();
+        if (token == null || token.isBlank() || presented == null) return false;
+        // constant time, so response times don't give the token away
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
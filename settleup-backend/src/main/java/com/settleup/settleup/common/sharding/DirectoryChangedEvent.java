@@ -0,0 +1,16 @@
+package com.settleup.settleup.common.sharding;
+
+/**
+ * A directory row changed: a group (with its memberships) or a user. Shards keep copies of the directory rows
+ * their ledgers reference, refreshed by {@link DirectorySync}.
+ */
+public record DirectoryChangedEvent(Long groupId, Long userId) {
+
+    public static DirectoryChangedEvent group(Long groupId) {
+        return new DirectoryChangedEvent(groupId, null);
+    }
+
+    public static DirectoryChangedEvent user(Long userId) {
+        return new DirectoryChangedEvent(null, userId);
+    }
+}
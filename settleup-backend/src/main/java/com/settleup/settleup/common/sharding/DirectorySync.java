@@ -0,0 +1,144 @@
+package com.settleup.settleup.common.sharding;
+
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxMessage;
+import com.settleup.settleup.outbox.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Copies a group's directory rows (the group, its memberships and its members' users) to the shard holding its
+ * ledger once the directory change commits, so ledger queries can join and lock them locally. A group that is gone
+ * from the directory is dropped from its shard. Every change is also recorded in the outbox with the write that made
+ * it, and the relay repeats the copy from there, so a shard that was down when the change committed catches up.
+ * Shards never authenticate anyone: user copies carry a placeholder instead of the password hash.
+ */
+@Slf4j
+public class DirectorySync {
+
+    // the password column is not null on every shard, so copies fill it with a value no hash can match
+    private static final String USER_COLUMNS = "id, name, email, mobile_number, '!' as password";
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final OutboxService outboxService;
+    private final JdbcTemplate directory;
+
+    public DirectorySync(ShardRoutingDataSource dataSource, ShardRouter shardRouter, OutboxService outboxService) {
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.outboxService = outboxService;
+        this.directory = new JdbcTemplate(dataSource.shard(ShardRouter.DIRECTORY));
+    }
+
+    // Joins the transaction making the change, so the retry commits or rolls back with it
+    @EventListener
+    public void recordDirectoryChange(DirectoryChangedEvent event) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            outboxService.record(OutboxEventType.DIRECTORY_CHANGED, event.groupId(), event);
+        }
+    }
+
+    // ahead of other listeners, so anything reacting to the change already sees the new copies; a failure here is
+    // left to the outbox, since the change itself has committed
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        try {
+            sync(event);
+        } catch (RuntimeException e) {
+            log.warn("Directory sync of {} failed, leaving it to the outbox relay: {}", event, e.getMessage());
+        }
+    }
+
+    // Throws on failure, so the relay retries the event with backoff
+    @EventListener
+    public void onRelayed(OutboxMessage<DirectoryChangedEvent> message) {
+        sync(message.payload());
+    }
+
+    void sync(DirectoryChangedEvent event) {
+        if (event.groupId() != null) {
+            syncGroup(event.groupId());
+        } else {
+            syncUser(event.userId());
+        }
+    }
+
+    void syncGroup(Long groupId) {
+        int shard = shardRouter.shardFor(groupId);
+        if (shard == ShardRouter.DIRECTORY) return;
+
+        List<Map<String, Object>> group = directory.queryForList("select * from expense_groups where id = ?", groupId);
+        List<Map<String, Object>> members = directory.queryForList("select * from group_members where group_id = ?", groupId);
+        List<Map<String, Object>> users = directory.queryForList(
+                "select " + USER_COLUMNS + " from app_users where id in (select user_id from group_members where group_id = ?)"
+                        + " or id in (select created_by_user_id from expense_groups where id = ?)", groupId, groupId);
+
+        inTransaction(shard, jdbc -> {
+            users.forEach(user -> upsert(jdbc, "app_users", user));
+            jdbc.update("delete from group_members where group_id = ?", groupId);
+            if (group.isEmpty()) {
+                jdbc.update("delete from expense_groups where id = ?", groupId);
+                return;
+            }
+            upsert(jdbc, "expense_groups", group.get(0));
+            members.forEach(member -> insert(jdbc, "group_members", member));
+        });
+        log.debug("Synced group {} to shard {}", groupId, shard);
+    }
+
+    // only refreshes shards that already hold the user; new copies arrive with a group sync
+    void syncUser(Long userId) {
+        List<Map<String, Object>> user = directory.queryForList(
+                "select " + USER_COLUMNS + " from app_users where id = ?", userId);
+        if (user.isEmpty()) return;
+        for (int shard : shardRouter.shards()) {
+            if (shard == ShardRouter.DIRECTORY) continue;
+            inTransaction(shard, jdbc -> update(jdbc, "app_users", user.get(0)));
+        }
+    }
+
+    private void inTransaction(int shard, Consumer<JdbcTemplate> work) {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource.shard(shard)));
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.executeWithoutResult(tx -> work.accept(new JdbcTemplate(dataSource.shard(shard))));
+    }
+
+    private static void upsert(JdbcTemplate jdbc, String table, Map<String, Object> row) {
+        if (update(jdbc, table, row) == 0) {
+            insert(jdbc, table, row);
+        }
+    }
+
+    private static int update(JdbcTemplate jdbc, String table, Map<String, Object> row) {
+        List<String> columns = row.keySet().stream().filter(c -> !c.equalsIgnoreCase("id")).toList();
+        String sql = "update " + table + " set " + columns.stream().map(c -> c + " = ?").collect(Collectors.joining(", "))
+                + " where id = ?";
+        Object[] args = new Object[columns.size() + 1];
+        for (int i = 0; i < columns.size(); i++) {
+            args[i] = row.get(columns.get(i));
+        }
+        args[columns.size()] = row.get("id");
+        return jdbc.update(sql, args);
+    }
+
+    private static void insert(JdbcTemplate jdbc, String table, Map<String, Object> row) {
+        String sql = "insert into " + table + " (" + String.join(", ", row.keySet()) + ") values ("
+                + row.keySet().stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        jdbc.update(sql, row.values().toArray());
+    }
+}
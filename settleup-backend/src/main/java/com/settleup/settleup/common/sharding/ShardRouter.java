@@ -0,0 +1,78 @@
+package com.settleup.settleup.common.sharding;
+
+import com.settleup.settleup.config.ShardingProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Maps a group to the shard holding its ledger (expenses, splits, settlements, balances, recurring templates).
+ * Shard 0 is also the directory of users, groups and memberships. With sharding off there is one shard and
+ * every call runs straight through.
+ */
+@Component
+public class ShardRouter {
+
+    public static final int DIRECTORY = 0;
+
+    private final int shardCount;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    public ShardRouter(ShardingProperties properties, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        if (properties.isEnabled() && properties.getShards().isEmpty()) {
+            throw new IllegalStateException("settleup.sharding.enabled is set but no shards are configured");
+        }
+        this.shardCount = properties.isEnabled() ? properties.getShards().size() : 1;
+        this.transactionManager = transactionManager;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int[] shards() {
+        return IntStream.range(0, shardCount).toArray();
+    }
+
+    public int shardFor(Long groupId) {
+        return isSharded() ? (int) Math.floorMod(groupId, (long) shardCount) : DIRECTORY;
+    }
+
+    public <T> T onGroupShard(Long groupId, Supplier<T> work) {
+        return onShard(shardFor(groupId), work);
+    }
+
+    public void onGroupShard(Long groupId, Runnable work) {
+        onShard(shardFor(groupId), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // A transaction is bound to one connection, so switching shards inside one runs the work in its own transaction
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        int from = previous == null ? DIRECTORY : previous;
+        if (from == shard) {
+            return work.get();
+        }
+        boolean crossShard = TransactionSynchronizationManager.isActualTransactionActive();
+        ShardContext.set(shard);
+        try {
+            if (!crossShard) {
+                return work.get();
+            }
+            TransactionTemplate template = new TransactionTemplate(transactionManager.getObject());
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            return template.execute(tx -> work.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+}
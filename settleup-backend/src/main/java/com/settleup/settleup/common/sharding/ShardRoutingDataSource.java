@@ -0,0 +1,53 @@
+package com.settleup.settleup.common.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the current thread's shard, the directory shard by default. Must sit behind a
+ * {@code LazyConnectionDataSourceProxy} so the shard is read when a statement runs rather than when a session opens.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardRouter.DIRECTORY));
+        afterPropertiesSet();
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : ShardRouter.DIRECTORY;
+    }
+
+    // lets the schema initializer run Hibernate's exporter once per shard
+    static void runOn(int shard, Runnable work) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            work.run();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+}
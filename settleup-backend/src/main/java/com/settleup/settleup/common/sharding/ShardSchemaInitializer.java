@@ -0,0 +1,34 @@
+package com.settleup.settleup.common.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Hibernate's schema generation only reaches the directory shard; with {@code ddl-auto=create} this recreates
+ * the same schema on every other shard. Other ddl-auto modes leave shard schemas to migrations.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRoutingDataSource dataSource;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardRoutingDataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (int shard = 1; shard < dataSource.size(); shard++) {
+            ShardRoutingDataSource.runOn(shard, () -> {
+                sessionFactory.getSchemaManager().dropMappedObjects(true);
+                sessionFactory.getSchemaManager().exportMappedObjects(true);
+            });
+            log.info("Created schema on shard {}", shard);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.settleup.settleup.common.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method on the shard that owns a group's ledger. The value is a SpEL expression over the method
+ * arguments that yields the group id, e.g. {@code "#groupId"} or {@code "#dto.groupId"}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedByGroup {
+
+    String value();
+}
@@ -0,0 +1,12 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.admin")
+public class AdminProperties {
+
+    // shared secret for @AdminOnly endpoints; when unset they refuse every request
+    private String token;
+}
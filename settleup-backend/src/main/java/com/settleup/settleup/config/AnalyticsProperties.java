@@ -0,0 +1,27 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.analytics")
+public class AnalyticsProperties {
+
+    // months covered by a group's analytics when the request doesn't say, the current month included
+    private int months = 12;
+
+    private int maxMonths = 120;
+
+    // members listed as top payers when the request doesn't say
+    private int topPayers = 3;
+
+    // roll up the existing expense history once the application is ready; reruns only add what is missing
+    private boolean backfillOnStartup = false;
+
+    // expenses read and rolled up per transaction by the backfill
+    private int chunkSize = 1000;
+
+    private Duration lockTtl = Duration.ofMinutes(30);
+}
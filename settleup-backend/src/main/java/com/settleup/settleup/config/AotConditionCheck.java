@@ -0,0 +1,61 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.metrics.QueryCountHeaderAdvice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * With {@code spring.aot.enabled=true} (fast start, native image) bean definitions come from the build, so the
+ * {@code @ConditionalOnProperty}/{@code @ConditionalOnExpression} switches for the replica, sharding, the report pool
+ * and the query-count header were decided there and runtime properties no longer change them. Fails the boot when a
+ * property asks for something the build decided otherwise, instead of quietly running on one database.
+ */
+@Component
+@RequiredArgsConstructor
+public class AotConditionCheck implements InitializingBean {
+
+    private final ApplicationContext context;
+    private final Environment environment;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!AotDetector.useGeneratedArtifacts()) return;
+        List<String> mismatches = mismatches(environment,
+                type -> context.getBeanNamesForType(type, true, false).length > 0);
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("AOT-processed build does not match these properties; rebuild with them set: "
+                    + String.join(", ", mismatches));
+        }
+    }
+
+    // the same conditions as on the beans, evaluated against the running environment
+    static List<String> mismatches(Environment environment, Predicate<Class<?>> present) {
+        String replicaUrl = environment.getProperty("settleup.datasource.replica.url", "");
+        boolean sharded = environment.getProperty("settleup.sharding.enabled", Boolean.class, false);
+        boolean report = environment.getProperty("settleup.datasource.report.enabled", Boolean.class, false);
+        List<String> mismatches = new ArrayList<>();
+        check(mismatches, "settleup.datasource.replica.url", !replicaUrl.isEmpty(),
+                present.test(ReplicaDataSourceConfig.class));
+        check(mismatches, "settleup.sharding.enabled", sharded, present.test(ShardingConfig.class));
+        check(mismatches, "settleup.datasource.report.enabled", report && replicaUrl.isEmpty() && !sharded,
+                present.test(ReportDataSourceConfig.class));
+        check(mismatches, "settleup.metrics.query-count-header",
+                environment.getProperty("settleup.metrics.query-count-header", Boolean.class, false),
+                present.test(QueryCountHeaderAdvice.class));
+        return mismatches;
+    }
+
+    private static void check(List<String> mismatches, String property, boolean wanted, boolean built) {
+        if (wanted != built) {
+            mismatches.add(property + (wanted ? " (set, but built without it)" : " (unset, but built with it)"));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.datasource.DataSourceRouteTaskDecorator;
+import com.settleup.settleup.common.logging.MdcTaskDecorator;
+import com.settleup.settleup.common.metrics.QueryCountingTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncReadConfig {
+
+    // Runs the queries behind the async read endpoints. Bounded on both threads and queue, and it rejects rather than
+    // running work on the caller, which would put the blocking back on the request thread.
+    @Bean
+    public ThreadPoolTaskExecutor readQueryExecutor(AsyncReadProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("read-query-");
+        executor.setTaskDecorator(new CompositeTaskDecorator(List.of(
+                new MdcTaskDecorator(), new DataSourceRouteTaskDecorator(), new QueryCountingTaskDecorator())));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,15 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.async-read")
+public class AsyncReadProperties {
+
+    // queries in flight at once across all async reads; keep it below the connection pool size
+    private int threads = 6;
+
+    // queries waiting for a thread; beyond this new async reads are turned away with a 503
+    private int queueCapacity = 200;
+}
@@ -0,0 +1,44 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.datagen")
+public class DataGeneratorProperties {
+
+    private int users = 10_000;
+
+    private int groups = 2_000;
+
+    // group sizes follow a Zipf distribution over [min-group-size, max-group-size]
+    private int minGroupSize = 2;
+
+    private int maxGroupSize = 500;
+
+    private double zipfExponent = 1.1;
+
+    // spread over groups in proportion to their size
+    private int expenses = 200_000;
+
+    // members an expense is split between at most; large groups rarely split one bill with everyone
+    private int maxParticipants = 12;
+
+    // share of expenses with EXACT splits; the rest are EQUAL
+    private double exactShare = 0.3;
+
+    private int settlements = 20_000;
+
+    // expenses and settlements are back-dated over this many days
+    private int historyDays = 365;
+
+    private String currency = "INR";
+
+    // every generated user can log in as user<n>@load.test with this password
+    private String password = "password1";
+
+    // rows per JDBC batch; groups are generated and written this many rows at a time
+    private int batchSize = 1_000;
+
+    private long seed = 42;
+}
@@ -0,0 +1,14 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.fx")
+public class FxProperties {
+
+    // any Spring resource location, e.g. classpath:fx/rates.csv or file:/etc/settleup/rates.csv
+    private String ratesLocation = "classpath:fx/rates.csv";
+
+    private String defaultCurrency = "INR";
+}
@@ -0,0 +1,20 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.balances")
+public class GroupBalanceProperties {
+
+    // recompute every group's balance rows from its expenses and settlements once the application is ready; for
+    // databases that predate the rows, or whose rows drifted
+    private boolean rebuildOnStartup = false;
+
+    // groups listed per directory read by the rebuild
+    private int chunkSize = 500;
+
+    private Duration lockTtl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,17 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.group-purge")
+public class GroupPurgeProperties {
+
+    // expenses (with their splits) deleted per transaction
+    private int chunkSize = 500;
+
+    // renewed after every chunk, so it only has to outlive one chunk
+    private Duration lockTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,20 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.logging.RequestLoggingFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoggingConfig {
+
+    // first in the chain so the request ID is in the MDC for everything downstream
+    @Bean
+    public FilterRegistrationBean<RequestLoggingFilter> requestLoggingFilter(RequestLoggingProperties properties) {
+        FilterRegistrationBean<RequestLoggingFilter> registration = new FilterRegistrationBean<>(new RequestLoggingFilter(properties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
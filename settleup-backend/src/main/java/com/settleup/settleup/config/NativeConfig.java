@@ -0,0 +1,71 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.SettleupApplication;
+import com.settleup.settleup.common.ApiResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image, on top of what Spring AOT infers on its own. Every class in an
+ * {@code entity} or {@code dto} package is registered, found by scanning at build time, so new ones need no edits
+ * here: Hibernate builds entities and {@code select new} projections reflectively, and Jackson binds DTOs that AOT
+ * can't see from controller signatures (cached response bytes, outbox payloads). Lazy associations need no proxy
+ * hints, because the native build enhances the entities' bytecode instead of generating proxies at runtime.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeConfig.SettleupRuntimeHints.class)
+public class NativeConfig {
+
+    static class SettleupRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : modelTypes(classLoader)) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+                bindingHints.registerReflectionHints(hints.reflection(), type);
+            }
+            bindingHints.registerReflectionHints(hints.reflection(), ApiResponse.class);
+
+            hints.resources().registerPattern("fx/*.csv");
+            hints.resources().registerPattern("ehcache.xml");
+        }
+
+        private static List<Class<?>> modelTypes(ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                    // records, enums and static nested classes too, not just concrete top-level components
+                    return beanDefinition.getMetadata().isIndependent();
+                }
+            };
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+            scanner.addIncludeFilter((reader, factory) -> {
+                String packageName = ClassUtils.getPackageName(reader.getClassMetadata().getClassName());
+                return packageName.endsWith(".entity") || packageName.endsWith(".dto");
+            });
+
+            List<Class<?>> types = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(SettleupApplication.class.getPackageName())) {
+                types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+            return types;
+        }
+    }
+}
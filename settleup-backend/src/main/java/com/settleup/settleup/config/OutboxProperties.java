@@ -0,0 +1,22 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.outbox")
+public class OutboxProperties {
+
+    // events locked and delivered per transaction
+    private int batchSize = 100;
+
+    // after this many failed deliveries an event stays in the table for inspection and is no longer retried
+    private int maxAttempts = 10;
+
+    // delay before the first retry, doubled for each further attempt up to maxRetryDelay
+    private Duration retryDelay = Duration.ofSeconds(5);
+
+    private Duration maxRetryDelay = Duration.ofMinutes(30);
+}
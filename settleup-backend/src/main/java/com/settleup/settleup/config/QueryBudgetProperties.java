@@ -0,0 +1,17 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.query-budget")
+public class QueryBudgetProperties {
+
+    public enum Mode { OFF, WARN, FAIL }
+
+    // WARN logs and counts an endpoint going over its budget; FAIL turns the response into a 500, for tests
+    private Mode mode = Mode.WARN;
+
+    // budget for endpoints without @QueryBudget; 0 leaves them unchecked
+    private int defaultStatements = 0;
+}
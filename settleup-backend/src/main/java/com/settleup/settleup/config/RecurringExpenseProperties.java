@@ -0,0 +1,24 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.recurring")
+public class RecurringExpenseProperties {
+
+    // groups handed to a worker at a time; each template is materialized in a transaction of its own, and the run
+    // renews its lock after every chunk
+    private int chunkSize = 50;
+
+    // missed periods caught up per template and run, so a long outage can't flood a group in one go
+    private int maxCatchUp = 24;
+
+    private int workerThreads = 2;
+
+    private int queueCapacity = 32;
+
+    private Duration lockTtl = Duration.ofMinutes(10);
+}
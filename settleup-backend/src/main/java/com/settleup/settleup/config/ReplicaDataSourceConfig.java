@@ -0,0 +1,79 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.datasource.ReadYourWritesInterceptor;
+import com.settleup.settleup.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary/replica routing, active only when {@code settleup.datasource.replica.url} is set; otherwise Boot's single
+ * auto-configured DataSource is used as before. The primary keeps the spring.datasource settings; the replica pool starts
+ * from the spring.datasource.hikari settings and is tuned under settleup.datasource.replica.hikari, with a connection
+ * timeout short enough that a replica which can't hand out a connection falls back to the primary quickly.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "settleup.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig implements WebMvcConfigurer {
+
+    private final ReplicaProperties replicaProperties;
+    private final ObjectProvider<HikariDataSource> replicaDataSource;
+
+    // the replica pool is one of this class's own beans, so it is looked up once the interceptors are registered
+    public ReplicaDataSourceConfig(ReplicaProperties replicaProperties,
+                                   @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource) {
+        this.replicaProperties = replicaProperties;
+        this.replicaDataSource = replicaDataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(replicaProperties.getUrl());
+        dataSource.setUsername(replicaProperties.getUsername() != null ? replicaProperties.getUsername() : properties.getUsername());
+        dataSource.setPassword(replicaProperties.getPassword() != null ? replicaProperties.getPassword() : properties.getPassword());
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        binder.bind("settleup.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(replicaProperties.getReadYourWritesWindow(),
+                replicaProperties.getMaxReplicaLag(), new JdbcTemplate(replicaDataSource.getObject())))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,26 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.datasource.replica")
+public class ReplicaProperties {
+
+    // routing is only switched on when a replica url is configured
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    // how long a client's reads stay on the primary after a directory write (users, groups, members), which moves no
+    // group revision to compare against the replica; keep it above the replica's usual lag
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    // after an expense or settlement, reads stay on the primary until the replica has the group's revision, or for
+    // this long at most
+    private Duration maxReplicaLag = Duration.ofMinutes(1);
+}
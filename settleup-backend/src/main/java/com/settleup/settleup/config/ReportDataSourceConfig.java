@@ -0,0 +1,64 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.datasource.ReportRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Separate pools for OLTP traffic and long report reads, active with {@code settleup.datasource.report.enabled=true}
+ * when neither a replica nor sharding is configured (with a replica, reads already have a pool of their own). Both
+ * pools connect to the spring.datasource database; the report pool starts from the spring.datasource.hikari settings
+ * and is tuned under settleup.datasource.report.hikari.
+ */
+@Configuration
+@ConditionalOnExpression("${settleup.datasource.report.enabled:false} and '${settleup.datasource.replica.url:}' == ''"
+        + " and !${settleup.sharding.enabled:false}")
+public class ReportDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource reportDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        binder.bind("settleup.datasource.report.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("report");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource reportDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReportRoutingDataSource(primaryDataSource, reportDataSource));
+    }
+
+    // With open-in-view a session outlives its transactions; holding its connection would keep a report read that
+    // follows a write in the same request on the OLTP pool, and ties a pooled connection up for the whole request.
+    @Bean
+    public HibernatePropertiesCustomizer reportPoolHibernateCustomizer() {
+        return props -> props.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,16 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.logging.access")
+public class RequestLoggingProperties {
+
+    // fraction of ordinary requests written to the access log; errors and slow requests are always written
+    private double sampleRate = 0.1;
+
+    private Duration slowThreshold = Duration.ofMillis(500);
+}
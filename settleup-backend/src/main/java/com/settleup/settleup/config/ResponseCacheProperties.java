@@ -0,0 +1,23 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // total serialized bytes held across all groups
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // larger responses are served but not kept, so one huge group can't push out many hot ones
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    // entries of superseded revisions are never read again; this lets them go before the size bound forces it
+    private Duration expireAfterAccess = Duration.ofMinutes(10);
+}
@@ -0,0 +1,27 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.settlement-optimizer")
+public class SettlementOptimizerProperties {
+
+    // settle each group on its own instead of netting every user across all of their groups
+    private boolean respectGroups = false;
+
+    // currency of cross-group suggestions; defaults to settleup.fx.default-currency
+    private String currency;
+
+    // balance rows read per query
+    private int chunkSize = 1000;
+
+    // suggestions written per transaction
+    private int batchSize = 500;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private Duration lockTtl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,90 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.sharding.DirectorySync;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.common.sharding.ShardRoutingDataSource;
+import com.settleup.settleup.common.sharding.ShardSchemaInitializer;
+import com.settleup.settleup.outbox.service.OutboxService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group sharding, active only with {@code settleup.sharding.enabled=true}. Each shard gets its own pool tuned by the
+ * spring.datasource.hikari settings; shard 0 doubles as the directory. Not combined with replica routing.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "settleup.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardingConfig {
+
+    private final ShardingProperties properties;
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties, Environment environment,
+                                                         MeterRegistry meterRegistry) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.getUsername());
+            dataSource.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.getPassword());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    // With open-in-view a session outlives its transactions; holding its connection would pin the request to one shard.
+    // Pooled id blocks live in the shared session factory, so ids are taken from each shard's own sequence instead.
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateCustomizer() {
+        return props -> {
+            props.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            props.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, StandardOptimizerDescriptor.NONE.getExternalName());
+        };
+    }
+
+    @Bean
+    public DirectorySync directorySync(ShardRoutingDataSource shardRoutingDataSource, ShardRouter shardRouter,
+                                       OutboxService outboxService) {
+        return new DirectorySync(shardRoutingDataSource, shardRouter, outboxService);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.jpa.hibernate.ddl-auto", havingValue = "create")
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                         ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardSchemaInitializer(entityManagerFactory, shardRoutingDataSource);
+    }
+}
@@ -0,0 +1,29 @@
+package com.settleup.settleup.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "settleup.sharding")
+public class ShardingProperties {
+
+    // off by default: spring.datasource holds everything
+    private boolean enabled = false;
+
+    // shard 0 is also the directory (users, groups, memberships); a group's ledger lives on shard groupId mod size,
+    // so the list can't be resized without moving ledgers
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
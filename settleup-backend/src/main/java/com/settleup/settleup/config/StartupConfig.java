@@ -0,0 +1,44 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.SettleupApplication;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keeps our beans that do work on their own eager when the fast-start profile turns on lazy initialization.
+ * {@code @Scheduled} methods are only registered once their bean exists, and startup checks such as loading
+ * the FX rate table or creating shard schemas should fail the boot, not the first request that happens to
+ * need them. Everything else, controllers and repositories included, is created on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupWork() {
+        return (beanName, beanDefinition, beanType) -> hasStartupWork(beanType);
+    }
+
+    static boolean hasStartupWork(Class<?> beanType) {
+        if (!beanType.getPackageName().startsWith(SettleupApplication.class.getPackageName())) {
+            return false;
+        }
+        if (InitializingBean.class.isAssignableFrom(beanType)) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, PostConstruct.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package com.settleup.settleup.currency.controller;
+
+import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.metrics.QueryBudget;
+import com.settleup.settleup.common.security.AdminOnly;
+import com.settleup.settleup.config.FxProperties;
+import com.settleup.settleup.currency.dto.FxRateTableDto;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/fx-rates")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class FxRateController {
+
+    private final FxRateService fxRateService;
+    private final FxProperties properties;
+
+    @GetMapping
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<FxRateTableDto>> getRates() {
+        return ResponseEntity.ok(ApiResponse.success(mapToResponse(fxRateService.current()), "Exchange rates fetched"));
+    }
+
+    @PostMapping("/reload")
+    @AdminOnly
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<FxRateTableDto>> reloadRates() {
+        log.info("Request to RELOAD exchange rates from {}", properties.getRatesLocation());
+        FxRateTable table = fxRateService.reload();
+        return ResponseEntity.ok(ApiResponse.success(mapToResponse(table), "Exchange rates reloaded"));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @AdminOnly
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<FxRateTableDto>> importRates(@RequestBody String csv) {
+        log.info("Request to IMPORT exchange rates ({} bytes)", csv.length());
+        FxRateTable table = fxRateService.importCsv(csv);
+        return ResponseEntity.ok(ApiResponse.success(mapToResponse(table), "Exchange rates imported"));
+    }
+
+    private FxRateTableDto mapToResponse(FxRateTable table) {
+        return new FxRateTableDto(properties.getDefaultCurrency(), table.getSource(), table.getLoadedAt(), table.getRates());
+    }
+}
@@ -0,0 +1,17 @@
+package com.settleup.settleup.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FxRateTableDto {
+    private String defaultCurrency;
+    private String source;
+    private LocalDateTime loadedAt;
+    private Map<String, BigDecimal> rates;
+}
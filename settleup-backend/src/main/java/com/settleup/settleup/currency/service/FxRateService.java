@@ -0,0 +1,77 @@
+package com.settleup.settleup.currency.service;
+
+import com.settleup.settleup.config.FxProperties;
+import com.settleup.settleup.exception.InvalidInputException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FxRateService {
+
+    private final FxProperties properties;
+    private final ResourceLoader resourceLoader;
+
+    // Readers take one snapshot per request; reloads build a new table and swap it in whole
+    private final AtomicReference<FxRateTable> table = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    public FxRateTable current() {
+        return table.get();
+    }
+
+    public FxRateTable reload() {
+        Resource resource = resourceLoader.getResource(properties.getRatesLocation());
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return swap(FxRateTable.parseCsv(reader, properties.getRatesLocation()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read exchange rates from " + properties.getRatesLocation(), e);
+        }
+    }
+
+    public FxRateTable importCsv(String csv) {
+        try {
+            return swap(FxRateTable.parseCsv(new StringReader(csv), "import"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Returns the requested currency, or the fallback (group base / application default) when none was given
+    public String resolveCurrency(String requested, String fallback) {
+        if (requested == null || requested.isBlank()) {
+            return fallback != null ? fallback : properties.getDefaultCurrency();
+        }
+        String currency = FxRateTable.normalize(requested);
+        if (!current().supports(currency)) {
+            throw new InvalidInputException("Unsupported currency: " + currency);
+        }
+        return currency;
+    }
+
+    private FxRateTable swap(FxRateTable next) {
+        if (!next.supports(properties.getDefaultCurrency())) {
+            throw new InvalidInputException("Rate table has no rate for the default currency " + properties.getDefaultCurrency());
+        }
+        table.set(next);
+        log.info("Loaded {} exchange rates from {}", next.getRates().size(), next.getSource());
+        return next;
+    }
+}
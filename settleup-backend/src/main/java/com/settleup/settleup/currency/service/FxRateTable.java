@@ -0,0 +1,86 @@
+package com.settleup.settleup.currency.service;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable snapshot of exchange rates, each expressed as units of the currency per one unit of a common reference.
+ * Callers resolve a rate once per currency and reuse it for every row in that currency.
+ */
+@Getter
+public final class FxRateTable {
+
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+
+    private final Map<String, BigDecimal> rates;
+    private final String source;
+    private final LocalDateTime loadedAt;
+
+    private FxRateTable(Map<String, BigDecimal> rates, String source) {
+        this.rates = Collections.unmodifiableMap(new TreeMap<>(rates));
+        this.source = source;
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    public static FxRateTable of(Map<String, BigDecimal> rates, String source) {
+        return new FxRateTable(rates, source);
+    }
+
+    // Lines are "currency,rate"; blank lines, '#' comments and a "currency,rate" header are skipped
+    public static FxRateTable parseCsv(Reader csv, String source) throws IOException {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        BufferedReader reader = new BufferedReader(csv);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.toLowerCase().startsWith("currency,")) continue;
+
+            String[] parts = line.split(",");
+            if (parts.length != 2) throw new InvalidInputException("Invalid rate on line " + lineNumber + ": " + line);
+
+            String currency = normalize(parts[0]);
+            BigDecimal rate;
+            try {
+                rate = new BigDecimal(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidInputException("Invalid rate on line " + lineNumber + ": " + line);
+            }
+            if (rate.signum() <= 0) throw new InvalidInputException("Rate must be positive on line " + lineNumber);
+            if (rates.put(currency, rate) != null) throw new InvalidInputException("Duplicate currency " + currency + " on line " + lineNumber);
+        }
+        if (rates.isEmpty()) throw new InvalidInputException("Rate table is empty");
+        return new FxRateTable(rates, source);
+    }
+
+    public boolean supports(String currency) {
+        return rates.containsKey(currency);
+    }
+
+    // Multiplier that converts an amount in `from` into `to`
+    public double rate(String from, String to) {
+        if (from == null || to == null || from.equals(to)) return 1.0;
+        BigDecimal fromRate = rates.get(from);
+        BigDecimal toRate = rates.get(to);
+        if (fromRate == null) throw new InvalidInputException("No exchange rate for currency: " + from);
+        if (toRate == null) throw new InvalidInputException("No exchange rate for currency: " + to);
+        return toRate.doubleValue() / fromRate.doubleValue();
+    }
+
+    public static String normalize(String currency) {
+        String code = currency == null ? "" : currency.trim().toUpperCase();
+        if (!CURRENCY_CODE.matcher(code).matches()) throw new InvalidInputException("Invalid currency code: " + currency);
+        return code;
+    }
+}
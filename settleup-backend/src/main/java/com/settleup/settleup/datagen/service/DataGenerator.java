@@ -0,0 +1,285 @@
+package com.settleup.settleup.datagen.service;
+
+import com.settleup.settleup.config.DataGeneratorProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bulk-loads a synthetic scenario for load testing: users, groups whose sizes follow a Zipf distribution, EQUAL and
+ * EXACT expenses spread over the groups by size, settlements, and the running balances and revisions that go with
+ * them, so every read path sees a consistent ledger. Rows go in through JDBC batches, a chunk of groups per
+ * transaction, with ids drawn from the entities' own sequences so the application can keep writing afterwards.
+ * Runs once on startup under the {@code datagen} profile and leaves a database that already holds users alone.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+public class DataGenerator implements ApplicationRunner {
+
+    // groups generated and written per transaction
+    private static final int GROUPS_PER_CHUNK = 50;
+
+    private final JdbcTemplate jdbc;
+    private final DataGeneratorProperties properties;
+    private final ShardingProperties shardingProperties;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    private String nextValuesSql;
+
+    public DataGenerator(JdbcTemplate jdbc,
+                         DataGeneratorProperties properties,
+                         ShardingProperties shardingProperties,
+                         PasswordEncoder passwordEncoder,
+                         PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.properties = properties;
+        this.shardingProperties = shardingProperties;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("The data generator loads a single database; disable settleup.sharding first");
+        }
+        Long existing = jdbc.queryForObject("select count(*) from app_users", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Data generator skipped: the database already holds {} users", existing);
+            return;
+        }
+        nextValuesSql = nextValuesSql(jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getURL()));
+
+        long started = System.nanoTime();
+        Random random = new Random(properties.getSeed());
+        long[] userIds = loadUsers();
+
+        int groups = properties.getGroups();
+        ZipfSampler sizes = new ZipfSampler(properties.getMinGroupSize(),
+                Math.min(properties.getMaxGroupSize(), userIds.length), properties.getZipfExponent());
+        int[] groupSizes = new int[groups];
+        long members = 0;
+        for (int g = 0; g < groups; g++) {
+            groupSizes[g] = sizes.sample(random);
+            members += groupSizes[g];
+        }
+
+        long expenses = 0;
+        long splits = 0;
+        long settlements = 0;
+        for (int from = 0; from < groups; from += GROUPS_PER_CHUNK) {
+            int to = Math.min(from + GROUPS_PER_CHUNK, groups);
+            long[] groupIds = nextIds("group_seq", to - from);
+            Chunk chunk = new Chunk();
+            for (int g = from; g < to; g++) {
+                generateGroup(chunk, groupIds[g - from], g, groupSizes[g],
+                        share(properties.getExpenses(), groupSizes[g], members),
+                        share(properties.getSettlements(), groupSizes[g], members), userIds, random);
+            }
+            transactionTemplate.executeWithoutResult(tx -> write(chunk));
+            expenses += chunk.expenses.size();
+            splits += chunk.splitCount;
+            settlements += chunk.settlements.size();
+            if (to % (GROUPS_PER_CHUNK * 20) == 0) {
+                log.info("Data generator: {} of {} groups loaded", to, groups);
+            }
+        }
+        log.info("Data generator loaded {} users, {} groups, {} memberships, {} expenses, {} splits and {} settlements in {} s",
+                userIds.length, groups, members, expenses, splits, settlements,
+                (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private long[] loadUsers() {
+        // one hash for everyone: encoding a password per user would dominate the load
+        String password = passwordEncoder.encode(properties.getPassword());
+        int count = properties.getUsers();
+        long[] userIds = new long[count];
+        for (int from = 0; from < count; from += properties.getBatchSize()) {
+            int to = Math.min(from + properties.getBatchSize(), count);
+            long[] ids = nextIds("user_seq", to - from);
+            System.arraycopy(ids, 0, userIds, from, ids.length);
+            List<Object[]> rows = new ArrayList<>(ids.length);
+            for (int i = from; i < to; i++) {
+                rows.add(new Object[]{userIds[i], "User " + (i + 1), "user" + (i + 1) + "@load.test",
+                        String.format("9%09d", i + 1), password});
+            }
+            transactionTemplate.executeWithoutResult(tx -> jdbc.batchUpdate(
+                    "insert into app_users (id, name, email, mobile_number, password) values (?, ?, ?, ?, ?)", rows));
+        }
+        return userIds;
+    }
+
+    private void generateGroup(Chunk chunk, long groupId, int index, int size, int expenses, int settlements,
+                               long[] userIds, Random random) {
+        long[] members = sample(userIds, size, random);
+        LocalDateTime now = LocalDateTime.now();
+        chunk.groups.add(new Object[]{groupId, "Group " + (index + 1), properties.getCurrency(),
+                Timestamp.valueOf(now.minusDays(properties.getHistoryDays())), members[0]});
+        for (long member : members) {
+            chunk.members.add(new Object[]{groupId, member});
+        }
+
+        Map<Long, Long> balances = new HashMap<>();
+        for (int e = 0; e < expenses; e++) {
+            long payer = members[random.nextInt(members.length)];
+            long[] participants = sample(members, Math.min(members.length, 2 + random.nextInt(properties.getMaxParticipants() - 1)), random);
+            long cents = 100 + random.nextInt(50_000);
+            boolean exact = random.nextDouble() < properties.getExactShare();
+            long[] owed = exact ? weighted(cents, participants.length, random) : equal(cents, participants.length);
+
+            int expenseIndex = chunk.expenses.size();
+            chunk.expenses.add(new Object[]{null, (exact ? "Bill " : "Dinner ") + (expenseIndex + 1), cents / 100.0,
+                    properties.getCurrency(), exact ? "EXACT" : "EQUAL", timestamp(now, random), groupId, payer});
+            balances.merge(payer, cents, Long::sum);
+            for (int p = 0; p < participants.length; p++) {
+                chunk.splits.computeIfAbsent(expenseIndex, i -> new ArrayList<>()).add(new long[]{participants[p], owed[p]});
+                balances.merge(participants[p], -owed[p], Long::sum);
+            }
+            chunk.splitCount += participants.length;
+        }
+
+        for (int s = 0; s < settlements; s++) {
+            long[] pair = sample(members, 2, random);
+            long cents = 100 + random.nextInt(20_000);
+            chunk.settlements.add(new Object[]{null, groupId, pair[0], pair[1], cents / 100.0, timestamp(now, random)});
+            balances.merge(pair[0], cents, Long::sum);
+            balances.merge(pair[1], -cents, Long::sum);
+        }
+
+        balances.forEach((userId, cents) -> {
+            if (cents != 0) chunk.balances.add(new Object[]{null, groupId, userId, properties.getCurrency(), cents});
+        });
+        chunk.revisions.add(new Object[]{groupId, 1L});
+    }
+
+    private void write(Chunk chunk) {
+        assignIds(chunk.expenses, "expense_seq");
+        assignIds(chunk.settlements, "settle_seq");
+        assignIds(chunk.balances, "group_balance_seq");
+        List<Object[]> splits = new ArrayList<>(chunk.splitCount);
+        long[] splitIds = nextIds("split_seq", chunk.splitCount);
+        chunk.splits.forEach((expenseIndex, rows) -> {
+            Object expenseId = chunk.expenses.get(expenseIndex)[0];
+            for (long[] row : rows) {
+                splits.add(new Object[]{splitIds[splits.size()], expenseId, row[0], row[1] / 100.0});
+            }
+        });
+
+        batch("insert into expense_groups (id, name, base_currency, created_at, created_by_user_id) values (?, ?, ?, ?, ?)", chunk.groups);
+        batch("insert into group_members (group_id, user_id) values (?, ?)", chunk.members);
+        batch("insert into expenses (id, description, amount, currency, split_type, created_at, group_id, paid_by_user_id) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?)", chunk.expenses);
+        batch("insert into expense_splits (id, expense_id, user_id, amount_owed) values (?, ?, ?, ?)", splits);
+        batch("insert into settlements (id, group_id, payer_id, payee_id, amount, created_at) values (?, ?, ?, ?, ?, ?)", chunk.settlements);
+        batch("insert into group_balances (id, group_id, user_id, currency, amount_cents) values (?, ?, ?, ?, ?)", chunk.balances);
+        batch("insert into group_revisions (group_id, revision) values (?, ?)", chunk.revisions);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += properties.getBatchSize()) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + properties.getBatchSize(), rows.size())));
+        }
+    }
+
+    private void assignIds(List<Object[]> rows, String sequence) {
+        long[] ids = nextIds(sequence, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i)[0] = ids[i];
+        }
+    }
+
+    // One round trip per block. Every value is the sequence's own, so with a pooled allocation size it also lies
+    // in a block Hibernate will never hand out.
+    private long[] nextIds(String sequence, int count) {
+        if (count == 0) return new long[0];
+        return jdbc.queryForList(nextValuesSql.formatted(sequence), Long.class, count).stream()
+                .mapToLong(Long::longValue).toArray();
+    }
+
+    private static String nextValuesSql(String url) {
+        return switch (DatabaseDriver.fromJdbcUrl(url)) {
+            case ORACLE -> "select %s.nextval from dual connect by level <= ?";
+            case H2 -> "select next value for %s from system_range(1, ?)";
+            case POSTGRESQL -> "select nextval('%s') from generate_series(1, ?)";
+            default -> throw new IllegalStateException("The data generator does not support " + url);
+        };
+    }
+
+    // count distinct picks from values, in random order
+    private static long[] sample(long[] values, int count, Random random) {
+        long[] pool = values.clone();
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(pool.length - i);
+            long swap = pool[i];
+            pool[i] = pool[j];
+            pool[j] = swap;
+        }
+        return Arrays.copyOf(pool, count);
+    }
+
+    private static long[] equal(long cents, int parts) {
+        long[] owed = new long[parts];
+        for (int p = 0; p < parts; p++) {
+            owed[p] = cents / parts + (p < cents % parts ? 1 : 0);
+        }
+        return owed;
+    }
+
+    private static long[] weighted(long cents, int parts, Random random) {
+        long[] weights = new long[parts];
+        long total = 0;
+        for (int p = 0; p < parts; p++) {
+            weights[p] = 1 + random.nextInt(10);
+            total += weights[p];
+        }
+        long[] owed = new long[parts];
+        long assigned = 0;
+        for (int p = 0; p < parts - 1; p++) {
+            owed[p] = cents * weights[p] / total;
+            assigned += owed[p];
+        }
+        owed[parts - 1] = cents - assigned;
+        return owed;
+    }
+
+    private Timestamp timestamp(LocalDateTime now, Random random) {
+        return Timestamp.valueOf(now.minusSeconds(random.nextLong(properties.getHistoryDays() * 86_400L)));
+    }
+
+    // a part of total in proportion to weight
+    private static int share(int total, int weight, long totalWeight) {
+        return (int) Math.round((double) total * weight / totalWeight);
+    }
+
+    // rows generated for one transaction's worth of groups
+    private static final class Chunk {
+        final List<Object[]> groups = new ArrayList<>();
+        final List<Object[]> members = new ArrayList<>();
+        final List<Object[]> expenses = new ArrayList<>();
+        final Map<Integer, List<long[]>> splits = new HashMap<>();
+        final List<Object[]> settlements = new ArrayList<>();
+        final List<Object[]> balances = new ArrayList<>();
+        final List<Object[]> revisions = new ArrayList<>();
+        int splitCount;
+    }
+}
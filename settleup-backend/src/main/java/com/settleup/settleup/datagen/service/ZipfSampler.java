@@ -0,0 +1,30 @@
+package com.settleup.settleup.datagen.service;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Draws integers in [min, max] with P(min + k) proportional to 1 / (k + 1)^exponent: mostly small, with a long tail
+public final class ZipfSampler {
+
+    private final int min;
+    private final double[] cumulative;
+
+    public ZipfSampler(int min, int max, double exponent) {
+        if (min > max) throw new IllegalArgumentException("min must not exceed max");
+        this.min = min;
+        this.cumulative = new double[max - min + 1];
+        double total = 0;
+        for (int k = 0; k < cumulative.length; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < cumulative.length; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return min + (index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1));
+    }
+}
@@ -0,0 +1,30 @@
+package com.settleup.settleup.debt.controller;
+
+import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.metrics.QueryBudget;
+import com.settleup.settleup.debt.dto.NetDebtsDto;
+import com.settleup.settleup.debt.service.NetDebtService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class NetDebtController {
+
+    private final NetDebtService netDebtService;
+
+    // currency defaults to the application's default currency
+    @GetMapping("/{userId}/net-debts")
+    @QueryBudget(2)
+    public ResponseEntity<ApiResponse<NetDebtsDto>> getNetDebts(@PathVariable Long userId,
+                                                                @RequestParam(required = false) String currency) {
+        log.debug("Net debts: userId={}, currency={}", userId, currency);
+        NetDebtsDto response = netDebtService.getNetDebts(userId, currency);
+        return ResponseEntity.ok(ApiResponse.success(response, "Net debts calculated"));
+    }
+}
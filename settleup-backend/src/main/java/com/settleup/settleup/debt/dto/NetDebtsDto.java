@@ -0,0 +1,30 @@
+package com.settleup.settleup.debt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// A user's position netted across all of their groups, with the transfers that settle it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetDebtsDto {
+
+    private Long userId;
+    private String currency;
+    // positive is owed, negative owes
+    private Double netBalance;
+    private List<Transfer> transfers;
+
+    @Data
+    @AllArgsConstructor
+    public static class Transfer {
+        private Long fromUserId;
+        private String fromUser;
+        private Long toUserId;
+        private String toUser;
+        private Double amount;
+    }
+}
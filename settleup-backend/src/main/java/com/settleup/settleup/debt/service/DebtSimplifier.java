@@ -0,0 +1,176 @@
+package com.settleup.settleup.debt.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Turns net positions into transfers, one connected component at a time. Components are users linked by shared
+ * expenses, settlements or groups; each sums to zero on its own, so settling them separately never needs more
+ * transfers than settling everyone together, and they can be settled in parallel. A small component gets the exact
+ * minimum: its positions are split into as many zero-sum subsets as possible, each of which takes size - 1 transfers.
+ * Larger ones use the greedy {@link MinCashFlow}. Output depends only on the positions, never on map iteration
+ * order, so equal ledgers give byte-identical results.
+ */
+public final class DebtSimplifier {
+
+    // the exact solver walks every submask of every zero-sum mask: 3^12 is about half a million steps
+    static final int EXACT_MAX_POSITIONS = 12;
+
+    // below this many positions a task settles its components itself rather than forking further
+    private static final int SEQUENTIAL_POSITIONS = 2_000;
+
+    private DebtSimplifier() {
+    }
+
+    // Splits non-zero positions by the user's root in links, ordered by each component's smallest user id. Users
+    // links never saw, and components that don't sum to zero (rounding aside), are settled together as one last component.
+    public static List<Map<Long, Long>> components(Map<Long, Long> netCents, UnionFind links) {
+        Map<Long, Map<Long, Long>> byRoot = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(netCents).entrySet()) {
+            if (entry.getValue() == 0) continue;
+            byRoot.computeIfAbsent(links.find(entry.getKey()), root -> new TreeMap<>()).put(entry.getKey(), entry.getValue());
+        }
+
+        List<Map<Long, Long>> components = new ArrayList<>(byRoot.size());
+        Map<Long, Long> unbalanced = new TreeMap<>();
+        for (Map<Long, Long> component : byRoot.values()) {
+            if (Math.abs(sum(component)) < component.size()) components.add(component);
+            else unbalanced.putAll(component);
+        }
+        if (!unbalanced.isEmpty()) components.add(unbalanced);
+        return components;
+    }
+
+    // One list of transfers per component, in component order; only large inputs go to the pool
+    public static List<List<MinCashFlow.Transfer>> simplifyAll(ForkJoinPool pool, List<Map<Long, Long>> components) {
+        if (components.isEmpty()) return List.of();
+        SimplifyTask task = new SimplifyTask(components, 0, components.size());
+        return task.positions() <= SEQUENTIAL_POSITIONS ? task.compute() : pool.invoke(task);
+    }
+
+    // netCents: positive is owed, negative owes
+    public static List<MinCashFlow.Transfer> simplify(Map<Long, Long> netCents) {
+        long[] userIds = new long[netCents.size()];
+        long[] cents = new long[netCents.size()];
+        int n = 0;
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(netCents).entrySet()) {
+            if (entry.getValue() == 0) continue;
+            userIds[n] = entry.getKey();
+            cents[n++] = entry.getValue();
+        }
+        if (n == 0) return List.of();
+
+        // a cent or two left over from currency conversion comes off the largest position on the residue's side
+        long residue = 0;
+        for (int i = 0; i < n; i++) residue += cents[i];
+        if (residue != 0 && Math.abs(residue) < n) {
+            int largest = -1;
+            for (int i = 0; i < n; i++) {
+                if (Long.signum(cents[i]) == Long.signum(residue) && (largest < 0 || Math.abs(cents[i]) > Math.abs(cents[largest]))) {
+                    largest = i;
+                }
+            }
+            cents[largest] -= residue;
+            residue = 0;
+        }
+
+        if (residue != 0 || n > EXACT_MAX_POSITIONS) {
+            Map<Long, Long> positions = new TreeMap<>();
+            for (int i = 0; i < n; i++) positions.put(userIds[i], cents[i]);
+            return MinCashFlow.settle(positions);
+        }
+        return exact(userIds, cents, n);
+    }
+
+    // best[mask]: most zero-sum parts a zero-sum mask splits into; part[mask]: the part holding its lowest position
+    private static List<MinCashFlow.Transfer> exact(long[] userIds, long[] cents, int n) {
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            sum[mask] = sum[mask & (mask - 1)] + cents[Integer.numberOfTrailingZeros(mask)];
+        }
+
+        int[] best = new int[full + 1];
+        int[] part = new int[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            if (sum[mask] != 0) continue;
+            int low = mask & -mask;
+            int rest = mask ^ low;
+            best[mask] = 1;
+            part[mask] = mask;
+            // proper zero-sum parts containing the lowest position; their complements are zero-sum too
+            for (int sub = (rest - 1) & rest; sub > 0; sub = (sub - 1) & rest) {
+                int candidate = low | sub;
+                if (sum[candidate] == 0 && 1 + best[mask ^ candidate] > best[mask]) {
+                    best[mask] = 1 + best[mask ^ candidate];
+                    part[mask] = candidate;
+                }
+            }
+        }
+
+        // within a part no smaller subset sums to zero, so the greedy pass needs exactly size - 1 transfers
+        List<MinCashFlow.Transfer> transfers = new ArrayList<>(n);
+        for (int mask = full; mask != 0; mask ^= part[mask]) {
+            transfers.addAll(MinCashFlow.settle(part(userIds, cents, part[mask], n)));
+        }
+        return transfers;
+    }
+
+    private static Map<Long, Long> part(long[] userIds, long[] cents, int mask, int n) {
+        Map<Long, Long> positions = new TreeMap<>();
+        for (int i = 0; i < n; i++) {
+            if ((mask & (1 << i)) != 0) positions.put(userIds[i], cents[i]);
+        }
+        return positions;
+    }
+
+    private static long sum(Map<Long, Long> positions) {
+        long sum = 0;
+        for (long cents : positions.values()) sum += cents;
+        return sum;
+    }
+
+    private static final class SimplifyTask extends RecursiveTask<List<List<MinCashFlow.Transfer>>> {
+
+        private final List<Map<Long, Long>> components;
+        private final int from;
+        private final int to;
+
+        SimplifyTask(List<Map<Long, Long>> components, int from, int to) {
+            this.components = components;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<List<MinCashFlow.Transfer>> compute() {
+            if (to - from == 1 || positions() <= SEQUENTIAL_POSITIONS) {
+                List<List<MinCashFlow.Transfer>> simplified = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    simplified.add(simplify(components.get(i)));
+                }
+                return simplified;
+            }
+            int mid = (from + to) >>> 1;
+            SimplifyTask left = new SimplifyTask(components, from, mid);
+            left.fork();
+            List<List<MinCashFlow.Transfer>> right = new SimplifyTask(components, mid, to).compute();
+            List<List<MinCashFlow.Transfer>> simplified = new ArrayList<>(left.join());
+            simplified.addAll(right);
+            return simplified;
+        }
+
+        int positions() {
+            int positions = 0;
+            for (int i = from; i < to && positions <= SEQUENTIAL_POSITIONS; i++) {
+                positions += components.get(i).size();
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.settleup.settleup.debt.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Settles net positions with at most n - 1 transfers: the largest debtor repeatedly pays the largest creditor, and
+ * whoever is left with a remainder goes back in line. Amounts are in cents so the result is exact; ties are broken by
+ * user id, so the same positions always give the same transfers.
+ */
+public final class MinCashFlow {
+
+    public record Transfer(long fromUserId, long toUserId, long amountCents) {
+    }
+
+    private record Position(long userId, long cents) {
+    }
+
+    private static final Comparator<Position> LARGEST_FIRST =
+            Comparator.comparingLong((Position p) -> p.cents()).reversed().thenComparingLong(Position::userId);
+
+    private MinCashFlow() {
+    }
+
+    // netCents: positive is owed, negative owes. Positions need not sum to exactly zero; any rounding residue is dropped.
+    public static List<Transfer> settle(Map<Long, Long> netCents) {
+        PriorityQueue<Position> debtors = new PriorityQueue<>(LARGEST_FIRST);
+        PriorityQueue<Position> creditors = new PriorityQueue<>(LARGEST_FIRST);
+        for (Map.Entry<Long, Long> entry : netCents.entrySet()) {
+            long cents = entry.getValue();
+            if (cents < 0) debtors.add(new Position(entry.getKey(), -cents));
+            else if (cents > 0) creditors.add(new Position(entry.getKey(), cents));
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!debtors.isEmpty() && !creditors.isEmpty()) {
+            Position debtor = debtors.poll();
+            Position creditor = creditors.poll();
+            long amount = Math.min(debtor.cents(), creditor.cents());
+            transfers.add(new Transfer(debtor.userId(), creditor.userId(), amount));
+
+            if (debtor.cents() > amount) debtors.add(new Position(debtor.userId(), debtor.cents() - amount));
+            if (creditor.cents() > amount) creditors.add(new Position(creditor.userId(), creditor.cents() - amount));
+        }
+        return transfers;
+    }
+}
@@ -0,0 +1,97 @@
+package com.settleup.settleup.debt.service;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.debt.dto.NetDebtsDto;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nets a user's debts across all of their groups. Every member's balance is summed over those groups (one aggregate
+ * query per shard) and converted to one currency, and the union is settled with {@link DebtSimplifier}. Owing Bob in
+ * one group while Bob owes you in another thus nets out, and chains through third parties collapse.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+public class NetDebtService {
+
+    private final GroupBalanceRepository balanceRepo;
+    private final UserRepository userRepo;
+    private final GroupBalanceService groupBalanceService;
+    private final FxRateService fxRateService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public NetDebtService(GroupBalanceRepository balanceRepo,
+                          UserRepository userRepo,
+                          GroupBalanceService groupBalanceService,
+                          FxRateService fxRateService,
+                          ShardRouter shardRouter,
+                          PlatformTransactionManager transactionManager) {
+        this.balanceRepo = balanceRepo;
+        this.userRepo = userRepo;
+        this.groupBalanceService = groupBalanceService;
+        this.fxRateService = fxRateService;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public NetDebtsDto getNetDebts(Long userId, String requestedCurrency) {
+        String currency = fxRateService.resolveCurrency(requestedCurrency, null);
+
+        // each shard holds the balances of its own groups, so the per-shard sums just add up
+        List<UserCurrencyTotal> totals = new ArrayList<>();
+        for (int shard : shardRouter.shards()) {
+            totals.addAll(shardRouter.onShard(shard,
+                    () -> readOnlyTransaction.execute(tx -> balanceRepo.findTotalsAcrossGroupsOf(userId))));
+        }
+
+        Map<Long, Long> netCents = new HashMap<>();
+        groupBalanceService.netBalances(totals, currency)
+                .forEach((memberId, amount) -> netCents.put(memberId, Math.round(amount * 100.0)));
+
+        List<MinCashFlow.Transfer> transfers = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(userId);
+        for (MinCashFlow.Transfer transfer : DebtSimplifier.simplify(netCents)) {
+            if (transfer.fromUserId() == userId || transfer.toUserId() == userId) {
+                transfers.add(transfer);
+                userIds.add(transfer.fromUserId());
+                userIds.add(transfer.toUserId());
+            }
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        for (UserNameRow row : readOnlyTransaction.execute(tx -> userRepo.findNamesByIdIn(userIds))) {
+            names.put(row.getId(), row.getName());
+        }
+        if (!names.containsKey(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        List<NetDebtsDto.Transfer> result = new ArrayList<>(transfers.size());
+        for (MinCashFlow.Transfer t : transfers) {
+            result.add(new NetDebtsDto.Transfer(t.fromUserId(), names.getOrDefault(t.fromUserId(), "Unknown"),
+                    t.toUserId(), names.getOrDefault(t.toUserId(), "Unknown"), t.amountCents() / 100.0));
+        }
+        return new NetDebtsDto(userId, currency, netCents.getOrDefault(userId, 0L) / 100.0, result);
+    }
+}
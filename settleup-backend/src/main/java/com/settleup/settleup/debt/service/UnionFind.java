@@ -0,0 +1,41 @@
+package com.settleup.settleup.debt.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Disjoint sets over user ids, with path halving and union by size; ids are added on first sight
+public final class UnionFind {
+
+    private final Map<Long, Long> parent = new HashMap<>();
+    private final Map<Long, Integer> size = new HashMap<>();
+
+    public long find(long id) {
+        Long p = parent.get(id);
+        if (p == null) {
+            parent.put(id, id);
+            size.put(id, 1);
+            return id;
+        }
+        long node = id;
+        while (p != node) {
+            long grandparent = parent.get(p);
+            parent.put(node, grandparent);
+            node = grandparent;
+            p = parent.get(node);
+        }
+        return node;
+    }
+
+    public void union(long a, long b) {
+        long rootA = find(a);
+        long rootB = find(b);
+        if (rootA == rootB) return;
+        if (size.get(rootA) < size.get(rootB)) {
+            long swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent.put(rootB, rootA);
+        size.put(rootA, size.get(rootA) + size.remove(rootB));
+    }
+}
@@ -3,8 +3,12 @@ package com.settleup.settleup.expense.controller;
 import com.settleup.settleup.expense.dto.BalanceSheetDto; // Make sure this import exists
 import com.settleup.settleup.expense.dto.ExpenseRequestDto;
 import com.settleup.settleup.expense.dto.ExpenseResponseDto;
+import com.settleup.settleup.expense.service.ExpenseQueryService;
+import com.settleup.settleup.expense.service.ExpenseResponseCache;
 import com.settleup.settleup.expense.service.ExpenseService;
 import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.ApiResponseBytes;
+import com.settleup.settleup.common.metrics.QueryBudget;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -21,29 +26,56 @@ import java.util.List;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseQueryService expenseQueryService;
+    private final ExpenseResponseCache expenseResponseCache;
+    private final ApiResponseBytes apiResponseBytes;
 
     @PostMapping
+    @QueryBudget(17)
     public ResponseEntity<ApiResponse<Void>> addExpense(@Valid @RequestBody ExpenseRequestDto dto) {
-        log.info("Request to ADD Expense: Description='{}', Amount={}, PaidByUserId={}, GroupId={}",
-                dto.getDescription(), dto.getAmount(), dto.getPaidByUserId(), dto.getGroupId());
+        log.debug("Add expense: groupId={}, paidByUserId={}, amount={}", dto.getGroupId(), dto.getPaidByUserId(), dto.getAmount());
         expenseService.addExpense(dto);
-        log.info("Expense added successfully for groupId: {}", dto.getGroupId());
         return ResponseEntity.ok(ApiResponse.success(null, "Expense added successfully"));
     }
 
+    // Served from serialized bytes cached per group revision; same JSON as ApiResponse<BalanceSheetDto>
     @GetMapping("/group/{groupId}/balances")
-    public ResponseEntity<ApiResponse<BalanceSheetDto>> getGroupBalances(@PathVariable Long groupId) {
-        log.info("Fetching Balance Sheet for groupId: {}", groupId);
-        BalanceSheetDto response = expenseService.getGroupBalances(groupId);
-        log.info("Balances calculated successfully for groupId: {}", groupId);
-        return ResponseEntity.ok(ApiResponse.success(response, "Balances calculated"));
+    @QueryBudget(6)
+    public ResponseEntity<byte[]> getGroupBalances(@PathVariable Long groupId) {
+        log.debug("Balances: groupId={}", groupId);
+        return apiResponseBytes.success(expenseResponseCache.balances(groupId), "Balances calculated");
     }
 
+    // Same JSON as ApiResponse<List<ExpenseResponseDto>>
     @GetMapping("/group/{groupId}/history")
-    public ResponseEntity<ApiResponse<List<ExpenseResponseDto>>> getGroupHistory(@PathVariable Long groupId) {
-        log.info("Fetching Activity History for groupId: {}", groupId);
-        List<ExpenseResponseDto> response = expenseService.getGroupHistory(groupId);
-        log.info("History fetched for groupId: {}. Found {} items.", groupId, response.size());
-        return ResponseEntity.ok(ApiResponse.success(response, "History fetched"));
+    @QueryBudget(4)
+    public ResponseEntity<byte[]> getGroupHistory(@PathVariable Long groupId) {
+        log.debug("History: groupId={}", groupId);
+        return apiResponseBytes.success(expenseResponseCache.history(groupId), "History fetched");
     }
-}
\ No newline at end of file
+
+    // Same history with users referenced by id and named once, in a dictionary; same JSON as ApiResponse<CompactHistoryDto>
+    @GetMapping("/group/{groupId}/history/compact")
+    @QueryBudget(5)
+    public ResponseEntity<byte[]> getGroupHistoryCompact(@PathVariable Long groupId) {
+        log.debug("History (compact): groupId={}", groupId);
+        return apiResponseBytes.success(expenseResponseCache.compactHistory(groupId), "History fetched");
+    }
+
+    // Non-blocking variants: the request thread is released while the queries run concurrently
+    @GetMapping("/group/{groupId}/balances/async")
+    @QueryBudget(5)
+    public CompletableFuture<ResponseEntity<ApiResponse<BalanceSheetDto>>> getGroupBalancesAsync(@PathVariable Long groupId) {
+        log.debug("Balances (async): groupId={}", groupId);
+        return expenseQueryService.getGroupBalances(groupId)
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success(response, "Balances calculated")));
+    }
+
+    @GetMapping("/group/{groupId}/history/async")
+    @QueryBudget(3)
+    public CompletableFuture<ResponseEntity<ApiResponse<List<ExpenseResponseDto>>>> getGroupHistoryAsync(@PathVariable Long groupId) {
+        log.debug("History (async): groupId={}", groupId);
+        return expenseQueryService.getGroupHistory(groupId)
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success(response, "History fetched")));
+    }
+}
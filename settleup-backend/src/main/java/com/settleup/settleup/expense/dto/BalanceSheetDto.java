@@ -12,6 +12,7 @@ public class BalanceSheetDto {
 
     private List<UserBalance> balances;
     private List<SimplifiedDebt> simplifiedDebts;
+    private String currency;
 
     @Data
     @AllArgsConstructor
@@ -0,0 +1,17 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CompactExpenseRow {
+    private Long id;
+    private String description;
+    private Double amount;
+    private String currency;
+    private Long paidByUserId;
+    private LocalDateTime createdAt;
+}
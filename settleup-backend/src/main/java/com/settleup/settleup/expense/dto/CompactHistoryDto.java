@@ -0,0 +1,39 @@
+package com.settleup.settleup.expense.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// History with users referenced by id; each user's name appears once, in the users dictionary
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactHistoryDto {
+
+    private Map<Long, String> users;
+    private List<Entry> entries;
+
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+        private Long id;
+        private String type;
+        private String description;
+        private Double amount;
+        private String currency;
+        private Long paidBy;
+        // settlements only: the user who was paid
+        private Long paidTo;
+        private LocalDateTime createdAt;
+        // expenses only: splitUserIds[i] owes splitAmounts[i]
+        private long[] splitUserIds;
+        private double[] splitAmounts;
+    }
+}
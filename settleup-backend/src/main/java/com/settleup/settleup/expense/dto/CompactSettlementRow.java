@@ -0,0 +1,16 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CompactSettlementRow {
+    private Long id;
+    private Long payerId;
+    private Long payeeId;
+    private Double amount;
+    private LocalDateTime createdAt;
+}
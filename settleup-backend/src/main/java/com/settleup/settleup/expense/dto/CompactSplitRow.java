@@ -0,0 +1,12 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CompactSplitRow {
+    private Long expenseId;
+    private Long userId;
+    private Double amountOwed;
+}
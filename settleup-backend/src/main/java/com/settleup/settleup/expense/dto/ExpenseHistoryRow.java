@@ -0,0 +1,17 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ExpenseHistoryRow {
+    private Long id;
+    private String description;
+    private Double amount;
+    private String currency;
+    private String paidByUserName;
+    private LocalDateTime createdAt;
+}
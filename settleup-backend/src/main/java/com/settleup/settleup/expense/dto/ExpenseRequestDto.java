@@ -1,5 +1,6 @@
 package com.settleup.settleup.expense.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
@@ -18,13 +19,35 @@ public class ExpenseRequestDto {
     @NotNull(message = "Description is required")
     private String description;
 
+    @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be positive")
     private Double amount;
 
-    @NotNull(message = "Split type is required (EQUAL or EXACT)")
+    // ISO code; defaults to the group's base currency
+    private String currency;
+
+    @NotNull(message = "Split type is required (EQUAL, EXACT, PERCENT, SHARES or ITEMIZED)")
     private String splitType;
 
     private List<Long> involvedUserIds;
 
     private Map<Long, Double> exactSplits;
-}
\ No newline at end of file
+
+    private Map<Long, Double> percentSplits;
+
+    private Map<Long, Integer> shareSplits;
+
+    @Valid
+    private List<SplitItem> items;
+
+    @Data
+    public static class SplitItem {
+        private String description;
+
+        @NotNull(message = "Item amount is required")
+        @Positive(message = "Item amount must be positive")
+        private Double amount;
+
+        private List<Long> userIds;
+    }
+}
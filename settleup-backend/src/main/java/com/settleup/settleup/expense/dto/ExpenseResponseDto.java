@@ -11,6 +11,7 @@ public class ExpenseResponseDto {
     private Long id;
     private String description;
     private Double amount;
+    private String currency;
     private String paidByUserName;
     private LocalDateTime createdAt;
     private String type;
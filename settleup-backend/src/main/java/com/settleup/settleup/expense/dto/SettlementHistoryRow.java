@@ -0,0 +1,16 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SettlementHistoryRow {
+    private Long id;
+    private String payerName;
+    private String payeeName;
+    private Double amount;
+    private LocalDateTime createdAt;
+}
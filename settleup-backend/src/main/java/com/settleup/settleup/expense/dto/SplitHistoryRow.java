@@ -0,0 +1,12 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SplitHistoryRow {
+    private Long expenseId;
+    private String userName;
+    private Double amountOwed;
+}
@@ -0,0 +1,12 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserCurrencyTotal {
+    private Long userId;
+    private String currency;
+    private Double total;
+}
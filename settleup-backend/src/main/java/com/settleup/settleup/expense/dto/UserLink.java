@@ -0,0 +1,12 @@
+package com.settleup.settleup.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Two users who shared an expense or a settlement, which puts them in the same component of the group's debt graph
+@Data
+@AllArgsConstructor
+public class UserLink {
+    private Long userId;
+    private Long otherUserId;
+}
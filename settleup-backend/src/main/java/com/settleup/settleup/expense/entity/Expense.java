@@ -1,13 +1,17 @@
 package com.settleup.settleup.expense.entity;
 
+import com.settleup.settleup.expense.split.SplitType;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.user.entity.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
@@ -20,7 +24,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expense_group", columnList = "group_id, id"),
+        @Index(name = "idx_expense_group_payer", columnList = "group_id, paid_by_user_id")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,7 +35,7 @@ public class Expense {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq_gen")
-    @SequenceGenerator(name = "expense_seq_gen", sequenceName = "expense_seq", allocationSize = 1)
+    @SequenceGenerator(name = "expense_seq_gen", sequenceName = "expense_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,8 +44,12 @@ public class Expense {
     @Column(nullable = false)
     private Double amount;
 
+    @Column(length = 3, nullable = false)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private String splitType;
+    private SplitType splitType;
 
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
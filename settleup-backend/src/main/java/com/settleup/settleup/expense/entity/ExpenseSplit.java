@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "expense_splits")
+@Table(name = "expense_splits", indexes = {
+        @Index(name = "idx_split_expense", columnList = "expense_id"),
+        @Index(name = "idx_split_user", columnList = "user_id")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,7 +16,7 @@ public class ExpenseSplit {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "split_seq_gen")
-    @SequenceGenerator(name = "split_seq_gen", sequenceName = "split_seq", allocationSize = 1)
+    @SequenceGenerator(name = "split_seq_gen", sequenceName = "split_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,13 +1,47 @@
 package com.settleup.settleup.expense.repository;
 
+import com.settleup.settleup.analytics.dto.ExpenseSpendRow;
+import com.settleup.settleup.expense.dto.CompactExpenseRow;
+import com.settleup.settleup.expense.dto.ExpenseHistoryRow;
 import com.settleup.settleup.expense.entity.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByGroupId(Long groupId);
+    @Query("select new com.settleup.settleup.expense.dto.ExpenseHistoryRow(e.id, e.description, e.amount, e.currency, p.name, e.createdAt) " +
+            "from Expense e join e.paidBy p where e.group.id = :groupId")
+    List<ExpenseHistoryRow> findHistoryByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.settleup.settleup.expense.dto.CompactExpenseRow(e.id, e.description, e.amount, e.currency, e.paidBy.id, e.createdAt) " +
+            "from Expense e where e.group.id = :groupId")
+    List<CompactExpenseRow> findCompactHistoryByGroupId(@Param("groupId") Long groupId);
+
     boolean existsByGroupIdAndPaidById(Long groupId, Long userId);
-}
\ No newline at end of file
+
+    // by the foreign key: a derived query joins the group, whose tombstone restriction would hide a deleted group's rows
+    @Query("select count(e) from Expense e where e.group.id = :groupId")
+    long countByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select e.id from Expense e where e.group.id = :groupId order by e.id")
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    // Keyset chunk for the spend rollup backfill; the join leaves out tombstoned groups
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.settleup.settleup.analytics.dto.ExpenseSpendRow(e.id, g.id, e.paidBy.id, e.currency, e.amount, e.createdAt) " +
+            "from Expense e join e.group g where e.id > :afterId order by e.id")
+    List<ExpenseSpendRow> findSpendChunk(@Param("afterId") Long afterId, Pageable chunk);
+
+    @Modifying
+    @Query("delete from Expense e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -1,13 +1,39 @@
 package com.settleup.settleup.expense.repository;
 
+import com.settleup.settleup.expense.dto.CompactSplitRow;
+import com.settleup.settleup.expense.dto.SplitHistoryRow;
+import com.settleup.settleup.expense.dto.UserLink;
 import com.settleup.settleup.expense.entity.ExpenseSplit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long> {
-    List<ExpenseSplit> findByExpenseId(Long expenseId);
+    @Query("select new com.settleup.settleup.expense.dto.SplitHistoryRow(s.expense.id, u.name, s.amountOwed) " +
+            "from ExpenseSplit s join s.user u where s.expense.group.id = :groupId order by s.expense.id, s.id")
+    List<SplitHistoryRow> findHistoryByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.settleup.settleup.expense.dto.CompactSplitRow(s.expense.id, s.user.id, s.amountOwed) " +
+            "from ExpenseSplit s where s.expense.group.id = :groupId order by s.expense.id, s.id")
+    List<CompactSplitRow> findCompactHistoryByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select distinct new com.settleup.settleup.expense.dto.UserLink(e.paidBy.id, s.user.id) " +
+            "from ExpenseSplit s join s.expense e where e.group.id = :groupId and s.user.id <> e.paidBy.id")
+    List<UserLink> findLinksByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.settleup.settleup.expense.dto.CompactSplitRow(s.expense.id, s.user.id, s.amountOwed) " +
+            "from ExpenseSplit s where s.expense.id in :expenseIds order by s.expense.id, s.id")
+    List<CompactSplitRow> findCompactByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
     boolean existsByExpense_GroupIdAndUserId(Long groupId, Long userId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from ExpenseSplit s where s.expense.id in :expenseIds")
+    int deleteByExpenseIdIn(@Param("expenseIds") List<Long> expenseIds);
+}
@@ -0,0 +1,118 @@
+package com.settleup.settleup.expense.service;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.ExpenseResponseDto;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.expense.dto.UserLink;
+import com.settleup.settleup.expense.repository.ExpenseRepository;
+import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.user.dto.UserResponseDto;
+import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variants of the balance and history reads, run on the bounded read executor so no request thread waits
+ * on the database. Ledger queries that have to agree with each other (balance totals and member links; expenses,
+ * splits and settlements) share one read-only transaction on the group's shard. The group and its member names run
+ * concurrently with them, and the results are combined once all have completed.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+public class ExpenseQueryService {
+
+    private final GroupRepository groupRepo;
+    private final GroupBalanceRepository balanceRepo;
+    private final UserRepository userRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final SettlementRepository settlementRepo;
+    private final GroupBalanceService groupBalanceService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+    private final Timer simplifyTimer;
+
+    public ExpenseQueryService(GroupRepository groupRepo,
+                               GroupBalanceRepository balanceRepo,
+                               UserRepository userRepo,
+                               ExpenseRepository expenseRepo,
+                               ExpenseSplitRepository splitRepo,
+                               SettlementRepository settlementRepo,
+                               GroupBalanceService groupBalanceService,
+                               ShardRouter shardRouter,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("readQueryExecutor") Executor executor,
+                               MeterRegistry meterRegistry) {
+        this.groupRepo = groupRepo;
+        this.balanceRepo = balanceRepo;
+        this.userRepo = userRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.settlementRepo = settlementRepo;
+        this.groupBalanceService = groupBalanceService;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.simplifyTimer = meterRegistry.timer(ExpenseViews.SIMPLIFY_DEBTS_TIMER);
+    }
+
+    public CompletableFuture<BalanceSheetDto> getGroupBalances(Long groupId) {
+        CompletableFuture<String> baseCurrency = query(groupId, () -> groupRepo.findById(groupId)
+                .map(Group::getBaseCurrency)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found")));
+        CompletableFuture<List<UserResponseDto>> members = query(groupId, () -> userRepo.findMemberSummariesByGroupId(groupId));
+        CompletableFuture<Ledger> ledger = query(groupId, () -> new Ledger(balanceRepo.findTotalsByGroupId(groupId),
+                splitRepo.findLinksByGroupId(groupId), settlementRepo.findLinksByGroupId(groupId)));
+
+        return CompletableFuture.allOf(baseCurrency, members, ledger).thenApply(done -> {
+            Map<Long, String> names = new HashMap<>();
+            for (UserResponseDto member : members.join()) {
+                names.put(member.getId(), member.getName());
+            }
+            Map<Long, Double> balances = groupBalanceService.netBalances(ledger.join().totals(), baseCurrency.join());
+            return ExpenseViews.balanceSheet(baseCurrency.join(), balances, names::get,
+                    ExpenseViews.links(ledger.join().expenseLinks(), ledger.join().settlementLinks()), simplifyTimer);
+        });
+    }
+
+    // Expenses, their splits and the settlements are read together, so the history never pairs an expense with
+    // splits from a later commit or misses one of them
+    public CompletableFuture<List<ExpenseResponseDto>> getGroupHistory(Long groupId) {
+        return query(groupId, () -> ExpenseViews.history(splitRepo.findHistoryByGroupId(groupId),
+                expenseRepo.findHistoryByGroupId(groupId), settlementRepo.findHistoryByGroupId(groupId)));
+    }
+
+    // One read-only transaction per call, so it goes to the replica when one is configured
+    private <T> CompletableFuture<T> query(Long groupId, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(
+                () -> shardRouter.onGroupShard(groupId, () -> readOnlyTransaction.execute(tx -> query.get())), executor);
+    }
+
+    // a group's balance totals and the links between its members, read in one transaction so they describe the same
+    // postings
+    private record Ledger(List<UserCurrencyTotal> totals, List<UserLink> expenseLinks, List<UserLink> settlementLinks) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.settleup.settleup.expense.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.settleup.settleup.common.sharding.ShardedByGroup;
+import com.settleup.settleup.config.ResponseCacheProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.group.service.GroupRevisionService;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Balance sheets and histories of recently read groups, kept as serialized UTF-8 JSON under the group's revision, so
+ * repeat reads of an unchanged group skip both the queries and Jackson. Any write to the group moves its revision on,
+ * which is the only invalidation needed; entries of old revisions simply age out. Bounded by total bytes.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+public class ExpenseResponseCache {
+
+    enum View { BALANCES, HISTORY, COMPACT_HISTORY }
+
+    // balance sheets also depend on the rate table in force; a reload swaps the table instance
+    record Key(Long groupId, long revision, View view, Object rates) {
+    }
+
+    private final ExpenseService expenseService;
+    private final GroupRevisionService revisionService;
+    private final FxRateService fxRateService;
+    private final ObjectMapper objectMapper;
+    private final ResponseCacheProperties properties;
+    private final Cache<Key, byte[]> cache;
+
+    public ExpenseResponseCache(ExpenseService expenseService,
+                                GroupRevisionService revisionService,
+                                FxRateService fxRateService,
+                                ObjectMapper objectMapper,
+                                ResponseCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.expenseService = expenseService;
+        this.revisionService = revisionService;
+        this.fxRateService = fxRateService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, byte[] bytes) -> bytes.length)
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "settleup.responses");
+        Gauge.builder("settleup.responses.cache.bytes", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("Serialized bytes held by the response cache")
+                .register(meterRegistry);
+    }
+
+    // The revision is read in the same read-only transaction as the data, so an entry never holds data older than its key
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
+    public byte[] balances(Long groupId) {
+        return cached(groupId, View.BALANCES, fxRateService.current(), () -> expenseService.getGroupBalances(groupId));
+    }
+
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
+    public byte[] history(Long groupId) {
+        return cached(groupId, View.HISTORY, null, () -> expenseService.getGroupHistory(groupId));
+    }
+
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
+    public byte[] compactHistory(Long groupId) {
+        return cached(groupId, View.COMPACT_HISTORY, null, () -> expenseService.getGroupHistoryCompact(groupId));
+    }
+
+    private byte[] cached(Long groupId, View view, Object rates, Supplier<Object> load) {
+        Optional<Long> revision = properties.isEnabled() ? revisionService.current(groupId) : Optional.empty();
+        if (revision.isEmpty()) {
+            return serialize(load.get());
+        }
+        Key key = new Key(groupId, revision.get(), view, rates);
+        byte[] bytes = cache.getIfPresent(key);
+        if (bytes == null) {
+            bytes = serialize(load.get());
+            if (bytes.length <= properties.getMaxEntrySize().toBytes()) {
+                cache.put(key, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+}
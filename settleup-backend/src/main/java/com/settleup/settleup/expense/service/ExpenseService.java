@@ -1,167 +1,145 @@
 package com.settleup.settleup.expense.service;
 
+import com.settleup.settleup.common.sharding.ShardedByGroup;
+import com.settleup.settleup.currency.service.FxRateService;
 import com.settleup.settleup.exception.InvalidInputException;
 import com.settleup.settleup.exception.ResourceNotFoundException;
 import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.CompactHistoryDto;
 import com.settleup.settleup.expense.dto.ExpenseRequestDto;
 import com.settleup.settleup.expense.dto.ExpenseResponseDto;
 import com.settleup.settleup.expense.entity.Expense;
 import com.settleup.settleup.expense.entity.ExpenseSplit;
 import com.settleup.settleup.expense.repository.ExpenseRepository;
 import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.expense.split.SplitAllocation;
+import com.settleup.settleup.expense.split.SplitCalculator;
+import com.settleup.settleup.expense.split.SplitType;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.group.repository.GroupRepository;
-import com.settleup.settleup.settlement.entity.Settlement;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.group.service.GroupRevisionService;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxService;
 import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.dto.UserResponseDto;
 import com.settleup.settleup.user.entity.User;
 import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
 @RequiredArgsConstructor
 public class ExpenseService {
 
+    private static final int USER_NAME_CHUNK = 1000;
+
     private final ExpenseRepository expenseRepo;
     private final ExpenseSplitRepository splitRepo;
     private final GroupRepository groupRepo;
     private final UserRepository userRepo;
     private final SettlementRepository settlementRepo;
+    private final SplitCalculator splitCalculator;
+    private final FxRateService fxRateService;
+    private final GroupBalanceService groupBalanceService;
+    private final GroupRevisionService groupRevisionService;
+    private final OutboxService outboxService;
+    private final MeterRegistry meterRegistry;
 
 
+    @ShardedByGroup("#dto.groupId")
     @Transactional
     public void addExpense(ExpenseRequestDto dto) {
+        addExpense(dto, LocalDateTime.now());
+    }
+
+    // createdAt is explicit so recurring expenses can be back-dated to the period they belong to
+    @ShardedByGroup("#dto.groupId")
+    @Transactional
+    public void addExpense(ExpenseRequestDto dto, LocalDateTime createdAt) {
+        SplitType splitType = SplitType.from(dto.getSplitType());
 
-        Group group = groupRepo.findById(dto.getGroupId())
+        // locked until commit so the balance rows and membership checks can't interleave with other writes to the group
+        Group group = groupRepo.findByIdForUpdate(dto.getGroupId())
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
 
         User payer = userRepo.findById(dto.getPaidByUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Payer not found"));
 
+        long totalCents = SplitAllocation.toCents(dto.getAmount());
+        SplitAllocation allocation = splitCalculator.calculate(splitType, totalCents, dto);
+
         Set<Long> involvedUserIds = new HashSet<>();
         involvedUserIds.add(dto.getPaidByUserId());
-
-        if ("EQUAL".equalsIgnoreCase(dto.getSplitType())) {
-            involvedUserIds.addAll(dto.getInvolvedUserIds());
-        } else if ("EXACT".equalsIgnoreCase(dto.getSplitType())) {
-            involvedUserIds.addAll(dto.getExactSplits().keySet());
+        for (long userId : allocation.getUserIds()) {
+            involvedUserIds.add(userId);
         }
         validateMembersBelongToGroup(group, involvedUserIds);
 
+        Map<Long, User> participants = loadParticipants(group);
+        String currency = fxRateService.resolveCurrency(dto.getCurrency(), group.getBaseCurrency());
+
         Expense expense = Expense.builder()
                 .group(group)
                 .paidBy(payer)
                 .description(dto.getDescription())
                 .amount(dto.getAmount())
-                .splitType(dto.getSplitType())
+                .currency(currency)
+                .splitType(splitType)
+                .createdAt(createdAt)
                 .build();
 
         expense = expenseRepo.save(expense);
 
-        List<ExpenseSplit> splits = new ArrayList<>();
-        if ("EQUAL".equalsIgnoreCase(dto.getSplitType())) {
-            splits = calculateEqualSplits(expense, dto.getInvolvedUserIds(), dto.getAmount());
-        } else if ("EXACT".equalsIgnoreCase(dto.getSplitType())) {
-            splits = calculateExactSplits(expense, dto.getExactSplits(), dto.getAmount());
-        } else {
-            throw new InvalidInputException("Invalid Split Type. Use EQUAL or EXACT.");
+        List<ExpenseSplit> splits = new ArrayList<>(allocation.size());
+        long[] userIds = allocation.getUserIds();
+        long[] amounts = allocation.getAmounts();
+        for (int i = 0; i < userIds.length; i++) {
+            splits.add(ExpenseSplit.builder()
+                    .expense(expense)
+                    .user(participants.get(userIds[i]))
+                    .amountOwed(SplitAllocation.fromCents(amounts[i]))
+                    .build());
         }
         splitRepo.saveAll(splits);
+        groupBalanceService.applyExpense(group, currency, payer.getId(), totalCents, userIds, amounts);
+        groupRevisionService.bump(group.getId());
+        outboxService.record(OutboxEventType.EXPENSE_ADDED, group.getId(), new ExpenseAddedPayload(
+                expense.getId(), group.getId(), payer.getId(), currency, totalCents, userIds, amounts, createdAt));
     }
 
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
     public BalanceSheetDto getGroupBalances(Long groupId) {
+        Group group = groupRepo.findById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
+        Map<Long, Double> balances = groupBalanceService.netBalances(group);
 
-        Map<Long, Double> balances = new HashMap<>();
-
-        List<Expense> expenses = expenseRepo.findByGroupId(groupId);
-        for (Expense e : expenses) {
-            balances.merge(e.getPaidBy().getId(), e.getAmount(), Double::sum);
-
-            List<ExpenseSplit> splits = splitRepo.findByExpenseId(e.getId());
-            for (ExpenseSplit split : splits) {
-                balances.merge(split.getUser().getId(), -split.getAmountOwed(), Double::sum);
-            }
-        }
-
-        List<Settlement> settlements = settlementRepo.findByGroupId(groupId);
-        for (Settlement s : settlements) {
-            balances.merge(s.getPayer().getId(), s.getAmount(), Double::sum);
-            balances.merge(s.getPayee().getId(), -s.getAmount(), Double::sum);
-        }
-
-        List<BalanceSheetDto.UserBalance> userBalances = new ArrayList<>();
-        Map<Long, Double> debtors = new HashMap<>();
-        Map<Long, Double> creditors = new HashMap<>();
-
-        for (Map.Entry<Long, Double> entry : balances.entrySet()) {
-            double val = Math.round(entry.getValue() * 100.0) / 100.0;
-
-            if (Math.abs(val) < 0.01) continue;
-
-            User user = userRepo.findById(entry.getKey()).orElse(null);
-            if (user != null) {
-                userBalances.add(new BalanceSheetDto.UserBalance(user.getId(), user.getName(), val));
-            }
-
-            if (val < 0) debtors.put(entry.getKey(), val);
-            else creditors.put(entry.getKey(), val);
-        }
-
-        List<BalanceSheetDto.SimplifiedDebt> simplifiedDebts = simplifyDebts(debtors, creditors);
-
-        return new BalanceSheetDto(userBalances, simplifiedDebts);
-    }
-
-
-    private List<BalanceSheetDto.SimplifiedDebt> simplifyDebts(Map<Long, Double> debtors, Map<Long, Double> creditors) {
-        List<BalanceSheetDto.SimplifiedDebt> transactions = new ArrayList<>();
-
-        Iterator<Map.Entry<Long, Double>> debtorIt = debtors.entrySet().iterator();
-        Iterator<Map.Entry<Long, Double>> creditorIt = creditors.entrySet().iterator();
-
-        Map.Entry<Long, Double> currentDebtor = debtorIt.hasNext() ? debtorIt.next() : null;
-        Map.Entry<Long, Double> currentCreditor = creditorIt.hasNext() ? creditorIt.next() : null;
-
-        while (currentDebtor != null && currentCreditor != null) {
-            double debt = Math.abs(currentDebtor.getValue());
-            double credit = currentCreditor.getValue();
-
-            double amount = Math.min(debt, credit);
-            amount = Math.round(amount * 100.0) / 100.0;
-
-            if (amount > 0) {
-                String fromName = userRepo.findById(currentDebtor.getKey()).map(User::getName).orElse("Unknown");
-                String toName = userRepo.findById(currentCreditor.getKey()).map(User::getName).orElse("Unknown");
-
-                transactions.add(new BalanceSheetDto.SimplifiedDebt(fromName, toName, amount));
-            }
-
-            double remainingDebt = debt - amount;
-            double remainingCredit = credit - amount;
-
-            if (remainingDebt < 0.01) {
-                currentDebtor = debtorIt.hasNext() ? debtorIt.next() : null;
-            } else {
-                currentDebtor.setValue(-remainingDebt);
-            }
-
-            if (remainingCredit < 0.01) {
-                currentCreditor = creditorIt.hasNext() ? creditorIt.next() : null;
-            } else {
-                currentCreditor.setValue(remainingCredit);
-            }
+        // every member's name in one query, however many debts mention them
+        Map<Long, String> names = new HashMap<>();
+        for (UserResponseDto member : userRepo.findMemberSummariesByGroupId(groupId)) {
+            names.put(member.getId(), member.getName());
         }
-        return transactions;
+        return ExpenseViews.balanceSheet(group.getBaseCurrency(), balances, names::get,
+                ExpenseViews.links(splitRepo.findLinksByGroupId(groupId), settlementRepo.findLinksByGroupId(groupId)),
+                meterRegistry.timer(ExpenseViews.SIMPLIFY_DEBTS_TIMER));
     }
 
     private void validateMembersBelongToGroup(Group group, Set<Long> userIdsToCheck) {
@@ -178,74 +156,40 @@ public class ExpenseService {
         }
     }
 
-    private List<ExpenseSplit> calculateEqualSplits(Expense expense, List<Long> userIds, Double totalAmount) {
-        if (userIds == null || userIds.isEmpty()) throw new InvalidInputException("No users selected for split");
-        int count = userIds.size();
-        double baseShare = Math.floor((totalAmount / count) * 100) / 100.0;
-        double remainder = totalAmount - (baseShare * count);
-        List<ExpenseSplit> splits = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            Long currentUserId = userIds.get(i);
-            User user = userRepo.findById(currentUserId).orElseThrow(() -> new ResourceNotFoundException("User not found: " + currentUserId));
-            double share = baseShare;
-            if (i == 0) share += remainder;
-            splits.add(ExpenseSplit.builder().expense(expense).user(user).amountOwed(share).build());
-        }
-        return splits;
-    }
-
-    private List<ExpenseSplit> calculateExactSplits(Expense expense, Map<Long, Double> splitMap, Double totalAmount) {
-        if (splitMap == null || splitMap.isEmpty()) throw new InvalidInputException("No split amounts provided");
-        double sum = splitMap.values().stream().mapToDouble(Double::doubleValue).sum();
-        if (Math.abs(totalAmount - sum) > 0.01) throw new InvalidInputException("Split amounts do not sum to total");
-        List<ExpenseSplit> splits = new ArrayList<>();
-        for (Map.Entry<Long, Double> entry : splitMap.entrySet()) {
-            User user = userRepo.findById(entry.getKey()).orElseThrow(() -> new ResourceNotFoundException("User not found: " + entry.getKey()));
-            splits.add(ExpenseSplit.builder().expense(expense).user(user).amountOwed(entry.getValue()).build());
-        }
-        return splits;
+    // Participants were just validated as members, so they come from the member collection already loaded, not another query
+    private Map<Long, User> loadParticipants(Group group) {
+        return group.getMembers().stream().collect(Collectors.toMap(User::getId, user -> user));
     }
 
 
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
     public List<ExpenseResponseDto> getGroupHistory(Long groupId) {
-        List<ExpenseResponseDto> history = new ArrayList<>();
-
-        List<Expense> expenses = expenseRepo.findByGroupId(groupId);
-        for (Expense e : expenses) {
-
-            List<ExpenseSplit> splitsEntities = splitRepo.findByExpenseId(e.getId());
-            List<ExpenseResponseDto.SplitDetail> splitDetails = splitsEntities.stream()
-                    .map(s -> ExpenseResponseDto.SplitDetail.builder()
-                            .userName(s.getUser().getName())
-                            .amountOwed(s.getAmountOwed())
-                            .build())
-                    .collect(Collectors.toList());
-
-            history.add(ExpenseResponseDto.builder()
-                    .id(e.getId())
-                    .description(e.getDescription())
-                    .amount(e.getAmount())
-                    .paidByUserName(e.getPaidBy().getName())
-                    .createdAt(e.getCreatedAt())
-                    .type("EXPENSE")
-                    .splits(splitDetails) // Add the details
-                    .build());
-        }
+        // one query each for all splits, expenses and settlements of the group
+        return ExpenseViews.history(splitRepo.findHistoryByGroupId(groupId),
+                expenseRepo.findHistoryByGroupId(groupId),
+                settlementRepo.findHistoryByGroupId(groupId));
+    }
 
-        List<Settlement> settlements = settlementRepo.findByGroupId(groupId);
-        for (Settlement s : settlements) {
-            String desc = s.getPayer().getName() + " paid " + s.getPayee().getName();
-            history.add(ExpenseResponseDto.builder()
-                    .id(s.getId())
-                    .description(desc)
-                    .amount(s.getAmount())
-                    .paidByUserName(s.getPayer().getName())
-                    .createdAt(s.getCreatedAt())
-                    .type("SETTLEMENT")
-                    .build());
-        }
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
+    public CompactHistoryDto getGroupHistoryCompact(Long groupId) {
+        // ids instead of names, so no user joins; the names are fetched once for the dictionary
+        return ExpenseViews.compactHistory(splitRepo.findCompactHistoryByGroupId(groupId),
+                expenseRepo.findCompactHistoryByGroupId(groupId),
+                settlementRepo.findCompactHistoryByGroupId(groupId),
+                this::userNames);
+    }
 
-        history.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
-        return history;
+    // chunked to stay within Oracle's limit on IN-list length
+    private Map<Long, String> userNames(Set<Long> userIds) {
+        Map<Long, String> names = new HashMap<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += USER_NAME_CHUNK) {
+            for (UserNameRow row : userRepo.findNamesByIdIn(ids.subList(from, Math.min(from + USER_NAME_CHUNK, ids.size())))) {
+                names.put(row.getId(), row.getName());
+            }
+        }
+        return names;
     }
-}
\ No newline at end of file
+}
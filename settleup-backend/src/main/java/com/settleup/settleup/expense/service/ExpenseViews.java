@@ -0,0 +1,185 @@
+package com.settleup.settleup.expense.service;
+
+import com.settleup.settleup.debt.service.DebtSimplifier;
+import com.settleup.settleup.debt.service.MinCashFlow;
+import com.settleup.settleup.debt.service.UnionFind;
+import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.CompactExpenseRow;
+import com.settleup.settleup.expense.dto.CompactHistoryDto;
+import com.settleup.settleup.expense.dto.CompactSettlementRow;
+import com.settleup.settleup.expense.dto.CompactSplitRow;
+import com.settleup.settleup.expense.dto.ExpenseHistoryRow;
+import com.settleup.settleup.expense.dto.ExpenseResponseDto;
+import com.settleup.settleup.expense.dto.SettlementHistoryRow;
+import com.settleup.settleup.expense.dto.SplitHistoryRow;
+import com.settleup.settleup.expense.dto.UserLink;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Builds the balance sheet and history responses from already-fetched rows, so the blocking and the async read paths
+ * produce identical output whichever way the rows were loaded.
+ */
+final class ExpenseViews {
+
+    // recorded around debt simplification; callers take the timer from their own MeterRegistry
+    static final String SIMPLIFY_DEBTS_TIMER = "settleup.debts.simplify";
+
+    private ExpenseViews() {
+    }
+
+    // nameOf returns null for users that no longer exist; they are left out of the balances and shown as "Unknown" in
+    // debts. Balances and debts come out in a fixed order, so an unchanged group always serializes to the same bytes.
+    static BalanceSheetDto balanceSheet(String baseCurrency, Map<Long, Double> balances, Function<Long, String> nameOf,
+                                        UnionFind links, Timer simplifyTimer) {
+        List<BalanceSheetDto.UserBalance> userBalances = new ArrayList<>();
+        Map<Long, Long> netCents = new HashMap<>();
+
+        for (Map.Entry<Long, Double> entry : new TreeMap<>(balances).entrySet()) {
+            double val = Math.round(entry.getValue() * 100.0) / 100.0;
+
+            if (Math.abs(val) < 0.01) continue;
+
+            String name = nameOf.apply(entry.getKey());
+            if (name != null) {
+                userBalances.add(new BalanceSheetDto.UserBalance(entry.getKey(), name, val));
+            }
+            netCents.put(entry.getKey(), Math.round(val * 100.0));
+        }
+
+        List<BalanceSheetDto.SimplifiedDebt> simplifiedDebts = simplifyTimer.record(() -> simplifyDebts(netCents, links, nameOf));
+
+        return new BalanceSheetDto(userBalances, simplifiedDebts, baseCurrency);
+    }
+
+    // Users who shared an expense or a settlement end up in the same component; the rest settle independently
+    static UnionFind links(List<UserLink> expenseLinks, List<UserLink> settlementLinks) {
+        UnionFind links = new UnionFind();
+        expenseLinks.forEach(link -> links.union(link.getUserId(), link.getOtherUserId()));
+        settlementLinks.forEach(link -> links.union(link.getUserId(), link.getOtherUserId()));
+        return links;
+    }
+
+    private static List<BalanceSheetDto.SimplifiedDebt> simplifyDebts(Map<Long, Long> netCents, UnionFind links,
+                                                                      Function<Long, String> nameOf) {
+        List<BalanceSheetDto.SimplifiedDebt> transactions = new ArrayList<>();
+        List<Map<Long, Long>> components = DebtSimplifier.components(netCents, links);
+        for (List<MinCashFlow.Transfer> transfers : DebtSimplifier.simplifyAll(ForkJoinPool.commonPool(), components)) {
+            for (MinCashFlow.Transfer transfer : transfers) {
+                String fromName = nameOrUnknown(nameOf.apply(transfer.fromUserId()));
+                String toName = nameOrUnknown(nameOf.apply(transfer.toUserId()));
+                transactions.add(new BalanceSheetDto.SimplifiedDebt(fromName, toName, transfer.amountCents() / 100.0));
+            }
+        }
+        return transactions;
+    }
+
+    private static String nameOrUnknown(String name) {
+        return name != null ? name : "Unknown";
+    }
+
+    // splits arrive ordered by expense; the merged history is newest first
+    static List<ExpenseResponseDto> history(List<SplitHistoryRow> splits, List<ExpenseHistoryRow> expenses,
+                                            List<SettlementHistoryRow> settlements) {
+        List<ExpenseResponseDto> history = new ArrayList<>(expenses.size() + settlements.size());
+
+        Map<Long, List<ExpenseResponseDto.SplitDetail>> splitsByExpense = new HashMap<>();
+        for (SplitHistoryRow s : splits) {
+            splitsByExpense.computeIfAbsent(s.getExpenseId(), id -> new ArrayList<>())
+                    .add(ExpenseResponseDto.SplitDetail.builder()
+                            .userName(s.getUserName())
+                            .amountOwed(s.getAmountOwed())
+                            .build());
+        }
+
+        for (ExpenseHistoryRow e : expenses) {
+            history.add(ExpenseResponseDto.builder()
+                    .id(e.getId())
+                    .description(e.getDescription())
+                    .amount(e.getAmount())
+                    .currency(e.getCurrency())
+                    .paidByUserName(e.getPaidByUserName())
+                    .createdAt(e.getCreatedAt())
+                    .type("EXPENSE")
+                    .splits(splitsByExpense.getOrDefault(e.getId(), new ArrayList<>()))
+                    .build());
+        }
+
+        for (SettlementHistoryRow s : settlements) {
+            String desc = s.getPayerName() + " paid " + s.getPayeeName();
+            history.add(ExpenseResponseDto.builder()
+                    .id(s.getId())
+                    .description(desc)
+                    .amount(s.getAmount())
+                    .paidByUserName(s.getPayerName())
+                    .createdAt(s.getCreatedAt())
+                    .type("SETTLEMENT")
+                    .build());
+        }
+
+        history.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+        return history;
+    }
+
+    // Same entries and order as history(), with users as ids; names is called once with every id the entries reference
+    static CompactHistoryDto compactHistory(List<CompactSplitRow> splits, List<CompactExpenseRow> expenses,
+                                            List<CompactSettlementRow> settlements,
+                                            Function<Set<Long>, Map<Long, String>> names) {
+        List<CompactHistoryDto.Entry> entries = new ArrayList<>(expenses.size() + settlements.size());
+        Set<Long> userIds = new HashSet<>();
+
+        Map<Long, List<CompactSplitRow>> splitsByExpense = new HashMap<>();
+        for (CompactSplitRow s : splits) {
+            splitsByExpense.computeIfAbsent(s.getExpenseId(), id -> new ArrayList<>()).add(s);
+        }
+
+        for (CompactExpenseRow e : expenses) {
+            List<CompactSplitRow> rows = splitsByExpense.getOrDefault(e.getId(), List.of());
+            long[] splitUserIds = new long[rows.size()];
+            double[] splitAmounts = new double[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                splitUserIds[i] = rows.get(i).getUserId();
+                splitAmounts[i] = rows.get(i).getAmountOwed();
+                userIds.add(splitUserIds[i]);
+            }
+            userIds.add(e.getPaidByUserId());
+            entries.add(CompactHistoryDto.Entry.builder()
+                    .id(e.getId())
+                    .type("EXPENSE")
+                    .description(e.getDescription())
+                    .amount(e.getAmount())
+                    .currency(e.getCurrency())
+                    .paidBy(e.getPaidByUserId())
+                    .createdAt(e.getCreatedAt())
+                    .splitUserIds(splitUserIds)
+                    .splitAmounts(splitAmounts)
+                    .build());
+        }
+
+        for (CompactSettlementRow s : settlements) {
+            userIds.add(s.getPayerId());
+            userIds.add(s.getPayeeId());
+            entries.add(CompactHistoryDto.Entry.builder()
+                    .id(s.getId())
+                    .type("SETTLEMENT")
+                    .amount(s.getAmount())
+                    .paidBy(s.getPayerId())
+                    .paidTo(s.getPayeeId())
+                    .createdAt(s.getCreatedAt())
+                    .build());
+        }
+
+        entries.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+        Map<Long, String> users = userIds.isEmpty() ? new TreeMap<>() : new TreeMap<>(names.apply(userIds));
+        return new CompactHistoryDto(users, entries);
+    }
+}
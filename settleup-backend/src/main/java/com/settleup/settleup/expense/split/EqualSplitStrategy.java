@@ -0,0 +1,28 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+public class EqualSplitStrategy implements SplitStrategy {
+
+    @Override
+    public SplitType type() {
+        return SplitType.EQUAL;
+    }
+
+    @Override
+    public SplitAllocation allocate(long totalCents, ExpenseRequestDto dto) {
+        List<Long> involved = dto.getInvolvedUserIds();
+        if (involved == null || involved.isEmpty()) throw new InvalidInputException("No users selected for split");
+
+        long[] userIds = involved.stream().distinct().mapToLong(Long::longValue).toArray();
+        long[] weights = new long[userIds.length];
+        Arrays.fill(weights, 1L);
+        return new SplitAllocation(userIds, LargestRemainder.apportion(totalCents, weights));
+    }
+}
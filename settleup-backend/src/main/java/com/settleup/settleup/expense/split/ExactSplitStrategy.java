@@ -0,0 +1,38 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class ExactSplitStrategy implements SplitStrategy {
+
+    @Override
+    public SplitType type() {
+        return SplitType.EXACT;
+    }
+
+    @Override
+    public SplitAllocation allocate(long totalCents, ExpenseRequestDto dto) {
+        Map<Long, Double> splitMap = dto.getExactSplits();
+        if (splitMap == null || splitMap.isEmpty()) throw new InvalidInputException("No split amounts provided");
+
+        long[] userIds = new long[splitMap.size()];
+        long[] cents = new long[splitMap.size()];
+        long sum = 0;
+        int i = 0;
+        for (Map.Entry<Long, Double> entry : splitMap.entrySet()) {
+            if (entry.getValue() == null) throw new InvalidInputException("Missing split amount for user: " + entry.getKey());
+            userIds[i] = entry.getKey();
+            cents[i] = SplitAllocation.toCents(entry.getValue());
+            sum += cents[i];
+            i++;
+        }
+        if (Math.abs(totalCents - sum) > 1) throw new InvalidInputException("Split amounts do not sum to total");
+
+        // a one-cent rounding gap is absorbed by the largest remainder instead of being dropped
+        return new SplitAllocation(userIds, LargestRemainder.apportion(totalCents, cents));
+    }
+}
@@ -0,0 +1,68 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Each item is divided equally between the users who shared it; a user's weight is the sum of their item shares.
+ */
+@Component
+public class ItemizedSplitStrategy implements SplitStrategy {
+
+    @Override
+    public SplitType type() {
+        return SplitType.ITEMIZED;
+    }
+
+    @Override
+    public SplitAllocation allocate(long totalCents, ExpenseRequestDto dto) {
+        List<ExpenseRequestDto.SplitItem> items = dto.getItems();
+        if (items == null || items.isEmpty()) throw new InvalidInputException("No items provided");
+
+        int slots = 0;
+        for (ExpenseRequestDto.SplitItem item : items) {
+            if (item.getAmount() == null || item.getAmount() <= 0) throw new InvalidInputException("Item amount must be positive");
+            if (item.getUserIds() == null || item.getUserIds().isEmpty()) throw new InvalidInputException("No users selected for item");
+            slots += item.getUserIds().size();
+        }
+
+        long[] userIds = distinctSorted(items, slots);
+        long[] weights = new long[userIds.length];
+        long itemTotal = 0;
+        for (ExpenseRequestDto.SplitItem item : items) {
+            long itemCents = SplitAllocation.toCents(item.getAmount());
+            itemTotal += itemCents;
+
+            long[] sharers = item.getUserIds().stream().distinct().mapToLong(Long::longValue).toArray();
+            long[] equal = new long[sharers.length];
+            Arrays.fill(equal, 1L);
+            long[] shares = LargestRemainder.apportion(itemCents, equal);
+            for (int i = 0; i < sharers.length; i++) {
+                weights[Arrays.binarySearch(userIds, sharers[i])] += shares[i];
+            }
+        }
+        if (Math.abs(totalCents - itemTotal) > 1) throw new InvalidInputException("Item amounts do not sum to total");
+
+        return new SplitAllocation(userIds, LargestRemainder.apportion(totalCents, weights));
+    }
+
+    private long[] distinctSorted(List<ExpenseRequestDto.SplitItem> items, int slots) {
+        long[] all = new long[slots];
+        int n = 0;
+        for (ExpenseRequestDto.SplitItem item : items) {
+            for (Long id : item.getUserIds()) {
+                all[n++] = id;
+            }
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || all[i] != all[i - 1]) all[unique++] = all[i];
+        }
+        return Arrays.copyOf(all, unique);
+    }
+}
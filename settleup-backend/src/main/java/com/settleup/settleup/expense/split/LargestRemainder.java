@@ -0,0 +1,45 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+
+import java.util.Arrays;
+
+/**
+ * Hamilton (largest remainder) apportionment over primitive arrays. Every participant gets the floor of their
+ * quota and the leftover cents go, one each, to the largest remainders; ties go to the earlier participant.
+ */
+final class LargestRemainder {
+
+    private LargestRemainder() {
+    }
+
+    static long[] apportion(long total, long[] weights) {
+        int n = weights.length;
+        long weightSum = 0;
+        for (long weight : weights) {
+            if (weight < 0) throw new InvalidInputException("Split values cannot be negative");
+            weightSum = Math.addExact(weightSum, weight);
+        }
+        if (weightSum == 0) throw new InvalidInputException("Split values must add up to more than zero");
+
+        long[] out = new long[n];
+        // remainder * n + reverse index, so one primitive sort orders by remainder and breaks ties by position
+        long[] keys = new long[n];
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            long quota = Math.multiplyExact(total, weights[i]);
+            out[i] = quota / weightSum;
+            assigned += out[i];
+            keys[i] = Math.multiplyExact(quota % weightSum, n) + (n - 1 - i);
+        }
+
+        int leftover = (int) (total - assigned);
+        if (leftover > 0) {
+            Arrays.sort(keys);
+            for (int k = 0; k < leftover; k++) {
+                out[n - 1 - (int) (keys[n - 1 - k] % n)]++;
+            }
+        }
+        return out;
+    }
+}
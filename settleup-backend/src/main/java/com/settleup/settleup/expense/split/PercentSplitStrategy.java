@@ -0,0 +1,40 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class PercentSplitStrategy implements SplitStrategy {
+
+    // percentages are compared in ten-thousandths of a percent
+    private static final long SCALE = 10_000L;
+
+    @Override
+    public SplitType type() {
+        return SplitType.PERCENT;
+    }
+
+    @Override
+    public SplitAllocation allocate(long totalCents, ExpenseRequestDto dto) {
+        Map<Long, Double> percentMap = dto.getPercentSplits();
+        if (percentMap == null || percentMap.isEmpty()) throw new InvalidInputException("No split percentages provided");
+
+        long[] userIds = new long[percentMap.size()];
+        long[] weights = new long[percentMap.size()];
+        long sum = 0;
+        int i = 0;
+        for (Map.Entry<Long, Double> entry : percentMap.entrySet()) {
+            if (entry.getValue() == null) throw new InvalidInputException("Missing percentage for user: " + entry.getKey());
+            userIds[i] = entry.getKey();
+            weights[i] = Math.round(entry.getValue() * SCALE);
+            sum += weights[i];
+            i++;
+        }
+        if (Math.abs(100 * SCALE - sum) > SCALE / 100) throw new InvalidInputException("Percentages must add up to 100");
+
+        return new SplitAllocation(userIds, LargestRemainder.apportion(totalCents, weights));
+    }
+}
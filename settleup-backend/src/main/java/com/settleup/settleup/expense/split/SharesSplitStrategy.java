@@ -0,0 +1,35 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class SharesSplitStrategy implements SplitStrategy {
+
+    @Override
+    public SplitType type() {
+        return SplitType.SHARES;
+    }
+
+    @Override
+    public SplitAllocation allocate(long totalCents, ExpenseRequestDto dto) {
+        Map<Long, Integer> shareMap = dto.getShareSplits();
+        if (shareMap == null || shareMap.isEmpty()) throw new InvalidInputException("No split shares provided");
+
+        long[] userIds = new long[shareMap.size()];
+        long[] weights = new long[shareMap.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : shareMap.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new InvalidInputException("Shares must be positive for user: " + entry.getKey());
+            }
+            userIds[i] = entry.getKey();
+            weights[i] = entry.getValue();
+            i++;
+        }
+        return new SplitAllocation(userIds, LargestRemainder.apportion(totalCents, weights));
+    }
+}
@@ -0,0 +1,30 @@
+package com.settleup.settleup.expense.split;
+
+import lombok.Getter;
+
+/**
+ * Parallel arrays of participant ids and the cents each of them owes.
+ */
+@Getter
+public final class SplitAllocation {
+
+    private final long[] userIds;
+    private final long[] amounts;
+
+    public SplitAllocation(long[] userIds, long[] amounts) {
+        this.userIds = userIds;
+        this.amounts = amounts;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class SplitCalculator {
+
+    private final Map<SplitType, SplitStrategy> strategies = new EnumMap<>(SplitType.class);
+
+    public SplitCalculator(List<SplitStrategy> strategies) {
+        for (SplitStrategy strategy : strategies) {
+            if (this.strategies.put(strategy.type(), strategy) != null) {
+                throw new IllegalStateException("Duplicate split strategy for " + strategy.type());
+            }
+        }
+    }
+
+    public SplitAllocation calculate(SplitType type, long totalCents, ExpenseRequestDto dto) {
+        SplitStrategy strategy = strategies.get(type);
+        if (strategy == null) throw new InvalidInputException("Split type " + type + " is not supported");
+        return strategy.allocate(totalCents, dto);
+    }
+}
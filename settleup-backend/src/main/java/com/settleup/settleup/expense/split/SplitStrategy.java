@@ -0,0 +1,14 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+
+/**
+ * Turns the split section of an expense request into per-user amounts in minor units (cents).
+ * Implementations must return amounts that add up to exactly {@code totalCents}.
+ */
+public interface SplitStrategy {
+
+    SplitType type();
+
+    SplitAllocation allocate(long totalCents, ExpenseRequestDto dto);
+}
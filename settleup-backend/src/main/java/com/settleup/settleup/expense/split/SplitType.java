@@ -0,0 +1,24 @@
+package com.settleup.settleup.expense.split;
+
+import com.settleup.settleup.exception.InvalidInputException;
+
+import java.util.Arrays;
+
+public enum SplitType {
+    EQUAL,
+    EXACT,
+    PERCENT,
+    SHARES,
+    ITEMIZED;
+
+    public static SplitType from(String value) {
+        if (value != null) {
+            for (SplitType type : values()) {
+                if (type.name().equalsIgnoreCase(value.trim())) {
+                    return type;
+                }
+            }
+        }
+        throw new InvalidInputException("Invalid Split Type. Use one of " + Arrays.toString(values()) + ".");
+    }
+}
@@ -1,9 +1,12 @@
 package com.settleup.settleup.group.controller;
 
 import com.settleup.settleup.group.dto.GroupCreateDto;
+import com.settleup.settleup.group.dto.GroupDeletionStatusDto;
 import com.settleup.settleup.group.dto.GroupResponseDto;
+import com.settleup.settleup.group.service.GroupPurgeService;
 import com.settleup.settleup.group.service.GroupService;
 import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.metrics.QueryBudget;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,60 +23,70 @@ import java.util.List;
 public class GroupController {
 
     private final GroupService groupService;
+    private final GroupPurgeService groupPurgeService;
 
     @PostMapping
+    @QueryBudget(7)
     public ResponseEntity<ApiResponse<GroupResponseDto>> createGroup(@Valid @RequestBody GroupCreateDto dto) {
-        log.info("Request received to create group with name: '{}' by creatorId: {}", dto.getName(), dto.getCreatedByUserId());
         GroupResponseDto response = groupService.createGroup(dto);
-        log.info("Group created successfully with ID: {}", response.getId());
+        log.debug("Created groupId={} by creatorId={}", response.getId(), dto.getCreatedByUserId());
         return ResponseEntity.ok(ApiResponse.success(response, "Group created successfully"));
     }
 
     @GetMapping("/{groupId}")
+    @QueryBudget(2)
     public ResponseEntity<ApiResponse<GroupResponseDto>> getGroup(@PathVariable Long groupId) {
-        log.info("Fetching details for groupId: {}", groupId);
+        log.debug("Group details: groupId={}", groupId);
         GroupResponseDto response = groupService.getGroup(groupId);
         return ResponseEntity.ok(ApiResponse.success(response, "Group details fetched"));
     }
 
     @GetMapping("/user/{userId}")
+    @QueryBudget(1)
     public ResponseEntity<ApiResponse<List<GroupResponseDto>>> getUserGroups(@PathVariable Long userId) {
-        log.info("Fetching all groups for userId: {}", userId);
+        log.debug("User groups: userId={}", userId);
         List<GroupResponseDto> response = groupService.getUserGroups(userId);
-        log.info("Found {} groups for userId: {}", response.size(), userId);
         return ResponseEntity.ok(ApiResponse.success(response, "User groups fetched"));
     }
 
     @PostMapping("/{groupId}/members/{userId}")
+    @QueryBudget(5)
     public ResponseEntity<ApiResponse<GroupResponseDto>> addMember(
             @PathVariable Long groupId,
             @PathVariable Long userId) {
-        log.info("Request to ADD member userId: {} to groupId: {}", userId, groupId);
-
+        log.debug("Add member: groupId={}, userId={}", groupId, userId);
         GroupResponseDto response = groupService.addMember(groupId, userId);
-        log.info("Member added successfully to groupId: {}", groupId);
         return ResponseEntity.ok(ApiResponse.success(response, "Member added successfully"));
     }
 
     @DeleteMapping("/{groupId}/members/{userId}")
+    @QueryBudget(6)
     public ResponseEntity<ApiResponse<GroupResponseDto>> removeMember(
             @PathVariable Long groupId,
             @PathVariable Long userId,
             @RequestParam Long requesterId) {
-        log.info("Request to REMOVE member userId: {} from groupId: {} by requesterId: {}", userId, groupId, requesterId);
+        log.debug("Remove member: groupId={}, userId={}, requesterId={}", groupId, userId, requesterId);
         GroupResponseDto response = groupService.removeMember(groupId, userId, requesterId);
-        log.info("Member removed successfully from groupId: {}", groupId);
         return ResponseEntity.ok(ApiResponse.success(response, "Member removed successfully"));
     }
 
     @DeleteMapping("/{groupId}")
+    @QueryBudget(6)
     public ResponseEntity<ApiResponse<Void>> deleteGroup(
             @PathVariable Long groupId,
             @RequestParam Long requesterId
     ) {
-        log.warn("Request to DELETE entire groupId: {} by requesterId: {}", groupId, requesterId);
         groupService.deleteGroup(groupId, requesterId);
-        log.info("Group {} deleted successfully", groupId);
+        // destructive and rare, so kept at INFO as an audit line
+        log.info("Deleted groupId={} by requesterId={}", groupId, requesterId);
         return ResponseEntity.ok(ApiResponse.success(null, "Group deleted successfully"));
     }
+
+    // Progress of the background purge after a delete; 404 once the group's rows are gone
+    @GetMapping("/{groupId}/deletion")
+    @QueryBudget(1)
+    public ResponseEntity<ApiResponse<GroupDeletionStatusDto>> getDeletionStatus(@PathVariable Long groupId) {
+        GroupDeletionStatusDto response = groupPurgeService.getStatus(groupId);
+        return ResponseEntity.ok(ApiResponse.success(response, "Group deletion status fetched"));
+    }
 }
\ No newline at end of file
@@ -14,6 +14,9 @@ public class GroupCreateDto {
 
     private String description;
 
+    // defaults to the application currency when omitted
+    private String baseCurrency;
+
     @NotEmpty(message = "Group must have at least one member")
     private List<Long> memberIds;
 
@@ -0,0 +1,13 @@
+package com.settleup.settleup.group.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GroupDeletionStatusDto {
+    private Long groupId;
+    private String status; // PENDING, PURGING
+    private long expensesPurged;
+    private long expensesTotal;
+}
@@ -0,0 +1,22 @@
+package com.settleup.settleup.group.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One row per (group, member); the group columns repeat for each member
+@Data
+@AllArgsConstructor
+public class GroupMemberRow {
+    private Long groupId;
+    private String name;
+    private String description;
+    private String baseCurrency;
+    private LocalDateTime createdAt;
+    private Long createdByUserId;
+    private Long memberId;
+    private String memberName;
+    private String memberEmail;
+    private String memberMobileNumber;
+}
@@ -12,6 +12,7 @@ public class GroupResponseDto {
     private Long id;
     private String name;
     private String description;
+    private String baseCurrency;
     private LocalDateTime createdAt;
     private List<UserResponseDto> members;
     private Long createdByUserId;
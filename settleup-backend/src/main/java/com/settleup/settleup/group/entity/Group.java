@@ -3,6 +3,9 @@ package com.settleup.settleup.group.entity;
 import com.settleup.settleup.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -10,6 +13,11 @@ import java.util.Set;
 
 @Entity
 @Table(name = "expense_groups")
+// deleted groups stay as tombstones until GroupPurgeService removes their rows; they are invisible to every query,
+// and GroupPurgeService evicts their cache entries once the tombstone commits
+@SQLRestriction("deleted_at is null")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,14 +34,22 @@ public class Group {
 
     private String description;
 
+    @Column(length = 3, nullable = false)
+    private String baseCurrency;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    private LocalDateTime deletedAt;
+
+    // not second-level cached: membership gates expenses and removals, and a cache only this node evicts would let
+    // another node act on a stale member list
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "group_members",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_group_member_user", columnList = "user_id")
     )
     private Set<User> members = new HashSet<>();
 
@@ -0,0 +1,37 @@
+package com.settleup.settleup.group.entity;
+
+import com.settleup.settleup.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Running net balance of one member in one currency; updated with every expense and settlement in the group
+@Entity
+@Table(name = "group_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_group_balance", columnNames = {"group_id", "user_id", "currency"}),
+        indexes = @Index(name = "idx_group_balance_user", columnList = "user_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_balance_seq_gen")
+    @SequenceGenerator(name = "group_balance_seq_gen", sequenceName = "group_balance_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(length = 3, nullable = false)
+    private String currency;
+
+    // paid minus owed, in cents; positive means the member is owed money
+    @Column(nullable = false)
+    private long amountCents;
+}
@@ -0,0 +1,21 @@
+package com.settleup.settleup.group.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Bumped with every change to what a group's balances and history show; cached responses are keyed by it
+@Entity
+@Table(name = "group_revisions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupRevision {
+
+    @Id
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(nullable = false)
+    private long revision;
+}
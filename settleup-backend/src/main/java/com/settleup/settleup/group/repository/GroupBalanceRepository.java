@@ -0,0 +1,50 @@
+package com.settleup.settleup.group.repository;
+
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.group.entity.GroupBalance;
+import com.settleup.settleup.settlement.dto.LedgerBalanceRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, Long> {
+
+    List<GroupBalance> findByGroup_Id(Long groupId);
+
+    List<GroupBalance> findByGroup_IdAndCurrencyAndUser_IdIn(Long groupId, String currency, Collection<Long> userIds);
+
+    @Query("select new com.settleup.settleup.expense.dto.UserCurrencyTotal(b.user.id, b.currency, b.amountCents / 100.0) " +
+            "from GroupBalance b where b.group.id = :groupId order by b.currency")
+    List<UserCurrencyTotal> findTotalsByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.settleup.settleup.expense.dto.UserCurrencyTotal(b.user.id, b.currency, b.amountCents / 100.0) " +
+            "from GroupBalance b where b.group.id = :groupId and b.user.id = :userId order by b.currency")
+    List<UserCurrencyTotal> findTotalsByGroupIdAndUserId(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    // every member's totals summed over all groups the user belongs to: one row per (member, currency)
+    @Query("select new com.settleup.settleup.expense.dto.UserCurrencyTotal(b.user.id, b.currency, sum(b.amountCents) / 100.0) " +
+            "from GroupBalance b where b.group.id in (select g.id from Group g join g.members m where m.id = :userId) " +
+            "group by b.user.id, b.currency order by b.currency")
+    List<UserCurrencyTotal> findTotalsAcrossGroupsOf(@Param("userId") Long userId);
+
+    // keyset over the whole ledger for the settlement optimizer; the join leaves out tombstoned groups. A chunk comes
+    // back in one round trip at the default chunk size rather than the driver's default fetch size
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.settleup.settleup.settlement.dto.LedgerBalanceRow(b.id, g.id, b.user.id, b.currency, g.baseCurrency, b.amountCents) " +
+            "from GroupBalance b join b.group g where b.id > :afterId and b.amountCents <> 0 order by b.id")
+    List<LedgerBalanceRow> findLedgerChunk(@Param("afterId") Long afterId, Pageable chunk);
+
+    @Modifying
+    @Query("delete from GroupBalance b where b.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -1,9 +1,60 @@
 package com.settleup.settleup.group.repository;
 
+import com.settleup.settleup.group.dto.GroupMemberRow;
 import com.settleup.settleup.group.entity.Group;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
-    List<Group> findByMembers_Id(Long userId);
-}
\ No newline at end of file
+    // every group the user belongs to, with all of its members, in one statement
+    @Query("select new com.settleup.settleup.group.dto.GroupMemberRow(g.id, g.name, g.description, g.baseCurrency, g.createdAt, " +
+            "g.createdBy.id, u.id, u.name, u.email, u.mobileNumber) " +
+            "from Group g join g.members m join g.members u where m.id = :userId order by g.id")
+    List<GroupMemberRow> findMemberRowsByUserId(@Param("userId") Long userId);
+
+    // Taken by every balance-changing write; see GroupBalanceService
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g from Group g where g.id = :groupId")
+    Optional<Group> findByIdForUpdate(@Param("groupId") Long groupId);
+
+    // tombstoned groups are left out
+    @Query("select g.id from Group g where g.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // keyset over every live group, for jobs that walk all of them
+    @Query("select g.id from Group g where g.id > :afterId order by g.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable chunk);
+
+    @Query("select g.id from Group g join g.members m where m.id = :userId")
+    List<Long> findIdsByMemberId(@Param("userId") Long userId);
+
+    // Tombstones are hidden from JPQL by the entity's restriction, so these go through native SQL
+    @Query(value = "select id from expense_groups where deleted_at is not null order by id", nativeQuery = true)
+    List<Long> findTombstonedIds();
+
+    @Query(value = "select count(*) from expense_groups where id = :groupId and deleted_at is not null", nativeQuery = true)
+    long countTombstone(@Param("groupId") Long groupId);
+
+    // the spaces hint limits cache invalidation to the touched table; a bare native update would clear every region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_members"))
+    @Query(value = "delete from group_members where group_id = :groupId", nativeQuery = true)
+    int deleteMembers(@Param("groupId") Long groupId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "expense_groups"))
+    @Query(value = "delete from expense_groups where id = :groupId and deleted_at is not null", nativeQuery = true)
+    int deleteTombstone(@Param("groupId") Long groupId);
+}
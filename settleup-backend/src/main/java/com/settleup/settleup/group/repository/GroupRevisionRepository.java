@@ -0,0 +1,30 @@
+package com.settleup.settleup.group.repository;
+
+import com.settleup.settleup.group.entity.GroupRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface GroupRevisionRepository extends JpaRepository<GroupRevision, Long> {
+
+    @Query("select r.revision from GroupRevision r where r.groupId = :groupId")
+    Optional<Long> findRevision(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("update GroupRevision r set r.revision = r.revision + 1 where r.groupId = :groupId")
+    int increment(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("update GroupRevision r set r.revision = r.revision + 1 where r.groupId in :groupIds")
+    int incrementAll(@Param("groupIds") Collection<Long> groupIds);
+
+    @Modifying
+    @Query("delete from GroupRevision r where r.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
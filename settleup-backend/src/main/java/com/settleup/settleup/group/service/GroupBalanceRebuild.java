@@ -0,0 +1,167 @@
+package com.settleup.settleup.group.service;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.GroupBalanceProperties;
+import com.settleup.settleup.expense.dto.CompactExpenseRow;
+import com.settleup.settleup.expense.dto.CompactSettlementRow;
+import com.settleup.settleup.expense.dto.CompactSplitRow;
+import com.settleup.settleup.expense.repository.ExpenseRepository;
+import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.expense.split.SplitAllocation;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.entity.GroupBalance;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes the running balance rows ({@link GroupBalanceService}) from each group's expense splits and settlements,
+ * for databases that predate them or whose rows drifted. Each group is rebuilt on its shard in a transaction of its
+ * own, holding the group's row lock, so concurrent postings wait rather than interleave. Amounts are converted to
+ * cents the way the write path does, so a group whose rows are right is left untouched. Only one node rebuilds at a
+ * time, and a run stops as soon as it can no longer renew its lock.
+ */
+@Slf4j
+@Service
+public class GroupBalanceRebuild {
+
+    static final String LOCK_NAME = "group-balance-rebuild";
+
+    private final GroupRepository groupRepository;
+    private final GroupBalanceRepository balanceRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final SettlementRepository settlementRepo;
+    private final UserRepository userRepo;
+    private final SchedulerLockService lockService;
+    private final ShardRouter shardRouter;
+    private final GroupBalanceProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public GroupBalanceRebuild(GroupRepository groupRepository,
+                               GroupBalanceRepository balanceRepo,
+                               ExpenseRepository expenseRepo,
+                               ExpenseSplitRepository splitRepo,
+                               SettlementRepository settlementRepo,
+                               UserRepository userRepo,
+                               SchedulerLockService lockService,
+                               ShardRouter shardRouter,
+                               GroupBalanceProperties properties,
+                               PlatformTransactionManager transactionManager) {
+        this.groupRepository = groupRepository;
+        this.balanceRepo = balanceRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.settlementRepo = settlementRepo;
+        this.userRepo = userRepo;
+        this.lockService = lockService;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (properties.isRebuildOnStartup() && !run()) {
+            log.debug("Group balance rebuild skipped; another node holds the lock");
+        }
+    }
+
+    // False when another node holds the lock or the lock was lost part way
+    public boolean run() {
+        return lockService.tryAcquire(LOCK_NAME, properties.getLockTtl()).map(this::rebuildAndRelease).orElse(false);
+    }
+
+    private boolean rebuildAndRelease(SchedulerLease lease) {
+        try {
+            return rebuildAll(lease);
+        } finally {
+            lockService.release(lease);
+        }
+    }
+
+    private boolean rebuildAll(SchedulerLease lease) {
+        PageRequest chunk = PageRequest.of(0, properties.getChunkSize());
+        int groups = 0;
+        int corrected = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> groupIds = groupRepository.findIdsAfter(afterId, chunk);
+            for (Long groupId : groupIds) {
+                Integer rows = shardRouter.onGroupShard(groupId, () -> transactionTemplate.execute(tx -> rebuild(groupId)));
+                corrected += rows == null ? 0 : rows;
+                groups++;
+            }
+            if (groupIds.size() < properties.getChunkSize()) break;
+            afterId = groupIds.get(groupIds.size() - 1);
+            if (!lockService.renew(lease, properties.getLockTtl())) {
+                log.warn("Group balance rebuild lost its lock after {} groups; stopping", groups);
+                return false;
+            }
+        }
+        log.info("Group balance rebuild: {} groups checked, {} balance rows corrected", groups, corrected);
+        return true;
+    }
+
+    // Rows corrected or added for the group; zero when its rows already matched its history
+    int rebuild(Long groupId) {
+        Group group = groupRepository.findByIdForUpdate(groupId).orElse(null);
+        if (group == null) return 0;
+
+        Map<Long, String> currencies = new HashMap<>();
+        Map<BalanceKey, Long> expected = new HashMap<>();
+        for (CompactExpenseRow expense : expenseRepo.findCompactHistoryByGroupId(groupId)) {
+            currencies.put(expense.getId(), expense.getCurrency());
+            expected.merge(new BalanceKey(expense.getPaidByUserId(), expense.getCurrency()),
+                    SplitAllocation.toCents(expense.getAmount()), Long::sum);
+        }
+        for (CompactSplitRow split : splitRepo.findCompactHistoryByGroupId(groupId)) {
+            expected.merge(new BalanceKey(split.getUserId(), currencies.get(split.getExpenseId())),
+                    -SplitAllocation.toCents(split.getAmountOwed()), Long::sum);
+        }
+        for (CompactSettlementRow settlement : settlementRepo.findCompactHistoryByGroupId(groupId)) {
+            long cents = SplitAllocation.toCents(settlement.getAmount());
+            expected.merge(new BalanceKey(settlement.getPayerId(), group.getBaseCurrency()), cents, Long::sum);
+            expected.merge(new BalanceKey(settlement.getPayeeId(), group.getBaseCurrency()), -cents, Long::sum);
+        }
+
+        List<GroupBalance> changed = new ArrayList<>();
+        for (GroupBalance row : balanceRepo.findByGroup_Id(groupId)) {
+            Long amount = expected.remove(new BalanceKey(row.getUser().getId(), row.getCurrency()));
+            if (amount == null) amount = 0L;
+            if (row.getAmountCents() != amount) {
+                row.setAmountCents(amount);
+                changed.add(row);
+            }
+        }
+        expected.forEach((key, amount) -> changed.add(GroupBalance.builder()
+                .group(group)
+                .user(userRepo.getReferenceById(key.userId()))
+                .currency(key.currency())
+                .amountCents(amount)
+                .build()));
+        balanceRepo.saveAll(changed);
+        if (!changed.isEmpty()) {
+            log.info("Corrected {} balance rows of group {}", changed.size(), groupId);
+        }
+        return changed.size();
+    }
+
+    private record BalanceKey(Long userId, String currency) {
+    }
+}
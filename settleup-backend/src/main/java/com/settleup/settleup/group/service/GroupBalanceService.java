@@ -0,0 +1,117 @@
+package com.settleup.settleup.group.service;
+
+import com.settleup.settleup.common.sharding.ShardedByGroup;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.entity.GroupBalance;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains one balance row per (group, member, currency) so balance reads never scan a group's history.
+ * Writers must hold the group's row lock ({@code GroupRepository.findByIdForUpdate}); that serializes updates to a
+ * group's rows and makes check-then-act sequences such as member removal atomic against concurrent postings.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+@RequiredArgsConstructor
+public class GroupBalanceService {
+
+    // half a cent of the base currency; anything smaller is conversion rounding
+    static final double SETTLED_TOLERANCE = 0.005;
+
+    private final GroupBalanceRepository balanceRepo;
+    private final UserRepository userRepo;
+    private final FxRateService fxRateService;
+
+    public void applyExpense(Group group, String currency, long payerId, long totalCents, long[] userIds, long[] amounts) {
+        Map<Long, Long> deltas = new HashMap<>();
+        deltas.merge(payerId, totalCents, Long::sum);
+        for (int i = 0; i < userIds.length; i++) {
+            deltas.merge(userIds[i], -amounts[i], Long::sum);
+        }
+        apply(group, currency, deltas);
+    }
+
+    // Settlements are recorded in the group's base currency
+    public void applySettlement(Group group, long payerId, long payeeId, long amountCents) {
+        Map<Long, Long> deltas = new HashMap<>();
+        deltas.merge(payerId, amountCents, Long::sum);
+        deltas.merge(payeeId, -amountCents, Long::sum);
+        apply(group, group.getBaseCurrency(), deltas);
+    }
+
+    // Net balance per member in the group's base currency: positive is owed, negative owes
+    @ShardedByGroup("#group.id")
+    public Map<Long, Double> netBalances(Group group) {
+        return netBalances(balanceRepo.findTotalsByGroupId(group.getId()), group.getBaseCurrency());
+    }
+
+    // For callers that fetched the totals themselves, e.g. concurrently with other reads
+    public Map<Long, Double> netBalances(List<UserCurrencyTotal> totals, String baseCurrency) {
+        Map<Long, Double> balances = new HashMap<>();
+        accumulate(balances, totals, baseCurrency);
+        return balances;
+    }
+
+    @ShardedByGroup("#group.id")
+    public double netBalance(Group group, Long userId) {
+        Map<Long, Double> balances = new HashMap<>();
+        accumulate(balances, balanceRepo.findTotalsByGroupIdAndUserId(group.getId(), userId), group.getBaseCurrency());
+        return balances.getOrDefault(userId, 0.0);
+    }
+
+    // Positions in every currency count, converted into the base currency first, so amounts in different currencies
+    // can only cancel out at their exchange rate
+    @ShardedByGroup("#group.id")
+    public boolean isSettled(Group group, Long userId) {
+        return Math.abs(netBalance(group, userId)) < SETTLED_TOLERANCE;
+    }
+
+    @ShardedByGroup("#group.id")
+    public boolean isFullySettled(Group group) {
+        return netBalances(group).values().stream().allMatch(balance -> Math.abs(balance) < SETTLED_TOLERANCE);
+    }
+
+    private void apply(Group group, String currency, Map<Long, Long> deltas) {
+        List<GroupBalance> rows = balanceRepo.findByGroup_IdAndCurrencyAndUser_IdIn(group.getId(), currency, deltas.keySet());
+        for (GroupBalance row : rows) {
+            row.setAmountCents(row.getAmountCents() + deltas.remove(row.getUser().getId()));
+        }
+        List<GroupBalance> changed = new ArrayList<>(rows);
+        deltas.forEach((userId, delta) -> changed.add(GroupBalance.builder()
+                .group(group)
+                .user(userRepo.getReferenceById(userId))
+                .currency(currency)
+                .amountCents(delta)
+                .build()));
+        balanceRepo.saveAll(changed);
+    }
+
+    // Totals arrive ordered by currency, so the rate is resolved once per currency rather than once per row
+    private void accumulate(Map<Long, Double> balances, List<UserCurrencyTotal> totals, String baseCurrency) {
+        // one snapshot for the whole read so a concurrent reload can't mix two rate tables
+        FxRateTable rates = fxRateService.current();
+        String currency = baseCurrency;
+        double rate = 1.0;
+        for (UserCurrencyTotal total : totals) {
+            if (total.getCurrency() != null && !total.getCurrency().equals(currency)) {
+                currency = total.getCurrency();
+                rate = rates.rate(currency, baseCurrency);
+            }
+            balances.merge(total.getUserId(), total.getTotal() * rate, Double::sum);
+        }
+    }
+}
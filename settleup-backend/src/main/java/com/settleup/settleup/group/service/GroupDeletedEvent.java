@@ -0,0 +1,5 @@
+package com.settleup.settleup.group.service;
+
+// Published once a group has been tombstoned; its rows are purged after the transaction commits
+public record GroupDeletedEvent(Long groupId) {
+}
@@ -0,0 +1,207 @@
+package com.settleup.settleup.group.service;
+
+import com.settleup.settleup.analytics.repository.GroupSpendRollupRepository;
+import com.settleup.settleup.analytics.repository.RolledUpExpenseRepository;
+import com.settleup.settleup.common.sharding.DirectoryChangedEvent;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.GroupPurgeProperties;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.repository.ExpenseRepository;
+import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.group.dto.GroupDeletionStatusDto;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.repository.GroupRevisionRepository;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.settlement.repository.SettlementSuggestionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes the rows of tombstoned groups with set-based deletes, expenses and their splits a chunk per transaction.
+ * Purges are resumable: anything still tombstoned is picked up again by the next sweep, including after a restart.
+ */
+@Slf4j
+@Service
+public class GroupPurgeService {
+
+    static final String LOCK_NAME = "group-purge";
+
+    private final GroupRepository groupRepository;
+    private final GroupBalanceRepository balanceRepo;
+    private final GroupRevisionRepository revisionRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final SettlementRepository settlementRepo;
+    private final SettlementSuggestionRepository suggestionRepo;
+    private final RecurringExpenseRepository recurringRepo;
+    private final GroupSpendRollupRepository rollupRepo;
+    private final RolledUpExpenseRepository rolledUpRepo;
+    private final SchedulerLockService lockService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupPurgeProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, GroupDeletionStatusDto> progress = new ConcurrentHashMap<>();
+
+    public GroupPurgeService(GroupRepository groupRepository,
+                             GroupBalanceRepository balanceRepo,
+                             GroupRevisionRepository revisionRepo,
+                             ExpenseRepository expenseRepo,
+                             ExpenseSplitRepository splitRepo,
+                             SettlementRepository settlementRepo,
+                             SettlementSuggestionRepository suggestionRepo,
+                             RecurringExpenseRepository recurringRepo,
+                             GroupSpendRollupRepository rollupRepo,
+                             RolledUpExpenseRepository rolledUpRepo,
+                             SchedulerLockService lockService,
+                             @Qualifier("groupPurgeExecutor") ThreadPoolTaskExecutor executor,
+                             PlatformTransactionManager transactionManager,
+                             GroupPurgeProperties properties,
+                             EntityManagerFactory entityManagerFactory,
+                             ShardRouter shardRouter,
+                             ApplicationEventPublisher eventPublisher) {
+        this.groupRepository = groupRepository;
+        this.balanceRepo = balanceRepo;
+        this.revisionRepo = revisionRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.settlementRepo = settlementRepo;
+        this.suggestionRepo = suggestionRepo;
+        this.recurringRepo = recurringRepo;
+        this.rollupRepo = rollupRepo;
+        this.rolledUpRepo = rolledUpRepo;
+        this.lockService = lockService;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener
+    public void onGroupDeleted(GroupDeletedEvent event) {
+        // cached loads by id bypass the tombstone restriction, so drop the group from the second-level cache
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Group.class, event.groupId());
+        progress.putIfAbsent(event.groupId(), new GroupDeletionStatusDto(event.groupId(), "PENDING", 0, 0));
+        requestSweep();
+    }
+
+    // Resume purges interrupted by a shutdown
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        requestSweep();
+    }
+
+    // Picks up tombstones whose purge was skipped because another node held the lock
+    @Scheduled(fixedDelayString = "${settleup.group-purge.sweep-interval:PT5M}")
+    public void scheduledSweep() {
+        requestSweep();
+    }
+
+    public GroupDeletionStatusDto getStatus(Long groupId) {
+        GroupDeletionStatusDto status = progress.get(groupId);
+        if (status != null) {
+            return status;
+        }
+        if (groupRepository.countTombstone(groupId) > 0) {
+            return new GroupDeletionStatusDto(groupId, "PENDING", 0, 0);
+        }
+        throw new ResourceNotFoundException("Group not found");
+    }
+
+    private void requestSweep() {
+        executor.execute(this::sweep);
+    }
+
+    // Purges every tombstoned group now, on the calling thread; the triggers above run it on the purge executor
+    public void sweep() {
+        Optional<SchedulerLease> lease = lockService.tryAcquire(LOCK_NAME, properties.getLockTtl());
+        if (lease.isEmpty()) {
+            log.debug("Group purge skipped; another run holds the lock");
+            return;
+        }
+        try {
+            for (Long groupId : groupRepository.findTombstonedIds()) {
+                if (!lockService.renew(lease.get(), properties.getLockTtl())) {
+                    log.warn("Group purge lost its lock; the remaining groups are left to the next sweep");
+                    return;
+                }
+                try {
+                    purge(lease.get(), groupId);
+                } catch (RuntimeException e) {
+                    log.error("Purge of group {} failed; it will be retried on the next sweep", groupId, e);
+                }
+            }
+        } finally {
+            lockService.release(lease.get());
+        }
+    }
+
+    // Ledger rows go first, on the group's shard, then the directory rows; a rerun after a failure in between is harmless
+    private void purge(SchedulerLease lease, Long groupId) {
+        long total = shardRouter.onGroupShard(groupId, () -> expenseRepo.countByGroupId(groupId));
+        GroupDeletionStatusDto status = new GroupDeletionStatusDto(groupId, "PURGING", 0, total);
+        progress.put(groupId, status);
+
+        PageRequest chunk = PageRequest.of(0, properties.getChunkSize());
+        while (true) {
+            Integer deleted = shardRouter.onGroupShard(groupId, () -> transactionTemplate.execute(tx -> {
+                List<Long> expenseIds = expenseRepo.findIdsByGroupId(groupId, chunk);
+                if (expenseIds.isEmpty()) return 0;
+                splitRepo.deleteByExpenseIdIn(expenseIds);
+                return expenseRepo.deleteByIdIn(expenseIds);
+            }));
+            if (deleted == null || deleted == 0) break;
+            status.setExpensesPurged(status.getExpensesPurged() + deleted);
+            if (!lockService.renew(lease, properties.getLockTtl())) {
+                throw new IllegalStateException("Group purge lost its lock");
+            }
+        }
+
+        shardRouter.onGroupShard(groupId, () -> transactionTemplate.executeWithoutResult(tx -> {
+            settlementRepo.deleteByGroupId(groupId);
+            recurringRepo.deleteSplitValuesByGroupId(groupId);
+            recurringRepo.deleteByGroupId(groupId);
+            balanceRepo.deleteByGroupId(groupId);
+            revisionRepo.deleteByGroupId(groupId);
+            rollupRepo.deleteByGroupId(groupId);
+            rolledUpRepo.deleteByGroupId(groupId);
+        }));
+        transactionTemplate.executeWithoutResult(tx -> {
+            suggestionRepo.deleteByGroupId(groupId);
+            groupRepository.deleteMembers(groupId);
+            groupRepository.deleteTombstone(groupId);
+            eventPublisher.publishEvent(DirectoryChangedEvent.group(groupId));
+        });
+        progress.remove(groupId);
+        log.info("Purged group {}: {} expenses", groupId, status.getExpensesPurged());
+    }
+}
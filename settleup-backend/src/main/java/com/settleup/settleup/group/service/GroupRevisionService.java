@@ -0,0 +1,68 @@
+package com.settleup.settleup.group.service;
+
+import com.settleup.settleup.common.datasource.DataSourceRoute;
+import com.settleup.settleup.common.sharding.DirectoryChangedEvent;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.group.entity.GroupRevision;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.repository.GroupRevisionRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks a revision per group that moves whenever its balances or history would read differently, so anything
+ * derived from them can be cached under (group, revision) and never needs explicit invalidation. Revisions live on
+ * the group's shard, next to the ledger rows they describe.
+ */
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+@RequiredArgsConstructor
+public class GroupRevisionService {
+
+    private final GroupRevisionRepository revisionRepo;
+    private final GroupRepository groupRepository;
+    private final ShardRouter shardRouter;
+
+    // Empty until the group's first expense or settlement; such groups are cheap to read and aren't cached
+    public Optional<Long> current(Long groupId) {
+        return revisionRepo.findRevision(groupId);
+    }
+
+    // Callers hold the group's row lock, so two first bumps can't both insert. With replica routing the new revision
+    // is read back for the writer's read-your-writes cookie, one statement more.
+    public void bump(Long groupId) {
+        if (revisionRepo.increment(groupId) == 0) {
+            revisionRepo.save(new GroupRevision(groupId, 1));
+            DataSourceRoute.revisionWritten(groupId, 1);
+        } else if (DataSourceRoute.tracksRevisions()) {
+            DataSourceRoute.revisionWritten(groupId, revisionRepo.findRevision(groupId).orElseThrow());
+        }
+    }
+
+    // A deleted group has nothing left to cache; without a revision its reads go to the database and find it gone
+    public void discard(Long groupId) {
+        revisionRepo.deleteByGroupId(groupId);
+    }
+
+    // Member names appear in balances and history, so a user update moves all of the user's groups on. Runs after
+    // the update commits and, when sharded, after DirectorySync has copied the user to the shards.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        if (event.userId() == null) return;
+        Map<Integer, List<Long>> groupsByShard = groupRepository.findIdsByMemberId(event.userId()).stream()
+                .collect(Collectors.groupingBy(shardRouter::shardFor));
+        groupsByShard.forEach((shard, groupIds) -> shardRouter.onShard(shard, () -> revisionRepo.incrementAll(groupIds)));
+    }
+}
@@ -1,41 +1,54 @@
 package com.settleup.settleup.group.service;
 
+import com.settleup.settleup.common.sharding.DirectoryChangedEvent;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.currency.service.FxRateService;
 import com.settleup.settleup.exception.InvalidInputException;
 import com.settleup.settleup.exception.ResourceNotFoundException;
-import com.settleup.settleup.expense.entity.Expense;
-import com.settleup.settleup.expense.entity.ExpenseSplit;
-import com.settleup.settleup.expense.repository.ExpenseRepository;
-import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
 import com.settleup.settleup.group.dto.GroupCreateDto;
+import com.settleup.settleup.group.dto.GroupMemberRow;
 import com.settleup.settleup.group.dto.GroupResponseDto;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.group.repository.GroupRepository;
-import com.settleup.settleup.settlement.entity.Settlement;
-import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.outbox.dto.GroupChangedPayload;
+import com.settleup.settleup.outbox.dto.MembershipChangedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxService;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
 import com.settleup.settleup.user.dto.UserResponseDto;
 import com.settleup.settleup.user.entity.User;
 import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
 @RequiredArgsConstructor
 public class GroupService {
 
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
-    private final ExpenseRepository expenseRepo;
-    private final ExpenseSplitRepository splitRepo;
-    private final SettlementRepository settlementRepo; // Inject Settlement Repo
+    private final GroupBalanceService groupBalanceService;
+    private final GroupRevisionService groupRevisionService;
+    private final RecurringExpenseRepository recurringRepo;
+    private final FxRateService fxRateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final OutboxService outboxService;
 
     // CREATE GROUP
+    @Transactional
     public GroupResponseDto createGroup(GroupCreateDto dto) {
         User creator = userRepository.findById(dto.getCreatedByUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Creator not found"));
@@ -53,15 +66,19 @@ public class GroupService {
         Group group = Group.builder()
                 .name(dto.getName())
                 .description(dto.getDescription())
+                .baseCurrency(fxRateService.resolveCurrency(dto.getBaseCurrency(), null))
                 .members(new HashSet<>(members))
                 .createdBy(creator)
                 .build();
 
         Group savedGroup = groupRepository.save(group);
+        outboxService.record(OutboxEventType.GROUP_CREATED, savedGroup.getId(), new GroupChangedPayload(savedGroup.getId()));
+        eventPublisher.publishEvent(DirectoryChangedEvent.group(savedGroup.getId()));
         return mapToResponse(savedGroup);
     }
 
     //GET GROUP BY ID
+    @Transactional(readOnly = true)
     public GroupResponseDto getGroup(Long groupId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found with ID: " + groupId));
@@ -69,12 +86,32 @@ public class GroupService {
     }
 
     // GET USER GROUPS
+    @Transactional(readOnly = true)
     public List<GroupResponseDto> getUserGroups(Long userId) {
-        List<Group> groups = groupRepository.findByMembers_Id(userId);
-        return groups.stream().map(this::mapToResponse).collect(Collectors.toList());
+        // rows arrive ordered by group, so consecutive rows with the same group id build one response
+        List<GroupResponseDto> groups = new ArrayList<>();
+        GroupResponseDto current = null;
+        for (GroupMemberRow row : groupRepository.findMemberRowsByUserId(userId)) {
+            if (current == null || !current.getId().equals(row.getGroupId())) {
+                current = GroupResponseDto.builder()
+                        .id(row.getGroupId())
+                        .name(row.getName())
+                        .description(row.getDescription())
+                        .baseCurrency(row.getBaseCurrency())
+                        .createdAt(row.getCreatedAt())
+                        .members(new ArrayList<>())
+                        .createdByUserId(row.getCreatedByUserId())
+                        .build();
+                groups.add(current);
+            }
+            current.getMembers().add(new UserResponseDto(
+                    row.getMemberId(), row.getMemberName(), row.getMemberEmail(), row.getMemberMobileNumber()));
+        }
+        return groups;
     }
 
     // ADD MEMBER
+    @Transactional
     public GroupResponseDto addMember(Long groupId, Long userId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
@@ -88,11 +125,15 @@ public class GroupService {
 
         group.getMembers().add(user);
         Group savedGroup = groupRepository.save(group);
+        outboxService.record(OutboxEventType.MEMBER_ADDED, groupId, new MembershipChangedPayload(groupId, userId));
+        eventPublisher.publishEvent(DirectoryChangedEvent.group(groupId));
         return mapToResponse(savedGroup);
     }
 
+    // The group row stays locked until commit, so no expense can land for the user between the check and the removal
+    @Transactional
     public GroupResponseDto removeMember(Long groupId, Long userId, Long requesterId) {
-        Group group = groupRepository.findById(groupId)
+        Group group = groupRepository.findByIdForUpdate(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
 
         if (!group.getCreatedBy().getId().equals(requesterId)) {
@@ -109,103 +150,57 @@ public class GroupService {
             throw new ResourceNotFoundException("User is not in this group");
         }
 
-        if (!isUserSettled(groupId, userId)) {
+        boolean settled = shardRouter.isSharded()
+                ? shardRouter.onGroupShard(groupId, () -> removeFromLedgerShard(groupId, userId))
+                : groupBalanceService.isSettled(group, userId);
+        if (!settled) {
             throw new InvalidInputException("User has an unsettled balance (Owes or Owed). Please settle up before removing.");
         }
 
         group.getMembers().remove(user);
         Group savedGroup = groupRepository.save(group);
+        outboxService.record(OutboxEventType.MEMBER_REMOVED, groupId, new MembershipChangedPayload(groupId, userId));
+        eventPublisher.publishEvent(DirectoryChangedEvent.group(groupId));
         return mapToResponse(savedGroup);
     }
 
-    // CALCULATE IF BALANCE IS ZERO
-    private boolean isUserSettled(Long groupId, Long userId) {
-        double balance = 0.0;
-
-        List<Expense> paidExpenses = expenseRepo.findByGroupId(groupId);
-        for (Expense e : paidExpenses) {
-            if (e.getPaidBy().getId().equals(userId)) {
-                balance += e.getAmount();
-            }
-        }
-
-        for (Expense e : paidExpenses) {
-            List<ExpenseSplit> splits = splitRepo.findByExpenseId(e.getId());
-            for (ExpenseSplit split : splits) {
-                if (split.getUser().getId().equals(userId)) {
-                    balance -= split.getAmountOwed();
-                }
-            }
-        }
-
-        List<Settlement> settlements = settlementRepo.findByGroupId(groupId);
-        for (Settlement s : settlements) {
-            if (s.getPayer().getId().equals(userId)) {
-                balance += s.getAmount();
-            }
-            if (s.getPayee().getId().equals(userId)) {
-                balance -= s.getAmount();
-            }
+    // Postings lock the shard's copy of the group rather than the directory's, so the check and the removal are made
+    // there too, under that lock. Should the directory side then fail to commit, the group's next sync restores the
+    // membership on the shard
+    private boolean removeFromLedgerShard(Long groupId, Long userId) {
+        Group group = groupRepository.findByIdForUpdate(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
+        if (!groupBalanceService.isSettled(group, userId)) {
+            return false;
         }
-
-        return Math.abs(balance) < 0.01;
+        group.getMembers().removeIf(member -> member.getId().equals(userId));
+        return true;
     }
 
     // DELETE GROUP
+    // Tombstones the group and returns; GroupPurgeService deletes its rows in the background
     @Transactional
     public void deleteGroup(Long groupId, Long requesterId) {
-        Group group = groupRepository.findById(groupId)
+        Group group = groupRepository.findByIdForUpdate(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
 
         if (!group.getCreatedBy().getId().equals(requesterId)) {
             throw new InvalidInputException("Only the Group Admin can delete the group.");
         }
 
-        if (!isGroupFullySettled(groupId)) {
+        if (!groupBalanceService.isFullySettled(group)) {
             throw new InvalidInputException("Cannot delete group. There are unsettled debts. Please ensure all balances are zero.");
         }
 
-        List<Settlement> settlements = settlementRepo.findByGroupId(groupId);
-        settlementRepo.deleteAll(settlements);
-
-        List<Expense> expenses = expenseRepo.findByGroupId(groupId);
-        for (Expense expense : expenses) {
-            List<ExpenseSplit> splits = splitRepo.findByExpenseId(expense.getId());
-            splitRepo.deleteAll(splits);
-        }
-        expenseRepo.deleteAll(expenses);
-
-        groupRepository.delete(group);
-    }
-
-
-    private boolean isGroupFullySettled(Long groupId) {
-        Map<Long, Double> balances = new HashMap<>();
-
-        List<Expense> expenses = expenseRepo.findByGroupId(groupId);
-        for (Expense expense : expenses) {
-            balances.merge(expense.getPaidBy().getId(), expense.getAmount(), Double::sum);
-
-            List<ExpenseSplit> splits = splitRepo.findByExpenseId(expense.getId());
-            for (ExpenseSplit split : splits) {
-                balances.merge(split.getUser().getId(), -split.getAmountOwed(), Double::sum);
-            }
-        }
-
-        List<Settlement> settlements = settlementRepo.findByGroupId(groupId);
-        for (Settlement settlement : settlements) {
-            balances.merge(settlement.getPayer().getId(), settlement.getAmount(), Double::sum);
-
-            balances.merge(settlement.getPayee().getId(), -settlement.getAmount(), Double::sum);
-        }
-
-        for (Double balance : balances.values()) {
-            if (Math.abs(balance) > 0.1) {
-                return false;
-            }
-        }
-
-        return true;
+        shardRouter.onGroupShard(groupId, () -> {
+            recurringRepo.deactivateByGroupId(groupId);
+            groupRevisionService.discard(groupId);
+        });
+        group.setDeletedAt(LocalDateTime.now());
+        groupRepository.save(group);
+        outboxService.record(OutboxEventType.GROUP_DELETED, groupId, new GroupChangedPayload(groupId));
+        eventPublisher.publishEvent(new GroupDeletedEvent(groupId));
+        eventPublisher.publishEvent(DirectoryChangedEvent.group(groupId));
     }
 
     private GroupResponseDto mapToResponse(Group group) {
@@ -221,6 +216,7 @@ public class GroupService {
                 .id(group.getId())
                 .name(group.getName())
                 .description(group.getDescription())
+                .baseCurrency(group.getBaseCurrency())
                 .createdAt(group.getCreatedAt())
                 .members(memberDtos)
                 .createdByUserId(group.getCreatedBy().getId())
@@ -0,0 +1,8 @@
+package com.settleup.settleup.outbox.dto;
+
+import java.time.LocalDateTime;
+
+// Amounts are in cents of the expense currency; userIds and amountCents are the split, index by index
+public record ExpenseAddedPayload(Long expenseId, Long groupId, Long paidByUserId, String currency, long totalCents,
+                                  long[] userIds, long[] amountCents, LocalDateTime createdAt) {
+}
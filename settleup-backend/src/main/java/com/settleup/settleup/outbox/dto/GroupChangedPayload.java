@@ -0,0 +1,4 @@
+package com.settleup.settleup.outbox.dto;
+
+public record GroupChangedPayload(Long groupId) {
+}
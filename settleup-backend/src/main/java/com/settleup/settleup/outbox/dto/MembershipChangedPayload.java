@@ -0,0 +1,4 @@
+package com.settleup.settleup.outbox.dto;
+
+public record MembershipChangedPayload(Long groupId, Long userId) {
+}
@@ -0,0 +1,8 @@
+package com.settleup.settleup.outbox.dto;
+
+import java.time.LocalDateTime;
+
+// Amount is in cents of the group's base currency
+public record SettlementRecordedPayload(Long settlementId, Long groupId, Long payerId, Long payeeId, long amountCents,
+                                        LocalDateTime createdAt) {
+}
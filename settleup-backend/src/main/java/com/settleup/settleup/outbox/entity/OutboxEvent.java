@@ -0,0 +1,45 @@
+package com.settleup.settleup.outbox.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_available", columnList = "available_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq_gen")
+    @SequenceGenerator(name = "outbox_seq_gen", sequenceName = "outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32, nullable = false)
+    private OutboxEventType type;
+
+    // the group the event belongs to; not a foreign key, so events outlive a purged group
+    private Long groupId;
+
+    // JSON of the type's payload record
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // pushed back after a failed delivery
+    @Builder.Default
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,24 @@
+package com.settleup.settleup.outbox.entity;
+
+import com.settleup.settleup.common.sharding.DirectoryChangedEvent;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import com.settleup.settleup.outbox.dto.GroupChangedPayload;
+import com.settleup.settleup.outbox.dto.MembershipChangedPayload;
+import com.settleup.settleup.outbox.dto.SettlementRecordedPayload;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OutboxEventType {
+    EXPENSE_ADDED(ExpenseAddedPayload.class),
+    SETTLEMENT_RECORDED(SettlementRecordedPayload.class),
+    GROUP_CREATED(GroupChangedPayload.class),
+    GROUP_DELETED(GroupChangedPayload.class),
+    MEMBER_ADDED(MembershipChangedPayload.class),
+    MEMBER_REMOVED(MembershipChangedPayload.class),
+    // recorded only when sharded; see DirectorySync
+    DIRECTORY_CHANGED(DirectoryChangedEvent.class);
+
+    private final Class<?> payloadType;
+}
@@ -0,0 +1,25 @@
+package com.settleup.settleup.outbox.repository;
+
+import com.settleup.settleup.outbox.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // lock timeout -2 is SKIP LOCKED: relays on several nodes take disjoint batches instead of queueing on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.availableAt <= :now and e.attempts < :maxAttempts order by e.id")
+    List<OutboxEvent> findDeliverable(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, Pageable page);
+}
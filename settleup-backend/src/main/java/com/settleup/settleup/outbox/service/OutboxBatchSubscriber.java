@@ -0,0 +1,18 @@
+package com.settleup.settleup.outbox.service;
+
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+
+import java.util.List;
+
+/**
+ * Receives the events of one type a relay batch at a time, for subscribers that write once per batch rather than
+ * once per event. Called in a transaction of its own after the batch's listeners ran. If it throws, the relay hands
+ * the events over again one at a time and retries only those that fail on their own. Delivery is at least once, like
+ * for {@link OutboxMessage} listeners.
+ */
+public interface OutboxBatchSubscriber<T> {
+
+    OutboxEventType type();
+
+    void deliver(List<OutboxMessage<T>> messages);
+}
@@ -0,0 +1,21 @@
+package com.settleup.settleup.outbox.service;
+
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as delivered to subscribers. Listeners declare the payload they want, e.g.
+ * {@code @EventListener void on(OutboxMessage<ExpenseAddedPayload> message)}. Delivery is at least once, so
+ * subscribers should be idempotent, keyed on {@link #id()} if nothing else.
+ */
+public record OutboxMessage<T>(Long id, OutboxEventType type, Long groupId, T payload, LocalDateTime createdAt)
+        implements ResolvableTypeProvider {
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(OutboxMessage.class, ResolvableType.forInstance(payload));
+    }
+}
@@ -0,0 +1,158 @@
+package com.settleup.settleup.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.OutboxProperties;
+import com.settleup.settleup.outbox.entity.OutboxEvent;
+import com.settleup.settleup.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox of every shard to in-process {@link OutboxMessage} listeners, a locked batch per transaction.
+ * Delivered events are deleted in the same transaction, so a crash before commit delivers the batch again. Each event
+ * is delivered in a transaction of its own: a failing listener rolls back only its own writes, and the event is
+ * retried with backoff without holding up the rest of its batch. {@link OutboxBatchSubscriber}s then get the batch's
+ * delivered events of their type, also in a transaction of their own.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<OutboxBatchSubscriber<?>> batchSubscribers;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate deliveryTransaction;
+    private final OutboxProperties properties;
+    private final Counter delivered;
+    private final Counter failed;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo,
+                       ApplicationEventPublisher eventPublisher,
+                       List<OutboxBatchSubscriber<?>> batchSubscribers,
+                       ObjectMapper objectMapper,
+                       ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepo = outboxRepo;
+        this.eventPublisher = eventPublisher;
+        this.batchSubscribers = batchSubscribers;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // a listener that fails inside the batch transaction would mark it rollback-only and take the reschedule with it
+        this.deliveryTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.delivered = meterRegistry.counter("settleup.outbox.delivered");
+        this.failed = meterRegistry.counter("settleup.outbox.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${settleup.outbox.poll-interval:PT0.5S}")
+    public void poll() {
+        for (int shard : shardRouter.shards()) {
+            try {
+                shardRouter.onShard(shard, this::drain);
+            } catch (RuntimeException e) {
+                log.error("Outbox relay failed on shard {}; retrying on the next poll", shard, e);
+            }
+        }
+    }
+
+    int drain() {
+        int total = 0;
+        while (true) {
+            Integer relayed = transactionTemplate.execute(tx -> relayBatch());
+            if (relayed == null || relayed == 0) return total;
+            total += relayed;
+            if (relayed < properties.getBatchSize()) return total;
+        }
+    }
+
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxRepo.findDeliverable(now, properties.getMaxAttempts(),
+                PageRequest.of(0, properties.getBatchSize()));
+        Map<Long, OutboxEvent> done = new LinkedHashMap<>();
+        List<OutboxMessage<Object>> messages = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                Object payload = objectMapper.readValue(event.getPayload(), event.getType().getPayloadType());
+                OutboxMessage<Object> message = new OutboxMessage<>(event.getId(), event.getType(), event.getGroupId(),
+                        payload, event.getCreatedAt());
+                deliveryTransaction.executeWithoutResult(tx -> eventPublisher.publishEvent(message));
+                done.put(event.getId(), event);
+                messages.add(message);
+            } catch (Exception e) {
+                reschedule(event, e, now);
+            }
+        }
+        for (OutboxBatchSubscriber<?> subscriber : batchSubscribers) {
+            deliverBatch(subscriber, messages.stream()
+                    .filter(message -> message.type() == subscriber.type() && done.containsKey(message.id()))
+                    .toList(), done, now);
+        }
+        if (!done.isEmpty()) {
+            outboxRepo.deleteAllByIdInBatch(new ArrayList<>(done.keySet()));
+            delivered.increment(done.size());
+        }
+        return done.size();
+    }
+
+    // A failed batch is split up, so one bad event is retried on its own instead of holding up the others
+    @SuppressWarnings("unchecked")
+    private void deliverBatch(OutboxBatchSubscriber<?> subscriber, List<OutboxMessage<Object>> messages,
+                              Map<Long, OutboxEvent> done, LocalDateTime now) {
+        if (messages.isEmpty()) return;
+        OutboxBatchSubscriber<Object> typed = (OutboxBatchSubscriber<Object>) subscriber;
+        try {
+            deliveryTransaction.executeWithoutResult(tx -> typed.deliver(messages));
+            return;
+        } catch (Exception e) {
+            log.warn("Outbox batch of {} {} events failed, delivering them one at a time: {}", messages.size(),
+                    subscriber.type(), e.getMessage());
+        }
+        for (OutboxMessage<Object> message : messages) {
+            try {
+                deliveryTransaction.executeWithoutResult(tx -> typed.deliver(List.of(message)));
+            } catch (Exception e) {
+                reschedule(done.remove(message.id()), e, now);
+            }
+        }
+    }
+
+    private void reschedule(OutboxEvent event, Exception e, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        Duration delay = properties.getRetryDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(properties.getMaxRetryDelay()) > 0) delay = properties.getMaxRetryDelay();
+        event.setAttempts(attempts);
+        event.setAvailableAt(now.plus(delay));
+        String message = String.valueOf(e.getMessage());
+        event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        failed.increment();
+        if (attempts >= properties.getMaxAttempts()) {
+            log.error("Outbox event {} ({}) failed {} times and will not be retried", event.getId(), event.getType(), attempts, e);
+        } else {
+            log.warn("Outbox event {} ({}) failed, retrying in {}: {}", event.getId(), event.getType(), delay, message);
+        }
+    }
+}
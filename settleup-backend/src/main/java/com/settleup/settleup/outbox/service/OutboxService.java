@@ -0,0 +1,44 @@
+package com.settleup.settleup.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.settleup.settleup.outbox.entity.OutboxEvent;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+
+    // Joins the caller's transaction, so the event commits or rolls back with the write it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Long groupId, Object payload) {
+        if (!type.getPayloadType().isInstance(payload)) {
+            throw new IllegalArgumentException(type + " expects a " + type.getPayloadType().getSimpleName());
+        }
+        outboxRepo.save(OutboxEvent.builder()
+                .type(type)
+                .groupId(groupId)
+                .payload(write(payload))
+                .build());
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload could not be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.settleup.settleup.recurring.controller;
+
+import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.metrics.QueryBudget;
+import com.settleup.settleup.recurring.dto.RecurringExpenseRequestDto;
+import com.settleup.settleup.recurring.dto.RecurringExpenseResponseDto;
+import com.settleup.settleup.recurring.service.RecurringExpenseService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/recurring-expenses")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    @PostMapping
+    @QueryBudget(6)
+    public ResponseEntity<ApiResponse<RecurringExpenseResponseDto>> createRecurringExpense(
+            @Valid @RequestBody RecurringExpenseRequestDto dto) {
+        RecurringExpenseResponseDto response = recurringExpenseService.createRecurringExpense(dto);
+        log.debug("Created recurring expense {} ({}) for groupId={}", response.getId(), dto.getFrequency(), dto.getGroupId());
+        return ResponseEntity.ok(ApiResponse.success(response, "Recurring expense created successfully"));
+    }
+
+    @GetMapping("/group/{groupId}")
+    @QueryBudget(2)
+    public ResponseEntity<ApiResponse<List<RecurringExpenseResponseDto>>> getGroupRecurringExpenses(@PathVariable Long groupId) {
+        log.debug("Recurring expenses: groupId={}", groupId);
+        List<RecurringExpenseResponseDto> response = recurringExpenseService.getGroupRecurringExpenses(groupId);
+        return ResponseEntity.ok(ApiResponse.success(response, "Recurring expenses fetched"));
+    }
+
+    @DeleteMapping("/{recurringExpenseId}")
+    @QueryBudget(2)
+    public ResponseEntity<ApiResponse<Void>> stopRecurringExpense(@PathVariable Long recurringExpenseId,
+                                                                  @RequestParam(required = false) Long groupId) {
+        log.debug("Stop recurring expense: {}", recurringExpenseId);
+        recurringExpenseService.stopRecurringExpense(recurringExpenseId, groupId);
+        return ResponseEntity.ok(ApiResponse.success(null, "Recurring expense stopped"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.settleup.settleup.recurring.dto;
+
+import com.settleup.settleup.recurring.entity.RecurrenceFrequency;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class RecurringExpenseRequestDto {
+
+    @NotNull(message = "Group ID is required")
+    private Long groupId;
+
+    @NotNull(message = "Payer ID is required")
+    private Long paidByUserId;
+
+    @NotNull(message = "Description is required")
+    private String description;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    private String currency;
+
+    @NotNull(message = "Split type is required (EQUAL, EXACT, PERCENT or SHARES)")
+    private String splitType;
+
+    // userId -> amount / percent / shares; only the keys are used for EQUAL
+    @NotNull(message = "Split values are required")
+    private Map<Long, Double> splitValues;
+
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+}
@@ -0,0 +1,25 @@
+package com.settleup.settleup.recurring.dto;
+
+import com.settleup.settleup.expense.split.SplitType;
+import com.settleup.settleup.recurring.entity.RecurrenceFrequency;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class RecurringExpenseResponseDto {
+    private Long id;
+    private Long groupId;
+    private String description;
+    private Double amount;
+    private String currency;
+    private String paidByUserName;
+    private SplitType splitType;
+    private RecurrenceFrequency frequency;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextRunDate;
+    private boolean active;
+}
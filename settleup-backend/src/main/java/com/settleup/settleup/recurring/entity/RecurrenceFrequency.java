@@ -0,0 +1,20 @@
+package com.settleup.settleup.recurring.entity;
+
+import java.time.LocalDate;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    // Always computed from the start date so month-end anchors (e.g. the 31st) don't drift after February
+    public LocalDate occurrence(LocalDate start, long index) {
+        return switch (this) {
+            case DAILY -> start.plusDays(index);
+            case WEEKLY -> start.plusWeeks(index);
+            case MONTHLY -> start.plusMonths(index);
+            case YEARLY -> start.plusYears(index);
+        };
+    }
+}
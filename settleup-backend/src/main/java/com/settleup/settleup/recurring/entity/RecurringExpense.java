@@ -0,0 +1,77 @@
+package com.settleup.settleup.recurring.entity;
+
+import com.settleup.settleup.expense.split.SplitType;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Entity
+@Table(name = "recurring_expenses", indexes = @Index(name = "idx_recurring_due", columnList = "active, next_run_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_seq_gen")
+    @SequenceGenerator(name = "recurring_seq_gen", sequenceName = "recurring_seq", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paid_by_user_id", nullable = false)
+    private User paidBy;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    // null means the group's base currency at the time each expense is materialized
+    @Column(length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SplitType splitType;
+
+    // userId -> split value, read according to splitType (ignored for EQUAL, amount for EXACT, percent, share count)
+    @ElementCollection
+    @CollectionTable(name = "recurring_expense_splits", joinColumns = @JoinColumn(name = "recurring_expense_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "split_value")
+    @Builder.Default
+    private Map<Long, Double> splitValues = new HashMap<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Column(name = "next_run_date", nullable = false)
+    private LocalDate nextRunDate;
+
+    @Builder.Default
+    private long occurrenceCount = 0;
+
+    @Builder.Default
+    private boolean active = true;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,50 @@
+package com.settleup.settleup.recurring.repository;
+
+import com.settleup.settleup.recurring.entity.RecurringExpense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    List<RecurringExpense> findByGroupId(Long groupId);
+
+    @Query("select distinct r.group.id from RecurringExpense r where r.active = true and r.nextRunDate <= :today order by r.group.id")
+    List<Long> findDueGroupIds(@Param("today") LocalDate today);
+
+    @Query("select r.id from RecurringExpense r " +
+            "where r.group.id in :groupIds and r.active = true and r.nextRunDate <= :today order by r.id")
+    List<Long> findDueIdsByGroupIdIn(@Param("groupIds") List<Long> groupIds, @Param("today") LocalDate today);
+
+    // Held until the template's transaction commits, so two runs can't both materialize the same nextRunDate
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RecurringExpense r where r.id = :id")
+    Optional<RecurringExpense> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RecurringExpense r set r.active = false where r.group.id = :groupId")
+    int deactivateByGroupId(@Param("groupId") Long groupId);
+
+    // the split values live in an element collection table, which a JPQL bulk delete would not clear
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recurring_expense_splits"))
+    @Query(value = "delete from recurring_expense_splits where recurring_expense_id in " +
+            "(select id from recurring_expenses where group_id = :groupId)", nativeQuery = true)
+    int deleteSplitValuesByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("delete from RecurringExpense r where r.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,114 @@
+package com.settleup.settleup.recurring.service;
+
+import com.settleup.settleup.common.logging.RequestLoggingFilter;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.RecurringExpenseProperties;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Component
+public class RecurringExpenseScheduler {
+
+    static final String LOCK_NAME = "recurring-expenses";
+
+    private final RecurringExpenseService recurringExpenseService;
+    private final RecurringExpenseRepository recurringRepo;
+    private final SchedulerLockService lockService;
+    private final ThreadPoolTaskExecutor executor;
+    private final RecurringExpenseProperties properties;
+    private final ShardRouter shardRouter;
+
+    public RecurringExpenseScheduler(RecurringExpenseService recurringExpenseService,
+                                     RecurringExpenseRepository recurringRepo,
+                                     SchedulerLockService lockService,
+                                     @Qualifier("recurringExpenseExecutor") ThreadPoolTaskExecutor executor,
+                                     RecurringExpenseProperties properties,
+                                     ShardRouter shardRouter) {
+        this.recurringExpenseService = recurringExpenseService;
+        this.recurringRepo = recurringRepo;
+        this.lockService = lockService;
+        this.executor = executor;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+    }
+
+    // Catch up on anything missed while no node was running
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Recurring expense catch-up failed on startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${settleup.recurring.cron:0 5 0 * * *}")
+    public void scheduledRun() {
+        run();
+    }
+
+    public int run() {
+        Optional<SchedulerLease> lease = lockService.tryAcquire(LOCK_NAME, properties.getLockTtl());
+        if (lease.isEmpty()) {
+            log.debug("Recurring expense run skipped; another run holds the lock");
+            return 0;
+        }
+        // correlates the run's log lines, including those from the worker threads, like a request ID
+        MDC.put(RequestLoggingFilter.REQUEST_ID_MDC_KEY, "recurring-" + UUID.randomUUID());
+        try {
+            LocalDate today = LocalDate.now();
+            List<Future<Integer>> chunks = new ArrayList<>();
+            int groups = 0;
+            // chunks never mix shards, so each one runs on the shard of its groups
+            for (int shard : shardRouter.shards()) {
+                List<Long> groupIds = shardRouter.onShard(shard, () -> recurringRepo.findDueGroupIds(today));
+                groups += groupIds.size();
+                for (int from = 0; from < groupIds.size(); from += properties.getChunkSize()) {
+                    List<Long> chunk = groupIds.subList(from, Math.min(from + properties.getChunkSize(), groupIds.size()));
+                    chunks.add(executor.submit(() -> recurringExpenseService.materializeDue(chunk, today)));
+                }
+            }
+
+            int created = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                try {
+                    created += chunks.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("Recurring expense chunk failed; it will be retried on the next run", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                // another node may take over once the lock lapses; chunks not yet started are left to that run
+                if (!lockService.renew(lease.get(), properties.getLockTtl())) {
+                    log.warn("Recurring expense run lost its lock after {} of {} chunks; stopping", i + 1, chunks.size());
+                    chunks.subList(i + 1, chunks.size()).forEach(chunk -> chunk.cancel(false));
+                    break;
+                }
+            }
+            log.info("Recurring expenses materialized: {} expenses across {} groups", created, groups);
+            return created;
+        } finally {
+            lockService.release(lease.get());
+            MDC.remove(RequestLoggingFilter.REQUEST_ID_MDC_KEY);
+        }
+    }
+}
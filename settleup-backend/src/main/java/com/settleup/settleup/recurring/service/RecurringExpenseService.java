@@ -0,0 +1,207 @@
+package com.settleup.settleup.recurring.service;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.common.sharding.ShardedByGroup;
+import com.settleup.settleup.config.RecurringExpenseProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import com.settleup.settleup.expense.service.ExpenseService;
+import com.settleup.settleup.expense.split.SplitAllocation;
+import com.settleup.settleup.expense.split.SplitCalculator;
+import com.settleup.settleup.expense.split.SplitType;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.recurring.dto.RecurringExpenseRequestDto;
+import com.settleup.settleup.recurring.dto.RecurringExpenseResponseDto;
+import com.settleup.settleup.recurring.entity.RecurringExpense;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
+import com.settleup.settleup.user.entity.User;
+import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
+@RequiredArgsConstructor
+public class RecurringExpenseService {
+
+    private final RecurringExpenseRepository recurringRepo;
+    private final GroupRepository groupRepo;
+    private final UserRepository userRepo;
+    private final ExpenseService expenseService;
+    private final SplitCalculator splitCalculator;
+    private final RecurringExpenseProperties properties;
+    private final FxRateService fxRateService;
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
+
+    @ShardedByGroup("#dto.groupId")
+    @Transactional
+    public RecurringExpenseResponseDto createRecurringExpense(RecurringExpenseRequestDto dto) {
+        SplitType splitType = SplitType.from(dto.getSplitType());
+        if (splitType == SplitType.ITEMIZED) {
+            throw new InvalidInputException("Itemized splits cannot be recurring");
+        }
+        if (dto.getEndDate() != null && dto.getEndDate().isBefore(dto.getStartDate())) {
+            throw new InvalidInputException("End date cannot be before start date");
+        }
+
+        Group group = groupRepo.findById(dto.getGroupId())
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
+        User payer = userRepo.findById(dto.getPaidByUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("Payer not found"));
+
+        RecurringExpense template = RecurringExpense.builder()
+                .group(group)
+                .paidBy(payer)
+                .description(dto.getDescription())
+                .amount(dto.getAmount())
+                .currency(dto.getCurrency() == null ? null : fxRateService.resolveCurrency(dto.getCurrency(), group.getBaseCurrency()))
+                .splitType(splitType)
+                .splitValues(new HashMap<>(dto.getSplitValues()))
+                .frequency(dto.getFrequency())
+                .startDate(dto.getStartDate())
+                .endDate(dto.getEndDate())
+                .nextRunDate(dto.getStartDate())
+                .build();
+
+        // Dry run so a template that could never materialize is rejected up front
+        SplitAllocation allocation = splitCalculator.calculate(splitType,
+                SplitAllocation.toCents(dto.getAmount()), toExpenseRequest(template));
+        Set<Long> memberIds = group.getMembers().stream().map(User::getId).collect(Collectors.toSet());
+        List<Long> nonMembers = new ArrayList<>();
+        if (!memberIds.contains(payer.getId())) nonMembers.add(payer.getId());
+        for (long userId : allocation.getUserIds()) {
+            if (!memberIds.contains(userId)) nonMembers.add(userId);
+        }
+        if (!nonMembers.isEmpty()) {
+            throw new InvalidInputException("The following users are not members of this group: " + nonMembers);
+        }
+
+        return mapToResponse(recurringRepo.save(template));
+    }
+
+    @ShardedByGroup("#groupId")
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseResponseDto> getGroupRecurringExpenses(Long groupId) {
+        return recurringRepo.findByGroupId(groupId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Template ids are only unique per shard, so a sharded deployment needs the group to find the right one
+    @ShardedByGroup("#groupId")
+    @Transactional
+    public void stopRecurringExpense(Long recurringExpenseId, Long groupId) {
+        if (groupId == null && shardRouter.isSharded()) {
+            throw new InvalidInputException("groupId is required to stop a recurring expense");
+        }
+        RecurringExpense template = recurringRepo.findById(recurringExpenseId)
+                .filter(t -> groupId == null || t.getGroup().getId().equals(groupId))
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring expense not found"));
+        template.setActive(false);
+    }
+
+    // Materializes every due period for the given chunk of groups, a transaction per template: one that can't be
+    // materialized (say its payer left the group) is logged and retried next run without holding back the others.
+    // The template is locked and its nextRunDate read under the lock, so an overlapping run waits and then finds the
+    // periods already materialized
+    @ShardedByGroup("#groupIds[0]")
+    public int materializeDue(List<Long> groupIds, LocalDate today) {
+        TransactionTemplate perTemplate = new TransactionTemplate(transactionManager);
+        int created = 0;
+        for (Long templateId : recurringRepo.findDueIdsByGroupIdIn(groupIds, today)) {
+            try {
+                Integer periods = perTemplate.execute(tx -> recurringRepo.findByIdForUpdate(templateId)
+                        .map(template -> materialize(template, today))
+                        .orElse(0));
+                created += periods == null ? 0 : periods;
+            } catch (RuntimeException e) {
+                log.error("Recurring expense {} could not be materialized; it will be retried on the next run", templateId, e);
+            }
+        }
+        return created;
+    }
+
+    private int materialize(RecurringExpense template, LocalDate today) {
+        int periods = 0;
+        while (template.isActive() && !template.getNextRunDate().isAfter(today) && periods < properties.getMaxCatchUp()) {
+            expenseService.addExpense(toExpenseRequest(template), template.getNextRunDate().atStartOfDay());
+            advance(template);
+            periods++;
+        }
+        if (periods == properties.getMaxCatchUp() && !template.getNextRunDate().isAfter(today)) {
+            log.warn("Recurring expense {} is still behind after {} periods; resuming next run", template.getId(), periods);
+        }
+        return periods;
+    }
+
+    private void advance(RecurringExpense template) {
+        long next = template.getOccurrenceCount() + 1;
+        LocalDate nextRunDate = template.getFrequency().occurrence(template.getStartDate(), next);
+        template.setOccurrenceCount(next);
+        template.setNextRunDate(nextRunDate);
+        if (template.getEndDate() != null && nextRunDate.isAfter(template.getEndDate())) {
+            template.setActive(false);
+        }
+    }
+
+    private ExpenseRequestDto toExpenseRequest(RecurringExpense template) {
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setGroupId(template.getGroup().getId());
+        dto.setPaidByUserId(template.getPaidBy().getId());
+        dto.setDescription(template.getDescription());
+        dto.setAmount(template.getAmount());
+        dto.setCurrency(template.getCurrency());
+        dto.setSplitType(template.getSplitType().name());
+
+        Map<Long, Double> values = template.getSplitValues();
+        switch (template.getSplitType()) {
+            case EQUAL -> dto.setInvolvedUserIds(new ArrayList<>(values.keySet()));
+            case EXACT -> dto.setExactSplits(values);
+            case PERCENT -> dto.setPercentSplits(values);
+            case SHARES -> {
+                Map<Long, Integer> shares = new HashMap<>();
+                values.forEach((userId, share) -> shares.put(userId, share == null ? null : share.intValue()));
+                dto.setShareSplits(shares);
+            }
+            default -> throw new InvalidInputException("Itemized splits cannot be recurring");
+        }
+        return dto;
+    }
+
+    private RecurringExpenseResponseDto mapToResponse(RecurringExpense template) {
+        return RecurringExpenseResponseDto.builder()
+                .id(template.getId())
+                .groupId(template.getGroup().getId())
+                .description(template.getDescription())
+                .amount(template.getAmount())
+                .currency(template.getCurrency())
+                .paidByUserName(template.getPaidBy().getName())
+                .splitType(template.getSplitType())
+                .frequency(template.getFrequency())
+                .startDate(template.getStartDate())
+                .endDate(template.getEndDate())
+                .nextRunDate(template.getNextRunDate())
+                .active(template.isActive())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.settleup.settleup.scheduling.repository;
+
+import com.settleup.settleup.scheduling.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // plain insert rather than save(): merge semantics could overwrite a lease another node just took
+    @Modifying
+    @Query("insert into SchedulerLock (name, lockedUntil) values (:name, :until)")
+    int create(@Param("name") String name, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :until, l.lockedBy = :owner where l.name = :name and l.lockedUntil < :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // only while still the owner: once the lease ran out another run may have taken the row
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :until where l.name = :name and l.lockedBy = :owner")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :now, l.lockedBy = null where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,5 @@
+package com.settleup.settleup.scheduling.service;
+
+// A lock held by one run of a job; owner is unique to the run, so another run on the same node can't take or release it
+public record SchedulerLease(String name, String owner) {
+}
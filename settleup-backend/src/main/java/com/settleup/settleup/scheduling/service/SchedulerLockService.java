@@ -0,0 +1,74 @@
+package com.settleup.settleup.scheduling.service;
+
+import com.settleup.settleup.scheduling.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Leader-style lock backed by a row in {@code scheduler_locks}: whichever run flips the row first owns the job
+ * until it releases it or the lease expires. Each acquisition gets its own owner token, so the lock is not reentrant:
+ * a second run on the same node is turned away like one on any other node.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String node;
+
+    public SchedulerLockService(SchedulerLockRepository lockRepository, PlatformTransactionManager transactionManager) {
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.node = hostName();
+    }
+
+    // Empty when the lock is held, by a run on this node or any other
+    public Optional<SchedulerLease> tryAcquire(String name, Duration ttl) {
+        ensureLockRow(name);
+        SchedulerLease lease = new SchedulerLease(name, node + ":" + UUID.randomUUID());
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status -> lockRepository.acquire(name, lease.owner(), now, now.plus(ttl)));
+        return updated != null && updated == 1 ? Optional.of(lease) : Optional.empty();
+    }
+
+    // False when the lease ran out and another run has taken the lock since; the caller should stop
+    public boolean renew(SchedulerLease lease, Duration ttl) {
+        Integer updated = transactionTemplate.execute(status -> lockRepository.renew(lease.name(), lease.owner(),
+                LocalDateTime.now().plus(ttl)));
+        return updated != null && updated == 1;
+    }
+
+    public void release(SchedulerLease lease) {
+        transactionTemplate.executeWithoutResult(status -> lockRepository.release(lease.name(), lease.owner(), LocalDateTime.now()));
+    }
+
+    private void ensureLockRow(String name) {
+        if (lockRepository.existsById(name)) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> lockRepository.create(name, LocalDateTime.now().minusSeconds(1)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock row '{}' was created by another node", name);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
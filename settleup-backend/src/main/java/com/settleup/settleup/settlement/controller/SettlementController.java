@@ -1,14 +1,24 @@
 package com.settleup.settleup.settlement.controller;
 
+import com.settleup.settleup.common.security.AdminOnly;
+import com.settleup.settleup.config.SettlementOptimizerProperties;
+import com.settleup.settleup.exception.ConflictException;
 import com.settleup.settleup.settlement.dto.SettlementDto;
+import com.settleup.settleup.settlement.dto.SettlementRunDto;
+import com.settleup.settleup.settlement.dto.SettlementSuggestionDto;
+import com.settleup.settleup.settlement.service.SettlementOptimizer;
 import com.settleup.settleup.settlement.service.SettlementService;
 import com.settleup.settleup.common.ApiResponse;
+import com.settleup.settleup.common.metrics.QueryBudget;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/settlements") // Dedicated endpoint
@@ -17,13 +27,41 @@ import org.springframework.web.bind.annotation.*;
 public class SettlementController {
 
     private final SettlementService settlementService;
+    private final SettlementOptimizer settlementOptimizer;
+    private final SettlementOptimizerProperties optimizerProperties;
 
     @PostMapping
+    @QueryBudget(9)
     public ResponseEntity<ApiResponse<Void>> addSettlement(@Valid @RequestBody SettlementDto dto) {
-        log.info("Request to SETTLE UP: PayerId={} -> PayeeId={}, Amount={}, GroupId={}",
-                dto.getPayerId(), dto.getPayeeId(), dto.getAmount(), dto.getGroupId());
+        log.debug("Settle up: groupId={}, payerId={}, payeeId={}, amount={}",
+                dto.getGroupId(), dto.getPayerId(), dto.getPayeeId(), dto.getAmount());
         settlementService.addSettlement(dto);
-        log.info("Settlement recorded successfully for groupId: {}", dto.getGroupId());
         return ResponseEntity.ok(ApiResponse.success(null, "Settlement recorded successfully"));
     }
-}
\ No newline at end of file
+
+    // Suggestions from the latest completed optimizer run that involve the user
+    @GetMapping("/suggestions")
+    @QueryBudget(3)
+    public ResponseEntity<ApiResponse<List<SettlementSuggestionDto>>> getSuggestions(@RequestParam Long userId) {
+        List<SettlementSuggestionDto> response = settlementOptimizer.getSuggestions(userId);
+        return ResponseEntity.ok(ApiResponse.success(response, "Settlement suggestions fetched"));
+    }
+
+    // Starts the month-end optimizer now instead of waiting for its schedule; follow it with GET /suggestions/runs/{runId}
+    @PostMapping("/suggestions/run")
+    @AdminOnly
+    @QueryBudget(6)
+    public ResponseEntity<ApiResponse<SettlementRunDto>> runOptimizer(@RequestParam(required = false) Boolean respectGroups) {
+        boolean perGroup = respectGroups != null ? respectGroups : optimizerProperties.isRespectGroups();
+        log.info("Request to RUN the settlement optimizer (respectGroups={})", perGroup);
+        SettlementRunDto response = settlementOptimizer.start(perGroup)
+                .orElseThrow(() -> new ConflictException("A settlement optimizer run is already in progress"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(response, "Settlement optimizer run started"));
+    }
+
+    @GetMapping("/suggestions/runs/{runId}")
+    @QueryBudget(1)
+    public ResponseEntity<ApiResponse<SettlementRunDto>> getOptimizerRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(ApiResponse.success(settlementOptimizer.getRun(runId), "Settlement optimizer run fetched"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.settleup.settleup.settlement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One member's balance in one currency of one group, as streamed by the settlement optimizer
+@Data
+@AllArgsConstructor
+public class LedgerBalanceRow {
+    private Long id;
+    private Long groupId;
+    private Long userId;
+    private String currency;
+    private String baseCurrency;
+    private Long amountCents;
+}
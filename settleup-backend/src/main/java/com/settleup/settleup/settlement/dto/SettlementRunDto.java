@@ -0,0 +1,22 @@
+package com.settleup.settleup.settlement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SettlementRunDto {
+    private Long runId;
+    private boolean respectGroups;
+    // null when respecting group boundaries: each group settles in its own base currency
+    private String currency;
+    private long balances;
+    private int components;
+    private int suggestions;
+    private LocalDateTime startedAt;
+    // both null while the run is in progress
+    private LocalDateTime completedAt;
+    private LocalDateTime failedAt;
+}
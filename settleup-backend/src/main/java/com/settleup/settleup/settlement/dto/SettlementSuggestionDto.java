@@ -0,0 +1,17 @@
+package com.settleup.settleup.settlement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SettlementSuggestionDto {
+    // null when the run netted across group boundaries
+    private Long groupId;
+    private Long fromUserId;
+    private String fromUser;
+    private Long toUserId;
+    private String toUser;
+    private Double amount;
+    private String currency;
+}
@@ -7,7 +7,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "settlements")
+@Table(name = "settlements", indexes = @Index(name = "idx_settlement_group", columnList = "group_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,40 @@
+package com.settleup.settleup.settlement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One settlement optimizer run; its suggestions are only read once completedAt is set, failedAt marks a run that stopped
+@Entity
+@Table(name = "settlement_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_run_seq_gen")
+    @SequenceGenerator(name = "settlement_run_seq_gen", sequenceName = "settlement_run_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private boolean respectGroups;
+
+    @Column(length = 3)
+    private String currency;
+
+    private long balances;
+
+    private int components;
+
+    private int suggestions;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    private LocalDateTime failedAt;
+}
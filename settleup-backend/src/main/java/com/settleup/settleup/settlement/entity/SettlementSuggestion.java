@@ -0,0 +1,46 @@
+package com.settleup.settleup.settlement.entity;
+
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+// A transfer proposed by a settlement optimizer run; it becomes a Settlement only when someone actually pays
+@Entity
+@Table(name = "settlement_suggestions", indexes = {
+        @Index(name = "idx_suggestion_run_payer", columnList = "run_id, payer_id"),
+        @Index(name = "idx_suggestion_run_payee", columnList = "run_id, payee_id"),
+        @Index(name = "idx_suggestion_group", columnList = "group_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementSuggestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_suggestion_seq_gen")
+    @SequenceGenerator(name = "settlement_suggestion_seq_gen", sequenceName = "settlement_suggestion_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long runId;
+
+    // set when the run respected group boundaries
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id")
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payer_id", nullable = false)
+    private User payer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payee_id", nullable = false)
+    private User payee;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(length = 3, nullable = false)
+    private String currency;
+}
@@ -1,12 +1,32 @@
 package com.settleup.settleup.settlement.repository;
 
+import com.settleup.settleup.expense.dto.CompactSettlementRow;
+import com.settleup.settleup.expense.dto.SettlementHistoryRow;
+import com.settleup.settleup.expense.dto.UserLink;
 import com.settleup.settleup.settlement.entity.Settlement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface SettlementRepository extends JpaRepository<Settlement, Long> {
-    List<Settlement> findByGroupId(Long groupId);
-}
\ No newline at end of file
+    @Query("select new com.settleup.settleup.expense.dto.SettlementHistoryRow(s.id, p.name, q.name, s.amount, s.createdAt) " +
+            "from Settlement s join s.payer p join s.payee q where s.group.id = :groupId")
+    List<SettlementHistoryRow> findHistoryByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.settleup.settleup.expense.dto.CompactSettlementRow(s.id, s.payer.id, s.payee.id, s.amount, s.createdAt) " +
+            "from Settlement s where s.group.id = :groupId")
+    List<CompactSettlementRow> findCompactHistoryByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select distinct new com.settleup.settleup.expense.dto.UserLink(s.payer.id, s.payee.id) " +
+            "from Settlement s where s.group.id = :groupId")
+    List<UserLink> findLinksByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("delete from Settlement s where s.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
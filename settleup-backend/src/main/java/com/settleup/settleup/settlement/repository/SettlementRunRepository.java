@@ -0,0 +1,13 @@
+package com.settleup.settleup.settlement.repository;
+
+import com.settleup.settleup.settlement.entity.SettlementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SettlementRunRepository extends JpaRepository<SettlementRun, Long> {
+
+    Optional<SettlementRun> findFirstByCompletedAtIsNotNullOrderByIdDesc();
+}
@@ -0,0 +1,28 @@
+package com.settleup.settleup.settlement.repository;
+
+import com.settleup.settleup.settlement.dto.SettlementSuggestionDto;
+import com.settleup.settleup.settlement.entity.SettlementSuggestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SettlementSuggestionRepository extends JpaRepository<SettlementSuggestion, Long> {
+
+    @Query("select new com.settleup.settleup.settlement.dto.SettlementSuggestionDto(s.group.id, p.id, p.name, q.id, q.name, s.amount, s.currency) " +
+            "from SettlementSuggestion s join s.payer p join s.payee q " +
+            "where s.runId = :runId and (p.id = :userId or q.id = :userId) order by s.id")
+    List<SettlementSuggestionDto> findByRunIdAndUserId(@Param("runId") Long runId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from SettlementSuggestion s where s.runId < :runId")
+    int deleteByRunIdBefore(@Param("runId") Long runId);
+
+    @Modifying
+    @Query("delete from SettlementSuggestion s where s.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
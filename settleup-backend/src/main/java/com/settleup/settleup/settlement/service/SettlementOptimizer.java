@@ -0,0 +1,364 @@
+package com.settleup.settleup.settlement.service;
+
+import com.settleup.settleup.common.datasource.DataSourceRoute;
+import com.settleup.settleup.common.logging.RequestLoggingFilter;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.SettlementOptimizerProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import com.settleup.settleup.debt.service.DebtSimplifier;
+import com.settleup.settleup.debt.service.MinCashFlow;
+import com.settleup.settleup.debt.service.UnionFind;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import com.settleup.settleup.settlement.dto.LedgerBalanceRow;
+import com.settleup.settleup.settlement.dto.SettlementRunDto;
+import com.settleup.settleup.settlement.dto.SettlementSuggestionDto;
+import com.settleup.settleup.settlement.entity.SettlementRun;
+import com.settleup.settleup.settlement.entity.SettlementSuggestion;
+import com.settleup.settleup.settlement.repository.SettlementRunRepository;
+import com.settleup.settleup.settlement.repository.SettlementSuggestionRepository;
+import com.settleup.settleup.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Month-end clearing: computes the fewest transfers that settle the whole ledger and stores them as suggestions.
+ * Balances are streamed from every shard in keyset chunks and reduced to one net position per user, or per user and
+ * group when group boundaries are respected. Users linked through shared groups form connected components, which
+ * settle independently on a fork/join pool with the same {@link DebtSimplifier} the balance sheet uses. Suggestions
+ * are written in batches under a run that only becomes visible once complete. Runs requested over the API go to the
+ * batch job executor and are followed through {@link #getRun}.
+ */
+@Slf4j
+@Service
+public class SettlementOptimizer {
+
+    static final String LOCK_NAME = "settlement-optimizer";
+
+    private final GroupBalanceRepository balanceRepo;
+    private final SettlementRunRepository runRepo;
+    private final SettlementSuggestionRepository suggestionRepo;
+    private final GroupRepository groupRepo;
+    private final UserRepository userRepo;
+    private final SchedulerLockService lockService;
+    private final FxRateService fxRateService;
+    private final ShardRouter shardRouter;
+    private final SettlementOptimizerProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SettlementOptimizer(GroupBalanceRepository balanceRepo,
+                               SettlementRunRepository runRepo,
+                               SettlementSuggestionRepository suggestionRepo,
+                               GroupRepository groupRepo,
+                               UserRepository userRepo,
+                               SchedulerLockService lockService,
+                               FxRateService fxRateService,
+                               ShardRouter shardRouter,
+                               SettlementOptimizerProperties properties,
+                               @Qualifier("batchJobExecutor") ThreadPoolTaskExecutor executor,
+                               PlatformTransactionManager transactionManager) {
+        this.balanceRepo = balanceRepo;
+        this.runRepo = runRepo;
+        this.suggestionRepo = suggestionRepo;
+        this.groupRepo = groupRepo;
+        this.userRepo = userRepo;
+        this.lockService = lockService;
+        this.fxRateService = fxRateService;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${settleup.settlement-optimizer.cron:0 0 2 L * *}")
+    public void scheduledRun() {
+        if (run(properties.isRespectGroups()).isEmpty()) {
+            log.debug("Settlement optimizer run skipped; another node holds the lock");
+        }
+    }
+
+    // Empty when another node is already running the optimizer
+    public Optional<SettlementRunDto> run(boolean respectGroups) {
+        return lockService.tryAcquire(LOCK_NAME, properties.getLockTtl())
+                .map(lease -> optimizeAndRelease(lease, begin(lease, respectGroups)));
+    }
+
+    // Starts a run in the background and returns it as started; empty when a run is already in progress
+    public Optional<SettlementRunDto> start(boolean respectGroups) {
+        Optional<SchedulerLease> lock = lockService.tryAcquire(LOCK_NAME, properties.getLockTtl());
+        if (lock.isEmpty()) {
+            return Optional.empty();
+        }
+        SchedulerLease lease = lock.get();
+        SettlementRun run = begin(lease, respectGroups);
+        try {
+            executor.execute(() -> {
+                try {
+                    optimizeAndRelease(lease, run);
+                } catch (RuntimeException e) {
+                    log.error("Settlement optimizer run {} failed", run.getId(), e);
+                }
+            });
+        } catch (RuntimeException e) {
+            fail(run);
+            lockService.release(lease);
+            throw e;
+        }
+        return Optional.of(toDto(run));
+    }
+
+    public SettlementRunDto getRun(Long runId) {
+        return shardRouter.onShard(ShardRouter.DIRECTORY, () -> readOnlyTransaction.execute(tx -> runRepo.findById(runId)))
+                .map(SettlementOptimizer::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Settlement optimizer run not found"));
+    }
+
+    public List<SettlementSuggestionDto> getSuggestions(Long userId) {
+        return shardRouter.onShard(ShardRouter.DIRECTORY, () -> readOnlyTransaction.execute(tx -> {
+            if (!userRepo.existsById(userId)) {
+                throw new ResourceNotFoundException("User not found");
+            }
+            return runRepo.findFirstByCompletedAtIsNotNullOrderByIdDesc()
+                    .map(run -> suggestionRepo.findByRunIdAndUserId(run.getId(), userId))
+                    .orElse(List.of());
+        }));
+    }
+
+    // The run row is written under the lock, before any work, so a caller has an id to follow
+    private SettlementRun begin(SchedulerLease lease, boolean respectGroups) {
+        try {
+            String currency = respectGroups ? null : fxRateService.resolveCurrency(properties.getCurrency(), null);
+            return onDirectory(() -> runRepo.save(SettlementRun.builder()
+                    .respectGroups(respectGroups)
+                    .currency(currency)
+                    .startedAt(LocalDateTime.now())
+                    .build()));
+        } catch (RuntimeException e) {
+            lockService.release(lease);
+            throw e;
+        }
+    }
+
+    private SettlementRunDto optimizeAndRelease(SchedulerLease lease, SettlementRun run) {
+        MDC.put(RequestLoggingFilter.REQUEST_ID_MDC_KEY, "settlement-optimizer-" + UUID.randomUUID());
+        try {
+            return optimize(lease, run);
+        } catch (RuntimeException e) {
+            fail(run);
+            throw e;
+        } finally {
+            lockService.release(lease);
+            MDC.remove(RequestLoggingFilter.REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    private void fail(SettlementRun run) {
+        run.setFailedAt(LocalDateTime.now());
+        onDirectory(() -> runRepo.save(run));
+    }
+
+    private SettlementRunDto optimize(SchedulerLease lease, SettlementRun run) {
+        // one rate table for the whole run, like one read of the balance sheet
+        FxRateTable rates = fxRateService.current();
+        boolean respectGroups = run.isRespectGroups();
+        String currency = run.getCurrency();
+
+        Ledger ledger = respectGroups ? new GroupLedger(rates) : new GlobalLedger(rates, currency);
+        long balances = stream(lease, ledger);
+        List<Component> components = ledger.components();
+
+        List<List<MinCashFlow.Transfer>> settled;
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        try {
+            settled = DebtSimplifier.simplifyAll(pool, components.stream().map(Component::netCents).toList());
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Suggested> batch = new ArrayList<>(properties.getBatchSize());
+        int suggestions = 0;
+        for (int i = 0; i < components.size(); i++) {
+            for (MinCashFlow.Transfer transfer : settled.get(i)) {
+                batch.add(new Suggested(components.get(i), transfer));
+                if (batch.size() == properties.getBatchSize()) {
+                    suggestions += write(run.getId(), batch);
+                    batch.clear();
+                }
+            }
+        }
+        suggestions += write(run.getId(), batch);
+
+        run.setBalances(balances);
+        run.setComponents(components.size());
+        run.setSuggestions(suggestions);
+        run.setCompletedAt(LocalDateTime.now());
+        onDirectory(() -> {
+            suggestionRepo.deleteByRunIdBefore(run.getId());
+            return runRepo.save(run);
+        });
+        log.info("Settlement optimizer run {}: {} balances, {} components, {} suggestions{}", run.getId(), balances,
+                components.size(), suggestions, respectGroups ? " (per group)" : "");
+        return toDto(run);
+    }
+
+    private static SettlementRunDto toDto(SettlementRun run) {
+        return new SettlementRunDto(run.getId(), run.isRespectGroups(), run.getCurrency(), run.getBalances(),
+                run.getComponents(), run.getSuggestions(), run.getStartedAt(), run.getCompletedAt(), run.getFailedAt());
+    }
+
+    // Each shard's ledger is walked by primary key, a chunk per read-only transaction on the report pool; the run fails
+    // once its lease can't be renewed, since another node may be writing a run of its own by then
+    private long stream(SchedulerLease lease, Ledger ledger) {
+        PageRequest chunk = PageRequest.of(0, properties.getChunkSize());
+        long rows = 0;
+        for (int shard : shardRouter.shards()) {
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                List<LedgerBalanceRow> balances = shardRouter.onShard(shard,
+                        () -> DataSourceRoute.onReportPool(
+                                () -> readOnlyTransaction.execute(tx -> balanceRepo.findLedgerChunk(from, chunk))));
+                balances.forEach(ledger::add);
+                rows += balances.size();
+                if (balances.size() < properties.getChunkSize()) break;
+                afterId = balances.get(balances.size() - 1).getId();
+                if (!lockService.renew(lease, properties.getLockTtl())) {
+                    throw new IllegalStateException("Settlement optimizer lost its lock after " + rows + " balances");
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int write(Long runId, List<Suggested> batch) {
+        if (batch.isEmpty()) return 0;
+        return onDirectory(() -> {
+            List<SettlementSuggestion> rows = new ArrayList<>(batch.size());
+            for (Suggested s : batch) {
+                Long groupId = s.component().groupId();
+                rows.add(SettlementSuggestion.builder()
+                        .runId(runId)
+                        .group(groupId != null ? groupRepo.getReferenceById(groupId) : null)
+                        .payer(userRepo.getReferenceById(s.transfer().fromUserId()))
+                        .payee(userRepo.getReferenceById(s.transfer().toUserId()))
+                        .amount(s.transfer().amountCents() / 100.0)
+                        .currency(s.component().currency())
+                        .build());
+            }
+            suggestionRepo.saveAll(rows);
+            return rows.size();
+        });
+    }
+
+    // Runs and suggestions live with the users they reference, on the directory
+    private <T> T onDirectory(Supplier<T> work) {
+        return shardRouter.onShard(ShardRouter.DIRECTORY, () -> transactionTemplate.execute(tx -> work.get()));
+    }
+
+    // netCents: positive is owed, negative owes; groupId is null for a cross-group component
+    private record Component(Long groupId, String currency, Map<Long, Long> netCents) {
+    }
+
+    private record Suggested(Component component, MinCashFlow.Transfer transfer) {
+    }
+
+    private interface Ledger {
+
+        void add(LedgerBalanceRow row);
+
+        // ordered by group id, or by smallest user id across groups, so a rerun over the same ledger writes the same rows
+        List<Component> components();
+    }
+
+    // One position per user across all groups; users sharing a group end up in the same component
+    private static final class GlobalLedger implements Ledger {
+
+        private final FxRateTable rates;
+        private final String currency;
+        private final Map<Long, Double> positions = new HashMap<>();
+        private final Map<Long, Long> groupAnchors = new HashMap<>();
+        private final UnionFind users = new UnionFind();
+
+        GlobalLedger(FxRateTable rates, String currency) {
+            this.rates = rates;
+            this.currency = currency;
+        }
+
+        @Override
+        public void add(LedgerBalanceRow row) {
+            positions.merge(row.getUserId(), row.getAmountCents() / 100.0 * rates.rate(row.getCurrency(), currency), Double::sum);
+            Long anchor = groupAnchors.putIfAbsent(row.getGroupId(), row.getUserId());
+            if (anchor != null) {
+                users.union(anchor, row.getUserId());
+            }
+        }
+
+        @Override
+        public List<Component> components() {
+            Map<Long, Map<Long, Long>> byRoot = new LinkedHashMap<>();
+            for (Long userId : new TreeSet<>(positions.keySet())) {
+                byRoot.computeIfAbsent(users.find(userId), root -> new TreeMap<>())
+                        .put(userId, Math.round(positions.get(userId) * 100.0));
+            }
+            return byRoot.values().stream().map(netCents -> new Component(null, currency, netCents)).toList();
+        }
+    }
+
+    // One position per user and group, in the group's base currency; every group is its own component
+    private static final class GroupLedger implements Ledger {
+
+        private final FxRateTable rates;
+        private final Map<Long, Map<Long, Double>> positions = new TreeMap<>();
+        private final Map<Long, String> baseCurrencies = new HashMap<>();
+
+        GroupLedger(FxRateTable rates) {
+            this.rates = rates;
+        }
+
+        @Override
+        public void add(LedgerBalanceRow row) {
+            positions.computeIfAbsent(row.getGroupId(), id -> new HashMap<>())
+                    .merge(row.getUserId(), row.getAmountCents() / 100.0 * rates.rate(row.getCurrency(), row.getBaseCurrency()), Double::sum);
+            baseCurrencies.put(row.getGroupId(), row.getBaseCurrency());
+        }
+
+        @Override
+        public List<Component> components() {
+            List<Component> components = new ArrayList<>(positions.size());
+            positions.forEach((groupId, members) -> {
+                Map<Long, Long> netCents = new TreeMap<>();
+                members.forEach((userId, amount) -> netCents.put(userId, Math.round(amount * 100.0)));
+                components.add(new Component(groupId, baseCurrencies.get(groupId), netCents));
+            });
+            return components;
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package com.settleup.settleup.settlement.service;
 
+import com.settleup.settleup.common.sharding.ShardedByGroup;
 import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.split.SplitAllocation;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.group.service.GroupRevisionService;
+import com.settleup.settleup.outbox.dto.SettlementRecordedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxService;
 import com.settleup.settleup.settlement.dto.SettlementDto;
 import com.settleup.settleup.settlement.entity.Settlement;
 import com.settleup.settleup.settlement.repository.SettlementRepository;
 import com.settleup.settleup.user.entity.User;
 import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
 @RequiredArgsConstructor
 public class SettlementService {
 
     private final SettlementRepository settlementRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final GroupBalanceService groupBalanceService;
+    private final GroupRevisionService groupRevisionService;
+    private final OutboxService outboxService;
 
+    @ShardedByGroup("#dto.groupId")
+    @Transactional
     public void addSettlement(SettlementDto dto) {
-        Group group = groupRepository.findById(dto.getGroupId())
+        Group group = groupRepository.findByIdForUpdate(dto.getGroupId())
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
         User payer = userRepository.findById(dto.getPayerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Payer not found"));
@@ -36,5 +53,10 @@ public class SettlementService {
                 .build();
 
         settlementRepository.save(settlement);
+        long amountCents = SplitAllocation.toCents(dto.getAmount());
+        groupBalanceService.applySettlement(group, payer.getId(), payee.getId(), amountCents);
+        groupRevisionService.bump(group.getId());
+        outboxService.record(OutboxEventType.SETTLEMENT_RECORDED, group.getId(), new SettlementRecordedPayload(
+                settlement.getId(), group.getId(), payer.getId(), payee.getId(), amountCents, settlement.getCreatedAt()));
     }
 }
\ No newline at end of file
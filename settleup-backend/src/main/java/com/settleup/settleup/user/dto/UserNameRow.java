@@ -0,0 +1,11 @@
+package com.settleup.settleup.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserNameRow {
+    private Long id;
+    private String name;
+}
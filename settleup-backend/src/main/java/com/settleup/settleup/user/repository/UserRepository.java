@@ -1,9 +1,14 @@
 package com.settleup.settleup.user.repository;
 
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.dto.UserResponseDto;
 import com.settleup.settleup.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +21,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmailOrMobileNumber(String email, String mobileNumber);
 
-    List<User> findByNameContainingIgnoreCaseOrMobileNumberContaining(String name, String mobile);
+    @Query("select new com.settleup.settleup.user.dto.UserResponseDto(u.id, u.name, u.email, u.mobileNumber) from User u")
+    List<UserResponseDto> findAllSummaries();
+
+    // same matching as a derived NameContainingIgnoreCaseOrMobileNumberContaining, including LIKE wildcard escaping
+    @Query("select new com.settleup.settleup.user.dto.UserResponseDto(u.id, u.name, u.email, u.mobileNumber) from User u " +
+            "where lower(u.name) like %?#{escape([0]).toLowerCase()}% escape ?#{escapeCharacter()} " +
+            "or u.mobileNumber like %?#{escape([0])}% escape ?#{escapeCharacter()}")
+    List<UserResponseDto> searchSummaries(String query);
+
+    @Query("select new com.settleup.settleup.user.dto.UserResponseDto(u.id, u.name, u.email, u.mobileNumber) " +
+            "from Group g join g.members u where g.id = :groupId")
+    List<UserResponseDto> findMemberSummariesByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.settleup.settleup.user.dto.UserNameRow(u.id, u.name) from User u where u.id in :ids")
+    List<UserNameRow> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 
     Optional<User> findByEmailAndMobileNumber(String email, String mobileNumber);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.settleup.settleup.user.service;
 
+import com.settleup.settleup.common.sharding.DirectoryChangedEvent;
 import com.settleup.settleup.exception.InvalidInputException;
 import com.settleup.settleup.exception.ResourceNotFoundException;
 import com.settleup.settleup.user.dto.PasswordResetDto;
@@ -9,14 +10,19 @@ import com.settleup.settleup.user.dto.UserResponseDto;
 import com.settleup.settleup.user.dto.UserUpdateDto;
 import com.settleup.settleup.user.entity.User;
 import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "settleup.service", description = "Service method latency")
+@Counted(value = "settleup.service.failures", recordFailuresOnly = true)
 @RequiredArgsConstructor
 public class UserService {
 
@@ -24,6 +30,8 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     // REGISTER USER
     public UserResponseDto registerUser(UserRegisterDto dto) {
 
@@ -57,20 +65,15 @@ public class UserService {
         return mapToResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public List<UserResponseDto> searchUsers(String query) {
-        List<User> users;
-
         if (query == null || query.isBlank()) {
-            users = userRepository.findAll();
-        } else {
-            users = userRepository.findByNameContainingIgnoreCaseOrMobileNumberContaining(query, query);
+            return userRepository.findAllSummaries();
         }
-
-        return users.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return userRepository.searchSummaries(query);
     }
 
+    @Transactional
     public UserResponseDto updateUser(Long userId, UserUpdateDto dto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -88,6 +91,7 @@ public class UserService {
         user.setMobileNumber(dto.getMobileNumber());
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(DirectoryChangedEvent.user(userId));
 
         return mapToResponse(updatedUser);
     }
@@ -0,0 +1,142 @@
+package com.settleup.settleup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.settleup.settleup.common.metrics.QueryCountHeaderAdvice;
+import com.settleup.settleup.common.security.AdminTokenInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// HTTP tests against the embedded database, one shared context. The test profile fails any request that goes over its
+// endpoint's @QueryBudget, so calling an endpoint pins its budget; comparing counts across data sizes catches N+1s
+// that still fit the budget.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "test"})
+public abstract class ApiIntegrationTest {
+
+    // the context and its database outlive a test class, so every user gets a fresh email and mobile number
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private static final String ADMIN_TOKEN = "test-admin-token";
+
+    private static final long AWAIT_MILLIS = 10_000;
+
+    @Autowired
+    protected TestRestTemplate rest;
+
+    private long lastStatements;
+
+    // body of a successful response; the statement count is kept for statements()
+    protected JsonNode ok(HttpMethod method, String path, Object body) {
+        return ok(method, path, new HttpEntity<>(body));
+    }
+
+    protected JsonNode ok(HttpMethod method, String path, HttpEntity<?> request) {
+        return succeeds(HttpStatus.OK, method, path, request);
+    }
+
+    // body of a background job's 202 response
+    protected JsonNode accepted(HttpMethod method, String path, HttpEntity<?> request) {
+        return succeeds(HttpStatus.ACCEPTED, method, path, request);
+    }
+
+    // polls a status endpoint until the job it reports on is done, and returns the last status
+    protected JsonNode await(String path, Predicate<JsonNode> done) {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (true) {
+            JsonNode status = ok(HttpMethod.GET, path, null).path("data");
+            if (done.test(status)) return status;
+            assertTrue(System.currentTimeMillis() < deadline, path + " still not done: " + status);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private JsonNode succeeds(HttpStatus expected, HttpMethod method, String path, HttpEntity<?> request) {
+        ResponseEntity<JsonNode> response = rest.exchange(path, method, request, JsonNode.class);
+        assertEquals(expected, response.getStatusCode(), method + " " + path + ": " + response.getBody());
+        assertTrue(response.getBody().path("success").asBoolean(), method + " " + path + ": " + response.getBody());
+        String statements = response.getHeaders().getFirst(QueryCountHeaderAdvice.STATEMENTS_HEADER);
+        assertNotNull(statements, method + " " + path + " has no query count");
+        lastStatements = Long.parseLong(statements);
+        return response.getBody();
+    }
+
+    protected long statements() {
+        return lastStatements;
+    }
+
+    protected HttpEntity<String> csv(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        return new HttpEntity<>(body, headers);
+    }
+
+    // the request with the admin token added, for @AdminOnly endpoints
+    protected HttpEntity<?> admin(HttpEntity<?> request) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.set(AdminTokenInterceptor.ADMIN_TOKEN_HEADER, ADMIN_TOKEN);
+        return new HttpEntity<>(request.getBody(), headers);
+    }
+
+    protected HttpEntity<?> admin() {
+        return admin(HttpEntity.EMPTY);
+    }
+
+    protected long register(String name) {
+        int n = USERS.incrementAndGet();
+        return ok(HttpMethod.POST, "/api/users/register", Map.of("name", name, "email", email(n),
+                "mobileNumber", mobileNumber(n), "password", "secret1")).path("data").path("id").asLong();
+    }
+
+    protected List<Long> register(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(register("Member" + (i + 1)));
+        }
+        return ids;
+    }
+
+    protected long group(List<Long> memberIds) {
+        return ok(HttpMethod.POST, "/api/groups", Map.of("name", "Group", "memberIds", memberIds,
+                "createdByUserId", memberIds.get(0))).path("data").path("id").asLong();
+    }
+
+    // split equally between every member, paid by each in turn
+    protected void expenses(long groupId, List<Long> memberIds, int count) {
+        for (int i = 0; i < count; i++) {
+            ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", memberIds.get(i % memberIds.size()),
+                    "description", "Expense " + (i + 1), "amount", 60, "splitType", "EQUAL", "involvedUserIds", memberIds));
+        }
+    }
+
+    private static String email(int n) {
+        return "user" + n + "@it.test";
+    }
+
+    private static String mobileNumber(int n) {
+        return String.valueOf(8_000_000_000L + n);
+    }
+}
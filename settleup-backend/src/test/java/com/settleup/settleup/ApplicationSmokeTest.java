@@ -0,0 +1,112 @@
+package com.settleup.settleup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.settleup.settleup.common.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every controller end to end over HTTP on the embedded database. Responses are read as JSON trees rather than
+// DTO classes, so this runs unchanged as a native test (mvn -PnativeTest test) and checks the image's hints.
+class ApplicationSmokeTest extends ApiIntegrationTest {
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Test
+    void everyControllerAnswers() {
+        long alice = register("Alice", "alice@smoke.test", "6000000001");
+        long bob = register("Bob", "bob@smoke.test", "6000000002");
+        long carol = register("Carol", "carol@smoke.test", "6000000003");
+
+        // users
+        ok(HttpMethod.POST, "/api/users/login", Map.of("identifier", "alice@smoke.test", "password", "secret1"));
+        assertTrue(ok(HttpMethod.GET, "/api/users?query=Bob", null).path("data").size() >= 1);
+        ok(HttpMethod.PUT, "/api/users/" + carol, Map.of("name", "Caroline", "email", "carol@smoke.test", "mobileNumber", "6000000003"));
+        ok(HttpMethod.POST, "/api/users/forgot-password", Map.of("email", "bob@smoke.test", "mobileNumber", "6000000002",
+                "newPassword", "secret2", "confirmPassword", "secret2"));
+
+        // groups
+        long groupId = ok(HttpMethod.POST, "/api/groups",
+                Map.of("name", "Trip", "memberIds", List.of(alice, bob), "createdByUserId", alice)).path("data").path("id").asLong();
+        ok(HttpMethod.POST, "/api/groups/" + groupId + "/members/" + carol, null);
+        assertEquals(3, ok(HttpMethod.GET, "/api/groups/" + groupId, null).path("data").path("members").size());
+        assertEquals(1, ok(HttpMethod.GET, "/api/groups/user/" + alice, null).path("data").size());
+
+        // expenses
+        ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", alice, "description", "Dinner",
+                "amount", 90, "splitType", "EQUAL", "involvedUserIds", List.of(alice, bob, carol)));
+        ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", bob, "description", "Taxi",
+                "amount", 30, "splitType", "EXACT", "exactSplits", Map.of(String.valueOf(alice), 10, String.valueOf(carol), 20)));
+        // Alice is owed 50, all of it by Carol; Bob is square and left out
+        JsonNode balances = ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/balances", null).path("data");
+        assertEquals(2, balances.path("balances").size());
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/balances/async", null);
+        assertEquals(2, ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/history", null).path("data").size());
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/history/async", null);
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/history/compact", null);
+
+        // debts and settlements
+        assertEquals(1, balances.path("simplifiedDebts").size());
+        assertEquals(-50.0, ok(HttpMethod.GET, "/api/users/" + carol + "/net-debts", null).path("data").path("netBalance").asDouble());
+        long runId = accepted(HttpMethod.POST, "/api/settlements/suggestions/run", admin()).path("data").path("runId").asLong();
+        await("/api/settlements/suggestions/runs/" + runId, run -> !run.path("completedAt").isNull());
+        assertEquals(1, ok(HttpMethod.GET, "/api/settlements/suggestions?userId=" + carol, null).path("data").size());
+        ok(HttpMethod.POST, "/api/settlements", Map.of("groupId", groupId, "payerId", carol, "payeeId", alice, "amount", 50));
+
+        // recurring expenses
+        long recurringId = ok(HttpMethod.POST, "/api/recurring-expenses", Map.of("groupId", groupId, "paidByUserId", alice,
+                "description", "Rent", "amount", 300, "splitType", "EQUAL",
+                "splitValues", Map.of(String.valueOf(alice), 1, String.valueOf(bob), 1),
+                "frequency", "MONTHLY", "startDate", LocalDate.now().plusDays(1).toString())).path("data").path("id").asLong();
+        assertEquals(1, ok(HttpMethod.GET, "/api/recurring-expenses/group/" + groupId, null).path("data").size());
+        ok(HttpMethod.DELETE, "/api/recurring-expenses/" + recurringId + "?groupId=" + groupId, null);
+
+        // analytics: the backfill counts whatever the outbox hasn't delivered yet, settlements aren't spend
+        String backfillId = accepted(HttpMethod.POST, "/api/analytics/backfill", admin()).path("data").path("runId").asText();
+        assertEquals("COMPLETED", await("/api/analytics/backfill/" + backfillId,
+                run -> !"RUNNING".equals(run.path("status").asText())).path("status").asText());
+        assertEquals(120.0, ok(HttpMethod.GET, "/api/analytics/groups/" + groupId, null).path("data").path("totalSpent").asDouble());
+
+        // fx rates
+        ok(HttpMethod.GET, "/api/fx-rates", null);
+        ok(HttpMethod.POST, "/api/fx-rates/reload", admin());
+        ok(HttpMethod.POST, "/api/fx-rates/import", admin(csv("currency,rate\nUSD,1\nINR,83.20\nEUR,0.92\n")));
+
+        // a member without expenses leaves; the settled group is deleted and purged in the background
+        long dave = register("Dave", "dave@smoke.test", "6000000004");
+        ok(HttpMethod.POST, "/api/groups/" + groupId + "/members/" + dave, null);
+        ok(HttpMethod.DELETE, "/api/groups/" + groupId + "/members/" + dave + "?requesterId=" + alice, null);
+        ok(HttpMethod.DELETE, "/api/groups/" + groupId + "?requesterId=" + alice, null);
+        HttpStatus deletion = HttpStatus.valueOf(rest.getForEntity("/api/groups/" + groupId + "/deletion", JsonNode.class)
+                .getStatusCode().value());
+        assertTrue(deletion == HttpStatus.OK || deletion == HttpStatus.NOT_FOUND, "deletion status " + deletion);
+    }
+
+    @Test
+    void everyApiEndpointHasAQueryBudget() {
+        handlerMapping.getHandlerMethods().forEach((mapping, handler) -> {
+            boolean api = mapping.getPatternValues().stream().anyMatch(pattern -> pattern.startsWith("/api/"));
+            if (api) {
+                assertTrue(handler.hasMethodAnnotation(QueryBudget.class), mapping + " has no @QueryBudget");
+            }
+        });
+    }
+
+    private long register(String name, String email, String mobileNumber) {
+        return ok(HttpMethod.POST, "/api/users/register",
+                Map.of("name", name, "email", email, "mobileNumber", mobileNumber, "password", "secret1"))
+                .path("data").path("id").asLong();
+    }
+}
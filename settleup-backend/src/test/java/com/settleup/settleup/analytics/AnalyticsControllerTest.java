@@ -0,0 +1,86 @@
+package com.settleup.settleup.analytics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyticsControllerTest extends ApiIntegrationTest {
+
+    @Test
+    void addedExpensesReachTheRollupsThroughTheOutbox() throws InterruptedException {
+        List<Long> members = register(2);
+        long groupId = group(members);
+        expenses(groupId, members, 3);
+
+        // the relay polls every half second
+        JsonNode analytics = analytics(groupId);
+        for (int i = 0; i < 40 && analytics.path("expenseCount").asLong() < 3; i++) {
+            Thread.sleep(250);
+            analytics = analytics(groupId);
+        }
+
+        assertEquals(3, analytics.path("expenseCount").asLong());
+        assertEquals(180.0, analytics.path("totalSpent").asDouble());
+        assertEquals(members.get(0), analytics.path("topPayers").get(0).path("userId").asLong());
+        assertEquals(120.0, analytics.path("topPayers").get(0).path("paid").asDouble());
+        assertEquals(90.0, analytics.path("members").get(1).path("share").asDouble());
+    }
+
+    @Test
+    void backfillCountsEveryExpenseOnce() {
+        List<Long> members = register(3);
+        long groupId = group(members);
+        expenses(groupId, members, 4);
+
+        backfill();
+        JsonNode rerun = backfill();
+
+        assertEquals("COMPLETED", rerun.path("status").asText());
+        assertEquals(0, rerun.path("expensesRolledUp").asLong());
+        assertTrue(rerun.path("expensesScanned").asLong() >= 4);
+        JsonNode analytics = analytics(groupId);
+        assertEquals(4, analytics.path("expenseCount").asLong());
+        assertEquals(240.0, analytics.path("totalSpent").asDouble());
+        assertEquals(1, analytics.path("months").size());
+    }
+
+    @Test
+    void analyticsCostTheSameForAnyNumberOfExpenses() {
+        List<Long> few = register(2);
+        long small = group(few);
+        expenses(small, few, 1);
+        List<Long> many = register(5);
+        long large = group(many);
+        expenses(large, many, 30);
+        backfill();
+
+        analytics(small);
+        long one = statements();
+        analytics(large);
+
+        assertEquals(one, statements());
+    }
+
+    @Test
+    void backfillNeedsTheAdminToken() {
+        assertEquals(HttpStatus.FORBIDDEN, rest.exchange("/api/analytics/backfill", HttpMethod.POST, null, String.class)
+                .getStatusCode());
+    }
+
+    // the backfill runs in the background; this waits for it to finish
+    private JsonNode backfill() {
+        String runId = accepted(HttpMethod.POST, "/api/analytics/backfill", admin()).path("data").path("runId").asText();
+        return await("/api/analytics/backfill/" + runId, run -> !"RUNNING".equals(run.path("status").asText()));
+    }
+
+    private JsonNode analytics(long groupId) {
+        return ok(HttpMethod.GET, "/api/analytics/groups/" + groupId, null).path("data");
+    }
+}
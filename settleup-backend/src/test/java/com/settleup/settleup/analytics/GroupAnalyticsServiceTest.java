@@ -0,0 +1,72 @@
+package com.settleup.settleup.analytics;
+
+import com.settleup.settleup.analytics.dto.GroupAnalyticsDto;
+import com.settleup.settleup.analytics.dto.SpendBucketRow;
+import com.settleup.settleup.analytics.repository.GroupSpendRollupRepository;
+import com.settleup.settleup.analytics.service.GroupAnalyticsService;
+import com.settleup.settleup.config.AnalyticsProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GroupAnalyticsServiceTest {
+
+    private final GroupSpendRollupRepository rollupRepo = mock(GroupSpendRollupRepository.class);
+    private final GroupRepository groupRepo = mock(GroupRepository.class);
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+    private final GroupAnalyticsService analyticsService = new GroupAnalyticsService(rollupRepo, groupRepo, userRepo,
+            fxRateService, new AnalyticsProperties());
+
+    @Test
+    void getGroupAnalyticsConvertsBucketsIntoTheBaseCurrency() {
+        LocalDate lastMonth = YearMonth.now().minusMonths(1).atDay(1);
+        LocalDate thisMonth = YearMonth.now().atDay(1);
+        when(groupRepo.findById(10L)).thenReturn(Optional.of(Group.builder().id(10L).baseCurrency("INR").build()));
+        when(fxRateService.current()).thenReturn(FxRateTable.of(
+                Map.of("INR", new BigDecimal("80"), "USD", BigDecimal.ONE), "test"));
+        when(rollupRepo.findBuckets(10L, YearMonth.now().minusMonths(2).atDay(1))).thenReturn(List.of(
+                new SpendBucketRow(lastMonth, 1L, "INR", 100000, 50000, 1),
+                new SpendBucketRow(lastMonth, 2L, "INR", 0, 50000, 0),
+                // Bob pays 20.00 USD this month, all of it his own share
+                new SpendBucketRow(thisMonth, 2L, "USD", 2000, 2000, 1)));
+        when(userRepo.findNamesByIdIn(anyCollection())).thenReturn(List.of(new UserNameRow(1L, "Alice"), new UserNameRow(2L, "Bob")));
+
+        GroupAnalyticsDto analytics = analyticsService.getGroupAnalytics(10L, 3, 1);
+
+        assertEquals("INR", analytics.getCurrency());
+        assertEquals(2600.0, analytics.getTotalSpent());
+        assertEquals(2, analytics.getExpenseCount());
+        assertEquals(List.of("Bob", "Alice"), analytics.getMembers().stream().map(m -> m.getName()).toList());
+        assertEquals(2100.0, analytics.getMembers().get(0).getShare());
+        assertEquals(List.of(YearMonth.now().minusMonths(1).toString(), YearMonth.now().toString()),
+                analytics.getMonths().stream().map(m -> m.getMonth()).toList());
+        assertEquals(1000.0, analytics.getMonths().get(0).getTotalSpent());
+        assertEquals(1, analytics.getTopPayers().size());
+        assertEquals(2L, analytics.getTopPayers().get(0).getUserId());
+    }
+
+    @Test
+    void getGroupAnalyticsRejectsWindowsOutsideTheLimit() {
+        assertThrows(InvalidInputException.class, () -> analyticsService.getGroupAnalytics(10L, 0, null));
+        assertThrows(InvalidInputException.class, () -> analyticsService.getGroupAnalytics(10L, 121, null));
+    }
+}
@@ -0,0 +1,109 @@
+package com.settleup.settleup.analytics;
+
+import com.settleup.settleup.analytics.dto.ExpenseSpendRow;
+import com.settleup.settleup.analytics.dto.SpendRollupBackfillDto;
+import com.settleup.settleup.analytics.service.SpendRollupBackfill;
+import com.settleup.settleup.analytics.service.SpendRollupService;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.AnalyticsProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.expense.repository.ExpenseRepository;
+import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendRollupBackfillTest {
+
+    @Mock
+    private ExpenseRepository expenseRepo;
+
+    @Mock
+    private ExpenseSplitRepository splitRepo;
+
+    @Mock
+    private SpendRollupService rollupService;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AnalyticsProperties properties = new AnalyticsProperties();
+
+    private SpendRollupBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(2);
+        backfill = new SpendRollupBackfill(expenseRepo, splitRepo, rollupService, lockService,
+                new ShardRouter(new ShardingProperties(), null), properties, executor, transactionManager);
+    }
+
+    @Test
+    void runStopsOnceItCanNoLongerRenewItsLock() {
+        // five expenses in chunks of two; the lease is taken by another node after the first chunk
+        SchedulerLease lease = new SchedulerLease("spend-rollup-backfill", "node:run");
+        when(lockService.tryAcquire(eq("spend-rollup-backfill"), any(Duration.class))).thenReturn(Optional.of(lease));
+        when(lockService.renew(eq(lease), any(Duration.class))).thenReturn(false);
+        when(expenseRepo.findSpendChunk(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            return LongStream.rangeClosed(1, 5).filter(id -> id > afterId).limit(2)
+                    .mapToObj(id -> new ExpenseSpendRow(id, 7L, 1L, "INR", 10.0, LocalDateTime.now())).toList();
+        });
+        when(rollupService.apply(anyList())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+        doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        SpendRollupBackfillDto run = backfill.start().orElseThrow();
+
+        assertEquals("ABORTED", run.getStatus());
+        assertEquals(2, run.getExpensesScanned());
+        assertEquals(2, run.getExpensesRolledUp());
+        assertNotNull(run.getCompletedAt());
+        verify(rollupService, times(1)).apply(anyList());
+        assertEquals(run, backfill.getRun(run.getRunId()));
+        verify(lockService).release(lease);
+    }
+
+    @Test
+    void startSkippedWhileARunIsInProgress() {
+        when(lockService.tryAcquire(eq("spend-rollup-backfill"), any(Duration.class))).thenReturn(Optional.empty());
+
+        assertTrue(backfill.start().isEmpty());
+        verify(executor, never()).execute(any(Runnable.class));
+    }
+}
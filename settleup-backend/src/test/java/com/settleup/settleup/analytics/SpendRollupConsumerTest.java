@@ -0,0 +1,85 @@
+package com.settleup.settleup.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.settleup.settleup.analytics.service.SpendRollupConsumer;
+import com.settleup.settleup.analytics.service.SpendRollupService;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.OutboxProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEvent;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.repository.OutboxEventRepository;
+import com.settleup.settleup.outbox.service.OutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendRollupConsumerTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SpendRollupService rollupService;
+
+    @Test
+    void failingRollupIsRetriedAloneWhileTheRestOfTheBatchIsDelivered() {
+        OutboxEvent poison = expense(1L);
+        OutboxEvent member = OutboxEvent.builder().id(2L).type(OutboxEventType.MEMBER_ADDED).groupId(7L)
+                .payload("{\"groupId\":7,\"userId\":3}").build();
+        when(outboxRepo.findDeliverable(any(), anyInt(), any())).thenReturn(List.of(poison, member, expense(3L)));
+        when(rollupService.apply(anyList())).thenAnswer(invocation -> {
+            List<ExpenseAddedPayload> expenses = invocation.getArgument(0);
+            if (expenses.stream().anyMatch(expense -> expense.expenseId() == 101L)) {
+                throw new IllegalStateException("rollup failed");
+            }
+            return expenses.size();
+        });
+        OutboxRelay relay = new OutboxRelay(outboxRepo, eventPublisher, List.of(new SpendRollupConsumer(rollupService)),
+                new ObjectMapper().registerModule(new JavaTimeModule()), new ShardRouter(new ShardingProperties(), null),
+                transactionManager, new OutboxProperties(), new SimpleMeterRegistry());
+
+        relay.poll();
+
+        // the whole batch, then each expense on its own
+        verify(rollupService, times(3)).apply(anyList());
+        verify(outboxRepo).deleteAllByIdInBatch(List.of(2L, 3L));
+        assertEquals(1, poison.getAttempts());
+        assertEquals("rollup failed", poison.getLastError());
+        assertTrue(poison.getAvailableAt().isAfter(poison.getCreatedAt()));
+    }
+
+    private static OutboxEvent expense(long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.EXPENSE_ADDED)
+                .groupId(7L)
+                .payload("{\"expenseId\":" + (100 + id) + ",\"groupId\":7,\"paidByUserId\":3,\"currency\":\"INR\","
+                        + "\"totalCents\":1000,\"userIds\":[3],\"amountCents\":[1000],\"createdAt\":\"2026-03-05T12:00:00\"}")
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.settleup.settleup.analytics;
+
+import com.settleup.settleup.analytics.entity.GroupSpendRollup;
+import com.settleup.settleup.analytics.entity.RolledUpExpense;
+import com.settleup.settleup.analytics.repository.GroupSpendRollupRepository;
+import com.settleup.settleup.analytics.repository.RolledUpExpenseRepository;
+import com.settleup.settleup.analytics.service.SpendRollupService;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendRollupServiceTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private GroupSpendRollupRepository rollupRepo;
+
+    @Mock
+    private RolledUpExpenseRepository rolledUpRepo;
+
+    @Mock
+    private GroupRepository groupRepo;
+
+    @InjectMocks
+    private SpendRollupService rollupService;
+
+    @Test
+    void applyWritesEachBucketOnceForTheWholeBatch() {
+        when(rolledUpRepo.findExpenseIdsIn(anyCollection())).thenReturn(List.of());
+        when(groupRepo.findIdsByIdIn(anyCollection())).thenReturn(List.of(10L));
+        when(rollupRepo.increment(eq(10L), eq(MARCH), eq(1L), eq("INR"), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        // Alice pays 100.00 and Bob 40.00 in March, both split equally between them
+        int applied = rollupService.apply(List.of(
+                expense(100L, 1L, 10000, LocalDateTime.of(2026, 3, 5, 12, 0)),
+                expense(101L, 2L, 4000, LocalDateTime.of(2026, 3, 20, 9, 30)),
+                expense(100L, 1L, 10000, LocalDateTime.of(2026, 3, 5, 12, 0))));
+
+        assertEquals(2, applied);
+        verify(rollupRepo).increment(10L, MARCH, 1L, "INR", 10000, 7000, 1);
+        verify(rollupRepo).increment(10L, MARCH, 2L, "INR", 4000, 7000, 1);
+        ArgumentCaptor<List<GroupSpendRollup>> created = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepo).saveAll(created.capture());
+        assertEquals(1, created.getValue().size());
+        assertEquals(2L, created.getValue().get(0).getUserId());
+        assertEquals(4000, created.getValue().get(0).getPaidCents());
+        ArgumentCaptor<List<RolledUpExpense>> markers = ArgumentCaptor.forClass(List.class);
+        verify(rolledUpRepo).saveAll(markers.capture());
+        assertEquals(List.of(100L, 101L), markers.getValue().stream().map(RolledUpExpense::getExpenseId).toList());
+    }
+
+    @Test
+    void applySkipsExpensesAlreadyCountedOrOfDeletedGroups() {
+        when(rolledUpRepo.findExpenseIdsIn(anyCollection())).thenReturn(List.of(100L));
+        when(groupRepo.findIdsByIdIn(anyCollection())).thenReturn(List.of());
+
+        int applied = rollupService.apply(List.of(
+                expense(100L, 1L, 10000, LocalDateTime.of(2026, 3, 5, 12, 0)),
+                expense(101L, 2L, 4000, LocalDateTime.of(2026, 3, 20, 9, 30))));
+
+        assertEquals(0, applied);
+        verifyNoInteractions(rollupRepo);
+        verify(rolledUpRepo, never()).saveAll(anyCollection());
+    }
+
+    private static ExpenseAddedPayload expense(long id, long payerId, long totalCents, LocalDateTime createdAt) {
+        return new ExpenseAddedPayload(id, 10L, payerId, "INR", totalCents, new long[]{1L, 2L},
+                new long[]{totalCents / 2, totalCents / 2}, createdAt);
+    }
+}
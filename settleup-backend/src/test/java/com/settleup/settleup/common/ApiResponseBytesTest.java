@@ -0,0 +1,41 @@
+package com.settleup.settleup.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApiResponseBytesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ApiResponseBytes apiResponseBytes = new ApiResponseBytes(objectMapper);
+
+    @Test
+    void success_MatchesTheMappedEnvelope() throws Exception {
+        Object data = Map.of("names", List.of("Alice", "Bob \"B\""));
+        ApiResponse<Object> mapped = ApiResponse.success(data, "Balances \"calculated\"");
+
+        ResponseEntity<byte[]> response = apiResponseBytes.success(objectMapper.writeValueAsBytes(data), mapped.getMessage());
+
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(mapped));
+        JsonNode actual = objectMapper.readTree(response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(expected.get("success"), actual.get("success"));
+        assertEquals(expected.get("message"), actual.get("message"));
+        assertEquals(expected.get("data"), actual.get("data"));
+        assertEquals(List.of("success", "message", "data", "timestamp"), fieldNames(actual));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
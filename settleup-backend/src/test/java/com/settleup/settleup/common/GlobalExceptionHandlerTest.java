@@ -0,0 +1,54 @@
+package com.settleup.settleup.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry);
+
+    @Test
+    void handleDatabaseUnavailable_SaturatedPoolFailsFastWithRetryAfter() throws Exception {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl("jdbc:h2:mem:saturated");
+            pool.setMaximumPoolSize(1);
+            pool.setConnectionTimeout(250);
+
+            try (Connection held = pool.getConnection()) {
+                long start = System.nanoTime();
+                DataAccessResourceFailureException ex = assertThrows(DataAccessResourceFailureException.class,
+                        () -> DataSourceUtils.getConnection(pool));
+                assertTrue(System.nanoTime() - start < 2_000_000_000L);
+
+                ResponseEntity<ApiResponse<Object>> response = handler.handleDatabaseUnavailable(ex);
+
+                assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+                assertEquals(GlobalExceptionHandler.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                assertFalse(response.getBody().isSuccess());
+                assertEquals(1.0, meterRegistry.counter(GlobalExceptionHandler.DATABASE_UNAVAILABLE_COUNTER).count());
+            }
+        }
+    }
+
+    @Test
+    void handleDatabaseUnavailable_CountsEveryFailure() {
+        DataAccessResourceFailureException ex = new DataAccessResourceFailureException("database down");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, handler.handleDatabaseUnavailable(ex).getStatusCode());
+        }
+
+        assertEquals(3.0, meterRegistry.counter(GlobalExceptionHandler.DATABASE_UNAVAILABLE_COUNTER).count());
+    }
+}
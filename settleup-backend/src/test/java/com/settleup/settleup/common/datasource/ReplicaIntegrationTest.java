@@ -0,0 +1,63 @@
+package com.settleup.settleup.common.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The "replica" is the primary's own database, so it is never behind. Reading back the written revision costs a
+// statement more per write, so requests over their budgets are only logged here.
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:settleup-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "settleup.datasource.replica.url=jdbc:h2:mem:settleup-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "settleup.query-budget.mode=WARN"
+})
+class ReplicaIntegrationTest extends ApiIntegrationTest {
+
+    @Test
+    void aLedgerWriteIsReadFromTheReplicaOnceItHasTheRevision() {
+        List<Long> members = register(2);
+        long groupId = group(members);
+
+        ResponseEntity<JsonNode> write = rest.exchange("/api/expenses", HttpMethod.POST, new HttpEntity<>(Map.of(
+                "groupId", groupId, "paidByUserId", members.get(0), "description", "Dinner", "amount", 60,
+                "splitType", "EQUAL", "involvedUserIds", members)), JsonNode.class);
+        assertEquals(HttpStatus.OK, write.getStatusCode());
+        List<String> written = write.getHeaders().get(HttpHeaders.SET_COOKIE);
+        String lastWrite = cookie(written, ReadYourWritesInterceptor.COOKIE_NAME);
+        assertEquals(groupId + ".1." + lastWrite, cookie(written, ReadYourWritesInterceptor.REVISION_COOKIE_NAME));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, ReadYourWritesInterceptor.COOKIE_NAME + "=" + lastWrite + "; "
+                + ReadYourWritesInterceptor.REVISION_COOKIE_NAME + "=" + groupId + ".1." + lastWrite);
+        ResponseEntity<JsonNode> read = rest.exchange("/api/expenses/group/" + groupId + "/balances", HttpMethod.GET,
+                new HttpEntity<>(headers), JsonNode.class);
+
+        assertEquals(2, read.getBody().path("data").path("balances").size());
+        // caught up with the client's last write, so both cookies are dropped
+        List<String> cleared = read.getHeaders().get(HttpHeaders.SET_COOKIE);
+        assertTrue(cleared.stream().anyMatch(c -> c.startsWith(ReadYourWritesInterceptor.COOKIE_NAME + "=;")
+                && c.contains("Max-Age=0")), cleared.toString());
+        assertTrue(cleared.stream().anyMatch(c -> c.startsWith(ReadYourWritesInterceptor.REVISION_COOKIE_NAME + "=;")
+                && c.contains("Max-Age=0")), cleared.toString());
+    }
+
+    private static String cookie(List<String> setCookies, String name) {
+        return setCookies.stream()
+                .filter(c -> c.startsWith(name + "="))
+                .map(c -> c.substring(name.length() + 1, c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(name + " not set: " + setCookies));
+    }
+}
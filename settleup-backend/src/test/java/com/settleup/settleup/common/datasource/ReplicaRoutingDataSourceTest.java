@@ -0,0 +1,146 @@
+package com.settleup.settleup.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica);
+    private final JdbcTemplate replicaRevisions = mock(JdbcTemplate.class);
+    private final ReadYourWritesInterceptor interceptor =
+            new ReadYourWritesInterceptor(Duration.ofSeconds(5), Duration.ofMinutes(1), replicaRevisions);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        DataSourceRoute.clear();
+        DataSourceRoute.stopTrackingRevisions();
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReadOnlyGoesToReplica() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_PrimaryRequiredWinsOverReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        DataSourceRoute.requirePrimary();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void getConnection_FallsBackToPrimaryWhenReplicaFails() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+        when(primary.getConnection()).thenReturn(connection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(connection, routing.getConnection());
+    }
+
+    @Test
+    void preHandle_WriteSetsCookieAndPinsPrimary() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/expenses"), response, null);
+
+        assertNotNull(response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME));
+        assertTrue(DataSourceRoute.isPrimaryRequired());
+        interceptor.afterCompletion(null, response, null, null);
+        assertFalse(DataSourceRoute.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_ReadPinsPrimaryOnlyInsideWindow() {
+        MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/expenses/group/1/balances");
+        recent.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, Long.toString(System.currentTimeMillis())));
+        interceptor.preHandle(recent, new MockHttpServletResponse(), null);
+        assertTrue(DataSourceRoute.isPrimaryRequired());
+        DataSourceRoute.clear();
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/expenses/group/1/balances");
+        stale.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 60_000)));
+        interceptor.preHandle(stale, new MockHttpServletResponse(), null);
+        assertFalse(DataSourceRoute.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_WriteRecordsTheRevisionItMovedTo() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/expenses"), response, null);
+
+        DataSourceRoute.revisionWritten(7L, 3);
+
+        String written = response.getCookie(ReadYourWritesInterceptor.REVISION_COOKIE_NAME).getValue();
+        assertEquals("7.3." + response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME).getValue(), written);
+        interceptor.afterCompletion(null, response, null, null);
+        assertFalse(DataSourceRoute.tracksRevisions());
+    }
+
+    @Test
+    void preHandle_ReadPinsPrimaryUntilTheReplicaHasTheRevision() {
+        String lastWrite = Long.toString(System.currentTimeMillis() - 60_000);
+        when(replicaRevisions.queryForList(anyString(), eq(Long.class), eq(7L))).thenReturn(List.of(2L), List.of(3L));
+
+        interceptor.preHandle(read(lastWrite, "7.3." + lastWrite), new MockHttpServletResponse(), null);
+        assertTrue(DataSourceRoute.isPrimaryRequired());
+        DataSourceRoute.clear();
+
+        MockHttpServletResponse caughtUp = new MockHttpServletResponse();
+        interceptor.preHandle(read(lastWrite, "7.3." + lastWrite), caughtUp, null);
+        assertFalse(DataSourceRoute.isPrimaryRequired());
+        // the replica is current with the last write, so both cookies are dropped
+        assertEquals(0, caughtUp.getCookie(ReadYourWritesInterceptor.REVISION_COOKIE_NAME).getMaxAge());
+        assertEquals(0, caughtUp.getCookie(ReadYourWritesInterceptor.COOKIE_NAME).getMaxAge());
+    }
+
+    @Test
+    void preHandle_CaughtUpReplicaStillWaitsOutALaterDirectoryWrite() {
+        long now = System.currentTimeMillis();
+        when(replicaRevisions.queryForList(anyString(), eq(Long.class), eq(7L))).thenReturn(List.of(3L));
+
+        interceptor.preHandle(read(Long.toString(now), "7.3." + (now - 1_000)), new MockHttpServletResponse(), null);
+
+        assertTrue(DataSourceRoute.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_UnreachableReplicaCountsAsBehind() {
+        String lastWrite = Long.toString(System.currentTimeMillis() - 60_000);
+        when(replicaRevisions.queryForList(anyString(), eq(Long.class), eq(7L)))
+                .thenThrow(new DataAccessResourceFailureException("replica down"));
+
+        interceptor.preHandle(read(lastWrite, "7.3." + lastWrite), new MockHttpServletResponse(), null);
+
+        assertTrue(DataSourceRoute.isPrimaryRequired());
+    }
+
+    private static MockHttpServletRequest read(String lastWrite, String writtenRevision) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses/group/7/balances");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, lastWrite),
+                new Cookie(ReadYourWritesInterceptor.REVISION_COOKIE_NAME, writtenRevision));
+        return request;
+    }
+}
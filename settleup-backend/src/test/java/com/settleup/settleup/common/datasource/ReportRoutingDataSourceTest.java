@@ -0,0 +1,55 @@
+package com.settleup.settleup.common.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReportRoutingDataSourceTest {
+
+    private final DataSource oltp = mock(DataSource.class);
+    private final DataSource report = mock(DataSource.class);
+    private final ReportRoutingDataSource routing = new ReportRoutingDataSource(oltp, report);
+
+    @Test
+    void determineCurrentLookupKey_ReportWorkGoesToReportPool() {
+        assertEquals(ReportRoutingDataSource.OLTP, routing.determineCurrentLookupKey());
+
+        assertEquals(ReportRoutingDataSource.REPORT, DataSourceRoute.onReportPool(routing::determineCurrentLookupKey));
+        assertEquals(ReportRoutingDataSource.OLTP, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void getConnection_ReportWaitsOnItsOwnPool() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(report.getConnection()).thenReturn(connection);
+
+        assertSame(connection, DataSourceRoute.onReportPool(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        verifyNoInteractions(oltp);
+    }
+
+    @Test
+    void onReportPool_NestedCallsKeepTheRouteUntilTheOuterReturns() {
+        DataSourceRoute.onReportPool(() -> {
+            DataSourceRoute.onReportPool(() -> null);
+            assertTrue(DataSourceRoute.isReport());
+            return null;
+        });
+        assertFalse(DataSourceRoute.isReport());
+
+        assertThrows(IllegalStateException.class, () -> DataSourceRoute.onReportPool(() -> {
+            throw new IllegalStateException("report failed");
+        }));
+        assertFalse(DataSourceRoute.isReport());
+    }
+}
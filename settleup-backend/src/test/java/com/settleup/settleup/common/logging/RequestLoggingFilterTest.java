@@ -0,0 +1,68 @@
+package com.settleup.settleup.common.logging;
+
+import com.settleup.settleup.config.RequestLoggingProperties;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingFilterTest {
+
+    private final RequestLoggingFilter filter = new RequestLoggingFilter(new RequestLoggingProperties());
+
+    @Test
+    void family_UsesFirstSegmentAfterApi() {
+        assertEquals("expenses", RequestLoggingFilter.family("/api/expenses/group/1/balances"));
+        assertEquals("users", RequestLoggingFilter.family("/api/users"));
+        assertEquals("root", RequestLoggingFilter.family("/api/"));
+    }
+
+    @Test
+    void doFilter_PropagatesIncomingRequestId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC_KEY));
+            }
+        });
+
+        assertEquals("abc-123", seen.get());
+        assertEquals("abc-123", response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC_KEY));
+    }
+
+    @Test
+    void doFilter_GeneratesRequestIdWhenMissing() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertNotNull(response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+    }
+
+    @Test
+    void doFilter_ReplacesMalformedRequestIds() throws Exception {
+        for (String malformed : new String[]{"abc\r\nforged: 1", "a b", "x".repeat(65), "id;drop", ""}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+            request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, malformed);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, new MockFilterChain());
+
+            String requestId = response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER);
+            assertNotEquals(malformed, requestId);
+            assertTrue(requestId.matches("[A-Za-z0-9._-]{1,64}"), requestId);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.settleup.settleup.common.metrics;
+
+import com.settleup.settleup.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetAdviceTest {
+
+    private final QueryBudgetProperties properties = new QueryBudgetProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryBudgetAdvice advice = new QueryBudgetAdvice(properties, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        QueryCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryCounter.clear();
+    }
+
+    @Test
+    void beforeBodyWrite_WithinBudgetPassesQuietly() throws Exception {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        executeStatements(2);
+
+        assertEquals("body", write("budgetOfTwo"));
+        assertNull(meterRegistry.find("settleup.http.query.budget.exceeded").counter());
+    }
+
+    @Test
+    void beforeBodyWrite_FailModeRejectsOverBudget() throws Exception {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        executeStatements(3);
+
+        QueryBudgetExceededException ex = assertThrows(QueryBudgetExceededException.class, () -> write("budgetOfTwo"));
+        assertEquals("GET /api/things/{id} issued 3 SQL statements, budget is 2", ex.getMessage());
+    }
+
+    @Test
+    void beforeBodyWrite_WarnModeCountsAndKeepsTheResponse() throws Exception {
+        executeStatements(3);
+
+        assertEquals("body", write("budgetOfTwo"));
+        assertEquals(1.0, meterRegistry.get("settleup.http.query.budget.exceeded").tag("uri", "/api/things/{id}").counter().count());
+    }
+
+    @Test
+    void beforeBodyWrite_UnannotatedHandlerUsesTheDefault() throws Exception {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        executeStatements(50);
+        assertEquals("body", write("unbudgeted"));
+
+        properties.setDefaultStatements(10);
+        assertThrows(QueryBudgetExceededException.class, () -> write("unbudgeted"));
+    }
+
+    @Test
+    void supports_OnlyControllerHandlersAndNotWhenOff() throws Exception {
+        MethodParameter controller = returnType("budgetOfTwo");
+        assertTrue(advice.supports(controller, MappingJackson2HttpMessageConverter.class));
+        assertFalse(advice.supports(new MethodParameter(QueryBudgetAdviceTest.class.getDeclaredMethod("executeStatements", int.class), -1),
+                MappingJackson2HttpMessageConverter.class));
+
+        properties.setMode(QueryBudgetProperties.Mode.OFF);
+        assertFalse(advice.supports(controller, MappingJackson2HttpMessageConverter.class));
+    }
+
+    private Object write(String handler) throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/things/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/things/{id}");
+        return advice.beforeBodyWrite("body", returnType(handler), MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, new ServletServerHttpRequest(request),
+                new ServletServerHttpResponse(new MockHttpServletResponse()));
+    }
+
+    private static MethodParameter returnType(String handler) throws NoSuchMethodException {
+        return new MethodParameter(ThingController.class.getDeclaredMethod(handler), -1);
+    }
+
+    private static void executeStatements(int count) {
+        for (int i = 0; i < count; i++) {
+            QueryCounter.statementExecuted();
+        }
+    }
+
+    @RestController
+    static class ThingController {
+
+        @QueryBudget(2)
+        String budgetOfTwo() {
+            return "body";
+        }
+
+        String unbudgeted() {
+            return "body";
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.settleup.settleup.common.metrics;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryMetricsIntegrationTest extends ApiIntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void syncRequestsRecordTheirStatementsPerEndpoint() throws InterruptedException {
+        long groupId = groupWithExpenses();
+        Recorded before = recorded("/api/expenses/group/{groupId}/history");
+
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/history", null);
+
+        assertTrue(statements() > 0);
+        assertRecorded(before, "/api/expenses/group/{groupId}/history", statements());
+    }
+
+    @Test
+    void asyncRequestsRecordTheStatementsOfTheirWorkerThreads() throws InterruptedException {
+        long groupId = groupWithExpenses();
+        Recorded before = recorded("/api/expenses/group/{groupId}/history/async");
+
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/history/async", null);
+
+        // the queries ran on the read executor, after the request thread had let go of the request
+        assertTrue(statements() > 0);
+        assertRecorded(before, "/api/expenses/group/{groupId}/history/async", statements());
+    }
+
+    @Test
+    void everyBalanceSheetIsTimedWhileItsDebtsAreSimplified() {
+        long groupId = groupWithExpenses();
+        long before = simplifications();
+
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/balances", null);
+        ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/balances/async", null);
+
+        assertEquals(before + 2, simplifications());
+    }
+
+    private long groupWithExpenses() {
+        List<Long> members = register(3);
+        long groupId = group(members);
+        expenses(groupId, members, 2);
+        return groupId;
+    }
+
+    // the summary is recorded once the response is complete, which the client may see first
+    private void assertRecorded(Recorded before, String uri, long statements) throws InterruptedException {
+        Recorded after = recorded(uri);
+        for (int i = 0; i < 40 && after.count() == before.count(); i++) {
+            Thread.sleep(50);
+            after = recorded(uri);
+        }
+        assertEquals(before.count() + 1, after.count());
+        assertEquals(before.total() + statements, after.total());
+    }
+
+    private Recorded recorded(String uri) {
+        DistributionSummary summary = meterRegistry.find("settleup.http.statements")
+                .tags("uri", uri, "method", "GET").summary();
+        return summary == null ? new Recorded(0, 0) : new Recorded(summary.count(), (long) summary.totalAmount());
+    }
+
+    private long simplifications() {
+        Timer timer = meterRegistry.find("settleup.debts.simplify").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private record Recorded(long count, long total) {
+    }
+}
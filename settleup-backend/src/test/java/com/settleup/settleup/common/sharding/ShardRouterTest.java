@@ -0,0 +1,54 @@
+package com.settleup.settleup.common.sharding;
+
+import com.settleup.settleup.config.ShardingProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    private static ShardRouter router(int shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(shards > 0);
+        for (int i = 0; i < shards; i++) {
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        return new ShardRouter(properties, null);
+    }
+
+    @Test
+    void shardFor_SingleShardWhenDisabled() {
+        ShardRouter router = router(0);
+
+        assertFalse(router.isSharded());
+        assertEquals(ShardRouter.DIRECTORY, router.shardFor(7L));
+        assertArrayEquals(new int[]{0}, router.shards());
+    }
+
+    @Test
+    void shardFor_SpreadsGroupsByModulo() {
+        ShardRouter router = router(3);
+
+        assertEquals(1, router.shardFor(7L));
+        assertEquals(0, router.shardFor(9L));
+        assertEquals(2, router.shardFor(11L));
+    }
+
+    @Test
+    void onGroupShard_SetsAndRestoresContext() {
+        ShardRouter router = router(3);
+
+        Integer inside = router.onGroupShard(7L, ShardContext::current);
+
+        assertEquals(1, inside);
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void enabledWithoutShards_FailsFast() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+
+        assertThrows(IllegalStateException.class, () -> new ShardRouter(properties, null));
+    }
+}
@@ -0,0 +1,104 @@
+package com.settleup.settleup.common.sharding;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two embedded shards; shard 0 is the directory. Sequence calls per id push requests over their budgets, so those
+// are only logged here.
+@TestPropertySource(properties = {
+        "settleup.sharding.enabled=true",
+        "settleup.sharding.shards[0].url=jdbc:h2:mem:settleup-shard0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "settleup.sharding.shards[1].url=jdbc:h2:mem:settleup-shard1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "settleup.query-budget.mode=WARN"
+})
+class ShardingIntegrationTest extends ApiIntegrationTest {
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private DirectorySync directorySync;
+
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(dataSource.shard(shard));
+    }
+
+    // a group whose ledger lives on shard 1
+    private long groupOnSecondShard(List<Long> members) {
+        long groupId = group(members);
+        return groupId % 2 == 1 ? groupId : group(members);
+    }
+
+    private long count(int shard, String sql, Object... args) {
+        return shard(shard).queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    void ledgerWritesGoToTheGroupsShard() {
+        List<Long> members = register(2);
+        long groupId = groupOnSecondShard(members);
+
+        ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", members.get(0),
+                "description", "Dinner", "amount", 60, "splitType", "EQUAL", "involvedUserIds", members));
+
+        assertEquals(1, count(1, "select count(*) from expenses where group_id = ?", groupId));
+        assertEquals(0, count(0, "select count(*) from expenses where group_id = ?", groupId));
+        assertEquals(2, count(1, "select count(*) from group_balances where group_id = ?", groupId));
+        assertEquals(2, ok(HttpMethod.GET, "/api/expenses/group/" + groupId + "/balances", null)
+                .path("data").path("balances").size());
+    }
+
+    @Test
+    void shardsGetUsersWithoutTheirPasswords() {
+        List<Long> members = register(2);
+        long groupId = groupOnSecondShard(members);
+
+        assertEquals(2, count(1, "select count(*) from group_members where group_id = ?", groupId));
+        assertEquals(List.of("!", "!"), shard(1).queryForList(
+                "select password from app_users where id in (?, ?)", String.class, members.get(0), members.get(1)));
+        assertEquals(0, count(0, "select count(*) from app_users where password = '!'"));
+    }
+
+    @Test
+    void removingAMemberChecksTheLedgerShard() {
+        List<Long> members = register(2);
+        long groupId = groupOnSecondShard(members);
+        ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", members.get(0),
+                "description", "Dinner", "amount", 60, "splitType", "EQUAL", "involvedUserIds", members));
+        String removal = "/api/groups/" + groupId + "/members/" + members.get(1) + "?requesterId=" + members.get(0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, rest.exchange(removal, HttpMethod.DELETE, null, String.class).getStatusCode());
+
+        ok(HttpMethod.POST, "/api/settlements", Map.of("groupId", groupId, "payerId", members.get(1),
+                "payeeId", members.get(0), "amount", 30));
+        ok(HttpMethod.DELETE, removal, null);
+
+        assertEquals(1, count(1, "select count(*) from group_members where group_id = ?", groupId));
+        assertEquals(1, count(0, "select count(*) from group_members where group_id = ?", groupId));
+    }
+
+    @Test
+    void aRelayedChangeRepairsTheShardsCopy() {
+        List<Long> members = register(2);
+        long groupId = groupOnSecondShard(members);
+        shard(1).update("delete from group_members where group_id = ?", groupId);
+
+        directorySync.onRelayed(new OutboxMessage<>(1L, OutboxEventType.DIRECTORY_CHANGED, groupId,
+                DirectoryChangedEvent.group(groupId), LocalDateTime.now()));
+
+        assertEquals(2, count(1, "select count(*) from group_members where group_id = ?", groupId));
+    }
+}
@@ -0,0 +1,41 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.common.metrics.QueryCountHeaderAdvice;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AotConditionCheckTest {
+
+    @Test
+    void defaultsMatchADefaultBuild() {
+        assertTrue(AotConditionCheck.mismatches(new MockEnvironment(), type -> false).isEmpty());
+    }
+
+    @Test
+    void propertiesTheBuildIgnoredAreReported() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("settleup.sharding.enabled", "true")
+                .withProperty("settleup.datasource.report.enabled", "true");
+
+        List<String> mismatches = AotConditionCheck.mismatches(environment, type -> false);
+
+        // with sharding on, the report pool stays off, as its condition says
+        assertEquals(List.of("settleup.sharding.enabled (set, but built without it)"), mismatches);
+    }
+
+    @Test
+    void featuresBuiltInButSwitchedOffAreReported() {
+        Set<Class<?>> built = Set.of(ReportDataSourceConfig.class, QueryCountHeaderAdvice.class);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("settleup.datasource.report.enabled", "true");
+
+        assertEquals(List.of("settleup.metrics.query-count-header (unset, but built with it)"),
+                AotConditionCheck.mismatches(environment, built::contains));
+    }
+}
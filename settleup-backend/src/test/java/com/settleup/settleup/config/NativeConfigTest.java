@@ -0,0 +1,51 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.expense.entity.Expense;
+import com.settleup.settleup.expense.entity.ExpenseSplit;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.outbox.dto.ExpenseAddedPayload;
+import com.settleup.settleup.settlement.entity.Settlement;
+import com.settleup.settleup.user.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeConfigTest() {
+        new NativeConfig.SettleupRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entitiesAreReflectivelyConstructible() {
+        for (Class<?> entity : List.of(Expense.class, ExpenseSplit.class, Group.class, Settlement.class, User.class)) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+                    .test(hints), entity.getSimpleName());
+        }
+    }
+
+    @Test
+    void dtosCachedResponsesAndOutboxPayloadsAreBindable() {
+        // nested types and query projections included
+        for (Class<?> dto : List.of(BalanceSheetDto.class, BalanceSheetDto.SimplifiedDebt.class, UserCurrencyTotal.class,
+                ExpenseAddedPayload.class)) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(dto).test(hints), dto.getSimpleName());
+        }
+    }
+
+    @Test
+    void classpathResourcesAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("fx/rates.csv").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+    }
+}
@@ -0,0 +1,37 @@
+package com.settleup.settleup.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaDataSourceConfigTest {
+
+    @Test
+    void replicaPoolStartsFromThePrimaryPoolSettings() throws Exception {
+        ReplicaProperties replica = new ReplicaProperties();
+        replica.setUrl("jdbc:h2:mem:replica");
+        DataSourceProperties primary = new DataSourceProperties();
+        primary.setUrl("jdbc:h2:mem:primary");
+        primary.setUsername("sa");
+        primary.afterPropertiesSet();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "10")
+                .withProperty("spring.datasource.hikari.validation-timeout", "1000")
+                .withProperty("spring.datasource.hikari.connection-timeout", "2000")
+                .withProperty("settleup.datasource.replica.hikari.connection-timeout", "500");
+
+        try (HikariDataSource pool = new ReplicaDataSourceConfig(replica, null).replicaDataSource(primary, environment)) {
+            assertEquals("jdbc:h2:mem:replica", pool.getJdbcUrl());
+            assertEquals("sa", pool.getUsername());
+            assertEquals(10, pool.getMaximumPoolSize());
+            assertEquals(1000, pool.getValidationTimeout());
+            assertEquals(500, pool.getConnectionTimeout());
+            assertEquals("replica", pool.getPoolName());
+            assertTrue(pool.isReadOnly());
+        }
+    }
+}
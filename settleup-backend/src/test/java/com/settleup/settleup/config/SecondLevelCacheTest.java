@@ -0,0 +1,74 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The second-level cache the test profile turns off, on again, in a database of its own. Each request is made cold
+// (cache evicted) and then warm, and the warm one must issue fewer statements.
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.datasource.url=jdbc:h2:mem:settleup-l2;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class SecondLevelCacheTest extends ApiIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Long> members;
+    private long groupId;
+
+    @BeforeEach
+    void setUp() {
+        members = register(3);
+        groupId = group(members);
+        // sequences fetch their first id blocks here, so they don't count against the cold requests
+        expenses(groupId, members, 1);
+        ok(HttpMethod.POST, "/api/settlements", settlement());
+    }
+
+    @Test
+    void warmGroupReadComesFromTheCache() {
+        long cold = coldThenWarm(() -> ok(HttpMethod.GET, "/api/groups/" + groupId, null));
+
+        // only the member list, which is not cached, is still queried
+        assertEquals(cold - 1, statements());
+    }
+
+    @Test
+    void warmSettlementLoadsItsPayerAndPayeeFromTheCache() {
+        long cold = coldThenWarm(() -> ok(HttpMethod.POST, "/api/settlements", settlement()));
+
+        assertEquals(cold - 2, statements());
+    }
+
+    @Test
+    void warmExpenseLoadsItsUsersFromTheCache() {
+        long cold = coldThenWarm(() -> expenses(groupId, members, 1));
+
+        assertTrue(statements() < cold, "warm " + statements() + ", cold " + cold);
+    }
+
+    // statements of the request on an empty cache; statements() is left at those of the same request repeated
+    private long coldThenWarm(Runnable request) {
+        entityManagerFactory.getCache().evictAll();
+        request.run();
+        long cold = statements();
+        request.run();
+        return cold;
+    }
+
+    private Map<String, Object> settlement() {
+        return Map.of("groupId", groupId, "payerId", members.get(1), "payeeId", members.get(0), "amount", 1);
+    }
+}
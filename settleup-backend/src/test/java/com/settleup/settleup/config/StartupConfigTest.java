@@ -0,0 +1,35 @@
+package com.settleup.settleup.config;
+
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.expense.controller.ExpenseController;
+import com.settleup.settleup.expense.service.ExpenseService;
+import com.settleup.settleup.group.service.GroupPurgeService;
+import com.settleup.settleup.outbox.service.OutboxRelay;
+import com.settleup.settleup.recurring.service.RecurringExpenseScheduler;
+import com.settleup.settleup.settlement.service.SettlementOptimizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupConfigTest {
+
+    @Test
+    void schedulersAndStartupChecksStayEager() {
+        assertTrue(StartupConfig.hasStartupWork(RecurringExpenseScheduler.class));
+        assertTrue(StartupConfig.hasStartupWork(OutboxRelay.class));
+        assertTrue(StartupConfig.hasStartupWork(GroupPurgeService.class));
+        assertTrue(StartupConfig.hasStartupWork(SettlementOptimizer.class));
+        assertTrue(StartupConfig.hasStartupWork(FxRateService.class));
+        assertTrue(StartupConfig.hasStartupWork(AotConditionCheck.class));
+    }
+
+    @Test
+    void everythingElseIsLazy() {
+        assertFalse(StartupConfig.hasStartupWork(ExpenseController.class));
+        assertFalse(StartupConfig.hasStartupWork(ExpenseService.class));
+        // framework beans are left to Spring Boot's own rules
+        assertFalse(StartupConfig.hasStartupWork(ThreadPoolTaskExecutor.class));
+    }
+}
@@ -0,0 +1,30 @@
+package com.settleup.settleup.currency;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FxRateControllerTest extends ApiIntegrationTest {
+
+    // rates live in memory; none of these may touch the database
+    @Test
+    void rateEndpointsIssueNoStatements() {
+        ok(HttpMethod.GET, "/api/fx-rates", null);
+        assertEquals(0, statements());
+        ok(HttpMethod.POST, "/api/fx-rates/import", admin(csv("currency,rate\nUSD,1\nINR,83.20\nEUR,0.92\n")));
+        assertEquals(0, statements());
+        ok(HttpMethod.POST, "/api/fx-rates/reload", admin());
+        assertEquals(0, statements());
+    }
+
+    @Test
+    void changingRatesNeedsTheAdminToken() {
+        assertEquals(HttpStatus.FORBIDDEN, rest.exchange("/api/fx-rates/reload", HttpMethod.POST, null, String.class).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, rest.exchange("/api/fx-rates/import", HttpMethod.POST,
+                csv("currency,rate\nUSD,1\nINR,1\n"), String.class).getStatusCode());
+        assertEquals(83.2, ok(HttpMethod.GET, "/api/fx-rates", null).path("data").path("rates").path("INR").asDouble());
+    }
+}
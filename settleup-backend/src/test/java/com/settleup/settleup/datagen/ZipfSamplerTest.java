@@ -0,0 +1,65 @@
+package com.settleup.settleup.datagen;
+
+import com.settleup.settleup.datagen.service.ZipfSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfSamplerTest {
+
+    @Test
+    void samplesStayWithinBounds() {
+        ZipfSampler sampler = new ZipfSampler(2, 500, 1.1);
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100_000; i++) {
+            int size = sampler.sample(random);
+            assertTrue(size >= 2 && size <= 500, "out of range: " + size);
+        }
+    }
+
+    @Test
+    void smallValuesDominateWithALongTail() {
+        ZipfSampler sampler = new ZipfSampler(2, 500, 1.1);
+        Random random = new Random(7);
+        int[] counts = new int[501];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // P(k) ~ 1 / (k - 1)^1.1: twice as likely as the next size up, and some groups reach the hundreds
+        assertTrue(counts[2] > 1.9 * counts[3] && counts[2] < 2.4 * counts[3]);
+        int large = 0;
+        for (int size = 100; size <= 500; size++) large += counts[size];
+        assertTrue(large > 0 && large < counts[2]);
+    }
+
+    @Test
+    void sameSeedGivesSameSizes() {
+        ZipfSampler sampler = new ZipfSampler(2, 50, 1.1);
+        Random first = new Random(42);
+        Random second = new Random(42);
+
+        int[] a = new int[1_000];
+        int[] b = new int[1_000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = sampler.sample(first);
+            b[i] = sampler.sample(second);
+        }
+
+        assertArrayEquals(a, b);
+    }
+
+    @Test
+    void singleValueRangeAlwaysReturnsIt() {
+        ZipfSampler sampler = new ZipfSampler(3, 3, 1.1);
+
+        assertEquals(3, sampler.sample(new Random()));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(5, 4, 1.1));
+    }
+}
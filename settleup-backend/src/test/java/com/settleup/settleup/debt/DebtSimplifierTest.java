@@ -0,0 +1,75 @@
+package com.settleup.settleup.debt;
+
+import com.settleup.settleup.debt.service.DebtSimplifier;
+import com.settleup.settleup.debt.service.MinCashFlow;
+import com.settleup.settleup.debt.service.UnionFind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DebtSimplifierTest {
+
+    @Test
+    void simplifyFindsFewerTransfersThanGreedyOnSmallComponents() {
+        // Bob's 4.00 matches Carol's exactly; greedy pairs Alice with Carol first and needs a fourth transfer
+        Map<Long, Long> net = Map.of(1L, -500L, 2L, -400L, 3L, 400L, 4L, 300L, 5L, 200L);
+
+        assertEquals(4, MinCashFlow.settle(net).size());
+        assertEquals(List.of(
+                new MinCashFlow.Transfer(1L, 4L, 300L),
+                new MinCashFlow.Transfer(1L, 5L, 200L),
+                new MinCashFlow.Transfer(2L, 3L, 400L)), DebtSimplifier.simplify(net));
+    }
+
+    @Test
+    void simplifyTakesConversionResidueOffTheLargestPosition() {
+        List<MinCashFlow.Transfer> transfers = DebtSimplifier.simplify(Map.of(1L, -333L, 2L, -333L, 3L, 667L));
+
+        assertEquals(List.of(new MinCashFlow.Transfer(1L, 3L, 333L), new MinCashFlow.Transfer(2L, 3L, 333L)), transfers);
+    }
+
+    @Test
+    void componentsFollowLinksAndPoolWhatDoesNotBalance() {
+        UnionFind links = new UnionFind();
+        links.union(2L, 1L);
+        links.union(4L, 3L);
+        Map<Long, Long> net = new HashMap<>();
+        net.put(4L, 50L);
+        net.put(3L, -50L);
+        net.put(2L, 100L);
+        net.put(1L, -100L);
+        net.put(5L, 0L);
+        net.put(6L, 30L);
+        net.put(7L, -30L);
+
+        List<Map<Long, Long>> components = DebtSimplifier.components(net, links);
+
+        assertEquals(List.of(Map.of(1L, -100L, 2L, 100L), Map.of(3L, -50L, 4L, 50L), Map.of(6L, 30L, 7L, -30L)), components);
+    }
+
+    @Test
+    void simplifyAllForksLargeInputsAndKeepsComponentOrder() {
+        List<Map<Long, Long>> components = new ArrayList<>();
+        for (long c = 0; c < 4; c++) {
+            Map<Long, Long> component = new HashMap<>();
+            for (long i = 0; i < 1000; i++) {
+                long userId = c * 10_000 + i;
+                component.put(userId, i % 2 == 0 ? -(i + 1) : i);
+            }
+            components.add(component);
+        }
+
+        List<List<MinCashFlow.Transfer>> simplified = DebtSimplifier.simplifyAll(new ForkJoinPool(4), components);
+
+        assertEquals(components.size(), simplified.size());
+        for (int i = 0; i < components.size(); i++) {
+            assertEquals(DebtSimplifier.simplify(components.get(i)), simplified.get(i));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.settleup.settleup.debt;
+
+import com.settleup.settleup.debt.service.MinCashFlow;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinCashFlowTest {
+
+    @Test
+    void largestDebtorPaysLargestCreditorFirst() {
+        Map<Long, Long> net = Map.of(1L, -700L, 2L, -300L, 3L, 600L, 4L, 400L);
+
+        List<MinCashFlow.Transfer> transfers = MinCashFlow.settle(net);
+
+        assertEquals(List.of(
+                new MinCashFlow.Transfer(1L, 3L, 600L),
+                new MinCashFlow.Transfer(2L, 4L, 300L),
+                new MinCashFlow.Transfer(1L, 4L, 100L)), transfers);
+    }
+
+    @Test
+    void chainsCollapseToOneTransfer() {
+        // A owes B 50 and B owes C 50: B nets to zero and drops out
+        List<MinCashFlow.Transfer> transfers = MinCashFlow.settle(Map.of(1L, -5000L, 2L, 0L, 3L, 5000L));
+
+        assertEquals(List.of(new MinCashFlow.Transfer(1L, 3L, 5000L)), transfers);
+    }
+
+    @Test
+    void settlesEveryPositionWithAtMostNMinusOneTransfers() {
+        Map<Long, Long> net = new HashMap<>();
+        long sum = 0;
+        for (long id = 1; id < 50; id++) {
+            long cents = (id * 7919) % 10007 - 5003;
+            net.put(id, cents);
+            sum += cents;
+        }
+        net.put(50L, -sum);
+
+        List<MinCashFlow.Transfer> transfers = MinCashFlow.settle(net);
+
+        assertTrue(transfers.size() <= net.size() - 1);
+        Map<Long, Long> remaining = new HashMap<>(net);
+        for (MinCashFlow.Transfer t : transfers) {
+            assertTrue(t.amountCents() > 0);
+            remaining.merge(t.fromUserId(), t.amountCents(), Long::sum);
+            remaining.merge(t.toUserId(), -t.amountCents(), Long::sum);
+        }
+        remaining.values().forEach(cents -> assertEquals(0L, cents));
+    }
+
+    @Test
+    void sameBalancesGiveSameTransfersWhateverTheIterationOrder() {
+        Map<Long, Long> forward = new LinkedHashMap<>();
+        Map<Long, Long> backward = new LinkedHashMap<>();
+        long[][] positions = {{1, -100}, {2, -100}, {3, 100}, {4, 100}};
+        for (long[] p : positions) forward.put(p[0], p[1]);
+        for (int i = positions.length - 1; i >= 0; i--) backward.put(positions[i][0], positions[i][1]);
+
+        assertEquals(MinCashFlow.settle(forward), MinCashFlow.settle(backward));
+    }
+}
@@ -0,0 +1,29 @@
+package com.settleup.settleup.debt;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NetDebtControllerTest extends ApiIntegrationTest {
+
+    @Test
+    void netDebtsCostTheSameForAnyNumberOfGroups() {
+        List<Long> once = register(2);
+        expenses(group(once), once, 1);
+        List<Long> often = register(4);
+        for (int i = 1; i < often.size(); i++) {
+            List<Long> pair = List.of(often.get(i), often.get(0));
+            expenses(group(pair), pair, 2);
+        }
+
+        ok(HttpMethod.GET, "/api/users/" + once.get(0) + "/net-debts", null);
+        long one = statements();
+        ok(HttpMethod.GET, "/api/users/" + often.get(0) + "/net-debts", null);
+
+        assertEquals(one, statements());
+    }
+}
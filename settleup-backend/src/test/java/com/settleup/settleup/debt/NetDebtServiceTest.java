@@ -0,0 +1,101 @@
+package com.settleup.settleup.debt;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.debt.dto.NetDebtsDto;
+import com.settleup.settleup.debt.service.NetDebtService;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NetDebtServiceTest {
+
+    @Mock
+    private GroupBalanceRepository balanceRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private GroupBalanceService groupBalanceService;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NetDebtService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NetDebtService(balanceRepo, userRepo, groupBalanceService, fxRateService,
+                new ShardRouter(new ShardingProperties(), null), transactionManager);
+    }
+
+    @Test
+    void getNetDebtsKeepsOnlyTheUsersTransfers() {
+        // across their groups Alice is owed 40, Bob owes 100 and Carol is owed 60
+        List<UserCurrencyTotal> totals = List.of(
+                new UserCurrencyTotal(1L, "INR", 40.0),
+                new UserCurrencyTotal(2L, "INR", -100.0),
+                new UserCurrencyTotal(3L, "INR", 60.0));
+        when(fxRateService.resolveCurrency(null, null)).thenReturn("INR");
+        when(balanceRepo.findTotalsAcrossGroupsOf(1L)).thenReturn(totals);
+        when(groupBalanceService.netBalances(totals, "INR")).thenReturn(Map.of(1L, 40.0, 2L, -100.0, 3L, 60.0));
+        when(userRepo.findNamesByIdIn(Set.of(1L, 2L)))
+                .thenReturn(List.of(new UserNameRow(1L, "Alice"), new UserNameRow(2L, "Bob")));
+
+        NetDebtsDto result = service.getNetDebts(1L, null);
+
+        assertEquals("INR", result.getCurrency());
+        assertEquals(40.0, result.getNetBalance());
+        assertEquals(List.of(new NetDebtsDto.Transfer(2L, "Bob", 1L, "Alice", 40.0)), result.getTransfers());
+    }
+
+    @Test
+    void getNetDebtsOppositeDebtsInDifferentGroupsCancel() {
+        // Alice owes Bob 25 in one group and Bob owes Alice 25 in another
+        List<UserCurrencyTotal> totals = List.of(new UserCurrencyTotal(1L, "USD", 0.0), new UserCurrencyTotal(2L, "USD", 0.0));
+        when(fxRateService.resolveCurrency("USD", null)).thenReturn("USD");
+        when(balanceRepo.findTotalsAcrossGroupsOf(1L)).thenReturn(totals);
+        when(groupBalanceService.netBalances(totals, "USD")).thenReturn(Map.of(1L, 0.0, 2L, 0.0));
+        when(userRepo.findNamesByIdIn(Set.of(1L))).thenReturn(List.of(new UserNameRow(1L, "Alice")));
+
+        NetDebtsDto result = service.getNetDebts(1L, "USD");
+
+        assertEquals(0.0, result.getNetBalance());
+        assertEquals(List.of(), result.getTransfers());
+    }
+
+    @Test
+    void getNetDebtsUserNotFoundThrowsException() {
+        when(fxRateService.resolveCurrency(null, null)).thenReturn("INR");
+        when(balanceRepo.findTotalsAcrossGroupsOf(99L)).thenReturn(List.of());
+        when(groupBalanceService.netBalances(List.of(), "INR")).thenReturn(Map.of());
+        when(userRepo.findNamesByIdIn(any())).thenReturn(List.of());
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> service.getNetDebts(99L, null));
+        assertEquals("User not found", ex.getMessage());
+    }
+}
@@ -0,0 +1,45 @@
+package com.settleup.settleup.expense;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExpenseControllerTest extends ApiIntegrationTest {
+
+    private static final List<String> READS = List.of("balances", "history", "history/compact", "balances/async", "history/async");
+
+    @Test
+    void addExpenseStaysWithinBudgetForAnySplit() {
+        List<Long> members = register(6);
+        long groupId = group(members);
+
+        expenses(groupId, members.subList(0, 2), 1);
+        expenses(groupId, members, 1);
+        ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", members.get(0), "description", "Taxi",
+                "amount", 30, "splitType", "EXACT", "exactSplits", Map.of(String.valueOf(members.get(1)), 10,
+                        String.valueOf(members.get(2)), 20)));
+    }
+
+    @Test
+    void groupReadsCostTheSameForAnyNumberOfExpensesAndMembers() {
+        List<Long> few = register(2);
+        long small = group(few);
+        expenses(small, few, 1);
+        List<Long> many = register(6);
+        long large = group(many);
+        expenses(large, many, 10);
+        ok(HttpMethod.POST, "/api/settlements", Map.of("groupId", large, "payerId", many.get(1), "payeeId", many.get(0), "amount", 5));
+
+        for (String read : READS) {
+            ok(HttpMethod.GET, "/api/expenses/group/" + small + "/" + read, null);
+            long expected = statements();
+            ok(HttpMethod.GET, "/api/expenses/group/" + large + "/" + read, null);
+            assertEquals(expected, statements(), read);
+        }
+    }
+}
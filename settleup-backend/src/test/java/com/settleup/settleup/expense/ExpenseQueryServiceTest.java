@@ -0,0 +1,126 @@
+package com.settleup.settleup.expense;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.exception.ResourceNotFoundException;
+import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.ExpenseHistoryRow;
+import com.settleup.settleup.expense.dto.ExpenseResponseDto;
+import com.settleup.settleup.expense.dto.SettlementHistoryRow;
+import com.settleup.settleup.expense.dto.SplitHistoryRow;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.expense.repository.ExpenseRepository;
+import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
+import com.settleup.settleup.expense.service.ExpenseQueryService;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.user.dto.UserResponseDto;
+import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseQueryServiceTest {
+
+    @Mock
+    private GroupRepository groupRepo;
+
+    @Mock
+    private GroupBalanceRepository balanceRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private ExpenseRepository expenseRepo;
+
+    @Mock
+    private ExpenseSplitRepository splitRepo;
+
+    @Mock
+    private SettlementRepository settlementRepo;
+
+    @Mock
+    private GroupBalanceService groupBalanceService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        // runs the queries inline; the combination logic is the same whichever thread completes last
+        service = new ExpenseQueryService(groupRepo, balanceRepo, userRepo, expenseRepo, splitRepo, settlementRepo,
+                groupBalanceService, new ShardRouter(new ShardingProperties(), null), transactionManager, Runnable::run,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getGroupBalancesCombinesTotalsAndMemberNames() {
+        List<UserCurrencyTotal> totals = List.of(new UserCurrencyTotal(1L, "INR", 30.0), new UserCurrencyTotal(2L, "INR", -30.0));
+        when(groupRepo.findById(10L)).thenReturn(Optional.of(Group.builder().id(10L).baseCurrency("INR").build()));
+        when(balanceRepo.findTotalsByGroupId(10L)).thenReturn(totals);
+        when(userRepo.findMemberSummariesByGroupId(10L)).thenReturn(List.of(
+                new UserResponseDto(1L, "Alice", null, null), new UserResponseDto(2L, "Bob", null, null)));
+        when(groupBalanceService.netBalances(totals, "INR")).thenReturn(Map.of(1L, 30.0, 2L, -30.0));
+
+        BalanceSheetDto result = service.getGroupBalances(10L).join();
+
+        assertEquals("INR", result.getCurrency());
+        assertEquals(2, result.getBalances().size());
+        assertEquals(1, result.getSimplifiedDebts().size());
+        assertEquals("Bob", result.getSimplifiedDebts().get(0).getFromUser());
+        assertEquals("Alice", result.getSimplifiedDebts().get(0).getToUser());
+        assertEquals(30.0, result.getSimplifiedDebts().get(0).getAmount());
+    }
+
+    @Test
+    void getGroupBalancesFailsWhenGroupIsMissing() {
+        when(groupRepo.findById(10L)).thenReturn(Optional.empty());
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> service.getGroupBalances(10L).join());
+        assertInstanceOf(ResourceNotFoundException.class, ex.getCause());
+    }
+
+    @Test
+    void getGroupHistoryMergesNewestFirst() {
+        when(splitRepo.findHistoryByGroupId(10L)).thenReturn(List.of(
+                new SplitHistoryRow(1L, "Alice", 25.0), new SplitHistoryRow(1L, "Bob", 25.0)));
+        when(expenseRepo.findHistoryByGroupId(10L)).thenReturn(List.of(
+                new ExpenseHistoryRow(1L, "Dinner", 50.0, "INR", "Alice", LocalDateTime.now().minusDays(1))));
+        when(settlementRepo.findHistoryByGroupId(10L)).thenReturn(List.of(
+                new SettlementHistoryRow(2L, "Bob", "Alice", 50.0, LocalDateTime.now())));
+
+        List<ExpenseResponseDto> history = service.getGroupHistory(10L).join();
+
+        assertEquals(2, history.size());
+        assertEquals("SETTLEMENT", history.get(0).getType());
+        assertEquals("EXPENSE", history.get(1).getType());
+        assertEquals(2, history.get(1).getSplits().size());
+        // the three history queries share one read-only transaction
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+}
@@ -0,0 +1,88 @@
+package com.settleup.settleup.expense;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.settleup.settleup.config.ResponseCacheProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.ExpenseResponseDto;
+import com.settleup.settleup.expense.service.ExpenseResponseCache;
+import com.settleup.settleup.expense.service.ExpenseService;
+import com.settleup.settleup.group.service.GroupRevisionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseResponseCacheTest {
+
+    @Mock
+    private ExpenseService expenseService;
+
+    @Mock
+    private GroupRevisionService revisionService;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private ExpenseResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ExpenseResponseCache(expenseService, revisionService, fxRateService, objectMapper, properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void balances_ServedFromCacheUntilRevisionMoves() throws Exception {
+        BalanceSheetDto sheet = new BalanceSheetDto(List.of(), List.of(), "INR");
+        when(expenseService.getGroupBalances(10L)).thenReturn(sheet);
+        when(revisionService.current(10L)).thenReturn(Optional.of(3L), Optional.of(3L), Optional.of(4L));
+
+        byte[] first = cache.balances(10L);
+        byte[] second = cache.balances(10L);
+        cache.balances(10L);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(sheet), first);
+        assertArrayEquals(first, second);
+        verify(expenseService, times(2)).getGroupBalances(10L);
+    }
+
+    @Test
+    void history_NotCachedBeforeFirstRevision() {
+        when(expenseService.getGroupHistory(10L)).thenReturn(List.of());
+        when(revisionService.current(10L)).thenReturn(Optional.empty());
+
+        cache.history(10L);
+        cache.history(10L);
+
+        verify(expenseService, times(2)).getGroupHistory(10L);
+    }
+
+    @Test
+    void history_OversizedEntriesAreServedButNotKept() {
+        properties.setMaxEntrySize(DataSize.ofBytes(16));
+        when(expenseService.getGroupHistory(10L)).thenReturn(List.of(ExpenseResponseDto.builder()
+                .id(1L).description("A description longer than the entry limit").createdAt(LocalDateTime.now()).build()));
+        when(revisionService.current(10L)).thenReturn(Optional.of(1L));
+
+        cache.history(10L);
+        cache.history(10L);
+
+        verify(expenseService, times(2)).getGroupHistory(10L);
+    }
+}
@@ -1,42 +1,64 @@
 package com.settleup.settleup.expense;
 
+import com.settleup.settleup.currency.service.FxRateService;
 import com.settleup.settleup.exception.InvalidInputException;
 import com.settleup.settleup.expense.dto.BalanceSheetDto;
+import com.settleup.settleup.expense.dto.CompactExpenseRow;
+import com.settleup.settleup.expense.dto.CompactHistoryDto;
+import com.settleup.settleup.expense.dto.CompactSettlementRow;
+import com.settleup.settleup.expense.dto.CompactSplitRow;
+import com.settleup.settleup.expense.dto.ExpenseHistoryRow;
 import com.settleup.settleup.expense.dto.ExpenseRequestDto;
 import com.settleup.settleup.expense.dto.ExpenseResponseDto;
+import com.settleup.settleup.expense.dto.SettlementHistoryRow;
+import com.settleup.settleup.expense.dto.SplitHistoryRow;
 import com.settleup.settleup.expense.entity.Expense;
 import com.settleup.settleup.expense.entity.ExpenseSplit;
 import com.settleup.settleup.expense.repository.ExpenseRepository;
 import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
 import com.settleup.settleup.expense.service.ExpenseService;
+import com.settleup.settleup.expense.split.EqualSplitStrategy;
+import com.settleup.settleup.expense.split.ExactSplitStrategy;
+import com.settleup.settleup.expense.split.ItemizedSplitStrategy;
+import com.settleup.settleup.expense.split.PercentSplitStrategy;
+import com.settleup.settleup.expense.split.SharesSplitStrategy;
+import com.settleup.settleup.expense.split.SplitCalculator;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.group.repository.GroupRepository;
-import com.settleup.settleup.settlement.entity.Settlement;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.group.service.GroupRevisionService;
+import com.settleup.settleup.outbox.service.OutboxService;
 import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.user.dto.UserNameRow;
+import com.settleup.settleup.user.dto.UserResponseDto;
 import com.settleup.settleup.user.entity.User;
 import com.settleup.settleup.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,6 +79,26 @@ public class ExpenseServiceTest {
     @Mock
     private SettlementRepository settlementRepo;
 
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private GroupBalanceService groupBalanceService;
+
+    @Spy
+    private SplitCalculator splitCalculator = new SplitCalculator(List.of(
+            new EqualSplitStrategy(), new ExactSplitStrategy(), new PercentSplitStrategy(),
+            new SharesSplitStrategy(), new ItemizedSplitStrategy()));
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private GroupRevisionService groupRevisionService;
+
     @InjectMocks
     private ExpenseService expenseService;
 
@@ -74,6 +116,7 @@ public class ExpenseServiceTest {
         group = Group.builder()
                 .id(10L)
                 .name("Trip")
+                .baseCurrency("INR")
                 .members(new HashSet<>(Arrays.asList(user1, user2, user3)))
                 .build();
     }
@@ -88,10 +131,8 @@ public class ExpenseServiceTest {
         dto.setInvolvedUserIds(Arrays.asList(1L, 2L, 3L));
         dto.setDescription("Lunch");
 
-        when(groupRepo.findById(10L)).thenReturn(Optional.of(group));
+        when(groupRepo.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
         when(userRepo.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepo.findById(2L)).thenReturn(Optional.of(user2));
-        when(userRepo.findById(3L)).thenReturn(Optional.of(user3));
 
         when(expenseRepo.save(any(Expense.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -106,6 +147,7 @@ public class ExpenseServiceTest {
         assertEquals(33.34, savedSplits.get(0).getAmountOwed());
         assertEquals(33.33, savedSplits.get(1).getAmountOwed());
         assertEquals(33.33, savedSplits.get(2).getAmountOwed());
+        verify(groupBalanceService).applyExpense(eq(group), any(), eq(1L), eq(10000L), any(long[].class), any(long[].class));
     }
 
     @Test
@@ -121,10 +163,8 @@ public class ExpenseServiceTest {
         dto.setSplitType("EXACT");
         dto.setExactSplits(exactSplits);
 
-        when(groupRepo.findById(10L)).thenReturn(Optional.of(group));
+        when(groupRepo.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
         when(userRepo.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepo.findById(2L)).thenReturn(Optional.of(user2));
-        when(userRepo.findById(3L)).thenReturn(Optional.of(user3));
         when(expenseRepo.save(any(Expense.class))).thenAnswer(i -> i.getArgument(0));
 
         expenseService.addExpense(dto);
@@ -139,10 +179,11 @@ public class ExpenseServiceTest {
         ExpenseRequestDto dto = new ExpenseRequestDto();
         dto.setGroupId(10L);
         dto.setPaidByUserId(1L);
+        dto.setAmount(100.0);
         dto.setSplitType("EQUAL");
         dto.setInvolvedUserIds(Arrays.asList(1L, 99L));
 
-        when(groupRepo.findById(10L)).thenReturn(Optional.of(group));
+        when(groupRepo.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
         when(userRepo.findById(1L)).thenReturn(Optional.of(outsider));
 
         assertThrows(InvalidInputException.class, () -> expenseService.addExpense(dto));
@@ -160,7 +201,7 @@ public class ExpenseServiceTest {
         dto.setSplitType("EXACT");
         dto.setExactSplits(exactSplits);
 
-        when(groupRepo.findById(10L)).thenReturn(Optional.of(group));
+        when(groupRepo.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
         when(userRepo.findById(1L)).thenReturn(Optional.of(user1));
 
         InvalidInputException ex = assertThrows(InvalidInputException.class, () -> expenseService.addExpense(dto));
@@ -169,23 +210,18 @@ public class ExpenseServiceTest {
 
     @Test
     void getGroupBalancesCalculatesCorrectly() {
-        Long expenseId = 100L;
-        Expense expense = Expense.builder().id(expenseId).amount(100.0).paidBy(user1).build();
-        ExpenseSplit split1 = ExpenseSplit.builder().user(user1).amountOwed(50.0).build();
-        ExpenseSplit split2 = ExpenseSplit.builder().user(user2).amountOwed(50.0).build();
-
-        Settlement settlement = Settlement.builder()
-                .payer(user2).payee(user1).amount(20.0).build();
-
-        when(expenseRepo.findByGroupId(10L)).thenReturn(List.of(expense));
-        when(splitRepo.findByExpenseId(expenseId)).thenReturn(List.of(split1, split2));
-        when(settlementRepo.findByGroupId(10L)).thenReturn(List.of(settlement));
+        when(groupRepo.findById(10L)).thenReturn(Optional.of(group));
+        when(groupBalanceService.netBalances(group)).thenReturn(Map.of(1L, 30.0, 2L, -30.0, 3L, 0.0));
 
-        when(userRepo.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepo.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepo.findMemberSummariesByGroupId(10L)).thenReturn(List.of(
+                new UserResponseDto(1L, "Alice", null, null),
+                new UserResponseDto(2L, "Bob", null, null),
+                new UserResponseDto(3L, "Charlie", null, null)));
 
         BalanceSheetDto result = expenseService.getGroupBalances(10L);
 
+        assertEquals("INR", result.getCurrency());
+        assertEquals(2, result.getBalances().size());
 
         BalanceSheetDto.UserBalance aliceBalance = result.getBalances().stream().filter(u -> u.getUserId().equals(1L)).findFirst().get();
         assertEquals(30.0, aliceBalance.getAmount());
@@ -202,27 +238,42 @@ public class ExpenseServiceTest {
     @Test
     void getGroupHistoryReturnsSortedList() {
 
-        Expense e1 = Expense.builder()
-                .id(1L).description("Dinner").amount(50.0).paidBy(user1)
-                .createdAt(LocalDateTime.now().minusDays(1))
-                .build();
-
-        Settlement s1 = Settlement.builder()
-                .id(2L).amount(50.0).payer(user2).payee(user1)
-                .createdAt(LocalDateTime.now())
-                .build();
+        ExpenseHistoryRow e1 = new ExpenseHistoryRow(1L, "Dinner", 50.0, "INR", "Alice", LocalDateTime.now().minusDays(1));
+        SettlementHistoryRow s1 = new SettlementHistoryRow(2L, "Bob", "Alice", 50.0, LocalDateTime.now());
 
-        when(expenseRepo.findByGroupId(10L)).thenReturn(List.of(e1));
-        when(splitRepo.findByExpenseId(1L)).thenReturn(Collections.emptyList());
-        when(settlementRepo.findByGroupId(10L)).thenReturn(List.of(s1));
+        when(splitRepo.findHistoryByGroupId(10L)).thenReturn(List.of(
+                new SplitHistoryRow(1L, "Alice", 25.0), new SplitHistoryRow(1L, "Bob", 25.0)));
+        when(expenseRepo.findHistoryByGroupId(10L)).thenReturn(List.of(e1));
+        when(settlementRepo.findHistoryByGroupId(10L)).thenReturn(List.of(s1));
 
         List<ExpenseResponseDto> history = expenseService.getGroupHistory(10L);
 
         assertEquals(2, history.size());
 
         assertEquals("SETTLEMENT", history.get(0).getType());
+        assertEquals("Bob paid Alice", history.get(0).getDescription());
         assertEquals("EXPENSE", history.get(1).getType());
+        assertEquals(2, history.get(1).getSplits().size());
     }
 
-
+    @Test
+    void getGroupHistoryCompactReferencesUsersById() {
+        when(splitRepo.findCompactHistoryByGroupId(10L)).thenReturn(List.of(
+                new CompactSplitRow(1L, 1L, 25.0), new CompactSplitRow(1L, 2L, 25.0)));
+        when(expenseRepo.findCompactHistoryByGroupId(10L)).thenReturn(List.of(
+                new CompactExpenseRow(1L, "Dinner", 50.0, "INR", 1L, LocalDateTime.now().minusDays(1))));
+        when(settlementRepo.findCompactHistoryByGroupId(10L)).thenReturn(List.of(
+                new CompactSettlementRow(2L, 2L, 1L, 25.0, LocalDateTime.now())));
+        when(userRepo.findNamesByIdIn(anyList())).thenReturn(List.of(new UserNameRow(1L, "Alice"), new UserNameRow(2L, "Bob")));
+
+        CompactHistoryDto history = expenseService.getGroupHistoryCompact(10L);
+
+        assertEquals(Map.of(1L, "Alice", 2L, "Bob"), history.getUsers());
+        assertEquals(2, history.getEntries().size());
+        assertEquals("SETTLEMENT", history.getEntries().get(0).getType());
+        assertEquals(1L, history.getEntries().get(0).getPaidTo());
+        CompactHistoryDto.Entry expense = history.getEntries().get(1);
+        assertArrayEquals(new long[]{1L, 2L}, expense.getSplitUserIds());
+        assertArrayEquals(new double[]{25.0, 25.0}, expense.getSplitAmounts());
+    }
 }
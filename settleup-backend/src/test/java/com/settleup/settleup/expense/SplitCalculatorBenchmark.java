@@ -0,0 +1,103 @@
+package com.settleup.settleup.expense;
+
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import com.settleup.settleup.expense.split.EqualSplitStrategy;
+import com.settleup.settleup.expense.split.ExactSplitStrategy;
+import com.settleup.settleup.expense.split.ItemizedSplitStrategy;
+import com.settleup.settleup.expense.split.PercentSplitStrategy;
+import com.settleup.settleup.expense.split.SharesSplitStrategy;
+import com.settleup.settleup.expense.split.SplitAllocation;
+import com.settleup.settleup.expense.split.SplitCalculator;
+import com.settleup.settleup.expense.split.SplitType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="-cp %classpath com.settleup.settleup.expense.SplitCalculatorBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitCalculatorBenchmark {
+
+    @Param({"1000"})
+    private int participants;
+
+    private SplitCalculator calculator;
+    private ExpenseRequestDto equal;
+    private ExpenseRequestDto shares;
+    private ExpenseRequestDto itemized;
+    private long totalCents;
+
+    @Setup
+    public void setUp() {
+        calculator = new SplitCalculator(List.of(
+                new EqualSplitStrategy(), new ExactSplitStrategy(), new PercentSplitStrategy(),
+                new SharesSplitStrategy(), new ItemizedSplitStrategy()));
+        totalCents = 123_456_789L;
+
+        List<Long> ids = new ArrayList<>(participants);
+        Map<Long, Integer> shareMap = new LinkedHashMap<>();
+        for (long id = 1; id <= participants; id++) {
+            ids.add(id);
+            shareMap.put(id, (int) (id % 7) + 1);
+        }
+
+        equal = new ExpenseRequestDto();
+        equal.setInvolvedUserIds(ids);
+
+        shares = new ExpenseRequestDto();
+        shares.setShareSplits(shareMap);
+
+        // ten items, each shared by a rotating tenth of the participants
+        List<ExpenseRequestDto.SplitItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ExpenseRequestDto.SplitItem item = new ExpenseRequestDto.SplitItem();
+            item.setAmount(totalCents / 1000.0);
+            item.setUserIds(ids.subList(i * participants / 10, (i + 1) * participants / 10));
+            items.add(item);
+        }
+        itemized = new ExpenseRequestDto();
+        itemized.setItems(items);
+    }
+
+    @Benchmark
+    public SplitAllocation equalSplit() {
+        return calculator.calculate(SplitType.EQUAL, totalCents, equal);
+    }
+
+    @Benchmark
+    public SplitAllocation sharesSplit() {
+        return calculator.calculate(SplitType.SHARES, totalCents, shares);
+    }
+
+    @Benchmark
+    public SplitAllocation itemizedSplit() {
+        return calculator.calculate(SplitType.ITEMIZED, totalCents, itemized);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SplitCalculatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.settleup.settleup.expense;
+
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import com.settleup.settleup.expense.split.EqualSplitStrategy;
+import com.settleup.settleup.expense.split.ExactSplitStrategy;
+import com.settleup.settleup.expense.split.ItemizedSplitStrategy;
+import com.settleup.settleup.expense.split.PercentSplitStrategy;
+import com.settleup.settleup.expense.split.SharesSplitStrategy;
+import com.settleup.settleup.expense.split.SplitAllocation;
+import com.settleup.settleup.expense.split.SplitCalculator;
+import com.settleup.settleup.expense.split.SplitType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SplitCalculatorTest {
+
+    private final SplitCalculator calculator = new SplitCalculator(List.of(
+            new EqualSplitStrategy(), new ExactSplitStrategy(), new PercentSplitStrategy(),
+            new SharesSplitStrategy(), new ItemizedSplitStrategy()));
+
+    @Test
+    void equalSplitSpreadsRemainderOneCentAtATime() {
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setInvolvedUserIds(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L));
+
+        SplitAllocation allocation = calculator.calculate(SplitType.EQUAL, 1004, dto);
+
+        assertArrayEquals(new long[]{1L, 2L, 3L, 4L, 5L, 6L}, allocation.getUserIds());
+        assertArrayEquals(new long[]{168, 168, 167, 167, 167, 167}, allocation.getAmounts());
+    }
+
+    @Test
+    void percentSplitUsesLargestRemainder() {
+        Map<Long, Double> percents = new LinkedHashMap<>();
+        percents.put(1L, 33.33);
+        percents.put(2L, 33.33);
+        percents.put(3L, 33.34);
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setPercentSplits(percents);
+
+        SplitAllocation allocation = calculator.calculate(SplitType.PERCENT, 1000, dto);
+
+        assertArrayEquals(new long[]{333, 333, 334}, allocation.getAmounts());
+    }
+
+    @Test
+    void percentSplitMustAddUpToHundred() {
+        Map<Long, Double> percents = new LinkedHashMap<>();
+        percents.put(1L, 50.0);
+        percents.put(2L, 40.0);
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setPercentSplits(percents);
+
+        InvalidInputException ex = assertThrows(InvalidInputException.class,
+                () -> calculator.calculate(SplitType.PERCENT, 1000, dto));
+        assertEquals("Percentages must add up to 100", ex.getMessage());
+    }
+
+    @Test
+    void sharesSplitIsProportional() {
+        Map<Long, Integer> shares = new LinkedHashMap<>();
+        shares.put(1L, 2);
+        shares.put(2L, 1);
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setShareSplits(shares);
+
+        SplitAllocation allocation = calculator.calculate(SplitType.SHARES, 10000, dto);
+
+        assertArrayEquals(new long[]{6667, 3333}, allocation.getAmounts());
+    }
+
+    @Test
+    void itemizedSplitSumsItemSharesPerUser() {
+        ExpenseRequestDto.SplitItem pizza = new ExpenseRequestDto.SplitItem();
+        pizza.setAmount(30.0);
+        pizza.setUserIds(List.of(3L, 1L, 2L));
+        ExpenseRequestDto.SplitItem wine = new ExpenseRequestDto.SplitItem();
+        wine.setAmount(20.0);
+        wine.setUserIds(List.of(1L));
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setItems(List.of(pizza, wine));
+
+        SplitAllocation allocation = calculator.calculate(SplitType.ITEMIZED, 5000, dto);
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, allocation.getUserIds());
+        assertArrayEquals(new long[]{3000, 1000, 1000}, allocation.getAmounts());
+    }
+
+    @Test
+    void itemizedSplitMustMatchTotal() {
+        ExpenseRequestDto.SplitItem item = new ExpenseRequestDto.SplitItem();
+        item.setAmount(30.0);
+        item.setUserIds(List.of(1L));
+        ExpenseRequestDto dto = new ExpenseRequestDto();
+        dto.setItems(List.of(item));
+
+        assertThrows(InvalidInputException.class, () -> calculator.calculate(SplitType.ITEMIZED, 5000, dto));
+    }
+
+    @Test
+    void unknownSplitTypeIsRejected() {
+        assertThrows(InvalidInputException.class, () -> SplitType.from("RANDOM"));
+        assertEquals(SplitType.SHARES, SplitType.from("shares"));
+    }
+}
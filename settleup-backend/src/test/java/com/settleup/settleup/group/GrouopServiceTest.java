@@ -1,35 +1,45 @@
 package com.settleup.settleup.group;
 
 
+import com.settleup.settleup.common.sharding.DirectoryChangedEvent;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.currency.service.FxRateService;
 import com.settleup.settleup.exception.InvalidInputException;
 import com.settleup.settleup.exception.ResourceNotFoundException;
-import com.settleup.settleup.expense.entity.Expense;
-import com.settleup.settleup.expense.repository.ExpenseRepository;
-import com.settleup.settleup.expense.repository.ExpenseSplitRepository;
 import com.settleup.settleup.group.dto.GroupCreateDto;
+import com.settleup.settleup.group.dto.GroupMemberRow;
 import com.settleup.settleup.group.dto.GroupResponseDto;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.group.service.GroupDeletedEvent;
+import com.settleup.settleup.group.service.GroupRevisionService;
 import com.settleup.settleup.group.service.GroupService;
-import com.settleup.settleup.settlement.repository.SettlementRepository;
+import com.settleup.settleup.outbox.service.OutboxService;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
 import com.settleup.settleup.user.entity.User;
 import com.settleup.settleup.user.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +48,15 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class GrouopServiceTest {
 
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private GroupRevisionService groupRevisionService;
+
     @InjectMocks
     private GroupService groupService;
 
@@ -48,13 +67,16 @@ public class GrouopServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private ExpenseRepository expenseRepo;
+    private GroupBalanceService groupBalanceService;
 
     @Mock
-    private ExpenseSplitRepository splitRepo;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private SettlementRepository settlementRepo;
+    private RecurringExpenseRepository recurringRepo;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null);
 
     @Test
     void createGroupSuccess() {
@@ -91,6 +113,23 @@ public class GrouopServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> groupService.createGroup(dto));
     }
 
+    @Test
+    void getUserGroupsBuildsOneResponsePerGroup() {
+        LocalDateTime now = LocalDateTime.now();
+        when(groupRepository.findMemberRowsByUserId(1L)).thenReturn(Arrays.asList(
+                new GroupMemberRow(10L, "Trip", null, "INR", now, 1L, 1L, "Alice", "a@x.com", "111"),
+                new GroupMemberRow(10L, "Trip", null, "INR", now, 1L, 2L, "Bob", "b@x.com", "222"),
+                new GroupMemberRow(11L, "Flat", null, "USD", now, 2L, 1L, "Alice", "a@x.com", "111")));
+
+        List<GroupResponseDto> groups = groupService.getUserGroups(1L);
+
+        assertEquals(2, groups.size());
+        assertEquals(2, groups.get(0).getMembers().size());
+        assertEquals("Flat", groups.get(1).getName());
+        assertEquals(1, groups.get(1).getMembers().size());
+        assertEquals(2L, groups.get(1).getCreatedByUserId());
+    }
+
     @Test
     void addMemberSuccess() {
         Group group = Group.builder().id(1L).members(new HashSet<>()).createdBy(new User()).build();
@@ -122,11 +161,10 @@ public class GrouopServiceTest {
         User targetUser = User.builder().id(2L).build();
         Group group = Group.builder().id(10L).createdBy(admin).members(new HashSet<>(Set.of(admin, targetUser))).build();
 
-        when(groupRepository.findById(10L)).thenReturn(Optional.of(group));
+        when(groupRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
         when(groupRepository.save(any(Group.class))).thenReturn(group);
-        when(expenseRepo.findByGroupId(10L)).thenReturn(Collections.emptyList());
-        when(settlementRepo.findByGroupId(10L)).thenReturn(Collections.emptyList());
+        when(groupBalanceService.isSettled(group, 2L)).thenReturn(true);
 
         groupService.removeMember(10L, 2L, 1L);
         assertFalse(group.getMembers().contains(targetUser));
@@ -139,17 +177,10 @@ public class GrouopServiceTest {
         User targetUser = User.builder().id(2L).build();
         Group group = Group.builder().id(10L).createdBy(admin).members(new HashSet<>(Set.of(admin, targetUser))).build();
 
-        when(groupRepository.findById(10L)).thenReturn(Optional.of(group));
+        when(groupRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
 
-        Expense expense = new Expense();
-        expense.setId(100L);
-        expense.setAmount(100.0);
-        expense.setPaidBy(targetUser);
-
-        when(expenseRepo.findByGroupId(10L)).thenReturn(List.of(expense));
-        when(splitRepo.findByExpenseId(100L)).thenReturn(Collections.emptyList());
-        when(settlementRepo.findByGroupId(10L)).thenReturn(Collections.emptyList());
+        when(groupBalanceService.isSettled(group, 2L)).thenReturn(false);
 
         InvalidInputException ex = assertThrows(InvalidInputException.class, () ->
                 groupService.removeMember(10L, 2L, 1L)
@@ -162,14 +193,15 @@ public class GrouopServiceTest {
         User admin = User.builder().id(1L).build();
         Group group = Group.builder().id(10L).createdBy(admin).build();
 
-        when(groupRepository.findById(10L)).thenReturn(Optional.of(group));
-        when(expenseRepo.findByGroupId(10L)).thenReturn(Collections.emptyList());
-        when(settlementRepo.findByGroupId(10L)).thenReturn(Collections.emptyList());
+        when(groupRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
+        when(groupBalanceService.isFullySettled(group)).thenReturn(true);
 
         groupService.deleteGroup(10L, 1L);
-        verify(groupRepository).delete(group);
-        verify(expenseRepo).deleteAll(any());
-        verify(settlementRepo).deleteAll(any());
+        assertNotNull(group.getDeletedAt());
+        verify(groupRepository).save(group);
+        verify(recurringRepo).deactivateByGroupId(10L);
+        verify(eventPublisher).publishEvent(new GroupDeletedEvent(10L));
+        verify(eventPublisher).publishEvent(DirectoryChangedEvent.group(10L));
     }
 
     @Test
@@ -177,16 +209,14 @@ public class GrouopServiceTest {
         User admin = User.builder().id(1L).build();
         Group group = Group.builder().id(10L).createdBy(admin).build();
 
-        when(groupRepository.findById(10L)).thenReturn(Optional.of(group));
-        Expense expense = new Expense();
-        expense.setId(50L);
-        expense.setAmount(500.0);
-        expense.setPaidBy(admin);
+        when(groupRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(group));
+        when(groupBalanceService.isFullySettled(group)).thenReturn(false);
 
-        when(expenseRepo.findByGroupId(10L)).thenReturn(List.of(expense));
         assertThrows(InvalidInputException.class, () ->
                 groupService.deleteGroup(10L, 1L)
         );
-        verify(groupRepository, never()).delete(any());
+        assertNull(group.getDeletedAt());
+        verify(groupRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
@@ -0,0 +1,46 @@
+package com.settleup.settleup.group;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import com.settleup.settleup.group.service.GroupBalanceRebuild;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupBalanceRebuildTest extends ApiIntegrationTest {
+
+    @Autowired
+    private GroupBalanceRebuild rebuild;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private List<Long> balances(long groupId) {
+        return jdbc.queryForList("select amount_cents from group_balances where group_id = ? order by user_id",
+                Long.class, groupId);
+    }
+
+    @Test
+    void rebuildRestoresBalancesFromTheHistory() {
+        List<Long> members = register(3);
+        long groupId = group(members);
+        expenses(groupId, members, 4);
+        ok(HttpMethod.POST, "/api/settlements", Map.of("groupId", groupId, "payerId", members.get(2),
+                "payeeId", members.get(0), "amount", 20));
+        List<Long> before = balances(groupId);
+
+        jdbc.update("update group_balances set amount_cents = amount_cents + 500 where group_id = ? and user_id = ?",
+                groupId, members.get(0));
+        jdbc.update("delete from group_balances where group_id = ? and user_id = ?", groupId, members.get(1));
+
+        assertTrue(rebuild.run());
+        assertEquals(before, balances(groupId));
+        assertEquals(0L, balances(groupId).stream().mapToLong(Long::longValue).sum());
+    }
+}
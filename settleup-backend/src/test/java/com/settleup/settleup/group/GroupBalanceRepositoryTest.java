@@ -0,0 +1,149 @@
+package com.settleup.settleup.group;
+
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.entity.GroupBalance;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.settlement.dto.LedgerBalanceRow;
+import com.settleup.settleup.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the aggregate and keyset queries against the embedded h2 profile, with the schema Hibernate generates
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GroupBalanceRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private GroupBalanceRepository balanceRepo;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private Group trip;
+    private Group flat;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("Alice", "1111111111");
+        bob = user("Bob", "2222222222");
+        carol = user("Carol", "3333333333");
+        trip = group("Trip", "INR", Set.of(alice, bob));
+        flat = group("Flat", "USD", Set.of(alice, carol));
+    }
+
+    @Test
+    void totalsAcrossGroupsSumEveryMemberOfTheUsersGroups() {
+        balance(trip, alice, "INR", 5_000);
+        balance(trip, bob, "INR", -5_000);
+        balance(flat, alice, "INR", 1_000);
+        balance(flat, alice, "USD", -300);
+        balance(flat, carol, "INR", -1_000);
+        balance(flat, carol, "USD", 300);
+        // a group Alice is not in doesn't count
+        Group other = group("Other", "INR", Set.of(bob, carol));
+        balance(other, bob, "INR", 700);
+        balance(other, carol, "INR", -700);
+        em.flush();
+
+        List<UserCurrencyTotal> totals = balanceRepo.findTotalsAcrossGroupsOf(alice.getId());
+
+        assertEquals(5, totals.size());
+        assertEquals(60.0, total(totals, alice, "INR"));
+        assertEquals(-3.0, total(totals, alice, "USD"));
+        assertEquals(-50.0, total(totals, bob, "INR"));
+        assertEquals(-10.0, total(totals, carol, "INR"));
+        assertEquals(3.0, total(totals, carol, "USD"));
+    }
+
+    @Test
+    void ledgerChunksPageByIdAndSkipZeroBalancesAndTombstones() {
+        GroupBalance first = balance(trip, alice, "INR", 5_000);
+        balance(trip, bob, "INR", -5_000);
+        balance(flat, alice, "USD", 0);
+        GroupBalance last = balance(flat, carol, "USD", 250);
+        Group deleted = group("Deleted", "INR", Set.of(bob, carol));
+        balance(deleted, bob, "INR", 100);
+        em.flush();
+        em.getEntityManager().createNativeQuery("update expense_groups set deleted_at = current_timestamp where id = :id")
+                .setParameter("id", deleted.getId())
+                .executeUpdate();
+
+        List<LedgerBalanceRow> page = balanceRepo.findLedgerChunk(0L, PageRequest.of(0, 2));
+        List<LedgerBalanceRow> rest = balanceRepo.findLedgerChunk(page.get(1).getId(), PageRequest.of(0, 2));
+
+        assertEquals(2, page.size());
+        assertEquals(first.getId(), page.get(0).getId());
+        assertEquals("INR", page.get(0).getBaseCurrency());
+        assertEquals(1, rest.size());
+        assertEquals(last.getId(), rest.get(0).getId());
+        assertEquals(flat.getId(), rest.get(0).getGroupId());
+        assertEquals(250L, rest.get(0).getAmountCents());
+    }
+
+    @Test
+    void declaredIndexesAreCreated() {
+        @SuppressWarnings("unchecked")
+        List<String> indexes = em.getEntityManager()
+                .createNativeQuery("select lower(index_name) from information_schema.indexes")
+                .getResultList();
+
+        for (String index : List.of("idx_expense_group", "idx_expense_group_payer", "idx_split_expense", "idx_split_user",
+                "idx_settlement_group", "idx_group_balance_user", "idx_group_member_user", "idx_suggestion_run_payer",
+                "idx_suggestion_run_payee", "idx_suggestion_group", "idx_recurring_due", "idx_outbox_available",
+                "idx_rolled_up_group")) {
+            assertTrue(indexes.contains(index), "missing index " + index);
+        }
+    }
+
+    private User user(String name, String mobileNumber) {
+        return em.persist(User.builder()
+                .name(name)
+                .email(name.toLowerCase() + "@example.com")
+                .mobileNumber(mobileNumber)
+                .password("secret")
+                .build());
+    }
+
+    private Group group(String name, String baseCurrency, Set<User> members) {
+        return em.persist(Group.builder()
+                .name(name)
+                .baseCurrency(baseCurrency)
+                .members(new HashSet<>(members))
+                .build());
+    }
+
+    private GroupBalance balance(Group group, User user, String currency, long amountCents) {
+        return em.persist(GroupBalance.builder()
+                .group(group)
+                .user(user)
+                .currency(currency)
+                .amountCents(amountCents)
+                .build());
+    }
+
+    private static Double total(List<UserCurrencyTotal> totals, User user, String currency) {
+        return totals.stream()
+                .filter(t -> t.getUserId().equals(user.getId()) && t.getCurrency().equals(currency))
+                .map(UserCurrencyTotal::getTotal)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,117 @@
+package com.settleup.settleup.group;
+
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import com.settleup.settleup.expense.dto.UserCurrencyTotal;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.entity.GroupBalance;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.user.entity.User;
+import com.settleup.settleup.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupBalanceServiceTest {
+
+    @Mock
+    private GroupBalanceRepository balanceRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @InjectMocks
+    private GroupBalanceService groupBalanceService;
+
+    private final Group group = Group.builder().id(10L).baseCurrency("INR").build();
+
+    @Test
+    void applyExpenseUpdatesExistingRowsAndCreatesMissingOnes() {
+        User alice = User.builder().id(1L).build();
+        User bob = User.builder().id(2L).build();
+        GroupBalance aliceRow = GroupBalance.builder().group(group).user(alice).currency("INR").amountCents(500).build();
+
+        when(balanceRepo.findByGroup_IdAndCurrencyAndUser_IdIn(eq(10L), eq("INR"), anyCollection())).thenReturn(List.of(aliceRow));
+        when(userRepo.getReferenceById(2L)).thenReturn(bob);
+
+        // Alice pays 100.00, split 50/50 with Bob
+        groupBalanceService.applyExpense(group, "INR", 1L, 10000, new long[]{1L, 2L}, new long[]{5000, 5000});
+
+        ArgumentCaptor<List<GroupBalance>> captor = ArgumentCaptor.forClass(List.class);
+        verify(balanceRepo).saveAll(captor.capture());
+        Map<Long, Long> saved = captor.getValue().stream()
+                .collect(Collectors.toMap(b -> b.getUser().getId(), GroupBalance::getAmountCents));
+        assertEquals(Map.of(1L, 5500L, 2L, -5000L), saved);
+    }
+
+    @Test
+    void applySettlementUsesBaseCurrency() {
+        when(userRepo.getReferenceById(2L)).thenReturn(User.builder().id(2L).build());
+        when(userRepo.getReferenceById(1L)).thenReturn(User.builder().id(1L).build());
+
+        groupBalanceService.applySettlement(group, 2L, 1L, 2000);
+
+        verify(balanceRepo).findByGroup_IdAndCurrencyAndUser_IdIn(10L, "INR", Set.of(1L, 2L));
+    }
+
+    @Test
+    void netBalancesConvertsForeignCurrencyRows() {
+        when(fxRateService.current()).thenReturn(FxRateTable.of(Map.of("USD", BigDecimal.ONE, "INR", new BigDecimal("80")), "test"));
+        when(balanceRepo.findTotalsByGroupId(10L)).thenReturn(List.of(
+                new UserCurrencyTotal(1L, "INR", 50.0), new UserCurrencyTotal(2L, "INR", -50.0),
+                new UserCurrencyTotal(1L, "USD", -5.0), new UserCurrencyTotal(2L, "USD", 5.0)));
+
+        Map<Long, Double> balances = groupBalanceService.netBalances(group);
+
+        // Bob owes 50 INR and is owed 5 USD (= 400 INR)
+        assertEquals(350.0, balances.get(2L));
+        assertEquals(-350.0, balances.get(1L));
+    }
+
+    @Test
+    void settledChecksCompareConvertedAmounts() {
+        when(fxRateService.current()).thenReturn(FxRateTable.of(Map.of("USD", BigDecimal.ONE, "INR", new BigDecimal("80")), "test"));
+        // owed 10 USD and owing 10 INR adds up to zero only before conversion
+        when(balanceRepo.findTotalsByGroupIdAndUserId(10L, 1L)).thenReturn(List.of(
+                new UserCurrencyTotal(1L, "INR", -10.0), new UserCurrencyTotal(1L, "USD", 10.0)));
+        when(balanceRepo.findTotalsByGroupIdAndUserId(10L, 2L)).thenReturn(List.of(
+                new UserCurrencyTotal(2L, "INR", -800.0), new UserCurrencyTotal(2L, "USD", 10.0)));
+        when(balanceRepo.findTotalsByGroupId(10L)).thenReturn(List.of(
+                new UserCurrencyTotal(1L, "INR", -10.0), new UserCurrencyTotal(2L, "INR", 10.0),
+                new UserCurrencyTotal(1L, "USD", 10.0), new UserCurrencyTotal(2L, "USD", -10.0)));
+
+        assertFalse(groupBalanceService.isSettled(group, 1L));
+        assertTrue(groupBalanceService.isSettled(group, 2L));
+        assertFalse(groupBalanceService.isFullySettled(group));
+    }
+
+    @Test
+    void netBalanceForMemberWithoutRowsIsZero() {
+        when(fxRateService.current()).thenReturn(FxRateTable.of(Map.of("INR", BigDecimal.ONE), "test"));
+        when(balanceRepo.findTotalsByGroupIdAndUserId(10L, 3L)).thenReturn(List.of());
+
+        assertEquals(0.0, groupBalanceService.netBalance(group, 3L));
+    }
+}
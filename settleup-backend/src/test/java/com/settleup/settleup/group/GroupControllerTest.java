@@ -0,0 +1,53 @@
+package com.settleup.settleup.group;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GroupControllerTest extends ApiIntegrationTest {
+
+    @Test
+    void membershipAndDeletionStayWithinBudget() {
+        List<Long> members = register(3);
+        long groupId = group(members.subList(0, 2));
+
+        ok(HttpMethod.POST, "/api/groups/" + groupId + "/members/" + members.get(2), null);
+        ok(HttpMethod.DELETE, "/api/groups/" + groupId + "/members/" + members.get(2) + "?requesterId=" + members.get(0), null);
+        ok(HttpMethod.DELETE, "/api/groups/" + groupId + "?requesterId=" + members.get(0), null);
+        // the purge may already have finished, which is a 404
+        rest.getForEntity("/api/groups/" + groupId + "/deletion", String.class);
+    }
+
+    @Test
+    void groupDetailsCostTheSameForAnyNumberOfMembers() {
+        long small = group(register(2));
+        long large = group(register(8));
+
+        assertEquals(2, ok(HttpMethod.GET, "/api/groups/" + small, null).path("data").path("members").size());
+        long two = statements();
+        assertEquals(8, ok(HttpMethod.GET, "/api/groups/" + large, null).path("data").path("members").size());
+
+        assertEquals(two, statements());
+    }
+
+    @Test
+    void userGroupsCostTheSameForAnyNumberOfGroups() {
+        List<Long> once = register(2);
+        List<Long> often = register(4);
+        group(once);
+        for (int i = 1; i < often.size(); i++) {
+            group(List.of(often.get(0), often.get(i)));
+        }
+        group(often);
+
+        assertEquals(1, ok(HttpMethod.GET, "/api/groups/user/" + once.get(0), null).path("data").size());
+        long one = statements();
+        assertEquals(4, ok(HttpMethod.GET, "/api/groups/user/" + often.get(0), null).path("data").size());
+
+        assertEquals(one, statements());
+    }
+}
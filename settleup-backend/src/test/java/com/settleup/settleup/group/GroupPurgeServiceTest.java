@@ -0,0 +1,135 @@
+package com.settleup.settleup.group;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.settleup.settleup.ApiIntegrationTest;
+import com.settleup.settleup.group.service.GroupPurgeService;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+
+// Purges run only when a test calls sweep(): the purge executor is a mock, so the delete's own sweep never starts.
+// Two expenses are deleted per chunk, and the context gets a database of its own.
+@TestPropertySource(properties = {
+        "settleup.group-purge.chunk-size=2",
+        "spring.datasource.url=jdbc:h2:mem:settleup-purge;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class GroupPurgeServiceTest extends ApiIntegrationTest {
+
+    @MockitoBean(name = "groupPurgeExecutor")
+    private ThreadPoolTaskExecutor purgeExecutor;
+
+    @MockitoSpyBean
+    private SchedulerLockService lockService;
+
+    @Autowired
+    private GroupPurgeService purgeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void sweepRemovesEveryRowOfADeletedGroup() throws InterruptedException {
+        List<Long> members = register(2);
+        long groupId = group(members);
+        long templateId = populate(groupId, members);
+        List<Long> expenseIds = jdbc.queryForList("select id from expenses where group_id = ?", Long.class, groupId);
+
+        ok(HttpMethod.DELETE, "/api/groups/" + groupId + "?requesterId=" + members.get(0), null);
+        assertEquals("PENDING", status(groupId).path("status").asText());
+
+        purgeService.sweep();
+
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/api/groups/" + groupId + "/deletion", String.class)
+                .getStatusCode());
+        assertEquals(0, count("select count(*) from expense_splits where expense_id in (?, ?, ?, ?, ?)",
+                expenseIds.toArray()));
+        for (String table : List.of("expenses", "settlements", "recurring_expenses", "group_balances",
+                "group_revisions", "group_spend_rollups", "rolled_up_expenses", "settlement_suggestions",
+                "group_members")) {
+            assertEquals(0, count("select count(*) from " + table + " where group_id = ?", groupId), table);
+        }
+        assertEquals(0, count("select count(*) from recurring_expense_splits where recurring_expense_id = ?", templateId));
+        assertEquals(0, count("select count(*) from expense_groups where id = ?", groupId));
+    }
+
+    @Test
+    void aPurgeThatLosesItsLockIsFinishedByTheNextSweep() throws InterruptedException {
+        List<Long> members = register(2);
+        long groupId = group(members);
+        populate(groupId, members);
+        ok(HttpMethod.DELETE, "/api/groups/" + groupId + "?requesterId=" + members.get(0), null);
+
+        // the lease is still held when the sweep starts, and has lapsed by the end of the first chunk
+        doReturn(true).doReturn(false).when(lockService).renew(any(), any());
+        try {
+            purgeService.sweep();
+        } finally {
+            doCallRealMethod().when(lockService).renew(any(), any());
+        }
+
+        JsonNode status = status(groupId);
+        assertEquals("PURGING", status.path("status").asText());
+        assertEquals(2, status.path("expensesPurged").asLong());
+        assertEquals(5, status.path("expensesTotal").asLong());
+        assertEquals(3, count("select count(*) from expenses where group_id = ?", groupId));
+        assertEquals(1, count("select count(*) from expense_groups where id = ?", groupId));
+
+        purgeService.sweep();
+
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/api/groups/" + groupId + "/deletion", String.class)
+                .getStatusCode());
+        assertEquals(0, count("select count(*) from expenses where group_id = ?", groupId));
+        assertEquals(0, count("select count(*) from expense_groups where id = ?", groupId));
+    }
+
+    // Five expenses (three chunks), their rollups, a settlement suggestion, a recurring template and the settlement
+    // that settles the group up, so it can be deleted. Returns the template's id.
+    private long populate(long groupId, List<Long> members) throws InterruptedException {
+        expenses(groupId, members, 5);
+        long runId = accepted(HttpMethod.POST, "/api/settlements/suggestions/run?respectGroups=true", admin())
+                .path("data").path("runId").asLong();
+        await("/api/settlements/suggestions/runs/" + runId, run -> !run.path("completedAt").isNull());
+        long templateId = ok(HttpMethod.POST, "/api/recurring-expenses", Map.of("groupId", groupId,
+                "paidByUserId", members.get(0), "description", "Rent", "amount", 300, "splitType", "SHARES",
+                "splitValues", Map.of(String.valueOf(members.get(0)), 1, String.valueOf(members.get(1)), 1),
+                "frequency", "MONTHLY", "startDate", LocalDate.now().plusDays(1).toString()))
+                .path("data").path("id").asLong();
+        ok(HttpMethod.POST, "/api/settlements", Map.of("groupId", groupId, "payerId", members.get(1),
+                "payeeId", members.get(0), "amount", 30));
+
+        // the outbox relay polls every half second; nothing may reach the rollups after the purge
+        for (int i = 0; i < 40 && count("select count(*) from rolled_up_expenses where group_id = ?", groupId) < 5; i++) {
+            Thread.sleep(250);
+        }
+        assertEquals(5, count("select count(*) from rolled_up_expenses where group_id = ?", groupId));
+        assertTrue(count("select count(*) from group_spend_rollups where group_id = ?", groupId) > 0);
+        assertTrue(count("select count(*) from settlement_suggestions where group_id = ?", groupId) > 0);
+        assertEquals(2, count("select count(*) from recurring_expense_splits where recurring_expense_id = ?", templateId));
+        return templateId;
+    }
+
+    private JsonNode status(long groupId) {
+        return ok(HttpMethod.GET, "/api/groups/" + groupId + "/deletion", null).path("data");
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,100 @@
+package com.settleup.settleup.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.OutboxProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.outbox.dto.MembershipChangedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEvent;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.repository.OutboxEventRepository;
+import com.settleup.settleup.outbox.service.OutboxMessage;
+import com.settleup.settleup.outbox.service.OutboxRelay;
+import com.settleup.settleup.outbox.service.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final OutboxProperties properties = new OutboxProperties();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepo, eventPublisher, List.of(), objectMapper,
+                new ShardRouter(new ShardingProperties(), null), transactionManager, properties, new SimpleMeterRegistry());
+    }
+
+    private OutboxEvent event(long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.MEMBER_ADDED)
+                .groupId(7L)
+                .payload("{\"groupId\":7,\"userId\":" + id + "}")
+                .build();
+    }
+
+    @Test
+    void poll_DeliversTypedPayloadAndDeletesDelivered() {
+        when(outboxRepo.findDeliverable(any(), anyInt(), any())).thenReturn(List.of(event(1L), event(2L)));
+
+        relay.poll();
+
+        ArgumentCaptor<OutboxMessage<?>> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(new MembershipChangedPayload(7L, 1L), captor.getAllValues().get(0).payload());
+        verify(outboxRepo).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void poll_FailedEventIsRescheduledWithoutBlockingTheBatch() {
+        OutboxEvent failing = event(1L);
+        when(outboxRepo.findDeliverable(any(), anyInt(), any())).thenReturn(List.of(failing, event(2L)));
+        doThrow(new IllegalStateException("subscriber down"))
+                .doNothing()
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        relay.poll();
+
+        verify(outboxRepo).deleteAllByIdInBatch(List.of(2L));
+        assertEquals(1, failing.getAttempts());
+        assertEquals("subscriber down", failing.getLastError());
+        assertTrue(failing.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(4)));
+    }
+
+    @Test
+    void record_RejectsPayloadOfTheWrongType() {
+        OutboxService outboxService = new OutboxService(outboxRepo, objectMapper);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> outboxService.record(OutboxEventType.EXPENSE_ADDED, 7L, new MembershipChangedPayload(7L, 1L)));
+        verify(outboxRepo, never()).save(any());
+    }
+}
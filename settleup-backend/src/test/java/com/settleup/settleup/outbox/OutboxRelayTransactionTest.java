@@ -0,0 +1,123 @@
+package com.settleup.settleup.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.OutboxProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.group.entity.GroupRevision;
+import com.settleup.settleup.group.repository.GroupRevisionRepository;
+import com.settleup.settleup.outbox.dto.MembershipChangedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEvent;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.repository.OutboxEventRepository;
+import com.settleup.settleup.outbox.service.OutboxMessage;
+import com.settleup.settleup.outbox.service.OutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The relay against a real transaction manager: a transactional listener that fails must not take the batch with it
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTransactionTest {
+
+    private static final long FAILING_USER = 13L;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxRepo;
+
+    @Autowired
+    private GroupRevisionRepository revisionRepo;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepo.deleteAll();
+        revisionRepo.deleteAll();
+    }
+
+    @Test
+    void drain_FailingTransactionalListenerOnlyRollsBackItsOwnEvent() {
+        OutboxEvent failing = outboxRepo.save(event(FAILING_USER));
+        outboxRepo.save(event(1L));
+        outboxRepo.save(event(2L));
+
+        relay.poll();
+
+        List<OutboxEvent> left = outboxRepo.findAll();
+        assertEquals(1, left.size());
+        assertEquals(failing.getId(), left.get(0).getId());
+        assertEquals(1, left.get(0).getAttempts());
+        assertEquals("subscriber down", left.get(0).getLastError());
+        assertTrue(left.get(0).getAvailableAt().isAfter(failing.getAvailableAt()));
+        // the failed listener's write is rolled back, the others' are kept
+        assertEquals(List.of(1L, 2L), revisionRepo.findAll().stream().map(GroupRevision::getGroupId).sorted().toList());
+    }
+
+    private static OutboxEvent event(long userId) {
+        return OutboxEvent.builder()
+                .type(OutboxEventType.MEMBER_ADDED)
+                .groupId(7L)
+                .payload("{\"groupId\":7,\"userId\":" + userId + "}")
+                .build();
+    }
+
+    // records every delivery, then fails for one user after its write
+    static class RecordingListener {
+
+        private final GroupRevisionRepository revisionRepo;
+
+        RecordingListener(GroupRevisionRepository revisionRepo) {
+            this.revisionRepo = revisionRepo;
+        }
+
+        @EventListener
+        @Transactional
+        public void on(OutboxMessage<MembershipChangedPayload> message) {
+            revisionRepo.save(new GroupRevision(message.payload().userId(), 1));
+            if (message.payload().userId() == FAILING_USER) {
+                throw new IllegalStateException("subscriber down");
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class RelayConfig {
+
+        @Bean
+        RecordingListener recordingListener(GroupRevisionRepository revisionRepo) {
+            return new RecordingListener(revisionRepo);
+        }
+
+        @Bean
+        OutboxRelay outboxRelay(OutboxEventRepository outboxRepo, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                ObjectProvider<PlatformTransactionManager> transactionManagers) {
+            return new OutboxRelay(outboxRepo, eventPublisher, List.of(), new ObjectMapper().registerModule(new JavaTimeModule()),
+                    new ShardRouter(new ShardingProperties(), transactionManagers), transactionManager,
+                    new OutboxProperties(), new SimpleMeterRegistry());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.settleup.settleup.recurring;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecurringExpenseControllerTest extends ApiIntegrationTest {
+
+    @Test
+    void recurringExpensesCostTheSameForAnyNumberOfSchedules() {
+        List<Long> few = register(2);
+        long small = group(few);
+        long smallId = schedule(small, few);
+        List<Long> many = register(5);
+        long large = group(many);
+        for (int i = 0; i < 4; i++) {
+            schedule(large, many);
+        }
+
+        assertEquals(1, ok(HttpMethod.GET, "/api/recurring-expenses/group/" + small, null).path("data").size());
+        long one = statements();
+        assertEquals(4, ok(HttpMethod.GET, "/api/recurring-expenses/group/" + large, null).path("data").size());
+        assertEquals(one, statements());
+
+        ok(HttpMethod.DELETE, "/api/recurring-expenses/" + smallId + "?groupId=" + small, null);
+    }
+
+    private long schedule(long groupId, List<Long> members) {
+        Map<String, Integer> shares = new HashMap<>();
+        members.forEach(id -> shares.put(String.valueOf(id), 1));
+        return ok(HttpMethod.POST, "/api/recurring-expenses", Map.of("groupId", groupId, "paidByUserId", members.get(0),
+                "description", "Rent", "amount", 300, "splitType", "SHARES", "splitValues", shares,
+                "frequency", "MONTHLY", "startDate", LocalDate.now().plusDays(1).toString())).path("data").path("id").asLong();
+    }
+}
@@ -0,0 +1,97 @@
+package com.settleup.settleup.recurring;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.RecurringExpenseProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
+import com.settleup.settleup.recurring.service.RecurringExpenseScheduler;
+import com.settleup.settleup.recurring.service.RecurringExpenseService;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringExpenseSchedulerTest {
+
+    private static final SchedulerLease LEASE = new SchedulerLease("recurring-expenses", "node-a:1");
+
+    @Mock
+    private RecurringExpenseService recurringExpenseService;
+
+    @Mock
+    private RecurringExpenseRepository recurringRepo;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private final RecurringExpenseProperties properties = new RecurringExpenseProperties();
+
+    private final List<CompletableFuture<Integer>> submitted = new ArrayList<>();
+
+    private RecurringExpenseScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(1);
+        scheduler = new RecurringExpenseScheduler(recurringExpenseService, recurringRepo, lockService, executor,
+                properties, new ShardRouter(new ShardingProperties(), null));
+        when(lockService.tryAcquire(any(), any())).thenReturn(Optional.of(LEASE));
+        when(recurringRepo.findDueGroupIds(any())).thenReturn(List.of(10L, 11L, 12L));
+    }
+
+    @Test
+    void runRenewsItsLockAfterEveryChunk() {
+        when(lockService.renew(LEASE, properties.getLockTtl())).thenReturn(true);
+        executorFinishesChunks(3);
+
+        assertEquals(6, scheduler.run());
+
+        verify(lockService, times(3)).renew(LEASE, properties.getLockTtl());
+        verify(lockService).release(LEASE);
+    }
+
+    @Test
+    void runStopsOnceItCannotRenewItsLock() {
+        when(lockService.renew(LEASE, properties.getLockTtl())).thenReturn(false);
+        executorFinishesChunks(1);
+
+        assertEquals(2, scheduler.run());
+
+        // the remaining chunks are cancelled rather than waited on; the next lock holder picks their groups up
+        assertTrue(submitted.get(1).isCancelled());
+        assertTrue(submitted.get(2).isCancelled());
+        verify(lockService).renew(LEASE, properties.getLockTtl());
+        verify(lockService).release(LEASE);
+    }
+
+    // chunks past the first count stay pending
+    private void executorFinishesChunks(int count) {
+        when(executor.submit(any(Callable.class))).thenAnswer(invocation -> {
+            CompletableFuture<Integer> chunk = new CompletableFuture<>();
+            if (submitted.size() < count) chunk.complete(2);
+            submitted.add(chunk);
+            return chunk;
+        });
+    }
+}
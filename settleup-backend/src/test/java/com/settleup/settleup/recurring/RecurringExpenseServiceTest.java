@@ -0,0 +1,173 @@
+package com.settleup.settleup.recurring;
+
+import com.settleup.settleup.config.RecurringExpenseProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.exception.InvalidInputException;
+import com.settleup.settleup.expense.dto.ExpenseRequestDto;
+import com.settleup.settleup.expense.service.ExpenseService;
+import com.settleup.settleup.expense.split.EqualSplitStrategy;
+import com.settleup.settleup.expense.split.ExactSplitStrategy;
+import com.settleup.settleup.expense.split.ItemizedSplitStrategy;
+import com.settleup.settleup.expense.split.PercentSplitStrategy;
+import com.settleup.settleup.expense.split.SharesSplitStrategy;
+import com.settleup.settleup.expense.split.SplitCalculator;
+import com.settleup.settleup.expense.split.SplitType;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.recurring.dto.RecurringExpenseRequestDto;
+import com.settleup.settleup.recurring.entity.RecurrenceFrequency;
+import com.settleup.settleup.recurring.entity.RecurringExpense;
+import com.settleup.settleup.recurring.repository.RecurringExpenseRepository;
+import com.settleup.settleup.recurring.service.RecurringExpenseService;
+import com.settleup.settleup.user.entity.User;
+import com.settleup.settleup.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecurringExpenseServiceTest {
+
+    @Mock
+    private RecurringExpenseRepository recurringRepo;
+
+    @Mock
+    private GroupRepository groupRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private ExpenseService expenseService;
+
+    @Spy
+    private SplitCalculator splitCalculator = new SplitCalculator(List.of(
+            new EqualSplitStrategy(), new ExactSplitStrategy(), new PercentSplitStrategy(),
+            new SharesSplitStrategy(), new ItemizedSplitStrategy()));
+
+    @Spy
+    private RecurringExpenseProperties properties = new RecurringExpenseProperties();
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RecurringExpenseService recurringExpenseService;
+
+    private User alice;
+    private User bob;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        alice = User.builder().id(1L).name("Alice").build();
+        bob = User.builder().id(2L).name("Bob").build();
+        group = Group.builder().id(10L).name("Flat").members(new HashSet<>(Set.of(alice, bob))).build();
+    }
+
+    @Test
+    void materializeDueCatchesUpMissedMonths() {
+        RecurringExpense rent = monthlyRent(LocalDate.of(2026, 1, 31), null);
+        when(recurringRepo.findDueIdsByGroupIdIn(List.of(10L), LocalDate.of(2026, 4, 5))).thenReturn(List.of(5L));
+        when(recurringRepo.findByIdForUpdate(5L)).thenReturn(Optional.of(rent));
+
+        int created = recurringExpenseService.materializeDue(List.of(10L), LocalDate.of(2026, 4, 5));
+
+        assertEquals(3, created);
+        ArgumentCaptor<LocalDateTime> dates = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(expenseService, times(3)).addExpense(any(ExpenseRequestDto.class), dates.capture());
+        assertEquals(LocalDate.of(2026, 1, 31), dates.getAllValues().get(0).toLocalDate());
+        assertEquals(LocalDate.of(2026, 2, 28), dates.getAllValues().get(1).toLocalDate());
+        assertEquals(LocalDate.of(2026, 3, 31), dates.getAllValues().get(2).toLocalDate());
+        assertEquals(LocalDate.of(2026, 4, 30), rent.getNextRunDate());
+    }
+
+    @Test
+    void materializeDueStopsAfterEndDate() {
+        RecurringExpense rent = monthlyRent(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 15));
+        when(recurringRepo.findDueIdsByGroupIdIn(List.of(10L), LocalDate.of(2026, 6, 1))).thenReturn(List.of(5L));
+        when(recurringRepo.findByIdForUpdate(5L)).thenReturn(Optional.of(rent));
+
+        int created = recurringExpenseService.materializeDue(List.of(10L), LocalDate.of(2026, 6, 1));
+
+        assertEquals(2, created);
+        assertFalse(rent.isActive());
+    }
+
+    @Test
+    void materializeDueSkipsATemplateThatFailsAndCommitsTheOthers() {
+        RecurringExpense rent = monthlyRent(LocalDate.of(2026, 3, 1), null);
+        RecurringExpense broken = monthlyRent(LocalDate.of(2026, 3, 1), null);
+        broken.setId(6L);
+        broken.setPaidBy(User.builder().id(9L).name("Gone").build());
+        when(recurringRepo.findDueIdsByGroupIdIn(List.of(10L), LocalDate.of(2026, 3, 5))).thenReturn(List.of(6L, 5L));
+        when(recurringRepo.findByIdForUpdate(5L)).thenReturn(Optional.of(rent));
+        when(recurringRepo.findByIdForUpdate(6L)).thenReturn(Optional.of(broken));
+        doThrow(new InvalidInputException("The following users are not members of this group: [9]"))
+                .when(expenseService).addExpense(argThat(dto -> dto.getPaidByUserId() == 9L), any(LocalDateTime.class));
+
+        int created = recurringExpenseService.materializeDue(List.of(10L), LocalDate.of(2026, 3, 5));
+
+        assertEquals(1, created);
+        assertEquals(LocalDate.of(2026, 4, 1), rent.getNextRunDate());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void createRecurringExpenseRejectsItemizedSplits() {
+        RecurringExpenseRequestDto dto = new RecurringExpenseRequestDto();
+        dto.setSplitType("ITEMIZED");
+
+        assertThrows(InvalidInputException.class, () -> recurringExpenseService.createRecurringExpense(dto));
+        verify(recurringRepo, never()).save(any());
+    }
+
+    private RecurringExpense monthlyRent(LocalDate start, LocalDate end) {
+        Map<Long, Double> values = new HashMap<>();
+        values.put(1L, 1.0);
+        values.put(2L, 1.0);
+        return RecurringExpense.builder()
+                .id(5L)
+                .group(group)
+                .paidBy(alice)
+                .description("Rent")
+                .amount(1000.0)
+                .splitType(SplitType.EQUAL)
+                .splitValues(values)
+                .frequency(RecurrenceFrequency.MONTHLY)
+                .startDate(start)
+                .endDate(end)
+                .nextRunDate(start)
+                .build();
+    }
+}
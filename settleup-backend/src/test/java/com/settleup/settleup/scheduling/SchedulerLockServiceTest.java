@@ -0,0 +1,70 @@
+package com.settleup.settleup.scheduling;
+
+import com.settleup.settleup.scheduling.repository.SchedulerLockRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lock rows are updated in transactions of their own, so the test runs outside the usual rolled-back one
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLockServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SchedulerLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new SchedulerLockService(lockRepository, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockRepository.deleteAll();
+    }
+
+    @Test
+    void secondRunOnTheSameNodeIsTurnedAway() {
+        SchedulerLease first = lockService.tryAcquire("job", TTL).orElseThrow();
+
+        assertTrue(lockService.tryAcquire("job", TTL).isEmpty());
+        assertTrue(lockService.renew(first, TTL));
+
+        lockService.release(first);
+        assertTrue(lockService.tryAcquire("job", TTL).isPresent());
+    }
+
+    @Test
+    void leaseTakenOverByAnotherRunCanNoLongerBeRenewedOrReleased() {
+        SchedulerLease expired = lockService.tryAcquire("job", Duration.ofSeconds(-1)).orElseThrow();
+        SchedulerLease current = lockService.tryAcquire("job", TTL).orElseThrow();
+
+        assertFalse(lockService.renew(expired, TTL));
+        lockService.release(expired);
+        assertTrue(lockService.tryAcquire("job", TTL).isEmpty());
+        assertTrue(lockService.renew(current, TTL));
+    }
+}
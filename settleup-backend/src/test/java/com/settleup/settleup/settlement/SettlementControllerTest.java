@@ -0,0 +1,42 @@
+package com.settleup.settleup.settlement;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SettlementControllerTest extends ApiIntegrationTest {
+
+    @Test
+    void settlementsAndSuggestionsStayWithinBudget() {
+        List<Long> members = register(4);
+        long groupId = group(members);
+        // the first member paid for everyone, so each of the others owes them
+        ok(HttpMethod.POST, "/api/expenses", Map.of("groupId", groupId, "paidByUserId", members.get(0), "description", "Hotel",
+                "amount", 400, "splitType", "EQUAL", "involvedUserIds", members));
+        ok(HttpMethod.POST, "/api/settlements", Map.of("groupId", groupId, "payerId", members.get(1), "payeeId", members.get(0),
+                "amount", 20));
+
+        // the run itself happens in the background; the request only takes the lock and records the run
+        long runId = accepted(HttpMethod.POST, "/api/settlements/suggestions/run?respectGroups=true", admin())
+                .path("data").path("runId").asLong();
+        await("/api/settlements/suggestions/runs/" + runId, run -> !run.path("completedAt").isNull());
+
+        assertEquals(1, ok(HttpMethod.GET, "/api/settlements/suggestions?userId=" + members.get(1), null).path("data").size());
+        long one = statements();
+        assertEquals(3, ok(HttpMethod.GET, "/api/settlements/suggestions?userId=" + members.get(0), null).path("data").size());
+
+        assertEquals(one, statements());
+    }
+
+    @Test
+    void optimizerRunNeedsTheAdminToken() {
+        assertEquals(HttpStatus.FORBIDDEN, rest.exchange("/api/settlements/suggestions/run", HttpMethod.POST, null,
+                String.class).getStatusCode());
+    }
+}
@@ -0,0 +1,223 @@
+package com.settleup.settleup.settlement;
+
+import com.settleup.settleup.common.sharding.ShardRouter;
+import com.settleup.settleup.config.SettlementOptimizerProperties;
+import com.settleup.settleup.config.ShardingProperties;
+import com.settleup.settleup.currency.service.FxRateService;
+import com.settleup.settleup.currency.service.FxRateTable;
+import com.settleup.settleup.group.entity.Group;
+import com.settleup.settleup.group.repository.GroupBalanceRepository;
+import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.scheduling.service.SchedulerLease;
+import com.settleup.settleup.scheduling.service.SchedulerLockService;
+import com.settleup.settleup.settlement.dto.LedgerBalanceRow;
+import com.settleup.settleup.settlement.dto.SettlementRunDto;
+import com.settleup.settleup.settlement.entity.SettlementRun;
+import com.settleup.settleup.settlement.entity.SettlementSuggestion;
+import com.settleup.settleup.settlement.repository.SettlementRunRepository;
+import com.settleup.settleup.settlement.repository.SettlementSuggestionRepository;
+import com.settleup.settleup.settlement.service.SettlementOptimizer;
+import com.settleup.settleup.user.entity.User;
+import com.settleup.settleup.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementOptimizerTest {
+
+    private static final SchedulerLease LEASE = new SchedulerLease("settlement-optimizer", "node:run");
+
+    @Mock
+    private GroupBalanceRepository balanceRepo;
+
+    @Mock
+    private SettlementRunRepository runRepo;
+
+    @Mock
+    private SettlementSuggestionRepository suggestionRepo;
+
+    @Mock
+    private GroupRepository groupRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SettlementOptimizerProperties properties = new SettlementOptimizerProperties();
+
+    private final List<SettlementSuggestion> saved = new ArrayList<>();
+
+    private SettlementOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(2);
+        properties.setBatchSize(2);
+        properties.setParallelism(2);
+        optimizer = new SettlementOptimizer(balanceRepo, runRepo, suggestionRepo, groupRepo, userRepo, lockService,
+                fxRateService, new ShardRouter(new ShardingProperties(), null), properties, executor, transactionManager);
+    }
+
+    private void givenLedger() {
+        when(lockService.tryAcquire(eq("settlement-optimizer"), any(Duration.class))).thenReturn(Optional.of(LEASE));
+        when(lockService.renew(eq(LEASE), any(Duration.class))).thenReturn(true);
+        when(fxRateService.current()).thenReturn(FxRateTable.of(
+                Map.of("INR", BigDecimal.valueOf(80), "USD", BigDecimal.ONE), "test"));
+        when(runRepo.save(any(SettlementRun.class))).thenAnswer(inv -> {
+            SettlementRun run = inv.getArgument(0);
+            if (run.getId() == null) run.setId(7L);
+            return run;
+        });
+        when(userRepo.getReferenceById(anyLong())).thenAnswer(inv -> User.builder().id(inv.getArgument(0)).build());
+        when(suggestionRepo.saveAll(any())).thenAnswer(inv -> {
+            inv.<List<SettlementSuggestion>>getArgument(0).forEach(saved::add);
+            return inv.getArgument(0);
+        });
+
+        // group 1: Alice owes Bob 100; group 2: Bob owes Alice 40; group 3: Carol owes Dave 1 USD
+        List<LedgerBalanceRow> ledger = List.of(
+                new LedgerBalanceRow(1L, 1L, 1L, "INR", "INR", -10000L),
+                new LedgerBalanceRow(2L, 1L, 2L, "INR", "INR", 10000L),
+                new LedgerBalanceRow(3L, 2L, 1L, "INR", "INR", 4000L),
+                new LedgerBalanceRow(4L, 2L, 2L, "INR", "INR", -4000L),
+                new LedgerBalanceRow(5L, 3L, 3L, "USD", "USD", -100L),
+                new LedgerBalanceRow(6L, 3L, 4L, "USD", "USD", 100L));
+        when(balanceRepo.findLedgerChunk(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            return ledger.stream().filter(row -> row.getId() > afterId).limit(2).toList();
+        });
+    }
+
+    @Test
+    void runNetsAcrossGroupsPerConnectedComponent() {
+        givenLedger();
+        when(fxRateService.resolveCurrency(null, null)).thenReturn("INR");
+
+        SettlementRunDto run = optimizer.run(false).orElseThrow();
+
+        assertEquals(6, run.getBalances());
+        assertEquals(2, run.getComponents());
+        assertEquals(2, run.getSuggestions());
+        assertEquals(2, saved.size());
+        assertSuggestion(saved.get(0), null, 1L, 2L, 60.0, "INR");
+        assertSuggestion(saved.get(1), null, 3L, 4L, 80.0, "INR");
+        verify(suggestionRepo).deleteByRunIdBefore(7L);
+        verify(lockService).release(LEASE);
+    }
+
+    @Test
+    void runRespectingGroupsSettlesEachGroupInItsBaseCurrency() {
+        givenLedger();
+        when(groupRepo.getReferenceById(anyLong())).thenAnswer(inv -> Group.builder().id(inv.getArgument(0)).build());
+
+        SettlementRunDto run = optimizer.run(true).orElseThrow();
+
+        assertEquals(3, run.getComponents());
+        assertNull(run.getCurrency());
+        assertEquals(3, saved.size());
+        assertSuggestion(saved.get(0), 1L, 1L, 2L, 100.0, "INR");
+        assertSuggestion(saved.get(1), 2L, 2L, 1L, 40.0, "INR");
+        assertSuggestion(saved.get(2), 3L, 3L, 4L, 1.0, "USD");
+    }
+
+    @Test
+    void runMarksTheRunCompleteOnlyAfterWritingSuggestions() {
+        givenLedger();
+        when(fxRateService.resolveCurrency(null, null)).thenReturn("INR");
+
+        optimizer.run(false);
+
+        ArgumentCaptor<SettlementRun> runs = ArgumentCaptor.forClass(SettlementRun.class);
+        verify(runRepo, times(2)).save(runs.capture());
+        assertNotNull(runs.getValue().getCompletedAt());
+        assertEquals(2, runs.getValue().getSuggestions());
+    }
+
+    @Test
+    void runSkippedWhenAnotherNodeHoldsTheLock() {
+        when(lockService.tryAcquire(eq("settlement-optimizer"), any(Duration.class))).thenReturn(Optional.empty());
+
+        assertTrue(optimizer.run(false).isEmpty());
+        verify(runRepo, never()).save(any());
+        verify(lockService, never()).release(any());
+    }
+
+    @Test
+    void startedRunThatFailsInTheBackgroundIsMarkedFailed() {
+        when(lockService.tryAcquire(eq("settlement-optimizer"), any(Duration.class))).thenReturn(Optional.of(LEASE));
+        when(fxRateService.resolveCurrency(null, null)).thenReturn("INR");
+        when(fxRateService.current()).thenThrow(new IllegalStateException("no rates"));
+        when(runRepo.save(any(SettlementRun.class))).thenAnswer(inv -> {
+            SettlementRun run = inv.getArgument(0);
+            if (run.getId() == null) run.setId(7L);
+            return run;
+        });
+        doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        assertEquals(7L, optimizer.start(false).orElseThrow().getRunId());
+
+        ArgumentCaptor<SettlementRun> runs = ArgumentCaptor.forClass(SettlementRun.class);
+        verify(runRepo, times(2)).save(runs.capture());
+        assertNotNull(runs.getValue().getFailedAt());
+        assertNull(runs.getValue().getCompletedAt());
+        verify(lockService).release(LEASE);
+    }
+
+    @Test
+    void startSkippedWhileARunIsInProgress() {
+        when(lockService.tryAcquire(eq("settlement-optimizer"), any(Duration.class))).thenReturn(Optional.empty());
+
+        assertTrue(optimizer.start(false).isEmpty());
+        verify(executor, never()).execute(any(Runnable.class));
+    }
+
+    private static void assertSuggestion(SettlementSuggestion s, Long groupId, Long from, Long to, double amount, String currency) {
+        assertEquals(groupId, s.getGroup() != null ? s.getGroup().getId() : null);
+        assertEquals(from, s.getPayer().getId());
+        assertEquals(to, s.getPayee().getId());
+        assertEquals(amount, s.getAmount(), 0.001);
+        assertEquals(currency, s.getCurrency());
+        assertEquals(7L, s.getRunId());
+    }
+}
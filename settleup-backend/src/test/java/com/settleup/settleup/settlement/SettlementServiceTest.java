@@ -3,6 +3,11 @@ package com.settleup.settleup.settlement;
 import com.settleup.settleup.exception.ResourceNotFoundException;
 import com.settleup.settleup.group.entity.Group;
 import com.settleup.settleup.group.repository.GroupRepository;
+import com.settleup.settleup.group.service.GroupBalanceService;
+import com.settleup.settleup.group.service.GroupRevisionService;
+import com.settleup.settleup.outbox.dto.SettlementRecordedPayload;
+import com.settleup.settleup.outbox.entity.OutboxEventType;
+import com.settleup.settleup.outbox.service.OutboxService;
 import com.settleup.settleup.settlement.dto.SettlementDto;
 import com.settleup.settleup.settlement.entity.Settlement;
 import com.settleup.settleup.settlement.repository.SettlementRepository;
@@ -20,6 +25,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +42,15 @@ public class SettlementServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private GroupBalanceService groupBalanceService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private GroupRevisionService groupRevisionService;
+
     @InjectMocks
     private SettlementService settlementService;
 
@@ -55,7 +71,7 @@ public class SettlementServiceTest {
         User payer = User.builder().id(payerId).name("Bob").build();
         User payee = User.builder().id(payeeId).name("Alice").build();
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(groupRepository.findByIdForUpdate(groupId)).thenReturn(Optional.of(group));
         when(userRepository.findById(payerId)).thenReturn(Optional.of(payer));
         when(userRepository.findById(payeeId)).thenReturn(Optional.of(payee));
 
@@ -68,6 +84,9 @@ public class SettlementServiceTest {
         assertEquals(payerId, savedSettlement.getPayer().getId());
         assertEquals(payeeId, savedSettlement.getPayee().getId());
         assertEquals(amount, savedSettlement.getAmount());
+        verify(groupBalanceService).applySettlement(group, payerId, payeeId, 50000L);
+        verify(groupRevisionService).bump(groupId);
+        verify(outboxService).record(eq(OutboxEventType.SETTLEMENT_RECORDED), eq(groupId), any(SettlementRecordedPayload.class));
     }
 
     @Test
@@ -76,7 +95,7 @@ public class SettlementServiceTest {
         dto.setGroupId(1L);
         dto.setPayerId(99L);
 
-        when(groupRepository.findById(1L)).thenReturn(Optional.of(new Group()));
+        when(groupRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new Group()));
         when(userRepository.findById(99L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () ->
@@ -92,7 +111,7 @@ public class SettlementServiceTest {
         dto.setPayerId(2L);
         dto.setPayeeId(99L);
 
-        when(groupRepository.findById(1L)).thenReturn(Optional.of(new Group()));
+        when(groupRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new Group()));
         when(userRepository.findById(2L)).thenReturn(Optional.of(new User()));
         when(userRepository.findById(99L)).thenReturn(Optional.empty());
 
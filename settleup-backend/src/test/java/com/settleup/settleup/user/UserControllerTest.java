@@ -0,0 +1,38 @@
+package com.settleup.settleup.user;
+
+import com.settleup.settleup.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserControllerTest extends ApiIntegrationTest {
+
+    @Test
+    void accountEndpointsStayWithinBudget() {
+        ok(HttpMethod.POST, "/api/users/register", Map.of("name", "Uma", "email", "uma@users.test",
+                "mobileNumber", "6100000001", "password", "secret1"));
+        long umaId = ok(HttpMethod.POST, "/api/users/login", Map.of("identifier", "uma@users.test", "password", "secret1"))
+                .path("data").path("id").asLong();
+        ok(HttpMethod.PUT, "/api/users/" + umaId, Map.of("name", "Uma K", "email", "uma@users.test", "mobileNumber", "6100000001"));
+        ok(HttpMethod.POST, "/api/users/forgot-password", Map.of("email", "uma@users.test", "mobileNumber", "6100000001",
+                "newPassword", "secret2", "confirmPassword", "secret2"));
+        ok(HttpMethod.POST, "/api/users/login", Map.of("identifier", "6100000001", "password", "secret2"));
+    }
+
+    @Test
+    void searchCostsTheSameForOneMatchOrMany() {
+        register("Quincy");
+        for (int i = 0; i < 5; i++) {
+            register("Rosalind");
+        }
+
+        assertEquals(1, ok(HttpMethod.GET, "/api/users?query=Quincy", null).path("data").size());
+        long one = statements();
+        assertEquals(5, ok(HttpMethod.GET, "/api/users?query=Rosalind", null).path("data").size());
+
+        assertEquals(one, statements());
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
@@ -37,6 +38,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -152,11 +156,10 @@ public class UserServiceTest {
     @Test
     void searchUsersWithQuery() {
         String query = "Alice";
-        User u1 = User.builder().id(1L).name("Alice").build();
-        User u2 = User.builder().id(2L).name("Alice Smith").build();
+        UserResponseDto u1 = new UserResponseDto(1L, "Alice", "alice@example.com", "1111111111");
+        UserResponseDto u2 = new UserResponseDto(2L, "Alice Smith", "smith@example.com", "2222222222");
 
-        when(userRepository.findByNameContainingIgnoreCaseOrMobileNumberContaining(query, query))
-                .thenReturn(Arrays.asList(u1, u2));
+        when(userRepository.searchSummaries(query)).thenReturn(Arrays.asList(u1, u2));
         List<UserResponseDto> results = userService.searchUsers(query);
 
         assertEquals(2, results.size());